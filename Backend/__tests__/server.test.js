@@ -7,6 +7,7 @@ const GameRoom = require("../models/GameRoom.js").GameRoom;
 const Settings = require("../models/Settings.js");
 const GameManager = require("../models/GameManager.js");
 const Question = require("../models/Question.js");
+const WireCodecs = require("../models/WireCodecs.js");
 
 jest.mock("../models/UserDBManager.js");
 jest.mock("../models/GameManager.js");
@@ -151,6 +152,50 @@ describe("Server", () => {
       expect(clientB.connected).toBe(true);
       done();
     });
+
+    /**
+     * Input: A new socket connection
+     *
+     * Expected behaviour: Server advertises its optional protocol features
+     * Expected output: capabilities event listing changeSettings
+     */
+    it("should emit capabilities on connection", (done) => {
+      const client = io.connect("https://127.0.0.1:8081", {
+        reconnection: false,
+        "force new connection": true,
+        transports: ["websocket"],
+        rejectUnauthorized: false,
+        query: `sessionToken=${userA.sessionToken}`,
+      });
+
+      client.on("capabilities", (data) => {
+        expect(data.features).toContain("changeSettings");
+        expect(data.features).toContain("clockSync");
+        expect(data.features).toContain("emoteBatches");
+        // This client did not offer MessagePack in its handshake
+        expect(data.codecs).toEqual([]);
+        client.disconnect();
+        done();
+      });
+    });
+
+    /**
+     * Input: A clockPing carrying the client's send time
+     *
+     * Expected behaviour: Server answers with its current time
+     * Expected output: clockPong echoing clientSendTime, with a current serverTime
+     */
+    it("should answer clockPing with the server time", (done) => {
+      const before = Date.now();
+      clientA.emit("clockPing", { clientSendTime: 1234 });
+
+      clientA.on("clockPong", (data) => {
+        expect(data.clientSendTime).toEqual(1234);
+        expect(data.serverTime).toBeGreaterThanOrEqual(before);
+        expect(data.serverTime).toBeLessThanOrEqual(Date.now());
+        done();
+      });
+    });
   });
 
   describe("joinRoom event", () => {
@@ -177,7 +222,8 @@ describe("Server", () => {
      * Expected behaviour: Emit an error event
      * Expected output:
      * {
-     *   "message": "The room you are trying to join no longer exists."
+     *   "message": "The room you are trying to join no longer exists.",
+     *   "roomId": <roomId>
      * }
      */
     it("should emit error given a non-existent roomId", (done) => {
@@ -193,6 +239,7 @@ describe("Server", () => {
       clientA.on("error", (data) => {
         expect(data).toEqual({
           message: "The room you are trying to join no longer exists.",
+          roomId: roomA.roomId,
         });
         done();
       });
@@ -327,7 +374,8 @@ describe("Server", () => {
      * 
      * error event (example message)
         {
-          "message": "TypeError: cannot read properties of undefined (reading 'username')"
+          "message": "TypeError: cannot read properties of undefined (reading 'username')",
+          "roomId": <roomId>
         }
      *  
      */
@@ -347,6 +395,7 @@ describe("Server", () => {
       clientA.on("error", (data) => {
         expect(data).toEqual({
           message: errorMessage,
+          roomId: roomA.roomId,
         });
         done();
       });
@@ -862,6 +911,277 @@ describe("Server", () => {
     });
   });
 
+  describe("change Settings (batched) event", () => {
+    it("change Settings should broadcast every setting in one event to client A and B", (done) => {
+      // Message
+      const message = {
+        roomId: roomA.roomId,
+        settings: {
+          timeLimit: 15,
+          total: 20,
+          isPublic: false,
+        },
+      };
+
+      // Mock the room and the checkers
+      const spy = jest.spyOn(GameManager.prototype, "fetchRoomById");
+      spy.mockReturnValue(roomA);
+      jest.spyOn(GameManager.prototype, "isAnAnswerTime").mockReturnValue(true);
+      jest.spyOn(GameManager.prototype, "isANumberOfQuestions").mockReturnValue(true);
+
+      clientA.emit("changeSettings", message);
+
+      // make sure all players receive a single broadcast with every setting
+      let receive = 0;
+      const expectBatch = (data) => {
+        expect(spy).toHaveBeenCalledTimes(1);
+        expect(data).toEqual({ settings: message.settings });
+        ++receive;
+        if (receive === 2) done();
+      };
+      clientA.on("changedSettings", expectBatch);
+      clientB.on("changedSettings", expectBatch);
+      clientA.on("changedSetting", () => fail("Received an individual changedSetting"));
+    });
+
+    it("change Settings should apply the valid settings and report the invalid ones", (done) => {
+      // Message
+      const message = {
+        roomId: roomA.roomId,
+        settings: {
+          maxPlayers: 4,
+          booboo: 3,
+        },
+      };
+
+      // Mock the room and the checker
+      jest.spyOn(GameManager.prototype, "fetchRoomById").mockReturnValue(roomA);
+      jest.spyOn(GameManager.prototype, "isAMaxPlayers").mockReturnValue(true);
+
+      clientA.emit("changeSettings", message);
+
+      let receive = 0;
+      clientA.on("error", (data) => {
+        expect(data).toEqual({
+          message: "You have passed in an invalid settings configuration.",
+        });
+        ++receive;
+        if (receive === 2) done();
+      });
+      clientB.on("changedSettings", (data) => {
+        expect(data).toEqual({ settings: { maxPlayers: 4 } });
+        ++receive;
+        if (receive === 2) done();
+      });
+    });
+
+    it("change Settings should return error for missing settings", (done) => {
+      const message = {
+        roomId: roomA.roomId,
+      };
+
+      const spy = jest.spyOn(GameManager.prototype, "fetchRoomById");
+      spy.mockReturnValue(roomA);
+
+      clientA.emit("changeSettings", message);
+
+      clientA.on("error", (data) => {
+        expect(spy).toHaveBeenCalledTimes(1);
+        expect(data).toEqual({
+          message: "You have passed in invalid parameters.",
+        });
+        done();
+      });
+    });
+  });
+
+  describe("MessagePack wire format", () => {
+    let binaryClient;
+
+    beforeEach((done) => {
+      binaryClient = io.connect("https://127.0.0.1:8081", {
+        reconnection: false,
+        "force new connection": true,
+        transports: ["websocket"],
+        rejectUnauthorized: false,
+        query: `sessionToken=${userA.sessionToken}&codecs=msgpack`,
+      });
+      binaryClient.on("capabilities", (data) => {
+        expect(data.codecs).toEqual(["msgpack"]);
+        done();
+      });
+    });
+
+    afterEach(() => {
+      binaryClient.disconnect();
+    });
+
+    /**
+     * Input: A MessagePack clockPing from a client that offered MessagePack
+     *
+     * Expected behaviour: Server decodes the ping and encodes its answer
+     * Expected output: MessagePack clockPong echoing clientSendTime
+     */
+    it("should decode binary payloads and answer in MessagePack", (done) => {
+      binaryClient.emit(
+        "clockPing",
+        WireCodecs.encode("clockPing", { clientSendTime: 1760000000000 })
+      );
+
+      binaryClient.on("clockPong", (data) => {
+        expect(WireCodecs.isBinary(data)).toBe(true);
+        expect(WireCodecs.decode(data).clientSendTime).toEqual(1760000000000);
+        done();
+      });
+    });
+
+    /**
+     * Input: A payload that is not valid MessagePack
+     *
+     * Expected behaviour: Server drops the event
+     * Expected output: MessagePack error
+     */
+    it("should emit an error given an undecodable payload", (done) => {
+      binaryClient.emit("clockPing", Buffer.from("92a1", "hex"));
+
+      binaryClient.on("clockPong", () => fail("Handled an undecodable ping"));
+      binaryClient.on("error", (data) => {
+        expect(WireCodecs.decode(data)).toEqual({
+          message: "Undecodable payload",
+        });
+        done();
+      });
+    });
+
+    /**
+     * Input: A MessagePack client joins room A, then client A changes settings
+     *
+     * Expected behaviour: Each client receives the room's events in the format
+     *                     it negotiated
+     * Expected output: Positional welcomeNewPlayer and MessagePack changedSettings
+     *                  for the MessagePack client, JSON changedSettings for client A
+     */
+    it("should encode broadcasts for the clients that negotiated MessagePack", (done) => {
+      jest.spyOn(GameManager.prototype, "fetchRoomById").mockReturnValue(roomA);
+      jest.spyOn(GameManager.prototype, "isAnAnswerTime").mockReturnValue(true);
+
+      binaryClient.emit(
+        "joinRoom",
+        WireCodecs.encode("joinRoom", {
+          username: "username-C",
+          roomId: roomA.roomId,
+        })
+      );
+
+      let receive = 0;
+      binaryClient.on("welcomeNewPlayer", (data) => {
+        const [roomCode, roomPlayers] = WireCodecs.decode(data);
+        expect(roomCode).toBe(roomA.roomCode);
+        expect(roomPlayers.length).toBe(roomA.getPlayers().length);
+
+        clientA.emit("changeSettings", {
+          roomId: roomA.roomId,
+          settings: { timeLimit: 25 },
+        });
+      });
+      binaryClient.on("changedSettings", (data, seq) => {
+        expect(WireCodecs.decode(data)).toEqual({ settings: { timeLimit: 25 } });
+        expect(seq).toBe(roomA.eventSeq);
+        ++receive;
+        if (receive === 2) done();
+      });
+      clientA.on("changedSettings", (data) => {
+        expect(data).toEqual({ settings: { timeLimit: 25 } });
+        ++receive;
+        if (receive === 2) done();
+      });
+    });
+  });
+
+  describe("resumeSession event", () => {
+    it("joinRoom should hand the player a resume token and the current sequence number", (done) => {
+      jest.spyOn(GameManager.prototype, "fetchRoomById").mockReturnValue(roomA);
+
+      clientA.emit("joinRoom", {
+        roomId: roomA.roomId,
+        username: userA.username,
+      });
+
+      clientA.on("sessionResumable", (data) => {
+        expect(typeof data.resumeToken).toBe("string");
+        expect(data.resumeToken).toBe(playerA.resumeToken);
+        expect(data.seq).toBe(roomA.eventSeq);
+        done();
+      });
+    });
+
+    it("resumeSession should replay only the missed events, then confirm", (done) => {
+      jest.spyOn(GameManager.prototype, "fetchRoomById").mockReturnValue(roomA);
+      playerA.resumeToken = "resume-A";
+
+      const lastSeq = roomA.eventSeq;
+      roomA.recordEvent("changedSetting", { settingOption: "total", optionValue: 5 });
+      roomA.recordEvent("answerReceived", { playerUsername: userA.username }, userA.username);
+      roomA.recordEvent("playerReadyToStartGame", { playerUsername: userB.username });
+
+      const replayed = [];
+      clientA.on("changedSetting", (data, seq) => replayed.push(seq));
+      clientA.on("answerReceived", () => fail("Replayed an event the player sent"));
+      clientA.on("playerReadyToStartGame", (data, seq) => replayed.push(seq));
+      clientA.on("sessionResumed", (data) => {
+        expect(replayed).toEqual([lastSeq + 1, lastSeq + 3]);
+        expect(data).toEqual({ seq: lastSeq + 3, replayed: 2 });
+        done();
+      });
+
+      clientA.emit("resumeSession", {
+        roomId: roomA.roomId,
+        username: userA.username,
+        resumeToken: "resume-A",
+        lastSeq,
+      });
+    });
+
+    it("resumeSession should fail given the wrong resume token", (done) => {
+      jest.spyOn(GameManager.prototype, "fetchRoomById").mockReturnValue(roomA);
+      playerA.resumeToken = "resume-A";
+
+      clientA.emit("resumeSession", {
+        roomId: roomA.roomId,
+        username: userA.username,
+        resumeToken: "not-the-token",
+        lastSeq: 0,
+      });
+
+      clientA.on("resumeFailed", (data) => {
+        expect(data).toEqual({ reason: "unknownSession" });
+        done();
+      });
+    });
+
+    it("resumeSession should fail once the missed events are no longer logged", (done) => {
+      jest.spyOn(GameManager.prototype, "fetchRoomById").mockReturnValue(roomA);
+      playerA.resumeToken = "resume-A";
+
+      const lastSeq = roomA.eventSeq;
+      for (let i = 0; i < 300; i++) {
+        roomA.recordEvent("emoteReceived", { username: userB.username, emoteCode: 0 });
+      }
+
+      clientA.emit("resumeSession", {
+        roomId: roomA.roomId,
+        username: userA.username,
+        resumeToken: "resume-A",
+        lastSeq,
+      });
+
+      clientA.on("resumeFailed", (data) => {
+        expect(data).toEqual({ reason: "tooFarBehind" });
+        done();
+      });
+    });
+  });
+
   describe("readyToStartGame", () => {
     it("clientB sends readyToStartGame, everyone should receuve it", (done) => {
       // Message
@@ -970,6 +1290,11 @@ describe("Server", () => {
           ["0", "2", "11", "1"].slice().sort()
         );
         expect(data.answers[data.correctIndex]).toEqual("2");
+        expect(data.countdownEndsAt).toBeGreaterThan(Date.now());
+        expect(data.readingEndsAt).toBeGreaterThan(data.countdownEndsAt);
+        expect(data.answeringEndsAt).toEqual(
+          data.readingEndsAt + roomA.getTimeSetting() * 1000
+        );
         ++receive;
         if (receive === 2) done();
       });
@@ -1525,6 +1850,44 @@ describe("Server", () => {
         done();
       });
     });
+
+    it("clientA sends a run of emotes, everyone else should receive it as one", (done) => {
+      // Message
+      const message = {
+        roomId: roomA.roomId,
+        username: userA.username,
+        emoteCodes: [1, 4, 2],
+      };
+
+      clientA.emit("submitEmotes", message);
+
+      // make sure the run arrives as a single broadcast of its latest emote
+      clientB.on("emoteReceived", (data) => {
+        expect(data).toEqual({
+          username: userA.username,
+          emoteCode: 2,
+          count: 3,
+        });
+        done();
+      });
+    });
+
+    it("submitEmotes should return error for an empty run", (done) => {
+      const message = {
+        roomId: roomA.roomId,
+        username: userA.username,
+        emoteCodes: [],
+      };
+
+      clientA.emit("submitEmotes", message);
+
+      clientA.on("error", (data) => {
+        expect(data).toEqual({
+          message: "You have passed in invalid parameters.",
+        });
+        done();
+      });
+    });
   });
 
   describe("leaveRoom event", () => {
@@ -1,3 +1,6 @@
+// Number of recent broadcasts kept for replay to reconnecting players
+const EVENT_LOG_SIZE = 256;
+
 /**
  * A GameRoom is a place where users can gather before starting a game together.
  * It has settings that can be changed to customize the game.
@@ -52,6 +55,66 @@ class GameRoom {
     this.roomState = roomStateEnum.WAITING;
 
     this.actionsArray = [];
+
+    /**
+     * The sequence number of the last event broadcast to this room.
+     */
+    this.eventSeq = 0;
+
+    /**
+     * The most recent broadcasts to this room, oldest first, as
+     * { seq, event, payload, exceptUsername } entries. Used to replay the
+     * events a reconnecting player missed.
+     */
+    this.eventLog = [];
+  }
+
+  /* Event Log Functions */
+
+  /**
+   * Purpose: Records an event broadcast to the room and assigns it the next sequence number
+   * @param {String} [event]: The name of the event
+   * @param {Object} [payload]: The payload sent with the event
+   * @param {String} [exceptUsername]: A player the event was not sent to, if any
+   * @returns {Number} The sequence number of the event
+   *
+   * ChatGPT usage: No
+   */
+  recordEvent(event, payload, exceptUsername) {
+    this.eventSeq++;
+    this.eventLog.push({
+      seq: this.eventSeq,
+      event,
+      payload,
+      exceptUsername,
+    });
+    if (this.eventLog.length > EVENT_LOG_SIZE) {
+      this.eventLog.shift();
+    }
+    return this.eventSeq;
+  }
+
+  /**
+   * Purpose: Returns the events a player has not seen since a sequence number
+   * @param {Number} [lastSeq]: The sequence number of the last event the player saw
+   * @param {String} [username]: The player's username
+   * @returns {Array} The missed log entries, oldest first, or undefined if some of
+   *                  them are no longer in the log
+   *
+   * ChatGPT usage: No
+   */
+  eventsSince(lastSeq, username) {
+    if (typeof lastSeq !== "number" || lastSeq > this.eventSeq) {
+      return undefined;
+    }
+    const oldestSeq =
+      this.eventLog.length > 0 ? this.eventLog[0].seq : this.eventSeq + 1;
+    if (lastSeq < oldestSeq - 1) {
+      return undefined;
+    }
+    return this.eventLog.filter(
+      (entry) => entry.seq > lastSeq && entry.exceptUsername !== username
+    );
   }
 
   /* Interactions with Playing State of Game Functions */
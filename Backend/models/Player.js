@@ -42,6 +42,14 @@ class Player {
      * Whether this player is ready to start the game.
      */
     this.isReady = false;
+
+    /**
+     * The token that lets this player's client resume its session after a
+     * dropped connection, without rejoining the room.
+     *
+     * This field is null until the player's socket joins the room.
+     */
+    this.resumeToken = null;
   }
 
   /**
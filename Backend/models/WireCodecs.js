@@ -0,0 +1,548 @@
+// Name of the binary wire format, as clients list it in their handshake query
+const MSGPACK = "msgpack";
+
+/**
+ * Grows a byte buffer as MessagePack values are written to it.
+ */
+class MessagePackWriter {
+  constructor(initialCapacity = 256) {
+    this.buffer = Buffer.allocUnsafe(initialCapacity);
+    this.size = 0;
+  }
+
+  /**
+   * Purpose: Makes room for a number of further bytes
+   * @param {Number} length: the number of bytes about to be written
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  ensureCapacity(length) {
+    if (this.size + length <= this.buffer.length) {
+      return;
+    }
+    const grown = Buffer.allocUnsafe(
+      Math.max(this.buffer.length * 2, this.size + length)
+    );
+    this.buffer.copy(grown, 0, 0, this.size);
+    this.buffer = grown;
+  }
+
+  /**
+   * Purpose: Writes a type byte followed by a big-endian unsigned length of
+   *          0, 1, 2 or 4 bytes
+   * @param {Number} type: the type byte
+   * @param {Number} width: the number of length bytes
+   * @param {Number} [length]: the length
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  writeHeader(type, width, length) {
+    this.ensureCapacity(1 + width);
+    this.buffer[this.size++] = type;
+    if (width > 0) {
+      this.buffer.writeUIntBE(length, this.size, width);
+      this.size += width;
+    }
+  }
+
+  /**
+   * Purpose: Writes an integer in the smallest representation that holds it
+   * @param {Number} value: a safe integer
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  packInteger(value) {
+    if (value >= 0 && value < 0x80) {
+      this.writeHeader(value, 0);
+    } else if (value < 0 && value >= -32) {
+      this.writeHeader(value & 0xff, 0);
+    } else if (value >= 0 && value <= 0xff) {
+      this.writeHeader(0xcc, 1, value);
+    } else if (value >= 0 && value <= 0xffff) {
+      this.writeHeader(0xcd, 2, value);
+    } else if (value >= 0 && value <= 0xffffffff) {
+      this.writeHeader(0xce, 4, value);
+    } else if (value >= 0) {
+      this.writeHeader(0xcf, 0);
+      this.ensureCapacity(8);
+      this.buffer.writeBigUInt64BE(BigInt(value), this.size);
+      this.size += 8;
+    } else if (value >= -0x80) {
+      this.writeHeader(0xd0, 0);
+      this.ensureCapacity(1);
+      this.buffer.writeInt8(value, this.size++);
+    } else if (value >= -0x8000) {
+      this.writeHeader(0xd1, 0);
+      this.ensureCapacity(2);
+      this.buffer.writeInt16BE(value, this.size);
+      this.size += 2;
+    } else if (value >= -0x80000000) {
+      this.writeHeader(0xd2, 0);
+      this.ensureCapacity(4);
+      this.buffer.writeInt32BE(value, this.size);
+      this.size += 4;
+    } else {
+      this.writeHeader(0xd3, 0);
+      this.ensureCapacity(8);
+      this.buffer.writeBigInt64BE(BigInt(value), this.size);
+      this.size += 8;
+    }
+  }
+
+  /**
+   * Purpose: Writes a number, as an integer when it is one and a double otherwise
+   * @param {Number} value: the number
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  packNumber(value) {
+    if (Number.isSafeInteger(value)) {
+      this.packInteger(value);
+    } else {
+      this.writeHeader(0xcb, 0);
+      this.ensureCapacity(8);
+      this.buffer.writeDoubleBE(value, this.size);
+      this.size += 8;
+    }
+  }
+
+  /**
+   * Purpose: Writes a UTF-8 string
+   * @param {String} value: the string
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  packString(value) {
+    const length = Buffer.byteLength(value, "utf8");
+    if (length < 32) {
+      this.writeHeader(0xa0 | length, 0);
+    } else if (length <= 0xff) {
+      this.writeHeader(0xd9, 1, length);
+    } else if (length <= 0xffff) {
+      this.writeHeader(0xda, 2, length);
+    } else {
+      this.writeHeader(0xdb, 4, length);
+    }
+    this.ensureCapacity(length);
+    this.size += this.buffer.write(value, this.size, length, "utf8");
+  }
+
+  /**
+   * Purpose: Writes the header of an array of a number of values
+   * @param {Number} length: the number of values that follow
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  packArrayHeader(length) {
+    if (length < 16) {
+      this.writeHeader(0x90 | length, 0);
+    } else if (length <= 0xffff) {
+      this.writeHeader(0xdc, 2, length);
+    } else {
+      this.writeHeader(0xdd, 4, length);
+    }
+  }
+
+  /**
+   * Purpose: Writes the header of a map of a number of key and value pairs
+   * @param {Number} length: the number of pairs that follow
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  packMapHeader(length) {
+    if (length < 16) {
+      this.writeHeader(0x80 | length, 0);
+    } else if (length <= 0xffff) {
+      this.writeHeader(0xde, 2, length);
+    } else {
+      this.writeHeader(0xdf, 4, length);
+    }
+  }
+
+  /**
+   * Purpose: Writes any JSON value. Object fields are written by name and, as in
+   *          JSON, fields that are undefined are left out.
+   * @param {*} value: the value
+   * @return None
+   *
+   * ChatGPT usage: No
+   */
+  packValue(value) {
+    if (value === null || value === undefined) {
+      this.writeHeader(0xc0, 0);
+    } else if (typeof value === "boolean") {
+      this.writeHeader(value ? 0xc3 : 0xc2, 0);
+    } else if (typeof value === "number") {
+      this.packNumber(value);
+    } else if (typeof value === "string") {
+      this.packString(value);
+    } else if (Array.isArray(value)) {
+      this.packArrayHeader(value.length);
+      for (const item of value) {
+        this.packValue(item);
+      }
+    } else if (typeof value === "object") {
+      const fields = Object.entries(value).filter(
+        ([, field]) => field !== undefined
+      );
+      this.packMapHeader(fields.length);
+      for (const [key, field] of fields) {
+        this.packString(key);
+        this.packValue(field);
+      }
+    } else {
+      this.packString(String(value));
+    }
+  }
+
+  /**
+   * Purpose: Returns the bytes written so far
+   * @param None
+   * @return {Buffer} A copy of the written bytes
+   *
+   * ChatGPT usage: No
+   */
+  toBuffer() {
+    return Buffer.from(this.buffer.subarray(0, this.size));
+  }
+}
+
+/**
+ * Reads MessagePack values from a byte buffer, in order.
+ */
+class MessagePackReader {
+  constructor(buffer) {
+    this.buffer = buffer;
+    this.position = 0;
+  }
+
+  /**
+   * Purpose: Reads a big-endian unsigned integer of 1, 2 or 4 bytes
+   * @param {Number} width: the number of bytes
+   * @return {Number} The integer
+   *
+   * ChatGPT usage: No
+   */
+  readLength(width) {
+    const length = this.buffer.readUIntBE(this.position, width);
+    this.position += width;
+    return length;
+  }
+
+  /**
+   * Purpose: Reads a UTF-8 string of a number of bytes
+   * @param {Number} length: the number of bytes
+   * @return {String} The string
+   *
+   * ChatGPT usage: No
+   */
+  readString(length) {
+    if (this.position + length > this.buffer.length) {
+      throw new RangeError("Truncated MessagePack string");
+    }
+    const value = this.buffer.toString(
+      "utf8",
+      this.position,
+      this.position + length
+    );
+    this.position += length;
+    return value;
+  }
+
+  /**
+   * Purpose: Reads a number of values into an array
+   * @param {Number} length: the number of values
+   * @return {Array} The values
+   *
+   * ChatGPT usage: No
+   */
+  readArray(length) {
+    const array = [];
+    for (let i = 0; i < length; i++) {
+      array.push(this.unpackValue());
+    }
+    return array;
+  }
+
+  /**
+   * Purpose: Reads a number of key and value pairs into an object
+   * @param {Number} length: the number of pairs
+   * @return {Object} The object
+   *
+   * ChatGPT usage: No
+   */
+  readMap(length) {
+    const object = {};
+    for (let i = 0; i < length; i++) {
+      const key = this.unpackValue();
+      object[String(key)] = this.unpackValue();
+    }
+    return object;
+  }
+
+  /**
+   * Purpose: Reads a 64-bit integer, which must fit in a safe JavaScript integer
+   * @param {Boolean} signed: whether the integer is signed
+   * @return {Number} The integer
+   *
+   * ChatGPT usage: No
+   */
+  readLong(signed) {
+    const value = signed
+      ? this.buffer.readBigInt64BE(this.position)
+      : this.buffer.readBigUInt64BE(this.position);
+    this.position += 8;
+    if (
+      value > BigInt(Number.MAX_SAFE_INTEGER) ||
+      value < BigInt(Number.MIN_SAFE_INTEGER)
+    ) {
+      throw new RangeError("MessagePack integer out of range");
+    }
+    return Number(value);
+  }
+
+  /**
+   * Purpose: Reads the next value, of any type
+   * @param None
+   * @return {*} The value; maps become objects and binary data a Buffer
+   *
+   * ChatGPT usage: No
+   */
+  unpackValue() {
+    if (this.position >= this.buffer.length) {
+      throw new RangeError("Truncated MessagePack value");
+    }
+    const type = this.buffer[this.position++];
+
+    if (type <= 0x7f) return type;
+    if (type >= 0xe0) return type - 0x100;
+    if ((type & 0xf0) === 0x80) return this.readMap(type & 0x0f);
+    if ((type & 0xf0) === 0x90) return this.readArray(type & 0x0f);
+    if ((type & 0xe0) === 0xa0) return this.readString(type & 0x1f);
+
+    let value;
+    switch (type) {
+      case 0xc0:
+        return null;
+      case 0xc2:
+        return false;
+      case 0xc3:
+        return true;
+      case 0xc4:
+      case 0xc5:
+      case 0xc6: {
+        const length = this.readLength(1 << (type - 0xc4));
+        value = Buffer.from(
+          this.buffer.subarray(this.position, this.position + length)
+        );
+        this.position += length;
+        return value;
+      }
+      case 0xca:
+        value = this.buffer.readFloatBE(this.position);
+        this.position += 4;
+        return value;
+      case 0xcb:
+        value = this.buffer.readDoubleBE(this.position);
+        this.position += 8;
+        return value;
+      case 0xcc:
+        return this.readLength(1);
+      case 0xcd:
+        return this.readLength(2);
+      case 0xce:
+        return this.readLength(4);
+      case 0xcf:
+        return this.readLong(false);
+      case 0xd0:
+        value = this.buffer.readInt8(this.position);
+        this.position += 1;
+        return value;
+      case 0xd1:
+        value = this.buffer.readInt16BE(this.position);
+        this.position += 2;
+        return value;
+      case 0xd2:
+        value = this.buffer.readInt32BE(this.position);
+        this.position += 4;
+        return value;
+      case 0xd3:
+        return this.readLong(true);
+      case 0xd9:
+        return this.readString(this.readLength(1));
+      case 0xda:
+        return this.readString(this.readLength(2));
+      case 0xdb:
+        return this.readString(this.readLength(4));
+      case 0xdc:
+        return this.readArray(this.readLength(2));
+      case 0xdd:
+        return this.readArray(this.readLength(4));
+      case 0xde:
+        return this.readMap(this.readLength(2));
+      case 0xdf:
+        return this.readMap(this.readLength(4));
+      default:
+        throw new RangeError(
+          "Unsupported MessagePack type 0x" + type.toString(16)
+        );
+    }
+  }
+}
+
+/**
+ * Positional encoders for the events clients decode straight into their own
+ * records. They mirror the client's StartQuestionCodec, ShowScoreboardCodec and
+ * WelcomeNewPlayerCodec; every other event is written as a map of its fields.
+ */
+const POSITIONAL_ENCODERS = {
+  // [question, [answers...], correctIndex,
+  //  [countdownEndsAt, readingEndsAt, answeringEndsAt]?]
+  startQuestion: (payload, writer) => {
+    const deadlines = payload.answeringEndsAt !== undefined;
+    writer.packArrayHeader(deadlines ? 4 : 3);
+    writer.packString(payload.question);
+    writer.packArrayHeader(payload.answers.length);
+    for (const answer of payload.answers) {
+      writer.packString(String(answer));
+    }
+    writer.packInteger(payload.correctIndex);
+    if (deadlines) {
+      writer.packArrayHeader(3);
+      writer.packInteger(payload.countdownEndsAt);
+      writer.packInteger(payload.readingEndsAt);
+      writer.packInteger(payload.answeringEndsAt);
+    }
+  },
+
+  // [[username, pointsEarned, updatedTotalPoints, stolenPoints]...]
+  showScoreboard: (payload, writer) => {
+    writer.packArrayHeader(payload.scores.length);
+    for (const score of payload.scores) {
+      writer.packArrayHeader(4);
+      writer.packString(score.username);
+      writer.packInteger(score.pointsEarned || 0);
+      writer.packInteger(score.updatedTotalPoints);
+      writer.packValue(score.stolenPoints === true);
+    }
+  },
+
+  // [roomCode, [[username, rank, isReady]...],
+  //  [roomIsPublic, questionDifficulty, maxPlayers, questionTime,
+  //   totalQuestions, [categories...]],
+  //  [possibleCategories...]]
+  welcomeNewPlayer: (payload, writer) => {
+    writer.packArrayHeader(4);
+    writer.packString(payload.roomCode);
+
+    writer.packArrayHeader(payload.roomPlayers.length);
+    for (const player of payload.roomPlayers) {
+      writer.packArrayHeader(3);
+      writer.packString(player.username);
+      writer.packInteger(player.rank || 0);
+      writer.packValue(player.isReady === true);
+    }
+
+    const settings = payload.roomSettings;
+    writer.packArrayHeader(6);
+    writer.packValue(settings.roomIsPublic);
+    writer.packString(settings.questionDifficulty);
+    writer.packInteger(settings.maxPlayers);
+    writer.packInteger(settings.questionTime);
+    writer.packInteger(settings.totalQuestions);
+    writer.packValue(settings.questionCategories);
+
+    writer.packValue(payload.possibleCategories);
+  },
+};
+
+/**
+ * Purpose: Checks whether a client offered MessagePack in its handshake query
+ * @param {String|String[]} [codecs]: the codecs query parameter, a comma-separated list
+ * @return true if the client can send and receive MessagePack payloads
+ *
+ * ChatGPT usage: No
+ */
+const offersMsgpack = (codecs) => {
+  if (codecs === undefined || codecs === null) {
+    return false;
+  }
+  return []
+    .concat(codecs)
+    .join(",")
+    .split(",")
+    .some((codec) => codec.trim() === MSGPACK);
+};
+
+/**
+ * Purpose: Encodes an event's payload as MessagePack, positionally for the events
+ *          that have a codec of their own and as a map of fields otherwise
+ * @param {String} event: the name of the event
+ * @param {Object} payload: the payload of the event
+ * @return {Buffer} The encoded payload
+ *
+ * ChatGPT usage: No
+ */
+const encode = (event, payload) => {
+  const writer = new MessagePackWriter();
+  const encoder = POSITIONAL_ENCODERS[event];
+  if (encoder !== undefined) {
+    encoder(payload, writer);
+  } else {
+    writer.packValue(payload);
+  }
+  return writer.toBuffer();
+};
+
+/**
+ * Purpose: Decodes a MessagePack payload sent by a client
+ * @param {Buffer|ArrayBuffer|Uint8Array} payload: the encoded payload
+ * @return {*} The decoded value, an object for a client's event fields
+ * @throws {RangeError} If the payload is truncated or uses an unsupported type
+ *
+ * ChatGPT usage: No
+ */
+const decode = (payload) => {
+  const buffer = Buffer.isBuffer(payload)
+    ? payload
+    : Buffer.from(
+        payload.buffer || payload,
+        payload.byteOffset,
+        payload.byteLength
+      );
+  const reader = new MessagePackReader(buffer);
+  const value = reader.unpackValue();
+  if (reader.position !== buffer.length) {
+    throw new RangeError("Trailing bytes after MessagePack value");
+  }
+  return value;
+};
+
+/**
+ * Purpose: Checks whether a socket payload is binary, as MessagePack payloads are
+ * @param {*} payload: a payload received from a socket
+ * @return true if the payload is binary data
+ *
+ * ChatGPT usage: No
+ */
+const isBinary = (payload) =>
+  Buffer.isBuffer(payload) ||
+  payload instanceof ArrayBuffer ||
+  ArrayBuffer.isView(payload);
+
+module.exports = {
+  MSGPACK,
+  MessagePackWriter,
+  MessagePackReader,
+  offersMsgpack,
+  encode,
+  decode,
+  isBinary,
+};
@@ -1,11 +1,13 @@
 // Third-party modules
 const fs = require("fs");
 const https = require("https");
+const { v4: uuidv4 } = require("uuid");
 
 // Custom application modules
 const { app, gameManager, userDBManager } = require("./app.js");
 const db = require("./Database/dbSetup.js");
 const PlayerAction = require("./models/PlayerAction.js");
+const WireCodecs = require("./models/WireCodecs.js");
 
 // Read the SSL certificate files from the current directory
 const privateKey = fs.readFileSync("./key.pem", "utf8");
@@ -29,22 +31,110 @@ const server = httpsServer.listen(8081, "0.0.0.0", async () => {
 // Delay between start of game and question
 const SHOW_SCOREBOARD_MILLISECONDS = 5000;
 
+// Length of the countdown before a question, and of the reading time before its answers are shown
+const QUESTION_COUNTDOWN_MILLISECONDS = 5000;
+const QUESTION_READING_MILLISECONDS = 5000;
+
+// Optional protocol features advertised to clients in the capabilities event.
+// A client is only offered the codecs it listed in its handshake query.
+const SERVER_CAPABILITIES = {
+  codecs: [WireCodecs.MSGPACK],
+  features: ["changeSettings", "clockSync", "emoteBatches"],
+};
+
+// The most emotes a single submitEmotes message may carry
+const MAX_EMOTE_BATCH = 10;
+
 const io = require("socket.io")(server, {
   cors: {
     origin: "*",
   },
 });
 
+/**
+ * Purpose: Sends an event to one client, encoded as MessagePack if the client
+ *          negotiated it and as JSON otherwise
+ * @param {Socket} socket: the client's socket
+ * @param {String} event: the name of the event
+ * @param {Object} payload: the payload of the event
+ * @param {Number} [seq]: the event's sequence number, sent as a second argument
+ * @param {Buffer} [encoded]: the payload already encoded as MessagePack
+ * @return None
+ *
+ * ChatGPT usage: No
+ */
+const emitToSocket = (socket, event, payload, seq, encoded) => {
+  let message = payload;
+  if (socket.data.binaryWire) {
+    message =
+      encoded !== undefined ? encoded : WireCodecs.encode(event, payload);
+  }
+  if (seq === undefined) {
+    socket.emit(event, message);
+  } else {
+    socket.emit(event, message, seq);
+  }
+};
+
+/**
+ * Purpose: Sends an event to every client in a socket room, each in the wire
+ *          format it negotiated. The payload is encoded at most once.
+ * @param {String} roomId: the id of the socket room
+ * @param {String} event: the name of the event
+ * @param {Object} payload: the payload of the event
+ * @param {Number} [seq]: the event's sequence number, sent as a second argument
+ * @param {Socket} [exceptSocket]: a socket that should not receive it
+ * @return None
+ *
+ * ChatGPT usage: No
+ */
+const emitToRoom = (roomId, event, payload, seq, exceptSocket) => {
+  const socketIds = io.sockets.adapter.rooms.get(roomId);
+  if (socketIds === undefined) {
+    return;
+  }
+
+  let encoded;
+  for (const socketId of socketIds) {
+    const member = io.sockets.sockets.get(socketId);
+    if (member === undefined || member === exceptSocket) {
+      continue;
+    }
+    if (member.data.binaryWire && encoded === undefined) {
+      encoded = WireCodecs.encode(event, payload);
+    }
+    emitToSocket(member, event, payload, seq, encoded);
+  }
+};
+
+/**
+ * Purpose: Sends an event to the players in a room and records it in the room's
+ *          event log, so that a player who reconnects can have it replayed.
+ *          The event's sequence number is sent as a second argument.
+ * @param {GameRoom} room: the game room to broadcast to
+ * @param {String} event: the name of the event
+ * @param {Object} payload: the payload of the event
+ * @param {Socket} [exceptSocket]: the socket of a player who should not receive it
+ * @param {String} [exceptUsername]: the username of that player
+ * @return None
+ *
+ * ChatGPT usage: No
+ */
+const broadcastToRoom = (room, event, payload, exceptSocket, exceptUsername) => {
+  const seq = room.recordEvent(event, payload, exceptUsername);
+  emitToRoom(room.roomId, event, payload, seq, exceptSocket);
+};
+
 /**
  * Purpose: Sends the next question to the client
  * @param {Socket} socket : one of sokcets in the gameRoom
- * @param {String} roomCode: the room code of the game room
- * @param {String} roomId: the socket room id of the game room
+ * @param {GameRoom} room: the game room
  * @return None
  *
  * ChatGPT usage: No
  */
-const sendQuestion = (socket, roomCode, roomId) => {
+const sendQuestion = (socket, room) => {
+  const roomCode = room.roomCode;
   try {
     gameManager.resetResponses(roomCode);
     const questionObject = gameManager.fetchNextQuestion(roomCode);
@@ -58,18 +148,108 @@ const sendQuestion = (socket, roomCode, roomId) => {
     answers.sort(() => Math.random() - 0.5);
 
     const correctIndex = answers.indexOf(correctAnswer);
-    const questionData = { question, answers, correctIndex };
 
-    socket.to(roomId).emit("startQuestion", questionData);
-    socket.emit("startQuestion", questionData);
+    // Phase deadlines on the server clock, so every client reveals the answers at the same instant
+    const countdownEndsAt = Date.now() + QUESTION_COUNTDOWN_MILLISECONDS;
+    const readingEndsAt = countdownEndsAt + QUESTION_READING_MILLISECONDS;
+    const answeringEndsAt = readingEndsAt + room.getTimeSetting() * 1000;
+
+    const questionData = {
+      question,
+      answers,
+      correctIndex,
+      countdownEndsAt,
+      readingEndsAt,
+      answeringEndsAt,
+    };
+
+    broadcastToRoom(room, "startQuestion", questionData);
 
     console.log(JSON.stringify(questionData));
   } catch (err) {
     console.log(err);
-    socket.emit("error", { message: "Error in sending question" });
+    emitToSocket(socket, "error", { message: "Error in sending question" });
   }
 };
 
+/**
+ * Purpose: Validates one setting change and applies it to the room
+ * @param {GameRoom} room: the game room whose settings are changing
+ * @param {String} settingOption: the setting to change
+ * @param {*} optionValue: the new value of the setting
+ * @return true if the setting was valid and applied, false otherwise
+ *
+ * ChatGPT usage: No
+ */
+const applySetting = (room, settingOption, optionValue) => {
+  let error = false;
+
+  switch (true) {
+    case settingOption === "isPublic":
+      if (optionValue !== true && optionValue !== false) {
+        error = true;
+      } else {
+        room.updateSetting("isPublic", optionValue);
+      }
+      break;
+
+    case settingOption.startsWith("category-"):
+      if (optionValue !== true && optionValue !== false) {
+        error = true;
+      } else {
+        const categoryName = settingOption.split("-")[1];
+        if (!gameManager.isACategory(categoryName)) {
+          error = true;
+        } else {
+          if (optionValue) {
+            room.updateSetting("add-category", categoryName);
+          } else {
+            room.updateSetting("remove-category", categoryName);
+          }
+        }
+      }
+      break;
+
+    case settingOption === "difficulty":
+      if (!gameManager.isADifficulty(optionValue)) {
+        error = true;
+      } else {
+        room.updateSetting("difficulty", optionValue);
+      }
+      break;
+
+    case settingOption === "maxPlayers":
+      if (!gameManager.isAMaxPlayers(optionValue)) {
+        error = true;
+      } else {
+        room.updateSetting("maxPlayers", optionValue);
+      }
+      break;
+
+    case settingOption === "timeLimit":
+      if (!gameManager.isAnAnswerTime(optionValue)) {
+        error = true;
+      } else {
+        room.updateSetting("time", optionValue);
+      }
+      break;
+
+    case settingOption === "total":
+      if (!gameManager.isANumberOfQuestions(optionValue)) {
+        error = true;
+      } else {
+        room.updateSetting("total", optionValue);
+      }
+      break;
+
+    default:
+      error = true;
+      break;
+  }
+
+  return !error;
+};
+
 /**
  * Purpose: Handles socket connections
  * ChatGPT usage: No
@@ -77,6 +257,50 @@ const sendQuestion = (socket, roomCode, roomId) => {
 io.on("connection", (socket) => {
   console.log("A user connected");
 
+  // Use MessagePack with clients that offered it in their handshake
+  socket.data.binaryWire = WireCodecs.offersMsgpack(
+    socket.handshake.query.codecs
+  );
+
+  // Tell the client which optional protocol features it may use. This event is
+  // always JSON, since it is how the client learns whether to use MessagePack.
+  socket.emit("capabilities", {
+    ...SERVER_CAPABILITIES,
+    codecs: SERVER_CAPABILITIES.codecs.filter(
+      (codec) => codec !== WireCodecs.MSGPACK || socket.data.binaryWire
+    ),
+  });
+
+  /**
+   * Purpose: Decodes the MessagePack payloads of a client's events before any
+   *          handler sees them, so handlers only ever read plain objects
+   * ChatGPT usage: No
+   */
+  socket.use((packet, next) => {
+    if (packet.length > 1 && WireCodecs.isBinary(packet[1])) {
+      try {
+        packet[1] = WireCodecs.decode(packet[1]);
+      } catch (err) {
+        console.log(err);
+        emitToSocket(socket, "error", { message: "Undecodable payload" });
+        return;
+      }
+    }
+    next();
+  });
+
+  /**
+   * Purpose: Answers a clock synchronization ping with the server's current time,
+   *          echoing the client's send time so it can measure the round trip
+   * ChatGPT usage: No
+   */
+  socket.on("clockPing", (message) => {
+    emitToSocket(socket, "clockPong", {
+      clientSendTime: message.clientSendTime,
+      serverTime: Date.now(),
+    });
+  });
+
   const sessionToken = socket.handshake.query.sessionToken;
   console.log("Checking their session token: " + sessionToken);
 
@@ -105,9 +329,12 @@ io.on("connection", (socket) => {
     const username = message.username;
     const room = gameManager.fetchRoomById(message.roomId);
 
+    // Both refusals name the room, so that a client reusing its connection
+    // can tell them from errors left over from the room it was in before
     if (room === undefined) {
-      socket.emit("error", {
+      emitToSocket(socket, "error", {
         message: "The room you are trying to join no longer exists.",
+        roomId: message.roomId,
       });
       return;
     }
@@ -147,21 +374,81 @@ io.on("connection", (socket) => {
       socket.join(room.roomId);
 
       // Send Room Data to Player
-      socket.emit("welcomeNewPlayer", {
+      emitToSocket(socket, "welcomeNewPlayer", {
         roomPlayers: playersJson,
         roomSettings,
         possibleCategories: gameManager.possibleCategories,
         roomCode: room.roomCode,
       });
 
+      // Let the player resume this session if their connection drops. The
+      // room data above is current as of the room's latest event.
+      const player = room.getPlayer(username);
+      if (player !== undefined) {
+        player.resumeToken = uuidv4();
+        emitToSocket(socket, "sessionResumable", {
+          resumeToken: player.resumeToken,
+          seq: room.eventSeq,
+        });
+      }
+
       // Notify players in the room that a new player has joined
-      socket.to(message.roomId).emit("playerJoined", {
-        newPlayerUsername: username,
-        newPlayerRank,
-      });
+      broadcastToRoom(
+        room,
+        "playerJoined",
+        {
+          newPlayerUsername: username,
+          newPlayerRank,
+        },
+        socket,
+        username
+      );
     } catch (err) {
-      socket.emit("error", { message: err.message });
+      emitToSocket(socket, "error", {
+        message: err.message,
+        roomId: message.roomId,
+      });
+    }
+  });
+
+  /**
+   * Purpose: Reattaches a reconnecting client to its room without rejoining,
+   *          replaying only the room events it missed while disconnected
+   * ChatGPT usage: No
+   */
+  socket.on("resumeSession", (message) => {
+    console.log("Resuming session...");
+
+    const room = gameManager.fetchRoomById(message.roomId);
+    const player =
+      room === undefined ? undefined : room.getPlayer(message.username);
+
+    if (
+      player === undefined ||
+      player.resumeToken === null ||
+      player.resumeToken !== message.resumeToken
+    ) {
+      emitToSocket(socket, "resumeFailed", { reason: "unknownSession" });
+      return;
+    }
+
+    const missedEvents = room.eventsSince(message.lastSeq, message.username);
+    if (missedEvents === undefined) {
+      // Too much was missed to replay; the client rejoins instead
+      emitToSocket(socket, "resumeFailed", { reason: "tooFarBehind" });
+      return;
+    }
+
+    player.setSocketId(socket.id);
+    socket.join(room.roomId);
+
+    for (const entry of missedEvents) {
+      emitToSocket(socket, entry.event, entry.payload, entry.seq);
     }
+    emitToSocket(socket, "sessionResumed", {
+      seq: room.eventSeq,
+      replayed: missedEvents.length,
+    });
   });
 
   /**
@@ -177,7 +464,7 @@ io.on("connection", (socket) => {
 
     try {
       if (room === undefined)
-        socket.emit("error", { message: "Invalid roomId" });
+        emitToSocket(socket, "error", { message: "Invalid roomId" });
 
       if (room.isGameMaster(username)) {
         // Now remove all players from room.
@@ -202,7 +489,7 @@ io.on("connection", (socket) => {
 
         if (!success) {
           console.log("Could not remove room with id " + room.roomId);
-          socket.emit("error", {
+          emitToSocket(socket, "error", {
             message: "Could not remove room with id " + room.roomId,
           });
         }
@@ -219,18 +506,18 @@ io.on("connection", (socket) => {
 
         // Notify other players still in the room that a player
         // has left
-        io.in(roomId).emit("playerLeft", {
+        broadcastToRoom(room, "playerLeft", {
           playerUsername: username,
           reason: "left",
         });
 
         // Notify the player who left that their request has been fulfilled.
-        playerSocket.emit("removedFromRoom", {
+        emitToSocket(playerSocket, "removedFromRoom", {
           reason: "left",
         });
       }
     } catch (err) {
-      socket.emit("error", { message: err.message });
+      emitToSocket(socket, "error", { message: err.message });
     }
   });
 
@@ -251,88 +538,73 @@ io.on("connection", (socket) => {
       settingOption === undefined ||
       optionValue === undefined
     ) {
-      socket.emit("error", {
+      emitToSocket(socket, "error", {
         message: "You have passed in invalid parameters.",
       });
       return;
     }
 
-    let error = false;
+    const error = !applySetting(room, settingOption, optionValue);
 
-    switch (true) {
-      case settingOption === "isPublic":
-        if (optionValue !== true && optionValue !== false) {
-          error = true;
-        } else {
-          room.updateSetting("isPublic", optionValue);
-        }
-        break;
-
-      case settingOption.startsWith("category-"):
-        if (optionValue !== true && optionValue !== false) {
-          error = true;
-        } else {
-          const categoryName = settingOption.split("-")[1];
-          if (!gameManager.isACategory(categoryName)) {
-            error = true;
-          } else {
-            if (optionValue) {
-              room.updateSetting("add-category", categoryName);
-            } else {
-              room.updateSetting("remove-category", categoryName);
-            }
-          }
-        }
-        break;
+    if (error) {
+      // Only inform client, the game room owner, of error
+      emitToSocket(socket, "error", {
+        message: "You have passed in an invalid settings configuration.",
+      });
+    } else {
+      // Sends the updated setting to all players, including the game room owner
+      broadcastToRoom(room, "changedSetting", {
+        settingOption,
+        optionValue,
+      });
+    }
+  });
 
-      case settingOption === "difficulty":
-        if (!gameManager.isADifficulty(optionValue)) {
-          error = true;
-        } else {
-          room.updateSetting("difficulty", optionValue);
-        }
-        break;
+  /**
+   * Purpose: Updates several settings of the room at once, broadcasting them
+   *          to the room as a single changedSettings event
+   * ChatGPT usage: No
+   */
+  socket.on("changeSettings", (message) => {
+    console.log("Changing several game settings...");
 
-      case settingOption === "maxPlayers":
-        if (!gameManager.isAMaxPlayers(optionValue)) {
-          error = true;
-        } else {
-          room.updateSetting("maxPlayers", optionValue);
-        }
-        break;
+    const room = gameManager.fetchRoomById(message.roomId);
+    const settings = message.settings;
 
-      case settingOption === "timeLimit":
-        if (!gameManager.isAnAnswerTime(optionValue)) {
-          error = true;
-        } else {
-          room.updateSetting("time", optionValue);
-        }
-        break;
+    if (
+      room === undefined ||
+      settings === undefined ||
+      settings === null ||
+      typeof settings !== "object" ||
+      Object.keys(settings).length === 0
+    ) {
+      emitToSocket(socket, "error", {
+        message: "You have passed in invalid parameters.",
+      });
+      return;
+    }
 
-      case settingOption === "total":
-        if (!gameManager.isANumberOfQuestions(optionValue)) {
-          error = true;
-        } else {
-          room.updateSetting("total", optionValue);
-        }
-        break;
+    const applied = {};
+    let error = false;
 
-      default:
+    for (const [settingOption, optionValue] of Object.entries(settings)) {
+      if (optionValue !== undefined && applySetting(room, settingOption, optionValue)) {
+        applied[settingOption] = optionValue;
+      } else {
         error = true;
-        break;
+      }
     }
 
     if (error) {
       // Only inform client, the game room owner, of error
-      socket.emit("error", {
+      emitToSocket(socket, "error", {
         message: "You have passed in an invalid settings configuration.",
       });
-    } else {
-      // Sends the updated setting to all players, including the game room owner
-      io.in(room.roomId).emit("changedSetting", {
-        settingOption,
-        optionValue,
-      });
+    }
+
+    if (Object.keys(applied).length > 0) {
+      // Sends every applied setting to all players in one broadcast
+      broadcastToRoom(room, "changedSettings", { settings: applied });
     }
   });
 
@@ -359,13 +631,13 @@ io.on("connection", (socket) => {
         }
       }
 
-      io.in(roomId).emit("playerReadyToStartGame", {
+      broadcastToRoom(room, "playerReadyToStartGame", {
         playerUsername: username,
       });
     } catch (err) {
       console.log(err);
 
-      socket.emit("error", { message: "Invalid roomId" });
+      emitToSocket(socket, "error", { message: "Invalid roomId" });
     }
   });
 
@@ -379,7 +651,7 @@ io.on("connection", (socket) => {
     const room = gameManager.fetchRoomById(roomId);
 
     if (room === undefined) {
-      socket.emit("error", { message: "Invalid roomId" });
+      emitToSocket(socket, "error", { message: "Invalid roomId" });
       return;
     } else {
       const roomCode = room.roomCode;
@@ -387,15 +659,17 @@ io.on("connection", (socket) => {
         .generateQuestions(roomCode)
         .then(() => {
           if (room.gameQuestions.length === 0) {
-            socket.emit("error", { message: "No Questions Generated" });
+            emitToSocket(socket, "error", {
+              message: "No Questions Generated",
+            });
             return;
           } else {
             gameManager.updateRoomState(roomCode);
-            sendQuestion(socket, roomCode, roomId);
+            sendQuestion(socket, room);
           }
         })
         .catch((errCode) => {
-          socket.emit("error", { message: "No Categories Selected" });
+          emitToSocket(socket, "error", { message: "No Categories Selected" });
         });
     }
   });
@@ -416,7 +690,13 @@ io.on("connection", (socket) => {
       const room = gameManager.fetchRoomById(roomId);
       const roomCode = room.roomCode;
 
-      socket.to(roomId).emit("answerReceived", { playerUsername });
+      broadcastToRoom(
+        room,
+        "answerReceived",
+        { playerUsername },
+        socket,
+        playerUsername
+      );
 
       const newAnswer = new PlayerAction(
         message.username,
@@ -454,18 +734,16 @@ io.on("connection", (socket) => {
 
           const scoresData = { scores };
 
-          socket.to(roomId).emit("showScoreboard", scoresData);
-          socket.emit("showScoreboard", scoresData);
+          broadcastToRoom(room, "showScoreboard", scoresData);
 
           // If no remaiing questiosns, end game, else send next questions
           if (gameManager.fetchQuestionsQuantity(roomCode) !== 0) {
             setTimeout(() => {
-              sendQuestion(socket, roomCode, roomId);
+              sendQuestion(socket, room);
             }, SHOW_SCOREBOARD_MILLISECONDS);
           } else {
             setTimeout(() => {
-              socket.to(roomId).emit("endGame", { scores: totalScores });
-              socket.emit("endGame", { scores: totalScores });
+              broadcastToRoom(room, "endGame", { scores: totalScores });
             }, SHOW_SCOREBOARD_MILLISECONDS);
 
             // Update ranks in user profile of all players
@@ -522,14 +800,14 @@ io.on("connection", (socket) => {
             }
           }
         } else {
-          io.in(roomId).emit("error", {
+          emitToRoom(roomId, "error", {
             message: "Error in calculating scores",
           });
         }
       }
     } catch (err) {
       console.log(err);
-      socket.emit("error", { message: "Bad Answer Submission" });
+      emitToSocket(socket, "error", { message: "Bad Answer Submission" });
     }
   });
 
@@ -544,7 +822,39 @@ io.on("connection", (socket) => {
     const username = message.username;
     const emoteCode = message.emoteCode;
 
-    io.in(roomId).emit("emoteReceived", { username, emoteCode });
+    emitToRoom(roomId, "emoteReceived", { username, emoteCode });
+  });
+
+  /**
+   * Purpose: Sends a short run of a player's emotes to the room as a single
+   *          emoteReceived broadcast carrying the latest emote and how many
+   *          the run held. Clients that predate batches read the latest one.
+   * ChatGPT usage: No
+   */
+  socket.on("submitEmotes", (message) => {
+    console.log("Submitting emotes...");
+
+    const roomId = message.roomId;
+    const username = message.username;
+    const emoteCodes = message.emoteCodes;
+
+    if (
+      !Array.isArray(emoteCodes) ||
+      emoteCodes.length === 0 ||
+      emoteCodes.length > MAX_EMOTE_BATCH
+    ) {
+      emitToSocket(socket, "error", {
+        message: "You have passed in invalid parameters.",
+      });
+      return;
+    }
+
+    const emoteCode = emoteCodes[emoteCodes.length - 1];
+    emitToRoom(roomId, "emoteReceived", {
+      username,
+      emoteCode,
+      count: emoteCodes.length,
+    });
   });
 });
 
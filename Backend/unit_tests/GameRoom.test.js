@@ -241,4 +241,36 @@ describe("GameRoom", () => {
     const settings = gameRoom.getSettings();
     expect(settings).toBe(gameRoom.roomSettings);
   });
+
+  // Test cases for the event log
+  it("recordEvent should assign increasing sequence numbers", () => {
+    const room = new GameRoom(roomId, gameMaster, roomCode, new Settings());
+    expect(room.recordEvent("playerJoined", { newPlayerUsername: "b" }, "b")).toBe(1);
+    expect(room.recordEvent("changedSetting", { settingOption: "total" })).toBe(2);
+    expect(room.eventSeq).toBe(2);
+    expect(room.eventLog.length).toBe(2);
+  });
+
+  it("eventsSince should return only the missed events not excluded for the player", () => {
+    const room = new GameRoom(roomId, gameMaster, roomCode, new Settings());
+    room.recordEvent("startQuestion", { question: "Q1" });
+    room.recordEvent("answerReceived", { playerUsername: "a" }, "a");
+    room.recordEvent("answerReceived", { playerUsername: "b" }, "b");
+    room.recordEvent("showScoreboard", { scores: [] });
+
+    const missed = room.eventsSince(1, "a");
+    expect(missed.map((entry) => entry.seq)).toEqual([3, 4]);
+    expect(room.eventsSince(4, "a")).toEqual([]);
+  });
+
+  it("eventsSince should return undefined once missed events have left the log", () => {
+    const room = new GameRoom(roomId, gameMaster, roomCode, new Settings());
+    for (let i = 0; i < 300; i++) {
+      room.recordEvent("emoteReceived", { emoteCode: i });
+    }
+    expect(room.eventsSince(0, "a")).toBeUndefined();
+    expect(room.eventsSince(100, "a").length).toBe(200);
+    expect(room.eventsSince(301, "a")).toBeUndefined();
+    expect(room.eventsSince(undefined, "a")).toBeUndefined();
+  });
 });
@@ -0,0 +1,141 @@
+const WireCodecs = require("../models/WireCodecs");
+const Settings = require("../models/Settings");
+
+describe("WireCodecs", () => {
+  // The byte layouts below are the ones the Android client's codecs decode
+  it("encode should write startQuestion positionally, with its deadlines", () => {
+    const encoded = WireCodecs.encode("startQuestion", {
+      question: "Q?",
+      answers: ["a", "b", "c", "d"],
+      correctIndex: 2,
+      countdownEndsAt: 1760000000000,
+      readingEndsAt: 1760000005000,
+      answeringEndsAt: 1760000025000,
+    });
+
+    expect(encoded.toString("hex")).toBe(
+      "94a2513f94a161a162a163a1640293" +
+        "cf00000199c82cc000cf00000199c82cd388cf00000199c82d21a8"
+    );
+  });
+
+  it("encode should leave the deadlines out of a startQuestion without them", () => {
+    const encoded = WireCodecs.encode("startQuestion", {
+      question: "Q?",
+      answers: ["a", "b"],
+      correctIndex: 0,
+    });
+
+    expect(WireCodecs.decode(encoded)).toEqual(["Q?", ["a", "b"], 0]);
+  });
+
+  it("encode should write one row per player for showScoreboard", () => {
+    const encoded = WireCodecs.encode("showScoreboard", {
+      scores: [
+        {
+          username: "u1",
+          pointsEarned: 900,
+          updatedTotalPoints: 70000,
+          stolenPoints: true,
+        },
+        {
+          username: "u2",
+          pointsEarned: -450,
+          updatedTotalPoints: 3,
+          stolenPoints: undefined,
+        },
+      ],
+    });
+
+    expect(encoded.toString("hex")).toBe(
+      "9294a27531cd0384ce00011170c394a27532d1fe3e03c2"
+    );
+  });
+
+  it("encode should write welcomeNewPlayer positionally from the room settings", () => {
+    const encoded = WireCodecs.encode("welcomeNewPlayer", {
+      roomPlayers: [{ username: "u1", rank: -3, isReady: true }],
+      roomSettings: new Settings(),
+      possibleCategories: ["General Knowledge", "Sports"],
+      roomCode: "ABC123",
+    });
+
+    expect(WireCodecs.decode(encoded)).toEqual([
+      "ABC123",
+      [["u1", -3, true]],
+      [false, "easy", 6, 20, 10, ["General Knowledge"]],
+      ["General Knowledge", "Sports"],
+    ]);
+  });
+
+  it("encode should write other events as a map, leaving out undefined fields", () => {
+    const encoded = WireCodecs.encode("emoteReceived", {
+      username: "u1",
+      emoteCode: 3,
+      count: 4,
+      skipped: undefined,
+    });
+
+    expect(encoded.toString("hex")).toBe(
+      "83a8757365726e616d65a27531a9656d6f7465436f646503a5636f756e7404"
+    );
+  });
+
+  it("decode should read the fields a client encodes", () => {
+    // The client's encoding of a map with every type it sends
+    const encoded = Buffer.from(
+      "87a6726f6f6d4964a3722d31a8757365726e616d65a2c3bcaa656d6f7465436f6465" +
+        "7393010203a974696d6544656c6179cf0000001cbe991a14a96973436f7272656374" +
+        "c3b5706f776572757056696374696d557365726e616d65c0a36e6567d2fffe7960",
+      "hex"
+    );
+
+    expect(WireCodecs.decode(encoded)).toEqual({
+      roomId: "r-1",
+      username: "ü",
+      emoteCodes: [1, 2, 3],
+      timeDelay: 123456789012,
+      isCorrect: true,
+      powerupVictimUsername: null,
+      neg: -100000,
+    });
+    expect(WireCodecs.decode(new Uint8Array(encoded)).neg).toBe(-100000);
+  });
+
+  it("decode should read back every value encode writes", () => {
+    const payload = {
+      settings: { timeLimit: 15, isPublic: false, difficulty: "hard" },
+      ratio: 0.5,
+      long: "x".repeat(300),
+      many: Array.from({ length: 20 }, (_, i) => i * 1000 - 5000),
+      big: -Math.pow(2, 40),
+    };
+
+    const encoded = WireCodecs.encode("changedSettings", payload);
+
+    expect(WireCodecs.decode(encoded)).toEqual(payload);
+  });
+
+  it("decode should reject truncated payloads", () => {
+    expect(() => WireCodecs.decode(Buffer.from("92a1", "hex"))).toThrow(
+      RangeError
+    );
+    expect(() => WireCodecs.decode(Buffer.from("c1", "hex"))).toThrow(
+      RangeError
+    );
+  });
+
+  it("offersMsgpack should read the codecs a client lists in its handshake", () => {
+    expect(WireCodecs.offersMsgpack("msgpack")).toBe(true);
+    expect(WireCodecs.offersMsgpack("json,msgpack")).toBe(true);
+    expect(WireCodecs.offersMsgpack(["json", "msgpack"])).toBe(true);
+    expect(WireCodecs.offersMsgpack("json")).toBe(false);
+    expect(WireCodecs.offersMsgpack(undefined)).toBe(false);
+  });
+
+  it("isBinary should tell MessagePack payloads from JSON ones", () => {
+    expect(WireCodecs.isBinary(Buffer.from([0x80]))).toBe(true);
+    expect(WireCodecs.isBinary(new ArrayBuffer(1))).toBe(true);
+    expect(WireCodecs.isBinary({ roomId: "r-1" })).toBe(false);
+  });
+});
@@ -0,0 +1,130 @@
+package com.aava.cpen321project;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// The game core's platform on Android: the main looper, the system's monotonic clock and the
+// session's socket to the server in the app's resources. Creating it also routes the core's
+// GameLog to android.util.Log.
+//
+// With recordTraffic set in the resources, every game's traffic is written to the cache's
+// traffic directory, from where it can be pulled with adb and replayed by TrafficReplay.
+public class AndroidPlatform implements GamePlatform {
+
+    private static final String TAG = "AndroidPlatform";
+
+    private static final GameLog.Logger ANDROID_LOG = new GameLog.Logger() {
+        // ChatGPT usage: No
+        @Override
+        public void debug(String tag, String message) {
+            Log.d(tag, message);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void error(String tag, String message, Throwable error) {
+            Log.e(tag, message, error);
+        }
+    };
+
+    private static AndroidPlatform shared;
+
+    private final String serverUrl;
+    // Null unless traffic is recorded.
+    private final File trafficDir;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final PhaseScheduler.Ticker mainThreadTicker = new MainThreadTicker();
+    // Like Activity.runOnUiThread: work submitted on the main thread runs straight away.
+    private final Executor mainThread = command -> {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            command.run();
+        } else {
+            mainHandler.post(command);
+        }
+    };
+
+    // One thread delivers every game's room events; there is only ever one game at a time.
+    private final Executor gameEvents = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GameEvents");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The process's platform.
+    // ChatGPT usage: No
+    public static synchronized AndroidPlatform get(Context context) {
+        if (shared == null) {
+            GameLog.install(ANDROID_LOG);
+            Context application = context.getApplicationContext();
+            File trafficDir = application.getResources().getBoolean(R.bool.recordTraffic)
+                    ? new File(application.getCacheDir(), "traffic") : null;
+            shared = new AndroidPlatform(application.getString(R.string.serverURL), trafficDir);
+        }
+        return shared;
+    }
+
+    // ChatGPT usage: No
+    private AndroidPlatform(String serverUrl, File trafficDir) {
+        this.serverUrl = serverUrl;
+        this.trafficDir = trafficDir;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public MonotonicClock clock() {
+        return MonotonicClock.SYSTEM;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public PhaseScheduler.Ticker mainThreadTicker() {
+        return mainThreadTicker;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public Random random() {
+        return new Random();
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public Executor gameEvents() {
+        return gameEvents;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public GameConnection connection(String sessionToken) {
+        return GameConnection.open(serverUrl, sessionToken);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public TrafficRecorder trafficRecorder(GameConstants gameConstants) {
+        if (trafficDir == null) {
+            return TrafficRecorder.NONE;
+        }
+        File file = new File(trafficDir, gameConstants.roomId + "-" + System.currentTimeMillis() + ".ktrf");
+        try {
+            return TrafficLog.Writer.open(file, clock(), gameConstants);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not record traffic to " + file, e);
+            return TrafficRecorder.NONE;
+        }
+    }
+}
@@ -2,35 +2,32 @@ package com.aava.cpen321project;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 
 import android.app.AlertDialog;
 import android.app.Dialog;
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.CountDownTimer;
 import android.text.Html;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.AnimationUtils;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
-import android.widget.RelativeLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class GameActivity extends AppCompatActivity implements GameStateListener {
 
@@ -42,6 +39,8 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
     private final String[] QUESTION_COUNT_OPTIONS = new String[] {"5", "10", "15", "20"};
     private final String[] MAX_PLAYER_OPTIONS = new String[] {"2", "3", "4", "5", "6"};
     private final String[] TIME_LIMIT_OPTIONS = new String[] {"10", "15", "20", "25", "30"};
+    // Longest time limit in TIME_LIMIT_OPTIONS, which the timer text is pre-rendered up to.
+    private static final int MAX_TIMER_SECONDS = 30;
     private final String[] PUBLIC_OPTIONS = new String[] {"Public", "Private"};
     private final String[] DIFFICULTY_OPTIONS = new String[] {"Easy", "Medium", "Hard"};
 
@@ -57,9 +56,7 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
     private TextView headerLabel;
 
     private ImageView emoteImage;
-    private ImageView[] emoteImageDisplays = new ImageView[6];
-    private final CountDownTimer[] emoteCountDownTimers = new CountDownTimer[6];
-    private final int[] emoteDrawables = new int[] {
+    private static final int[] emoteDrawables = new int[] {
             R.drawable.emote_code0,
             R.drawable.emote_code1,
             R.drawable.emote_code2,
@@ -71,65 +68,18 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
             R.drawable.emote_code8,
     };
 
-    private RelativeLayout lobbyUniversalLayout;
-    private RelativeLayout lobbyJoinerLayout;
-    private RelativeLayout lobbyOwnerLayout;
-    private RelativeLayout lobbyEditLayout;
-    private RelativeLayout countdownLayout;
-    private RelativeLayout questionLayout;
-    private RelativeLayout stallLayout;
-    private RelativeLayout scoreboardLayout;
-    private RelativeLayout powerupLayout;
-
-    private TextView lobbyCodeLabel;
-    private TextView lobbyUniversalQuestionsLabel;
-    private TextView lobbyUniversalPlayersLabel;
-    private TextView lobbyUniversalTimeLabel;
-    private TextView lobbyUniversalPublicLabel;
-    private TextView lobbyUniversalDifficultyLabel;
-    private TextView[] lobbyUniversalCategoryLabels = new TextView[5];
-
-    private List<LinearLayout> lobbyPlayerLayouts;
-    private List<ImageView> lobbyPlayerIcons;
-    private List<TextView> lobbyPlayerLabels;
-
-    private ImageView lobbyJoinerReadyImage;
-
-    private ImageView lobbyOwnerEditImage;
-    private ImageView lobbyOwnerStartImage;
-
-    private ImageView lobbyEditBackImage;
-    private ImageView lobbyEditQuestionsImage;
-    private ImageView lobbyEditPlayersImage;
-    private ImageView lobbyEditTimeImage;
-    private ImageView lobbyEditPublicImage;
-    private ImageView lobbyEditDifficultyImage;
-    private ImageView lobbyEditCategoriesImage;
-    private TextView lobbyEditQuestionsLabel;
-    private TextView lobbyEditPlayersLabel;
-    private TextView lobbyEditTimeLabel;
-    private TextView lobbyEditPublicLabel;
-    private TextView lobbyEditDifficultyLabel;
-    private TextView[] lobbyEditCategoryLabels = new TextView[5];
-
-    private TextView countdownReadyLabel;
-    private TextView countdownCountLabel;
-
-    private TextView questionLabel;
-    private ImageView questionAnswer1Image;
-    private ImageView questionAnswer2Image;
-    private ImageView questionAnswer3Image;
-    private ImageView questionAnswer4Image;
-    private TextView questionAnswer1Label;
-    private TextView questionAnswer2Label;
-    private TextView questionAnswer3Label;
-    private TextView questionAnswer4Label;
-    private List<ImageView> questionAnswerImages;
-    private List<TextView> questionAnswerLabels;
-    private TextView questionTimerLabel;
-    private TextView questionPlayersFinishedLabel;
-
-    private TextView stallBlurbLabel;
+    // Phase layers, each inflated when first needed.
+
+    private PhaseLayer<LobbyViews> lobbyLayer;
+    private PhaseLayer<JoinerViews> joinerLayer;
+    private PhaseLayer<OwnerViews> ownerLayer;
+    private PhaseLayer<EditViews> editLayer;
+    private PhaseLayer<CountdownViews> countdownLayer;
+    private PhaseLayer<QuestionViews> questionLayer;
+    private PhaseLayer<StallViews> stallLayer;
+    private PhaseLayer<ScoreboardViews> scoreboardLayer;
+    private PhaseLayer<PowerupViews> powerupLayer;
+
     private final List<String> stallBlurbStrings = new ArrayList<String>() {{
        add("Think you're fast enough?");
        add("DANG everyone else is slow...");
@@ -140,21 +90,6 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
        add("Faster than the Flash!");
     }};
 
-    private LinearLayout scoreboardLesserColumn;
-    private LinearLayout scoreboardGreaterColumn;
-    private TextView scoreboardLesserGainLabel;
-    private TextView scoreboardLesserScoreLabel;
-    private TextView scoreboardLesserUsernameLabel;
-    private TextView scoreboardCurrentGainLabel;
-    private TextView scoreboardCurrentScoreLabel;
-    private TextView scoreboardCurrentUsernameLabel;
-    private TextView scoreboardGreaterGainLabel;
-    private TextView scoreboardGreaterScoreLabel;
-    private TextView scoreboardGreaterUsernameLabel;
-
-    private ImageView scoreboardLesserFace;
-    private ImageView scoreboardCurrentFace;
-    private ImageView scoreboardGreaterFace;
     private final int[][] scoreboardFaceGroups = new int[][] {
             {},
             {0},
@@ -183,10 +118,6 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
         add(R.drawable.emoji_nooooo);
     }};
 
-    private TextView scoreboardRankLabel;
-    private TextView scoreboardStolenLabel;
-
-    private TextView scoreboardBlurbLabel;
     private final int[][][] scoreboardBlurbGroups = new int[][][] {
             {},
             {{0}},
@@ -240,26 +171,57 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
         }});
     }};
 
-    private ImageView scoreboardLeaveImage;
-
-    private List<ImageView> powerupImages = new ArrayList<>();
-    private List<ImageView> powerupIconImages = new ArrayList<>();
 
-    private Map<RelativeLayout, List<ImageView>> clickableViews;
+    // The layouts showing, in the order a question moves through them.
+    private enum Screen { NONE, LOBBY, COUNTDOWN, QUESTION, ANSWERS, STALL, SCOREBOARD }
 
     private GameConstants gameConstants;
     private GameState gameState;
+    private RenderLoop renderLoop;
+    private StartupTrace startupTrace;
+    private GameAssets gameAssets;
+    private Screen screen = Screen.NONE;
+    private PhaseTimerRenderer phaseTimerRenderer;
+    private QuestionTextPipeline questionTextPipeline;
+    // The last question whose text went to the pipeline. Main thread only.
+    private GameSnapshot.Question preparedQuestion;
+    // Dialogs and toasts the game asked for, shown by the frame drawing the NOTICE region.
+    private final ConcurrentLinkedQueue<Runnable> notices = new ConcurrentLinkedQueue<>();
 
     // ChatGPT usage: No
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_game);
-
+        startupTrace = new StartupTrace(MonotonicClock.SYSTEM);
+        gameAssets = GameAssets.get(this);
         getSetActivityParameters();
-        getSetAllViews();
 
-        gameState = new GameState(this, this, gameConstants);
+        // Held until the views are bound: events arriving before then update the snapshot and
+        // mark regions, and the first frame after binding renders them all.
+        View rootView = getWindow().getDecorView();
+        renderLoop = new RenderLoop(this::render, rootView::postOnAnimation, true);
+        gameState = new GameState(this, AndroidPlatform.get(this), gameConstants);
+
+        // Join the room in the background while the layout inflates.
+        new Thread(() -> {
+            gameState.startSession();
+            startupTrace.mark(StartupTrace.Stage.SESSION_STARTED);
+        }, "GameSessionStart").start();
+
+        // Only the header and emotes are inflated here; each phase layer waits for its phase.
+        setContentView(R.layout.activity_game);
+        getSetAllViews();
+        startupTrace.mark(StartupTrace.Stage.VIEWS_BOUND);
+
+        rootView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                rootView.getViewTreeObserver().removeOnPreDrawListener(this);
+                startupTrace.mark(StartupTrace.Stage.FIRST_FRAME);
+                return true;
+            }
+        });
+        renderLoop.release();
     }
 
     // Overridden for functionality upon exiting GameActivity.
@@ -287,22 +249,10 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
 
     // GAME STATE CALLBACKS
 
-    // ChatGPT usage: No
-    public void youJoined() {
-        runOnUiThread(() -> {
-            headerLabel.setText(getString(R.string.gameHeaderLobby));
-            enableLayout(lobbyUniversalLayout, true);
-            if (gameConstants.isOwner) {
-                enableLayout(lobbyOwnerLayout, true);
-            } else {
-                enableLayout(lobbyJoinerLayout, true);
-            }
-        });
-    }
-
+    // Shown by the next frame, which GameState asks for with the NOTICE region.
     // ChatGPT usage: No
     public void youLeft(String reason) {
-        runOnUiThread(() -> {
+        notices.add(() -> {
             if (reason.equals("left")) {
                 new AlertDialog.Builder(this)
                         .setTitle("")
@@ -327,80 +277,9 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
         });
     }
 
-    // Update all of the room player labels on the lobby screen.
-    // Chat usage: No
-    public void roomPlayersChanged() {
-        runOnUiThread(() -> {
-            for (int p = 0; p < 6; p++) {
-                if (p >= gameState.roomPlayers.length()) {
-                    lobbyPlayerLayouts.get(p).setVisibility(View.INVISIBLE);
-                } else {
-                    lobbyPlayerLayouts.get(p).setVisibility(View.VISIBLE);
-                    try {
-                        JSONObject playerObject = gameState.roomPlayers.getJSONObject(p);
-                        String name = playerObject.getString("username");
-                        int iconResource = R.drawable.icon_crown;
-                        if (p > 0 && playerObject.getBoolean("isReady")) {
-                            iconResource = R.drawable.icon_check;
-                        } else if (p > 0 && !playerObject.getBoolean("isReady")) {
-                            iconResource = R.drawable.icon_cross;
-                        }
-
-                        lobbyPlayerIcons.get(p).setImageResource(iconResource);
-                        lobbyPlayerLabels.get(p).setText(name);
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-        });
-    }
-
-    // ChatGPT usage: No
-    public void roomCodeObtained() {
-        runOnUiThread(() -> {
-            lobbyCodeLabel.setText(gameConstants.roomCode);
-        });
-    }
-
-    // Update all of the room setting labels on the lobby screen.
-    // ChatGPT usage: No
-    public void roomSettingsChanged() {
-        String questionLabel = "Questions: " + gameState.roomQuestionCount;
-        String playersLabel = "Max Players: " + gameState.roomMaxPlayers;
-        String timeLabel = "Time Limit: " + gameState.roomQuestionTime + "s";
-        String publicLabel ="Is Public: " + (gameState.roomIsPublic ? "Yes" : "No");
-        String difficultyLabel = "Difficulty: " + gameState.roomQuestionDifficulty;
-
-        runOnUiThread(() -> {
-            lobbyUniversalQuestionsLabel.setText(questionLabel);
-            lobbyUniversalPlayersLabel.setText(playersLabel);
-            lobbyUniversalTimeLabel.setText(timeLabel);
-            lobbyUniversalPublicLabel.setText(publicLabel);
-            lobbyUniversalDifficultyLabel.setText(difficultyLabel);
-
-            lobbyEditQuestionsLabel.setText(questionLabel);
-            lobbyEditPlayersLabel.setText(playersLabel);
-            lobbyEditTimeLabel.setText(timeLabel);
-            lobbyEditPublicLabel.setText(publicLabel);
-            lobbyEditDifficultyLabel.setText(difficultyLabel);
-
-            lobbyUniversalCategoryLabels[0].setText(gameState.roomCategory);
-            lobbyEditCategoryLabels[0].setText(gameState.roomCategory);
-        });
-    }
-
-    // ChatGPT usage: No
-    public void roomCanStartChanged(boolean canStart) {
-        // Intentionally left blank
-//        runOnUiThread(() -> {
-//            lobbyOwnerStartImage.setClickable(canStart);
-//        });
-    }
-
     // ChatGPT usage: No
     public void creatorLeft() {
-        runOnUiThread(() -> {
+        notices.add(() -> {
             new AlertDialog.Builder(this)
                     .setTitle("")
                     .setMessage("Unfortunately, the room owner has left. You will be sent to the main menu.")
@@ -414,254 +293,338 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
     }
 
     // ChatGPT usage: No
-    public void questionSequenceStarted(boolean isFirst) {
-        runOnUiThread(() -> {
-            if (isFirst) {
-                disableLayout(lobbyUniversalLayout);
-                if (gameConstants.isOwner) {
-                    disableLayout(lobbyOwnerLayout);
-                } else {
-                    disableLayout(lobbyJoinerLayout);
-                }
-            } else {
-                disableLayout(scoreboardLayout);
-            }
-
-            headerLabel.setText(getString(R.string.gameHeaderQuestion, gameState.questionNumber));
-        });
+    public void regionChanged(RenderLoop.Region region) {
+        renderLoop.invalidate(region);
     }
 
-    // Display a countdown in preparation for the question.
+    // Its text is prepared by the frame that draws the QUESTION region that follows.
     // ChatGPT usage: No
-    public void countdownInitialized() {
-        runOnUiThread(() -> {
-            questionPlayersFinishedLabel.setText("0");
-            countdownCountLabel.setText("3");
-            countdownCountLabel.setVisibility(View.INVISIBLE);
-            countdownReadyLabel.setVisibility(View.VISIBLE);
-            enableLayout(countdownLayout, false);
-        });
+    public void questionReceived(GameSnapshot.Question question) {
     }
 
-    // Update the countdown timer accordingly.
-    // ChatGPT usage: No
-    public void countdownTicked(long millisUntilFinished) {
-        runOnUiThread(() -> {
-            if (millisUntilFinished <= 1000) {
-                countdownCountLabel.setText("1");
-            } else if (millisUntilFinished <= 2000) {
-                countdownCountLabel.setText("2");
-            } else if (millisUntilFinished <= 3000) {
-                countdownReadyLabel.setVisibility(View.INVISIBLE);
-                countdownCountLabel.setVisibility(View.VISIBLE);
+    // ChatGPD usage: No
+    public void errorReceived(String message) {
+        gameState.leaveRoom();
+        notices.add(() -> {
+            if (message.contains("Questions")) {
+                Toast.makeText(GameActivity.this, "Trivia API Error", Toast.LENGTH_SHORT).show();
+            } else {
+                Toast.makeText(GameActivity.this, message, Toast.LENGTH_SHORT).show();
             }
+            Intent intent = new Intent(GameActivity.this, MenuActivity.class);
+            intent.putExtra("userName", gameConstants.username);
+            intent.putExtra("sessionToken", gameConstants.sessionToken);
+            startActivity(intent);
         });
     }
 
-    // Switch between the countdown layout and the question layout.
-    // ChatGPT usage: No
-    public void countdownFinished() {
-        disableLayout(countdownLayout);
-        enableLayout(questionLayout, false);
-        enableLayout(powerupLayout, false);
-
-        runOnUiThread(() -> {
-            questionLabel.setText(Html.fromHtml(gameState.questionDescription).toString());
-            questionAnswer1Label.setText(Html.fromHtml(gameState.answerDescriptions[0]).toString());
-            questionAnswer2Label.setText(Html.fromHtml(gameState.answerDescriptions[1]).toString());
-            questionAnswer3Label.setText(Html.fromHtml(gameState.answerDescriptions[2]).toString());
-            questionAnswer4Label.setText(Html.fromHtml(gameState.answerDescriptions[3]).toString());
-
-            questionAnswer1Label.setVisibility(View.INVISIBLE);
-            questionAnswer2Label.setVisibility(View.INVISIBLE);
-            questionAnswer3Label.setVisibility(View.INVISIBLE);
-            questionAnswer4Label.setVisibility(View.INVISIBLE);
-            questionAnswer1Image.setImageResource(R.drawable.answer_blank);
-            questionAnswer2Image.setImageResource(R.drawable.answer_blank);
-            questionAnswer3Image.setImageResource(R.drawable.answer_blank);
-            questionAnswer4Image.setImageResource(R.drawable.answer_blank);
-            questionAnswer1Image.setClickable(false);
-            questionAnswer2Image.setClickable(false);
-            questionAnswer3Image.setClickable(false);
-            questionAnswer4Image.setClickable(false);
+    // RENDERING
 
-            for (int i = 0; i < 5; i++) {
-                if (gameState.remainingPowerups.contains(i)) {
-                    powerupImages.get(i).setClickable(true);
-                    powerupImages.get(i).setImageResource(R.drawable.powerup_on);
-                } else {
-                    powerupImages.get(i).setImageResource(R.drawable.powerup_blank);
-                }
+    // Draw every region that changed since the last frame, all from the same snapshot, so the
+    // frame's view changes share a single layout pass. Runs on the main thread.
+    // ChatGPT usage: No
+    private void render(int dirtyRegions) {
+        GameSnapshot snapshot = gameState.snapshot();
+        // Decode and measure a new question's text in the background while the countdown runs.
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.QUESTION) && snapshot.question != null
+                && snapshot.question != preparedQuestion) {
+            preparedQuestion = snapshot.question;
+            questionTextPipeline().prepare(preparedQuestion.description, preparedQuestion.answers());
+        }
+        // The screen goes first, as a layer it inflates has to be drawn in full.
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.SCREEN)) {
+            dirtyRegions |= renderScreen(snapshot);
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.ROSTER)) {
+            renderRoster(snapshot.roster);
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.SETTINGS)) {
+            renderSettings(snapshot.settings);
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.QUESTION) && snapshot.started()) {
+            questionLayer.views().playersFinishedLabel.setText(String.valueOf(snapshot.otherPlayersAnswered));
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.SCOREBOARD) && snapshot.standing != null) {
+            renderScoreboard(scoreboardLayer.views(), snapshot.standing, snapshot.gameOver);
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.TIMER)) {
+            phaseTimerRenderer().start();
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.EMOTES)) {
+            gameState.emoteBoard.render(snapshot.roster);
+        }
+        if (RenderLoop.isDirty(dirtyRegions, RenderLoop.Region.NOTICE)) {
+            Runnable notice;
+            while ((notice = notices.poll()) != null) {
+                notice.run();
             }
-        });
+        }
     }
 
-    // Update the question timer accordingly.
+    // Update all of the room player labels on the lobby screen, while there is one.
     // ChatGPT usage: No
-    public void questionTicked(long millisUntilFinished) {
-        runOnUiThread(() -> questionTimerLabel.setText(getString(R.string.gameTimer, millisUntilFinished / 1000.0)));
-    }
+    private void renderRoster(RoomRoster.Snapshot roster) {
+        LobbyViews lobby = lobbyLayer.boundViews();
+        if (lobby == null) {
+            return;
+        }
+        for (int p = 0; p < 6; p++) {
+            RoomPlayer player = p < roster.seats.size() ? roster.seats.get(p) : null;
+            if (player == null) {
+                lobby.playerLayouts.get(p).setVisibility(View.INVISIBLE);
+            } else {
+                lobby.playerLayouts.get(p).setVisibility(View.VISIBLE);
+                int iconResource = R.drawable.icon_crown;
+                if (p != RoomRoster.OWNER_SEAT && player.isReady) {
+                    iconResource = R.drawable.icon_check;
+                } else if (p != RoomRoster.OWNER_SEAT) {
+                    iconResource = R.drawable.icon_cross;
+                }
 
-    // Show the possible answers.
-    // ChatGPT usage: No
-    public void questionFinished() {
-        int[] answerImages = new int[] {
-                R.drawable.answer_red,
-                R.drawable.answer_green,
-                R.drawable.answer_blue,
-                R.drawable.answer_yellow
-        };
-        runOnUiThread(() -> {
-            for (int i = 0; i < 4; i++) {
-                if (i == gameState.hiddenIndex1 || i == gameState.hiddenIndex2) continue;
-                questionAnswerImages.get(i).setClickable(true);
-                questionAnswerImages.get(i).setImageResource(answerImages[i]);
-                questionAnswerLabels.get(i).setVisibility(View.VISIBLE);
+                gameAssets.setImage(lobby.playerIcons.get(p), iconResource);
+                lobby.playerLabels.get(p).setText(player.username);
             }
-        });
+        }
     }
 
-    // Update the answer timer accordingly.
+    // Update the room code and all of the room setting labels on the lobby and edit screens,
+    // whichever of them have been inflated.
     // ChatGPT usage: No
-    public void answerTicked(long millisUntilFinished) {
-        runOnUiThread(() -> questionTimerLabel.setText(getString(R.string.gameTimer, millisUntilFinished / 1000.0)));
+    private void renderSettings(GameSnapshot.Settings settings) {
+        String questionLabel = "Questions: " + settings.questionCount;
+        String playersLabel = "Max Players: " + settings.maxPlayers;
+        String timeLabel = "Time Limit: " + settings.questionTime + "s";
+        String publicLabel ="Is Public: " + (settings.isPublic ? "Yes" : "No");
+        String difficultyLabel = "Difficulty: " + settings.difficulty;
+
+        LobbyViews lobby = lobbyLayer.boundViews();
+        if (lobby != null) {
+            lobby.codeLabel.setText(settings.roomCode);
+            lobby.questionsLabel.setText(questionLabel);
+            lobby.playersLabel.setText(playersLabel);
+            lobby.timeLabel.setText(timeLabel);
+            lobby.publicLabel.setText(publicLabel);
+            lobby.difficultyLabel.setText(difficultyLabel);
+            lobby.categoryLabels[0].setText(settings.category);
+        }
+
+        EditViews edit = editLayer.boundViews();
+        if (edit != null) {
+            edit.questionsLabel.setText(questionLabel);
+            edit.playersLabel.setText(playersLabel);
+            edit.timeLabel.setText(timeLabel);
+            edit.publicLabel.setText(publicLabel);
+            edit.difficultyLabel.setText(difficultyLabel);
+            edit.categoryLabels[0].setText(settings.category);
+        }
     }
 
+    // The screen the game is on, from the running question's phase, or the lobby before the
+    // game starts.
     // ChatGPT usage: No
-    public void otherPlayerAnswered() {
-        runOnUiThread(() -> questionPlayersFinishedLabel.setText(String.valueOf(gameState.otherPlayersAnswered)));
+    private Screen screenFor(GameSnapshot snapshot) {
+        switch (gameState.phaseScheduler.phase()) {
+            case COUNTDOWN:
+                return Screen.COUNTDOWN;
+            case READING:
+                return Screen.QUESTION;
+            case ANSWERING:
+                return Screen.ANSWERS;
+            case STALL:
+                return Screen.STALL;
+            case SCOREBOARD:
+                return Screen.SCOREBOARD;
+            default:
+                if (snapshot.started()) {
+                    // A question has arrived but its phases have not started yet.
+                    return screen;
+                }
+                return snapshot.settings.roomCode == null ? Screen.NONE : Screen.LOBBY;
+        }
     }
 
+    // Switch to the layers of the current screen. Several phases may have passed since the last
+    // frame, e.g. after a resume, so entering a screen never relies on the one before it. Returns
+    // the regions drawn on layers that were inflated to show them.
     // ChatGPT usage: No
-    public void otherPlayerEmoted(String otherUsername, int emoteCode) {
-        Log.d(TAG, "EMOTE RECEIVED: " + otherUsername + ", " + emoteCode);
-        runOnUiThread(() -> {
-            int playerIndex = 0;
-            for (int i = 0; i < gameState.roomPlayers.length(); i++) {
-                try {
-                    if (gameState.roomPlayers.getJSONObject(i).getString("username").equals(otherUsername)) {
-                        playerIndex = i;
-                    }
-                } catch (JSONException e) {
-                    e.printStackTrace();
-                }
+    private int renderScreen(GameSnapshot snapshot) {
+        Screen next = screenFor(snapshot);
+        if (next == screen) {
+            return 0;
+        }
+        Screen previous = screen;
+        screen = next;
+
+        int inflated = 0;
+        boolean onQuestion = next == Screen.QUESTION || next == Screen.ANSWERS;
+        if (snapshot.started()) {
+            // The game never goes back to the lobby, so its layers are dropped for good.
+            releaseLobby();
+        } else {
+            boolean lobbyInflated = lobbyLayer.setShown(next == Screen.LOBBY, true);
+            (gameConstants.isOwner ? ownerLayer : joinerLayer).setShown(next == Screen.LOBBY, true);
+            editLayer.setShown(false, true);
+            if (lobbyInflated) {
+                inflated |= RenderLoop.Region.ROSTER.bit() | RenderLoop.Region.SETTINGS.bit();
             }
-            Log.d(TAG, "EMOTE USER ID: " + playerIndex);
-            int emoteDrawable = emoteDrawables[emoteCode];
-
-            ImageView emoteImageDisplay = emoteImageDisplays[playerIndex];
-            emoteImageDisplay.setImageResource(emoteDrawable);
-            emoteImageDisplay.setVisibility(View.VISIBLE);
+        }
+        countdownLayer.setShown(next == Screen.COUNTDOWN, false);
+        questionLayer.setShown(onQuestion, false);
+        powerupLayer.setShown(onQuestion, false);
+        stallLayer.setShown(next == Screen.STALL, true);
+        if (scoreboardLayer.setShown(next == Screen.SCOREBOARD, true)) {
+            inflated |= RenderLoop.Region.SCOREBOARD.bit();
+        }
 
-            CountDownTimer newCountDownTimer = new CountDownTimer(2000, 100) {
-                @Override
-                public void onTick(long l) {
-                    // Intentionally left blank
+        switch (next) {
+            case LOBBY:
+                headerLabel.setText(getString(R.string.gameHeaderLobby));
+                if (startupTrace.mark(StartupTrace.Stage.LOBBY_VISIBLE)) {
+                    Log.d(TAG, "Startup: " + startupTrace);
+                    // Decode the game's images while the players wait in the lobby.
+                    gameAssets.preload();
                 }
-                @Override
-                public void onFinish() {
-                    emoteImageDisplay.setVisibility(View.INVISIBLE);
+                break;
+            case COUNTDOWN:
+                // Display a countdown in preparation for the question.
+                headerLabel.setText(getString(R.string.gameHeaderQuestion, snapshot.questionNumber()));
+                CountdownViews countdown = countdownLayer.views();
+                countdown.countLabel.setText("3");
+                countdown.countLabel.setVisibility(View.INVISIBLE);
+                countdown.readyLabel.setVisibility(View.VISIBLE);
+                break;
+            case QUESTION:
+                showQuestion(snapshot);
+                break;
+            case ANSWERS:
+                if (previous != Screen.QUESTION) {
+                    showQuestion(snapshot);
                 }
-            };
-
-            if (emoteCountDownTimers[playerIndex] != null) {
-                emoteCountDownTimers[playerIndex].cancel();
-            }
-            emoteCountDownTimers[playerIndex] = newCountDownTimer;
-            newCountDownTimer.start();
-        });
+                showAnswers();
+                break;
+            case STALL:
+                PowerupViews powerups = powerupLayer.views();
+                for (int i = 0; i < 5; i++) {
+                    if (!gameState.remainingPowerups.contains(i)) {
+                        powerups.iconImages.get(i).setVisibility(View.INVISIBLE);
+                    }
+                }
+                stallLayer.views().blurbLabel.setText(getStallBlurb());
+                break;
+            case SCOREBOARD:
+                // Correct or incorrect header
+                headerLabel.setText(gameState.lastQuestionCorrect ? "Correct!" : "Incorrect");
+                break;
+            default:
+                break;
+        }
+        return inflated;
     }
 
+    // Drop the lobby's layers once the game has started.
     // ChatGPT usage: No
-    public void youAnswered() {
-        runOnUiThread(() -> {
-            if (gameState.powerupCode != -1) {
-                Log.d(TAG, "Powerup code: " + gameState.powerupCode);
-                powerupIconImages.get(gameState.powerupCode).setVisibility(View.INVISIBLE);
-            }
-
-            stallBlurbLabel.setText(getStallBlurb());
-        });
-
-        disableLayout(questionLayout);
-        disableLayout(powerupLayout);
-        enableLayout(stallLayout, true);
+    private void releaseLobby() {
+        if (!lobbyLayer.isReleased()) {
+            lobbyLayer.release();
+            joinerLayer.release();
+            ownerLayer.release();
+            editLayer.release();
+        }
     }
 
+    // Display the question and powerups but not the answers yet.
     // ChatGPT usage: No
-    public void scoreboardReceived(boolean finished, boolean stolen, int rank, @NonNull List<JSONObject> scoreInfoList) {
-        disableLayout(powerupLayout);
-        disableLayout(stallLayout);
-        enableLayout(scoreboardLayout, true);
-
-        runOnUiThread(() -> {
-            // Leave Button
-            if (finished) {
-                scoreboardLeaveImage.setVisibility(View.VISIBLE);
-                scoreboardLeaveImage.setClickable(true);
-            }
-
-            // Stolen score indicator
-            scoreboardStolenLabel.setVisibility(stolen ? View.VISIBLE : View.INVISIBLE);
-
-            // Correct or incorrect header
-            headerLabel.setText(gameState.lastQuestionCorrect ? "Correct!" : "Incorrect");
-            scoreboardRankLabel.setText(
-                    (rank == 0) ? "1st" : (rank == 1) ? "2nd" : (rank == 2) ? "3rd" : String.format(Locale.US, "%dth", rank + 1)
-            );
-
-            Log.d(TAG, "Rank: " + rank);
+    private void showQuestion(GameSnapshot snapshot) {
+        headerLabel.setText(getString(R.string.gameHeaderQuestion, snapshot.questionNumber()));
+        GameSnapshot.Question question = snapshot.question;
+        QuestionTextPipeline.PreparedQuestion prepared =
+                questionTextPipeline().take(question.description, question.answers());
+        QuestionViews views = questionLayer.views();
+        setPreparedText(views.questionLabel, prepared.question);
+        for (int i = 0; i < 4; i++) {
+            setPreparedText(views.answerLabels.get(i), prepared.answer(i));
+            views.answerLabels.get(i).setVisibility(View.INVISIBLE);
+            gameAssets.setImage(views.answerImages.get(i), R.drawable.answer_blank);
+            views.answerImages.get(i).setClickable(false);
+        }
 
-            // Set player labels
-            try {
-                int numPlayers = scoreInfoList.size();
-                JSONObject currentPlayer = scoreInfoList.get(rank);
-                scoreboardCurrentGainLabel.setText(getString(R.string.scoreboardPoints, currentPlayer.getInt("pointsEarned")));
-                scoreboardCurrentScoreLabel.setText(String.valueOf(currentPlayer.getInt("updatedTotalPoints")));
-                scoreboardCurrentUsernameLabel.setText(currentPlayer.getString("username"));
-                scoreboardCurrentFace.setImageResource(getFace(rank, numPlayers));
-                scoreboardBlurbLabel.setText(getScoreboardBlurb(rank, numPlayers));
-
-                if (rank == gameState.roomPlayers.length() - 1) {
-                    scoreboardLesserColumn.setVisibility(View.INVISIBLE);
-                } else {
-                    JSONObject lesserPlayer = scoreInfoList.get(rank + 1);
-                    scoreboardLesserGainLabel.setText(getString(R.string.scoreboardPoints, lesserPlayer.getInt("pointsEarned")));
-                    scoreboardLesserScoreLabel.setText(String.valueOf(lesserPlayer.getInt("updatedTotalPoints")));
-                    scoreboardLesserUsernameLabel.setText(lesserPlayer.getString("username"));
-                    scoreboardLesserColumn.setVisibility(View.VISIBLE);
-                    scoreboardLesserFace.setImageResource(getFace(rank + 1, numPlayers));
-                }
-                if (rank == 0) {
-                    scoreboardGreaterColumn.setVisibility(View.INVISIBLE);
-                } else {
-                    JSONObject greaterPlayer = scoreInfoList.get(rank - 1);
-                    scoreboardGreaterGainLabel.setText(getString(R.string.scoreboardPoints, greaterPlayer.getInt("pointsEarned")));
-                    scoreboardGreaterScoreLabel.setText(String.valueOf(greaterPlayer.getInt("updatedTotalPoints")));
-                    scoreboardGreaterUsernameLabel.setText(greaterPlayer.getString("username"));
-                    scoreboardGreaterColumn.setVisibility(View.VISIBLE);
-                    scoreboardGreaterFace.setImageResource(getFace(rank - 1, numPlayers));
-                }
-            } catch (JSONException e) {
-                e.printStackTrace();
+        List<ImageView> powerupImages = powerupLayer.views().images;
+        for (int i = 0; i < 5; i++) {
+            if (gameState.remainingPowerups.contains(i)) {
+                powerupImages.get(i).setClickable(true);
+                gameAssets.setImage(powerupImages.get(i), R.drawable.powerup_on);
+            } else {
+                gameAssets.setImage(powerupImages.get(i), R.drawable.powerup_blank);
             }
-        });
+        }
     }
 
-    // ChatGPD usage: No
-    public void errorReceived(String message) {
-        runOnUiThread(() -> {
-            if (message.contains("Questions")) {
-                Toast.makeText(GameActivity.this, "Trivia API Error", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(GameActivity.this, message, Toast.LENGTH_SHORT).show();
-            }
-        });
-        gameState.leaveRoom();
-        Intent intent = new Intent(GameActivity.this, MenuActivity.class);
-        intent.putExtra("userName", gameConstants.username);
-        intent.putExtra("sessionToken", gameConstants.sessionToken);
-        startActivity(intent);
+    // Show the possible answers.
+    // ChatGPT usage: No
+    private void showAnswers() {
+        int[] answerImages = new int[] {
+                R.drawable.answer_red,
+                R.drawable.answer_green,
+                R.drawable.answer_blue,
+                R.drawable.answer_yellow
+        };
+        QuestionViews views = questionLayer.views();
+        for (int i = 0; i < 4; i++) {
+            if (i == gameState.hiddenIndex1 || i == gameState.hiddenIndex2) continue;
+            views.answerImages.get(i).setClickable(true);
+            gameAssets.setImage(views.answerImages.get(i), answerImages[i]);
+            views.answerLabels.get(i).setVisibility(View.VISIBLE);
+        }
+    }
+
+    // ChatGPT usage: No
+    private void renderScoreboard(ScoreboardViews views, ScoreRanking.Standing standing, boolean finished) {
+        int rank = standing.rank;
+        int numPlayers = standing.players;
+
+        // Leave Button
+        if (finished) {
+            views.leaveImage.setVisibility(View.VISIBLE);
+            views.leaveImage.setClickable(true);
+        }
+
+        // Stolen score indicator
+        views.stolenLabel.setVisibility(standing.self.stolenPoints ? View.VISIBLE : View.INVISIBLE);
+
+        views.rankLabel.setText(
+                (rank == 0) ? "1st" : (rank == 1) ? "2nd" : (rank == 2) ? "3rd" : String.format(Locale.US, "%dth", rank + 1)
+        );
+
+        Log.d(TAG, "Rank: " + rank);
+
+        // Set player labels
+        ScoreboardEvent.Score currentPlayer = standing.self;
+        views.currentGainLabel.setText(getString(R.string.scoreboardPoints, currentPlayer.pointsEarned));
+        views.currentScoreLabel.setText(String.valueOf(currentPlayer.updatedTotalPoints));
+        views.currentUsernameLabel.setText(currentPlayer.username);
+        gameAssets.setImage(views.currentFace, getFace(rank, numPlayers));
+        views.blurbLabel.setText(getScoreboardBlurb(rank, numPlayers));
+
+        if (rank == numPlayers - 1) {
+            views.lesserColumn.setVisibility(View.INVISIBLE);
+        } else {
+            ScoreboardEvent.Score lesserPlayer = standing.below;
+            views.lesserGainLabel.setText(getString(R.string.scoreboardPoints, lesserPlayer.pointsEarned));
+            views.lesserScoreLabel.setText(String.valueOf(lesserPlayer.updatedTotalPoints));
+            views.lesserUsernameLabel.setText(lesserPlayer.username);
+            views.lesserColumn.setVisibility(View.VISIBLE);
+            gameAssets.setImage(views.lesserFace, getFace(rank + 1, numPlayers));
+        }
+        if (rank == 0) {
+            views.greaterColumn.setVisibility(View.INVISIBLE);
+        } else {
+            ScoreboardEvent.Score greaterPlayer = standing.above;
+            views.greaterGainLabel.setText(getString(R.string.scoreboardPoints, greaterPlayer.pointsEarned));
+            views.greaterScoreLabel.setText(String.valueOf(greaterPlayer.updatedTotalPoints));
+            views.greaterUsernameLabel.setText(greaterPlayer.username);
+            views.greaterColumn.setVisibility(View.VISIBLE);
+            gameAssets.setImage(views.greaterFace, getFace(rank - 1, numPlayers));
+        }
     }
 
     // OTHER METHODS
@@ -725,405 +688,285 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
         return strings.get(random.nextInt(strings.size()));
     }
 
+    // The question text pipeline, created with the question layer, which is inflated when the
+    // first question arrives, during its countdown.
+    // ChatGPT usage: No
+    private QuestionTextPipeline questionTextPipeline() {
+        if (questionTextPipeline == null) {
+            questionTextPipeline = createQuestionTextPipeline(questionLayer.views());
+        }
+        return questionTextPipeline;
+    }
+
+    // The question timers' renderer, created when the first question's timers start.
+    // ChatGPT usage: No
+    private PhaseTimerRenderer phaseTimerRenderer() {
+        if (phaseTimerRenderer == null) {
+            CountdownViews countdown = countdownLayer.views();
+            phaseTimerRenderer = new PhaseTimerRenderer(gameState.phaseScheduler,
+                    new TimerTextCache(getString(R.string.gameTimer), Locale.getDefault(), MAX_TIMER_SECONDS),
+                    countdown.readyLabel, countdown.countLabel, questionLayer.views().timerLabel);
+        }
+        return phaseTimerRenderer;
+    }
+
+    // Question text is precomputed against the labels' own text metrics, which are read here on
+    // the main thread so that the background work never touches a view.
+    // ChatGPT usage: No
+    private QuestionTextPipeline createQuestionTextPipeline(QuestionViews views) {
+        PrecomputedTextCompat.Params[] params = new PrecomputedTextCompat.Params[5];
+        params[QuestionTextPipeline.QUESTION_LABEL] = TextViewCompat.getTextMetricsParams(views.questionLabel);
+        for (int i = 0; i < 4; i++) {
+            params[QuestionTextPipeline.QUESTION_LABEL + 1 + i] = TextViewCompat.getTextMetricsParams(views.answerLabels.get(i));
+        }
+        return new QuestionTextPipeline((label, html) ->
+                PrecomputedTextCompat.create(Html.fromHtml(html).toString(), params[label]));
+    }
+
+    // ChatGPT usage: No
+    private static void setPreparedText(TextView label, CharSequence text) {
+        if (text instanceof PrecomputedTextCompat) {
+            try {
+                TextViewCompat.setPrecomputedText(label, (PrecomputedTextCompat) text);
+                return;
+            } catch (IllegalArgumentException e) {
+                // The label's text metrics changed after the text was measured.
+                text = text.toString();
+            }
+        }
+        label.setText(text);
+    }
+
     // Pick an available stall blurb.
     // ChatGPT usage: no
     private String getStallBlurb() {
         return stallBlurbStrings.get(random.nextInt(stallBlurbStrings.size()));
     }
 
-    // Get and set all View objects.
+    // Get and set the views that are always shown, and the stubs of the phase layers.
     // ChatGPT usage: No
     private void getSetAllViews() {
         headerLabel = findViewById(R.id.game_header_label);
 
         emoteImage = findViewById(R.id.game_emote_image);
-        emoteImageDisplays = new ImageView[] {
-                findViewById(R.id.game_receive_emote_image1),
-                findViewById(R.id.game_receive_emote_image2),
-                findViewById(R.id.game_receive_emote_image3),
-                findViewById(R.id.game_receive_emote_image4),
-                findViewById(R.id.game_receive_emote_image5),
-                findViewById(R.id.game_receive_emote_image6)
-        };
-
-        lobbyUniversalLayout = findViewById(R.id.game_lobby_universal_layout);
-        lobbyJoinerLayout = findViewById(R.id.game_lobby_joiner_layout);
-        lobbyOwnerLayout = findViewById(R.id.game_lobby_owner_layout);
-        lobbyEditLayout = findViewById(R.id.game_lobby_edit_layout);
-        countdownLayout = findViewById(R.id.game_countdown_layout);
-        questionLayout = findViewById(R.id.game_question_layout);
-        stallLayout = findViewById(R.id.game_stall_layout);
-        scoreboardLayout = findViewById(R.id.game_scoreboard_layout);
-        powerupLayout = findViewById(R.id.game_powerup_layout);
-
-        lobbyCodeLabel = findViewById(R.id.game_lobby_code_label);
-        lobbyUniversalQuestionsLabel = findViewById(R.id.game_lobby_question_count_label);
-        lobbyUniversalPlayersLabel = findViewById(R.id.game_lobby_max_players_label);
-        lobbyUniversalTimeLabel = findViewById(R.id.game_lobby_time_limit_label);
-        lobbyUniversalPublicLabel = findViewById(R.id.game_lobby_is_public_label);
-        lobbyUniversalDifficultyLabel = findViewById(R.id.game_lobby_question_difficulty_label);
-        TextView lobbyUniversalCategory1Label = findViewById(R.id.game_lobby_category1_label);
-        TextView lobbyUniversalCategory2Label = findViewById(R.id.game_lobby_category2_label);
-        TextView lobbyUniversalCategory3Label = findViewById(R.id.game_lobby_category3_label);
-        TextView lobbyUniversalCategory4Label = findViewById(R.id.game_lobby_category4_label);
-        TextView lobbyUniversalCategory5Label = findViewById(R.id.game_lobby_category5_label);
-        lobbyUniversalCategoryLabels = new TextView[] {
-                lobbyUniversalCategory1Label, lobbyUniversalCategory2Label, lobbyUniversalCategory3Label,
-                lobbyUniversalCategory4Label, lobbyUniversalCategory5Label
-        };
-
-        lobbyPlayerLayouts = new ArrayList<LinearLayout>() {{
-            add(findViewById(R.id.game_lobby_user1_layout));
-            add(findViewById(R.id.game_lobby_user2_layout));
-            add(findViewById(R.id.game_lobby_user3_layout));
-            add(findViewById(R.id.game_lobby_user4_layout));
-            add(findViewById(R.id.game_lobby_user5_layout));
-            add(findViewById(R.id.game_lobby_user6_layout));
-        }};
-        lobbyPlayerIcons = new ArrayList<ImageView>() {{
-            add(findViewById(R.id.game_lobby_user1_icon));
-            add(findViewById(R.id.game_lobby_user2_icon));
-            add(findViewById(R.id.game_lobby_user3_icon));
-            add(findViewById(R.id.game_lobby_user4_icon));
-            add(findViewById(R.id.game_lobby_user5_icon));
-            add(findViewById(R.id.game_lobby_user6_icon));
-        }};
-        lobbyPlayerLabels = new ArrayList<TextView>() {{
-            add(findViewById(R.id.game_lobby_user1_label));
-            add(findViewById(R.id.game_lobby_user2_label));
-            add(findViewById(R.id.game_lobby_user3_label));
-            add(findViewById(R.id.game_lobby_user4_label));
-            add(findViewById(R.id.game_lobby_user5_label));
-            add(findViewById(R.id.game_lobby_user6_label));
-        }};
-
-        lobbyJoinerReadyImage = findViewById(R.id.game_lobby_joiner_ready_image);
-
-        lobbyOwnerEditImage = findViewById(R.id.game_lobby_owner_edit_image);
-        lobbyOwnerStartImage = findViewById(R.id.game_lobby_owner_start_image);
-
-        lobbyEditBackImage = findViewById(R.id.game_lobby_edit_back_image);
-        lobbyEditQuestionsImage = findViewById(R.id.game_lobby_edit_image_question_count);
-        lobbyEditPlayersImage = findViewById(R.id.game_lobby_edit_image_max_players);
-        lobbyEditTimeImage = findViewById(R.id.game_lobby_edit_image_time_limit);
-        lobbyEditPublicImage = findViewById(R.id.game_lobby_edit_image_is_public);
-        lobbyEditDifficultyImage = findViewById(R.id.game_lobby_edit_image_question_difficulty);
-        lobbyEditCategoriesImage = findViewById(R.id.game_lobby_edit_image_categories);
-        lobbyEditQuestionsLabel = findViewById(R.id.game_lobby_edit_label_question_count);
-        lobbyEditPlayersLabel = findViewById(R.id.game_lobby_edit_label_max_players);
-        lobbyEditTimeLabel = findViewById(R.id.game_lobby_edit_label_time_limit);
-        lobbyEditPublicLabel = findViewById(R.id.game_lobby_edit_label_is_public);
-        lobbyEditDifficultyLabel = findViewById(R.id.game_lobby_edit_label_question_difficulty);
-        TextView lobbyEditCategory1Label = findViewById(R.id.game_lobby_edit_category1);
-        TextView lobbyEditCategory2Label = findViewById(R.id.game_lobby_edit_category2);
-        TextView lobbyEditCategory3Label = findViewById(R.id.game_lobby_edit_category3);
-        TextView lobbyEditCategory4Label = findViewById(R.id.game_lobby_edit_category4);
-        TextView lobbyEditCategory5Label = findViewById(R.id.game_lobby_edit_category5);
-        lobbyEditCategoryLabels = new TextView[] {
-                lobbyEditCategory1Label, lobbyEditCategory2Label, lobbyEditCategory3Label,
-                lobbyEditCategory4Label, lobbyEditCategory5Label
-        };
+        gameState.emoteBoard.setSeats(new EmoteBoard.Seat[] {
+                new EmoteSeat(findViewById(R.id.game_receive_emote_image1), gameAssets),
+                new EmoteSeat(findViewById(R.id.game_receive_emote_image2), gameAssets),
+                new EmoteSeat(findViewById(R.id.game_receive_emote_image3), gameAssets),
+                new EmoteSeat(findViewById(R.id.game_receive_emote_image4), gameAssets),
+                new EmoteSeat(findViewById(R.id.game_receive_emote_image5), gameAssets),
+                new EmoteSeat(findViewById(R.id.game_receive_emote_image6), gameAssets)
+        });
 
-        countdownReadyLabel = findViewById(R.id.game_countdown_ready_label);
-        countdownCountLabel = findViewById(R.id.game_countdown_count_label);
-
-        questionLabel = findViewById(R.id.game_question_description_label);
-        questionAnswer1Image = findViewById(R.id.game_question_answer1_image);
-        questionAnswer2Image = findViewById(R.id.game_question_answer2_image);
-        questionAnswer3Image = findViewById(R.id.game_question_answer3_image);
-        questionAnswer4Image = findViewById(R.id.game_question_answer4_image);
-        questionAnswer1Label = findViewById(R.id.game_question_answer1_label);
-        questionAnswer2Label = findViewById(R.id.game_question_answer2_label);
-        questionAnswer3Label = findViewById(R.id.game_question_answer3_label);
-        questionAnswer4Label = findViewById(R.id.game_question_answer4_label);
-        questionAnswerImages = new ArrayList<ImageView>() {{
-            add(questionAnswer1Image);
-            add(questionAnswer2Image);
-            add(questionAnswer3Image);
-            add(questionAnswer4Image);
-        }};
-        questionAnswerLabels = new ArrayList<TextView> () {{
-            add(questionAnswer1Label);
-            add(questionAnswer2Label);
-            add(questionAnswer3Label);
-            add(questionAnswer4Label);
-        }};
-        questionTimerLabel = findViewById(R.id.game_question_timer_label);
-        questionPlayersFinishedLabel = findViewById(R.id.game_question_players_finished_label);
-
-        stallBlurbLabel = findViewById(R.id.game_stall_blurb_label);
-
-        scoreboardLesserColumn = findViewById(R.id.game_scoreboard_lesser_column);
-        scoreboardGreaterColumn = findViewById(R.id.game_scoreboard_greater_column);
-
-        scoreboardLesserGainLabel = findViewById(R.id.game_scoreboard_lesser_gain_label);
-        scoreboardLesserScoreLabel = findViewById(R.id.game_scoreboard_lesser_score_label);
-        scoreboardLesserUsernameLabel = findViewById(R.id.game_scoreboard_lesser_username_label);
-        scoreboardLesserFace = findViewById(R.id.game_scoreboard_lesser_image);
-        scoreboardCurrentGainLabel = findViewById(R.id.game_scoreboard_current_gain_label);
-        scoreboardCurrentScoreLabel = findViewById(R.id.game_scoreboard_current_score_label);
-        scoreboardCurrentUsernameLabel = findViewById(R.id.game_scoreboard_current_username_label);
-        scoreboardCurrentFace = findViewById(R.id.game_scoreboard_current_image);
-        scoreboardGreaterGainLabel = findViewById(R.id.game_scoreboard_greater_gain_label);
-        scoreboardGreaterScoreLabel = findViewById(R.id.game_scoreboard_greater_score_label);
-        scoreboardGreaterUsernameLabel = findViewById(R.id.game_scoreboard_greater_username_label);
-        scoreboardGreaterFace = findViewById(R.id.game_scoreboard_greater_image);
-        scoreboardRankLabel = findViewById(R.id.game_scoreboard_rank_label);
-        scoreboardBlurbLabel = findViewById(R.id.game_scoreboard_blurb_label);
-        scoreboardLeaveImage = findViewById(R.id.game_scoreboard_leave_image);
-        scoreboardStolenLabel = findViewById(R.id.game_scoreboard_stolen_label);
-
-        powerupImages = new ArrayList<ImageView>() {{
-            add(findViewById(R.id.game_powerup_image1));
-            add(findViewById(R.id.game_powerup_image2));
-            add(findViewById(R.id.game_powerup_image3));
-            add(findViewById(R.id.game_powerup_image4));
-            add(findViewById(R.id.game_powerup_image5));
-        }};
-        powerupIconImages = new ArrayList<ImageView>() {{
-            add(findViewById(R.id.game_powerup_icon1));
-            add(findViewById(R.id.game_powerup_icon2));
-            add(findViewById(R.id.game_powerup_icon3));
-            add(findViewById(R.id.game_powerup_icon4));
-            add(findViewById(R.id.game_powerup_icon5));
-        }};
-
-        clickableViews = new HashMap<RelativeLayout, List<ImageView>>() {{
-            put(lobbyUniversalLayout, Collections.emptyList());
-            put(lobbyJoinerLayout, Collections.singletonList(
-                    lobbyJoinerReadyImage
-            ));
-            put(lobbyOwnerLayout, Arrays.asList(
-                    lobbyOwnerEditImage, lobbyOwnerStartImage
-            ));
-            put(lobbyEditLayout, Arrays.asList(
-                    lobbyEditCategoriesImage, lobbyEditQuestionsImage, lobbyEditPlayersImage,
-                    lobbyEditTimeImage, lobbyEditPublicImage, lobbyEditBackImage
-            ));
-            put(countdownLayout, Collections.emptyList());
-            put(questionLayout, Arrays.asList(
-                    questionAnswer1Image, questionAnswer2Image,
-                    questionAnswer3Image, questionAnswer4Image
-            ));
-            put(stallLayout, Collections.emptyList());
-            put(scoreboardLayout, Collections.emptyList());
-            put(powerupLayout, powerupImages);
-        }};
+        lobbyLayer = new PhaseLayer<>(findViewById(R.id.game_lobby_universal_stub), LobbyViews::new);
+        joinerLayer = new PhaseLayer<>(findViewById(R.id.game_lobby_joiner_stub), JoinerViews::new);
+        ownerLayer = new PhaseLayer<>(findViewById(R.id.game_lobby_owner_stub), OwnerViews::new);
+        editLayer = new PhaseLayer<>(findViewById(R.id.game_lobby_edit_stub), EditViews::new);
+        countdownLayer = new PhaseLayer<>(findViewById(R.id.game_countdown_stub), CountdownViews::new);
+        questionLayer = new PhaseLayer<>(findViewById(R.id.game_question_stub), QuestionViews::new);
+        stallLayer = new PhaseLayer<>(findViewById(R.id.game_stall_stub), StallViews::new);
+        scoreboardLayer = new PhaseLayer<>(findViewById(R.id.game_scoreboard_stub), ScoreboardViews::new);
+        powerupLayer = new PhaseLayer<>(findViewById(R.id.game_powerup_stub), PowerupViews::new);
     }
 
     // This function should be referenced by every clickable View in the layout. The identity of
-    // the View determines the onClick functionality.
+    // the View determines the onClick functionality. A View can only be clicked while its phase
+    // layer is showing, so the layer's views are there to compare against.
     // ChatGPT usage: No
     public void onClick(View v) {
-        runOnUiThread(() -> {
-
-            // LOBBY
-            if (v == emoteImage) {
-                Log.d(TAG, "Emote button pressed");
-                showEmoteDialog();
-            } else if (v == lobbyJoinerReadyImage) {
-                // Emit readyToStartGame event, and disable the button
-                Log.d(TAG, "READY!");
-                gameState.readyUp();
-                v.setClickable(false);
-                v.setAnimation(AnimationUtils.loadAnimation(GameActivity.this, R.anim.fade_out));
-            } else if (v == lobbyOwnerEditImage) {
-                // Switch to edit layout
-                headerLabel.setText(getString(R.string.gameHeaderEdit));
-
-                disableLayout(lobbyUniversalLayout);
-                disableLayout(lobbyOwnerLayout);
-                enableLayout(lobbyEditLayout, true);
-            } else if (v == lobbyEditQuestionsImage) {
-                // Change question count and emit changeSetting event
-                new AlertDialog.Builder(this)
-                        .setTitle("Select Question Count")
-                        .setSingleChoiceItems(QUESTION_COUNT_OPTIONS, questionCountChosen, null)
-                        .setPositiveButton("OK", (dialogInterface, i) -> {
-                            dialogInterface.dismiss();
-                            questionCountChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
-                            Log.d(TAG, "QUESTION COUNT CHOSEN: " + questionCountChosen);
-                            gameState.chooseQuestionCount(Integer.parseInt(QUESTION_COUNT_OPTIONS[questionCountChosen]));
-                        })
-                        .show();
-            } else if (v == lobbyEditPlayersImage) {
-                // Change max players and emit changeSetting event
-                new AlertDialog.Builder(this)
-                        .setTitle(R.string.editMaxPlayersTitle)
-                        .setSingleChoiceItems(MAX_PLAYER_OPTIONS, maxPlayerChosen, null)
-                        .setPositiveButton("OK", (dialogInterface, i) -> {
-                            dialogInterface.dismiss();
-                            maxPlayerChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
-                            gameState.chooseMaxPlayers(Integer.parseInt(MAX_PLAYER_OPTIONS[maxPlayerChosen]));
-                        })
-                        .show();
-            } else if (v == lobbyEditTimeImage) {
-                // Change time limit and emit changeSetting event
-                new AlertDialog.Builder(this)
-                        .setTitle("Select Time Limit Per Question")
-                        .setSingleChoiceItems(TIME_LIMIT_OPTIONS, timeLimitChosen, null)
-                        .setPositiveButton("OK", (dialogInterface, i) -> {
-                            dialogInterface.dismiss();
-                            timeLimitChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
-                            gameState.chooseTimeLimit(Integer.parseInt(TIME_LIMIT_OPTIONS[timeLimitChosen]));
-                        })
-                        .show();
+        int id = v.getId();
+
+        // LOBBY
+        if (v == emoteImage) {
+            Log.d(TAG, "Emote button pressed");
+            showEmoteDialog();
+        } else if (id == R.id.game_lobby_joiner_ready_image) {
+            // Emit readyToStartGame event, and disable the button
+            Log.d(TAG, "READY!");
+            gameState.readyUp();
+            v.setClickable(false);
+            v.setAnimation(AnimationUtils.loadAnimation(GameActivity.this, R.anim.fade_out));
+        } else if (id == R.id.game_lobby_owner_edit_image) {
+            // Switch to edit layout
+            headerLabel.setText(getString(R.string.gameHeaderEdit));
+
+            lobbyLayer.setShown(false, true);
+            ownerLayer.setShown(false, true);
+            if (editLayer.setShown(true, true)) {
+                renderSettings(gameState.snapshot().settings);
+            }
+        } else if (id == R.id.game_lobby_edit_image_question_count) {
+            // Change question count and emit changeSetting event
+            new AlertDialog.Builder(this)
+                    .setTitle("Select Question Count")
+                    .setSingleChoiceItems(QUESTION_COUNT_OPTIONS, questionCountChosen, null)
+                    .setPositiveButton("OK", (dialogInterface, i) -> {
+                        dialogInterface.dismiss();
+                        questionCountChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
+                        Log.d(TAG, "QUESTION COUNT CHOSEN: " + questionCountChosen);
+                        gameState.chooseQuestionCount(Integer.parseInt(QUESTION_COUNT_OPTIONS[questionCountChosen]));
+                    })
+                    .show();
+        } else if (id == R.id.game_lobby_edit_image_max_players) {
+            // Change max players and emit changeSetting event
+            new AlertDialog.Builder(this)
+                    .setTitle(R.string.editMaxPlayersTitle)
+                    .setSingleChoiceItems(MAX_PLAYER_OPTIONS, maxPlayerChosen, null)
+                    .setPositiveButton("OK", (dialogInterface, i) -> {
+                        dialogInterface.dismiss();
+                        maxPlayerChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
+                        gameState.chooseMaxPlayers(Integer.parseInt(MAX_PLAYER_OPTIONS[maxPlayerChosen]));
+                    })
+                    .show();
+        } else if (id == R.id.game_lobby_edit_image_time_limit) {
+            // Change time limit and emit changeSetting event
+            new AlertDialog.Builder(this)
+                    .setTitle("Select Time Limit Per Question")
+                    .setSingleChoiceItems(TIME_LIMIT_OPTIONS, timeLimitChosen, null)
+                    .setPositiveButton("OK", (dialogInterface, i) -> {
+                        dialogInterface.dismiss();
+                        timeLimitChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
+                        gameState.chooseTimeLimit(Integer.parseInt(TIME_LIMIT_OPTIONS[timeLimitChosen]));
+                    })
+                    .show();
 
-            } else if (v == lobbyEditPublicImage) {
-                // Change room isPublic and emit changeSetting event
-                new AlertDialog.Builder(this)
-                        .setTitle("Select Room Publicity")
-                        .setSingleChoiceItems(PUBLIC_OPTIONS, publicChosen, null)
-                        .setPositiveButton("OK", (dialogInterface, i) -> {
-                            dialogInterface.dismiss();
-                            publicChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
-                            gameState.chooseRoomPublicity(Objects.equals(PUBLIC_OPTIONS[publicChosen], "Public"));
-                        })
-                        .show();
-            } else if (v == lobbyEditDifficultyImage) {
-                // Change question difficulty and emit changeSetting event
-                new AlertDialog.Builder(this)
-                        .setTitle("Select Question Difficulty")
-                        .setSingleChoiceItems(DIFFICULTY_OPTIONS, difficultyChosen, null)
-                        .setPositiveButton("OK", (dialogInterface, i) -> {
-                            dialogInterface.dismiss();
-                            difficultyChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
-                            gameState.chooseQuestionDifficulty(DIFFICULTY_OPTIONS[difficultyChosen].toLowerCase());
-                        })
-                        .show();
-            } else if (v == lobbyEditCategoriesImage) {
-                // Change question count and emit changeSetting event
-                new AlertDialog.Builder(this)
-                        .setTitle("Select Question Category")
-                        .setSingleChoiceItems(gameConstants.possibleCategories.toArray(new String[0]), categoryChosen, null)
-                        .setPositiveButton("OK", (dialogInterface, i) -> {
-                            dialogInterface.dismiss();
-                            categoryChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
-                            for (int c = 0; c < gameConstants.possibleCategories.size(); c++) {
-                                String category = gameConstants.possibleCategories.get(c);
-                                gameState.chooseQuestionCategory(category, false);
-                                if (c == categoryChosen) {
-                                    gameState.chooseQuestionCategory(category, true);
-                                }
+        } else if (id == R.id.game_lobby_edit_image_is_public) {
+            // Change room isPublic and emit changeSetting event
+            new AlertDialog.Builder(this)
+                    .setTitle("Select Room Publicity")
+                    .setSingleChoiceItems(PUBLIC_OPTIONS, publicChosen, null)
+                    .setPositiveButton("OK", (dialogInterface, i) -> {
+                        dialogInterface.dismiss();
+                        publicChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
+                        gameState.chooseRoomPublicity(Objects.equals(PUBLIC_OPTIONS[publicChosen], "Public"));
+                    })
+                    .show();
+        } else if (id == R.id.game_lobby_edit_image_question_difficulty) {
+            // Change question difficulty and emit changeSetting event
+            new AlertDialog.Builder(this)
+                    .setTitle("Select Question Difficulty")
+                    .setSingleChoiceItems(DIFFICULTY_OPTIONS, difficultyChosen, null)
+                    .setPositiveButton("OK", (dialogInterface, i) -> {
+                        dialogInterface.dismiss();
+                        difficultyChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
+                        gameState.chooseQuestionDifficulty(DIFFICULTY_OPTIONS[difficultyChosen].toLowerCase());
+                    })
+                    .show();
+        } else if (id == R.id.game_lobby_edit_image_categories) {
+            List<String> possibleCategories = gameState.snapshot().settings.possibleCategories;
+            // Change question count and emit changeSetting event
+            new AlertDialog.Builder(this)
+                    .setTitle("Select Question Category")
+                    .setSingleChoiceItems(possibleCategories.toArray(new String[0]), categoryChosen, null)
+                    .setPositiveButton("OK", (dialogInterface, i) -> {
+                        dialogInterface.dismiss();
+                        categoryChosen = ((AlertDialog) dialogInterface).getListView().getCheckedItemPosition();
+                        for (int c = 0; c < possibleCategories.size(); c++) {
+                            String category = possibleCategories.get(c);
+                            gameState.chooseQuestionCategory(category, false);
+                            if (c == categoryChosen) {
+                                gameState.chooseQuestionCategory(category, true);
                             }
-                        })
-                        .show();
-            } else if (v == lobbyEditBackImage) {
-                headerLabel.setText(R.string.gameHeaderLobby);
-
-                disableLayout(lobbyEditLayout);
-                enableLayout(lobbyUniversalLayout, true);
-                enableLayout(lobbyOwnerLayout, true);
-            } else if (v == lobbyOwnerStartImage) {
-                // Emit startGame event, and disable the button
-                Toast.makeText(GameActivity.this, "Game will start soon - sit tight!", Toast.LENGTH_LONG).show();
-
-                boolean canStart = true;
-                for (int p = 0; p < gameState.roomPlayers.length(); p++) {
-                    try {
-                        if (gameState.roomPlayers.getJSONObject(p).getBoolean("ready")) {
-                            canStart = false;
-                            break;
                         }
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                    }
-                }
+                    })
+                    .show();
+        } else if (id == R.id.game_lobby_edit_back_image) {
+            headerLabel.setText(R.string.gameHeaderLobby);
+
+            editLayer.setShown(false, true);
+            lobbyLayer.setShown(true, true);
+            ownerLayer.setShown(true, true);
+        } else if (id == R.id.game_lobby_owner_start_image) {
+            // Emit startGame event, and disable the button
+            Toast.makeText(GameActivity.this, "Game will start soon - sit tight!", Toast.LENGTH_LONG).show();
+
+            // Everyone but the owner has to be ready.
+            if (gameState.snapshot().roster.canStart) {
+                v.setClickable(false);
+                gameState.startGame();
+            } else {
+                Toast.makeText(this, "All players need to be ready!", Toast.LENGTH_LONG);
+            }
+        }
 
-                if (canStart) {
-                    lobbyOwnerStartImage.setClickable(false);
-                    gameState.startGame();
-                } else {
-                    Toast.makeText(this, "All players need to be ready!", Toast.LENGTH_LONG);
+        // GAMEPLAY
+        else if (questionLayer.isShowing() && questionLayer.views().answerImages.contains(v)) {
+            // Manipulate answer fields, emit submitAnswer event, switch to stall layout
+            List<ImageView> questionAnswerImages = questionLayer.views().answerImages;
+            List<TextView> questionAnswerLabels = questionLayer.views().answerLabels;
+            int chosenAnswer = questionAnswerImages.indexOf(v);
+            int correctAnswer = gameState.snapshot().question.correctAnswer;
+            boolean isCorrect = chosenAnswer == correctAnswer;
+            Log.d(TAG, "Correct answer: " + correctAnswer + ", Answer: " + chosenAnswer);
+
+            if (!isCorrect && gameState.extraLifeEnabled) { // Extra life
+                gameState.extraLifeEnabled = false;
+                questionAnswerImages.get(chosenAnswer).setClickable(false);
+                gameAssets.setImage(questionAnswerImages.get(chosenAnswer), R.drawable.answer_blank);
+                questionAnswerLabels.get(chosenAnswer).setVisibility(View.INVISIBLE);
+            } else {
+                gameState.submitAnswer(chosenAnswer);
+            }
+        } else if (powerupLayer.isShowing() && powerupLayer.views().images.contains(v)) {
+            List<ImageView> powerupImages = powerupLayer.views().images;
+            List<ImageView> questionAnswerImages = questionLayer.views().answerImages;
+            List<TextView> questionAnswerLabels = questionLayer.views().answerLabels;
+            int powerupCode = powerupImages.indexOf(v);
+            Log.d(TAG, "Clicked powerup " + powerupCode);
+
+            // Permanently disable the current powerup
+            v.setClickable(false);
+            gameAssets.setImage(((ImageView) v), R.drawable.powerup_select);
+            gameState.usePowerup(powerupCode);
+
+            // Disable the other powerups for the current round
+            for (int i = 0; i < 5; i++) {
+                ImageView otherV = powerupImages.get(i);
+                if (!otherV.equals(v) && gameState.remainingPowerups.contains(i)) {
+                    otherV.setClickable(false);
+                    gameAssets.setImage(otherV, R.drawable.powerup_off);
                 }
             }
 
-            // GAMEPLAY
-            else if (questionAnswerImages.contains((ImageView) v)) {
-                // Manipulate answer fields, emit submitAnswer event, switch to stall layout
-                int chosenAnswer = questionAnswerImages.indexOf(v);
-                boolean isCorrect = chosenAnswer == gameState.correctAnswer;
-                Log.d(TAG, "Correct answer: " + gameState.correctAnswer + ", Answer: " + chosenAnswer);
-
-                if (!isCorrect && gameState.extraLifeEnabled) { // Extra life
-                    gameState.extraLifeEnabled = false;
-                    questionAnswerImages.get(chosenAnswer).setClickable(false);
-                    questionAnswerImages.get(chosenAnswer).setImageResource(R.drawable.answer_blank);
-                    questionAnswerLabels.get(chosenAnswer).setVisibility(View.INVISIBLE);
+            // Powerup-specific functionality
+            if (powerupCode == GameState.FIFTY_FIFTY) {
+                questionAnswerImages.get(gameState.hiddenIndex1).setClickable(false);
+                gameAssets.setImage(questionAnswerImages.get(gameState.hiddenIndex1), R.drawable.answer_blank);
+                questionAnswerLabels.get(gameState.hiddenIndex1).setVisibility(View.INVISIBLE);
+                questionAnswerImages.get(gameState.hiddenIndex2).setClickable(false);
+                gameAssets.setImage(questionAnswerImages.get(gameState.hiddenIndex2), R.drawable.answer_blank);
+                questionAnswerLabels.get(gameState.hiddenIndex2).setVisibility(View.INVISIBLE);
+
+            } else if (powerupCode == GameState.STEAL_POINTS) {
+                List<String> otherPlayerUsernames = gameState.snapshot().roster.usernamesExcept(gameConstants.username);
+                String[] otherPlayerUsernamesArray = new String[otherPlayerUsernames.size()];
+                if (otherPlayerUsernames.size() == 0) {
+                    Toast.makeText(this, "No other players!", Toast.LENGTH_SHORT).show();
+                    gameState.powerupCode = -1;
                 } else {
-                    gameState.answerCountdownTimer.cancel();
-                    gameState.submitAnswer(chosenAnswer);
-                }
-            } else if (powerupImages.contains(v)) {
-                gameState.powerupCode = powerupImages.indexOf(v);
-                Log.d(TAG, "Clicked powerup " + gameState.powerupCode);
-
-                // Permanently disable the current powerup
-                v.setClickable(false);
-                ((ImageView) v).setImageResource(R.drawable.powerup_select);
-                gameState.remainingPowerups.remove((Integer) gameState.powerupCode);
-
-                // Disable the other powerups for the current round
-                for (int i = 0; i < 5; i++) {
-                    ImageView otherV = powerupImages.get(i);
-                    if (!otherV.equals(v) && gameState.remainingPowerups.contains(i)) {
-                        otherV.setClickable(false);
-                        otherV.setImageResource(R.drawable.powerup_off);
-                    }
-                }
-
-                // Powerup-specific functionality
-                if (gameState.powerupCode == 1) { // Fifty-fifty
-                    do {
-                        gameState.hiddenIndex1 = gameState.rand.nextInt(4);
-                    } while (gameState.hiddenIndex1 == gameState.correctAnswer);
-                    do {
-                        gameState.hiddenIndex2 = gameState.rand.nextInt(4);
-                    } while (gameState.hiddenIndex2 == gameState.hiddenIndex1 || gameState.hiddenIndex2 == gameState.correctAnswer);
-                    questionAnswerImages.get(gameState.hiddenIndex1).setClickable(false);
-                    questionAnswerImages.get(gameState.hiddenIndex1).setImageResource(R.drawable.answer_blank);
-                    questionAnswerLabels.get(gameState.hiddenIndex1).setVisibility(View.INVISIBLE);
-                    questionAnswerImages.get(gameState.hiddenIndex2).setClickable(false);
-                    questionAnswerImages.get(gameState.hiddenIndex2).setImageResource(R.drawable.answer_blank);
-                    questionAnswerLabels.get(gameState.hiddenIndex2).setVisibility(View.INVISIBLE);
-
-                } else if (gameState.powerupCode == 2) { // Steal points
-                    String[] otherPlayerUsernamesArray = new String[gameState.otherPlayerUsernames.size()];
-                    if (gameState.otherPlayerUsernames.size() == 0) {
-                        Toast.makeText(this, "No other players!", Toast.LENGTH_SHORT).show();
-                        gameState.powerupCode = -1;
-                    } else {
-                        gameState.otherPlayerUsernames.toArray(otherPlayerUsernamesArray);
-                        new AlertDialog.Builder(this)
-                                .setCancelable(false)
-                                .setTitle("Select Victim")
-                                .setSingleChoiceItems(otherPlayerUsernamesArray, 0, null)
-                                .setPositiveButton("OK", (dialogInterface, i) -> {
-                                    dialogInterface.dismiss();
-                                    gameState.powerupVictimUsername = gameState.otherPlayerUsernames.get(((AlertDialog) dialogInterface).getListView().getCheckedItemPosition());
-                                })
-                                .show();
-                    }
-                } else if (gameState.powerupCode == 3) {
-                    if (gameState.questionCountdownTimer != null) {
-                        gameState.questionCountdownTimer.cancel();
-                    }
-                    if (gameState.answerCountdownTimer != null) {
-                        gameState.answerCountdownTimer.cancel();
-                    }
-                    gameState.submitAnswer(-1);
-                } else if (gameState.powerupCode == 4) {
-                    gameState.extraLifeEnabled = true;
+                    otherPlayerUsernames.toArray(otherPlayerUsernamesArray);
+                    new AlertDialog.Builder(this)
+                            .setCancelable(false)
+                            .setTitle("Select Victim")
+                            .setSingleChoiceItems(otherPlayerUsernamesArray, 0, null)
+                            .setPositiveButton("OK", (dialogInterface, i) -> {
+                                dialogInterface.dismiss();
+                                gameState.powerupVictimUsername = otherPlayerUsernames.get(((AlertDialog) dialogInterface).getListView().getCheckedItemPosition());
+                            })
+                            .show();
                 }
-            } else if (v == scoreboardLeaveImage) {
-                returnToMenu();
             }
-        });
+        } else if (id == R.id.game_scoreboard_leave_image) {
+            returnToMenu();
+        }
     }
 
     // Return to the menu activity.
     // ChatGPT usage: No
     private void returnToMenu() {
+        Log.d(TAG, "Game assets: " + gameAssets.metrics());
+        Log.d(TAG, "Emotes: " + gameState.emoteBoard.metrics());
+        gameState.emoteBoard.clear();
         gameState.leaveRoom();
         Intent intent = new Intent(GameActivity.this, MenuActivity.class);
         intent.putExtra("userName", gameConstants.username);
@@ -1131,28 +974,316 @@ public class GameActivity extends AppCompatActivity implements GameStateListener
         startActivity(intent);
     }
 
-    // Make a particular part of the layout invisible and unclickable.
-    // ChatGPT usage: No
-    private void disableLayout(RelativeLayout layout) {
-        runOnUiThread(() -> {
-            layout.setVisibility(View.INVISIBLE);
-            for (View v : Objects.requireNonNull(clickableViews.get(layout))) {
-                v.setClickable(false);
+    // One seat's received emotes. The seat's image fades in and out with the view's own
+    // animator, which is reused for every emote shown there.
+    private static final class EmoteSeat implements EmoteBoard.Seat {
+        private static final long FADE_MILLIS = 150;
+
+        private final ImageView image;
+        private final GameAssets gameAssets;
+        private final Runnable hidden;
+
+        // ChatGPT usage: No
+        EmoteSeat(ImageView image, GameAssets gameAssets) {
+            this.image = image;
+            this.gameAssets = gameAssets;
+            this.hidden = () -> image.setVisibility(View.INVISIBLE);
+        }
+
+        // There is no room beside a seat for a count, so a burst shows as its latest emote.
+        // ChatGPT usage: No
+        @Override
+        public void show(int emoteCode, int burst) {
+            gameAssets.setImage(image, emoteDrawables[emoteCode]);
+            // Cancels a fade out still running, so its end action never hides the new emote.
+            image.animate().cancel();
+            if (image.getVisibility() != View.VISIBLE) {
+                image.setAlpha(0f);
+                image.setVisibility(View.VISIBLE);
             }
-        });
+            image.animate().alpha(1f).setDuration(FADE_MILLIS);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void hide() {
+            image.animate().alpha(0f).setDuration(FADE_MILLIS).withEndAction(hidden);
+        }
     }
 
-    // Make a particular part of the layout visible and clickable, if desired.
-    // ChatGPT usage: No
-    private void enableLayout(RelativeLayout layout, boolean activateClickables) {
-        runOnUiThread(() -> {
-            layout.setVisibility(View.VISIBLE);
-            Log.d(TAG, "Activating view " + getResources().getResourceEntryName(layout.getId()));
-            Log.d(TAG, "Number of buttons: " + Objects.requireNonNull(clickableViews.get(layout)).size());
-            if (activateClickables) for (View v : Objects.requireNonNull(clickableViews.get(layout))) {
-                Log.d(TAG, "VIEW NAME: " + getResources().getResourceEntryName(v.getId()));
-                v.setClickable(true);
-            }
-        });
+    // PHASE LAYER VIEWS
+
+    private static final class LobbyViews implements PhaseLayer.Views {
+        final TextView codeLabel;
+        final TextView questionsLabel;
+        final TextView playersLabel;
+        final TextView timeLabel;
+        final TextView publicLabel;
+        final TextView difficultyLabel;
+        final TextView[] categoryLabels;
+        final List<LinearLayout> playerLayouts;
+        final List<ImageView> playerIcons;
+        final List<TextView> playerLabels;
+
+        // ChatGPT usage: No
+        LobbyViews(View layer) {
+            codeLabel = layer.findViewById(R.id.game_lobby_code_label);
+            questionsLabel = layer.findViewById(R.id.game_lobby_question_count_label);
+            playersLabel = layer.findViewById(R.id.game_lobby_max_players_label);
+            timeLabel = layer.findViewById(R.id.game_lobby_time_limit_label);
+            publicLabel = layer.findViewById(R.id.game_lobby_is_public_label);
+            difficultyLabel = layer.findViewById(R.id.game_lobby_question_difficulty_label);
+            categoryLabels = new TextView[] {
+                    layer.findViewById(R.id.game_lobby_category1_label),
+                    layer.findViewById(R.id.game_lobby_category2_label),
+                    layer.findViewById(R.id.game_lobby_category3_label),
+                    layer.findViewById(R.id.game_lobby_category4_label),
+                    layer.findViewById(R.id.game_lobby_category5_label)
+            };
+            playerLayouts = Arrays.asList(
+                    layer.findViewById(R.id.game_lobby_user1_layout),
+                    layer.findViewById(R.id.game_lobby_user2_layout),
+                    layer.findViewById(R.id.game_lobby_user3_layout),
+                    layer.findViewById(R.id.game_lobby_user4_layout),
+                    layer.findViewById(R.id.game_lobby_user5_layout),
+                    layer.findViewById(R.id.game_lobby_user6_layout));
+            playerIcons = Arrays.asList(
+                    layer.findViewById(R.id.game_lobby_user1_icon),
+                    layer.findViewById(R.id.game_lobby_user2_icon),
+                    layer.findViewById(R.id.game_lobby_user3_icon),
+                    layer.findViewById(R.id.game_lobby_user4_icon),
+                    layer.findViewById(R.id.game_lobby_user5_icon),
+                    layer.findViewById(R.id.game_lobby_user6_icon));
+            playerLabels = Arrays.asList(
+                    layer.findViewById(R.id.game_lobby_user1_label),
+                    layer.findViewById(R.id.game_lobby_user2_label),
+                    layer.findViewById(R.id.game_lobby_user3_label),
+                    layer.findViewById(R.id.game_lobby_user4_label),
+                    layer.findViewById(R.id.game_lobby_user5_label),
+                    layer.findViewById(R.id.game_lobby_user6_label));
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class JoinerViews implements PhaseLayer.Views {
+        final ImageView readyImage;
+
+        // ChatGPT usage: No
+        JoinerViews(View layer) {
+            readyImage = layer.findViewById(R.id.game_lobby_joiner_ready_image);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return Collections.singletonList(readyImage);
+        }
+    }
+
+    private static final class OwnerViews implements PhaseLayer.Views {
+        final ImageView editImage;
+        final ImageView startImage;
+
+        // ChatGPT usage: No
+        OwnerViews(View layer) {
+            editImage = layer.findViewById(R.id.game_lobby_owner_edit_image);
+            startImage = layer.findViewById(R.id.game_lobby_owner_start_image);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return Arrays.asList(editImage, startImage);
+        }
+    }
+
+    private static final class EditViews implements PhaseLayer.Views {
+        final ImageView backImage;
+        final ImageView questionsImage;
+        final ImageView playersImage;
+        final ImageView timeImage;
+        final ImageView publicImage;
+        final ImageView difficultyImage;
+        final ImageView categoriesImage;
+        final TextView questionsLabel;
+        final TextView playersLabel;
+        final TextView timeLabel;
+        final TextView publicLabel;
+        final TextView difficultyLabel;
+        final TextView[] categoryLabels;
+
+        // ChatGPT usage: No
+        EditViews(View layer) {
+            backImage = layer.findViewById(R.id.game_lobby_edit_back_image);
+            questionsImage = layer.findViewById(R.id.game_lobby_edit_image_question_count);
+            playersImage = layer.findViewById(R.id.game_lobby_edit_image_max_players);
+            timeImage = layer.findViewById(R.id.game_lobby_edit_image_time_limit);
+            publicImage = layer.findViewById(R.id.game_lobby_edit_image_is_public);
+            difficultyImage = layer.findViewById(R.id.game_lobby_edit_image_question_difficulty);
+            categoriesImage = layer.findViewById(R.id.game_lobby_edit_image_categories);
+            questionsLabel = layer.findViewById(R.id.game_lobby_edit_label_question_count);
+            playersLabel = layer.findViewById(R.id.game_lobby_edit_label_max_players);
+            timeLabel = layer.findViewById(R.id.game_lobby_edit_label_time_limit);
+            publicLabel = layer.findViewById(R.id.game_lobby_edit_label_is_public);
+            difficultyLabel = layer.findViewById(R.id.game_lobby_edit_label_question_difficulty);
+            categoryLabels = new TextView[] {
+                    layer.findViewById(R.id.game_lobby_edit_category1),
+                    layer.findViewById(R.id.game_lobby_edit_category2),
+                    layer.findViewById(R.id.game_lobby_edit_category3),
+                    layer.findViewById(R.id.game_lobby_edit_category4),
+                    layer.findViewById(R.id.game_lobby_edit_category5)
+            };
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return Arrays.asList(categoriesImage, questionsImage, playersImage, timeImage, publicImage, backImage);
+        }
+    }
+
+    private static final class CountdownViews implements PhaseLayer.Views {
+        final TextView readyLabel;
+        final TextView countLabel;
+
+        // ChatGPT usage: No
+        CountdownViews(View layer) {
+            readyLabel = layer.findViewById(R.id.game_countdown_ready_label);
+            countLabel = layer.findViewById(R.id.game_countdown_count_label);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class QuestionViews implements PhaseLayer.Views {
+        final TextView questionLabel;
+        final List<ImageView> answerImages;
+        final List<TextView> answerLabels;
+        final TextView timerLabel;
+        final TextView playersFinishedLabel;
+
+        // ChatGPT usage: No
+        QuestionViews(View layer) {
+            questionLabel = layer.findViewById(R.id.game_question_description_label);
+            answerImages = Arrays.asList(
+                    layer.findViewById(R.id.game_question_answer1_image),
+                    layer.findViewById(R.id.game_question_answer2_image),
+                    layer.findViewById(R.id.game_question_answer3_image),
+                    layer.findViewById(R.id.game_question_answer4_image));
+            answerLabels = Arrays.asList(
+                    layer.findViewById(R.id.game_question_answer1_label),
+                    layer.findViewById(R.id.game_question_answer2_label),
+                    layer.findViewById(R.id.game_question_answer3_label),
+                    layer.findViewById(R.id.game_question_answer4_label));
+            timerLabel = layer.findViewById(R.id.game_question_timer_label);
+            playersFinishedLabel = layer.findViewById(R.id.game_question_players_finished_label);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return answerImages;
+        }
+    }
+
+    private static final class StallViews implements PhaseLayer.Views {
+        final TextView blurbLabel;
+
+        // ChatGPT usage: No
+        StallViews(View layer) {
+            blurbLabel = layer.findViewById(R.id.game_stall_blurb_label);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class ScoreboardViews implements PhaseLayer.Views {
+        final LinearLayout lesserColumn;
+        final LinearLayout greaterColumn;
+        final TextView lesserGainLabel;
+        final TextView lesserScoreLabel;
+        final TextView lesserUsernameLabel;
+        final ImageView lesserFace;
+        final TextView currentGainLabel;
+        final TextView currentScoreLabel;
+        final TextView currentUsernameLabel;
+        final ImageView currentFace;
+        final TextView greaterGainLabel;
+        final TextView greaterScoreLabel;
+        final TextView greaterUsernameLabel;
+        final ImageView greaterFace;
+        final TextView rankLabel;
+        final TextView blurbLabel;
+        final TextView stolenLabel;
+        final ImageView leaveImage;
+
+        // ChatGPT usage: No
+        ScoreboardViews(View layer) {
+            lesserColumn = layer.findViewById(R.id.game_scoreboard_lesser_column);
+            greaterColumn = layer.findViewById(R.id.game_scoreboard_greater_column);
+            lesserGainLabel = layer.findViewById(R.id.game_scoreboard_lesser_gain_label);
+            lesserScoreLabel = layer.findViewById(R.id.game_scoreboard_lesser_score_label);
+            lesserUsernameLabel = layer.findViewById(R.id.game_scoreboard_lesser_username_label);
+            lesserFace = layer.findViewById(R.id.game_scoreboard_lesser_image);
+            currentGainLabel = layer.findViewById(R.id.game_scoreboard_current_gain_label);
+            currentScoreLabel = layer.findViewById(R.id.game_scoreboard_current_score_label);
+            currentUsernameLabel = layer.findViewById(R.id.game_scoreboard_current_username_label);
+            currentFace = layer.findViewById(R.id.game_scoreboard_current_image);
+            greaterGainLabel = layer.findViewById(R.id.game_scoreboard_greater_gain_label);
+            greaterScoreLabel = layer.findViewById(R.id.game_scoreboard_greater_score_label);
+            greaterUsernameLabel = layer.findViewById(R.id.game_scoreboard_greater_username_label);
+            greaterFace = layer.findViewById(R.id.game_scoreboard_greater_image);
+            rankLabel = layer.findViewById(R.id.game_scoreboard_rank_label);
+            blurbLabel = layer.findViewById(R.id.game_scoreboard_blurb_label);
+            stolenLabel = layer.findViewById(R.id.game_scoreboard_stolen_label);
+            leaveImage = layer.findViewById(R.id.game_scoreboard_leave_image);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            // The leave button only becomes clickable once the game is over.
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class PowerupViews implements PhaseLayer.Views {
+        final List<ImageView> images;
+        final List<ImageView> iconImages;
+
+        // ChatGPT usage: No
+        PowerupViews(View layer) {
+            images = Arrays.asList(
+                    layer.findViewById(R.id.game_powerup_image1),
+                    layer.findViewById(R.id.game_powerup_image2),
+                    layer.findViewById(R.id.game_powerup_image3),
+                    layer.findViewById(R.id.game_powerup_image4),
+                    layer.findViewById(R.id.game_powerup_image5));
+            iconImages = Arrays.asList(
+                    layer.findViewById(R.id.game_powerup_icon1),
+                    layer.findViewById(R.id.game_powerup_icon2),
+                    layer.findViewById(R.id.game_powerup_icon3),
+                    layer.findViewById(R.id.game_powerup_icon4),
+                    layer.findViewById(R.id.game_powerup_icon5));
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public List<ImageView> clickables() {
+            return images;
+        }
     }
-}
\ No newline at end of file
+}
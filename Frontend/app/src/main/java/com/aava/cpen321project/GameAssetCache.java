@@ -0,0 +1,146 @@
+package com.aava.cpen321project;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+// Decodes the game's fixed set of images once and hands out the shared result. The whole set is
+// decoded in the background while the lobby shows, so by the time a phase needs an image it is
+// ready. An image asked for before its background decode started is decoded on the caller's
+// thread; one whose decode is under way is waited for rather than decoded twice. The set is
+// small and fixed, so nothing is ever evicted.
+public class GameAssetCache<T> {
+
+    public interface Decoder<T> {
+        T decode(int resId);
+        // Memory held by a decoded image.
+        long byteCount(T asset);
+    }
+
+    private final Decoder<T> decoder;
+    private final Executor executor;
+
+    // Guarded by this.
+    private final Map<Integer, FutureTask<T>> assets = new HashMap<>();
+    private long hits;
+    private long waits;
+    private long misses;
+    private long bytes;
+
+    // ChatGPT usage: No
+    public GameAssetCache(Decoder<T> decoder, Executor executor) {
+        this.decoder = decoder;
+        this.executor = executor;
+    }
+
+    // Start decoding every image that is not cached yet, in the background.
+    // ChatGPT usage: No
+    public void preload(int[] resIds) {
+        for (int resId : resIds) {
+            FutureTask<T> task;
+            synchronized (this) {
+                if (assets.containsKey(resId)) {
+                    continue;
+                }
+                task = newTask(resId);
+                assets.put(resId, task);
+            }
+            executor.execute(task);
+        }
+    }
+
+    // The decoded image, decoding it here if it is not cached yet.
+    // ChatGPT usage: No
+    public T get(int resId) {
+        FutureTask<T> task;
+        synchronized (this) {
+            task = assets.get(resId);
+            if (task == null) {
+                task = newTask(resId);
+                assets.put(resId, task);
+                misses++;
+            } else if (task.isDone()) {
+                hits++;
+            } else {
+                waits++;
+            }
+        }
+        // Does nothing if the background decode already ran or is running.
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return decoder.decode(resId);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not decode image " + resId, e.getCause());
+        }
+    }
+
+    // ChatGPT usage: No
+    public synchronized Metrics metrics() {
+        int decoded = 0;
+        for (FutureTask<T> task : assets.values()) {
+            if (task.isDone()) {
+                decoded++;
+            }
+        }
+        return new Metrics(decoded, hits, waits, misses, bytes);
+    }
+
+    // The sample size to decode an image of sourcePx at, so that it is still at least targetPx:
+    // the largest power of two that does not take it below. An unknown target keeps the source.
+    // ChatGPT usage: No
+    public static int sampleSize(int sourcePx, int targetPx) {
+        int sampleSize = 1;
+        if (targetPx <= 0) {
+            return sampleSize;
+        }
+        while (sourcePx / (sampleSize * 2) >= targetPx) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    // ChatGPT usage: No
+    private FutureTask<T> newTask(int resId) {
+        return new FutureTask<>(() -> {
+            T asset = decoder.decode(resId);
+            long assetBytes = decoder.byteCount(asset);
+            synchronized (this) {
+                bytes += assetBytes;
+            }
+            return asset;
+        });
+    }
+
+    // Point-in-time view of the cache.
+    public static final class Metrics {
+        public final int decoded;
+        // Images that were ready when asked for.
+        public final long hits;
+        // Images whose background decode was still under way when asked for.
+        public final long waits;
+        // Images that had to be decoded on the asking thread.
+        public final long misses;
+        public final long bytes;
+
+        // ChatGPT usage: No
+        Metrics(int decoded, long hits, long waits, long misses, long bytes) {
+            this.decoded = decoded;
+            this.hits = hits;
+            this.waits = waits;
+            this.misses = misses;
+            this.bytes = bytes;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public String toString() {
+            return "decoded=" + decoded + " hits=" + hits + " waits=" + waits + " misses=" + misses
+                    + " memory=" + bytes / 1024 + "KB";
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.aava.cpen321project;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.DisplayMetrics;
+import android.widget.ImageView;
+
+import androidx.core.content.res.ResourcesCompat;
+
+import java.util.concurrent.Executors;
+
+// The images GameActivity sets from code: answer tiles, powerups, scoreboard faces, emotes and
+// lobby icons. They are decoded once per process into a GameAssetCache and every view gets a
+// Drawable sharing the decoded bitmap.
+//
+// The images are PNGs in the density-less drawable folder, which Android treats as mdpi and
+// scales up by the screen density on every decode, so a 1024px emote shown at 30dp would take
+// tens of megabytes on a high-density screen. Here each image is decoded at the power-of-two
+// fraction of its source size closest to the size it is actually shown at, and its density is
+// set so that it still measures the same in layouts.
+public final class GameAssets {
+
+    // Shown across the width of the screen.
+    private static final int SCREEN_WIDTH = -1;
+
+    // Every image set from code, with the largest size it is shown at, in dp.
+    private static final int[][] ASSETS = {
+            {R.drawable.answer_blank, SCREEN_WIDTH},
+            {R.drawable.answer_red, SCREEN_WIDTH},
+            {R.drawable.answer_green, SCREEN_WIDTH},
+            {R.drawable.answer_blue, SCREEN_WIDTH},
+            {R.drawable.answer_yellow, SCREEN_WIDTH},
+            {R.drawable.powerup_on, 60},
+            {R.drawable.powerup_off, 60},
+            {R.drawable.powerup_select, 60},
+            {R.drawable.powerup_blank, 60},
+            {R.drawable.emoji_bitelip, 120},
+            {R.drawable.emoji_nerd, 120},
+            {R.drawable.emoji_laughcry, 120},
+            {R.drawable.emoji_tripletink, 120},
+            {R.drawable.emoji_flooshed, 120},
+            {R.drawable.emoji_focus, 120},
+            {R.drawable.emoji_thinkglasses, 120},
+            {R.drawable.emoji_sunglasscry, 120},
+            {R.drawable.emoji_spunchbop, 120},
+            {R.drawable.emoji_cryroll, 120},
+            {R.drawable.emoji_wail, 120},
+            {R.drawable.emoji_nooooo, 120},
+            {R.drawable.emote_code0, 30},
+            {R.drawable.emote_code1, 30},
+            {R.drawable.emote_code2, 30},
+            {R.drawable.emote_code3, 30},
+            {R.drawable.emote_code4, 30},
+            {R.drawable.emote_code5, 30},
+            {R.drawable.emote_code6, 30},
+            {R.drawable.emote_code7, 30},
+            {R.drawable.emote_code8, 30},
+            {R.drawable.icon_crown, 30},
+            {R.drawable.icon_check, 30},
+            {R.drawable.icon_cross, 30},
+    };
+
+    private static GameAssets shared;
+
+    private final Resources resources;
+    private final GameAssetCache<Drawable.ConstantState> cache;
+
+    // The process's game images.
+    // ChatGPT usage: No
+    public static synchronized GameAssets get(Context context) {
+        if (shared == null) {
+            shared = new GameAssets(context.getApplicationContext().getResources());
+        }
+        return shared;
+    }
+
+    // ChatGPT usage: No
+    private GameAssets(Resources resources) {
+        this.resources = resources;
+        this.cache = new GameAssetCache<>(new GameAssetCache.Decoder<Drawable.ConstantState>() {
+            @Override
+            public Drawable.ConstantState decode(int resId) {
+                return decodeDrawable(resId);
+            }
+
+            @Override
+            public long byteCount(Drawable.ConstantState asset) {
+                Drawable drawable = asset == null ? null : asset.newDrawable(resources);
+                return drawable instanceof BitmapDrawable
+                        ? ((BitmapDrawable) drawable).getBitmap().getAllocationByteCount() : 0;
+            }
+        }, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GameAssets");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    // Decode every game image in the background.
+    // ChatGPT usage: No
+    public void preload() {
+        int[] resIds = new int[ASSETS.length];
+        for (int i = 0; i < ASSETS.length; i++) {
+            resIds[i] = ASSETS[i][0];
+        }
+        cache.preload(resIds);
+    }
+
+    // A Drawable of a game image, sharing its decoded bitmap with every other one.
+    // ChatGPT usage: No
+    public Drawable drawable(int resId) {
+        Drawable.ConstantState state = cache.get(resId);
+        return state != null ? state.newDrawable(resources) : ResourcesCompat.getDrawable(resources, resId, null);
+    }
+
+    // Use in place of ImageView.setImageResource for the game images.
+    // ChatGPT usage: No
+    public void setImage(ImageView view, int resId) {
+        view.setImageDrawable(drawable(resId));
+    }
+
+    // ChatGPT usage: No
+    public GameAssetCache.Metrics metrics() {
+        return cache.metrics();
+    }
+
+    // ChatGPT usage: No
+    private Drawable.ConstantState decodeDrawable(int resId) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        bounds.inScaled = false;
+        BitmapFactory.decodeResource(resources, resId, bounds);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inSampleSize = GameAssetCache.sampleSize(Math.max(bounds.outWidth, bounds.outHeight), displayPx(resId));
+        Bitmap bitmap = BitmapFactory.decodeResource(resources, resId, options);
+        if (bitmap == null) {
+            // Not a bitmap, e.g. a vector; let the framework load it as usual.
+            Drawable drawable = ResourcesCompat.getDrawable(resources, resId, null);
+            return drawable == null ? null : drawable.getConstantState();
+        }
+        // Unscaled, the bitmap keeps its resource's density; sampling it down lowers that by the
+        // same factor, so it measures as the full-size image would.
+        int density = bitmap.getDensity() == Bitmap.DENSITY_NONE ? DisplayMetrics.DENSITY_DEFAULT : bitmap.getDensity();
+        bitmap.setDensity(Math.max(1, density / options.inSampleSize));
+        return new BitmapDrawable(resources, bitmap).getConstantState();
+    }
+
+    // The largest size an image is shown at, in pixels, or 0 if it is not a known game image.
+    // ChatGPT usage: No
+    private int displayPx(int resId) {
+        DisplayMetrics metrics = resources.getDisplayMetrics();
+        for (int[] asset : ASSETS) {
+            if (asset[0] == resId) {
+                return asset[1] == SCREEN_WIDTH ? metrics.widthPixels : Math.round(asset[1] * metrics.density);
+            }
+        }
+        return 0;
+    }
+}
@@ -20,13 +20,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 
 import okhttp3.OkHttpClient;
 import okhttp3.MediaType;
@@ -179,7 +173,7 @@ public class LoginActivity extends AppCompatActivity {
                     .post(body)
                     .build();
 
-            OkHttpClient insecureClient = getInsecureOkHttpClient();
+            OkHttpClient insecureClient = NetworkRuntime.getClient();
             insecureClient.newCall(request).enqueue(new okhttp3.Callback() {
                 @Override
                 public void onFailure(okhttp3.Call call, IOException e) {
@@ -243,7 +237,7 @@ public class LoginActivity extends AppCompatActivity {
                     .post(body)
                     .build();
 
-            OkHttpClient insecureClient = getInsecureOkHttpClient();
+            OkHttpClient insecureClient = NetworkRuntime.getClient();
 
             insecureClient.newCall(request).enqueue(new okhttp3.Callback() {
                 @Override
@@ -314,54 +308,6 @@ public class LoginActivity extends AppCompatActivity {
 
 
 
-    //ChatGPT usage: Yes
-    //created OkHttpClient instance is that it is configured to trust all SSL/TLS certificates
-    static public OkHttpClient getInsecureOkHttpClient() {
-        try {
-            // Create a trust manager that does not validate certificate chains
-            final TrustManager[] trustAllCerts = new TrustManager[]{
-                    new X509TrustManager() {
-                        @Override
-                        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                            // Intentionally left empty as no specific logic is required here
-                        }
-
-                        @Override
-                        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                            // Intentionally left empty as no specific logic is required here
-                        }
-
-                        @Override
-                        public X509Certificate[] getAcceptedIssuers() {
-                            return new X509Certificate[]{};
-                        }
-                    }
-            };
-
-            // Install the all-trusting trust manager
-            final SSLContext sslContext = SSLContext.getInstance("SSL");
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-
-            // Create an ssl socket factory with our all-trusting manager
-            final SSLSocketFactory sslSocketFactory = sslContext.getSocketFactory();
-
-            OkHttpClient.Builder builder = new OkHttpClient.Builder();
-            builder.sslSocketFactory(sslSocketFactory, (X509TrustManager) trustAllCerts[0]);
-            builder.hostnameVerifier((hostname, session) -> true);
-
-            return builder.build();
-
-        } catch (Exception e) {
-            throw new InsecureOkHttpClientException(e);
-        }
-    }
-
-    static class InsecureOkHttpClientException extends RuntimeException {
-        public InsecureOkHttpClientException(Throwable cause) {
-            super(cause);
-        }
-    }
-
     @Override
     public void onBackPressed() {
         // super.onBackPressed();   // Comment this line to disable back button
@@ -0,0 +1,22 @@
+package com.aava.cpen321project;
+
+import android.os.Handler;
+import android.os.Looper;
+
+// Runs PhaseScheduler and EmoteBoard ticks on the main thread.
+public class MainThreadTicker implements PhaseScheduler.Ticker {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // ChatGPT usage: No
+    @Override
+    public void schedule(Runnable tick, long delayMillis) {
+        handler.postDelayed(tick, delayMillis);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void cancel(Runnable tick) {
+        handler.removeCallbacks(tick);
+    }
+}
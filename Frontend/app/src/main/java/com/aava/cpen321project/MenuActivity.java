@@ -1,7 +1,5 @@
 package com.aava.cpen321project;
 
-import static com.aava.cpen321project.LoginActivity.getInsecureOkHttpClient;
-
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
@@ -89,6 +87,12 @@ public class MenuActivity extends AppCompatActivity implements View.OnClickListe
             Log.d(TAG,"Get userName from login" + userName + "userToken:" + userToken + "rank" +userRank);
         }
 
+        // Open the game socket while the player is still on the menu, so joining a room only
+        // has to wait for joinRoom.
+        if (sessionToken != null) {
+            AndroidPlatform.get(this).connection(sessionToken);
+        }
+
         GoogleSignInOptions gso = new GoogleSignInOptions.Builder(GoogleSignInOptions.DEFAULT_SIGN_IN)
                 .requestIdToken(getString(R.string.server_client_id))
                 .requestEmail()
@@ -282,7 +286,7 @@ public class MenuActivity extends AppCompatActivity implements View.OnClickListe
                     .post(body)
                     .build();
 
-            OkHttpClient insecureClient = getInsecureOkHttpClient();
+            OkHttpClient insecureClient = NetworkRuntime.getClient();
 
             insecureClient.newCall(request).enqueue(new Callback() {
                 @Override
@@ -342,8 +346,8 @@ public class MenuActivity extends AppCompatActivity implements View.OnClickListe
                     .post(body)
                     .build();
 
-            // Getting insecure OkHttpClient
-            OkHttpClient insecureClient = getInsecureOkHttpClient();
+            // Getting the shared OkHttpClient
+            OkHttpClient insecureClient = NetworkRuntime.getClient();
 
             // Making asynchronous HTTP call
             insecureClient.newCall(request).enqueue(new Callback() {
@@ -369,6 +373,7 @@ public class MenuActivity extends AppCompatActivity implements View.OnClickListe
                         return;
                     }
                     // Handle success (200 OK)
+                    GameConnection.closeShared();
                     showToast("Logging you out");
                     signOut();
                     Log.d(TAG, "User successfully logged out");
@@ -542,7 +547,7 @@ public class MenuActivity extends AppCompatActivity implements View.OnClickListe
                     .post(body)
                     .build();
 
-            OkHttpClient insecureClient = getInsecureOkHttpClient();
+            OkHttpClient insecureClient = NetworkRuntime.getClient();
 
 
             insecureClient.newCall(request).enqueue(new Callback() {
@@ -599,7 +604,7 @@ public class MenuActivity extends AppCompatActivity implements View.OnClickListe
                     .get()
                     .build();
 
-            OkHttpClient insecureClient = getInsecureOkHttpClient();
+            OkHttpClient insecureClient = NetworkRuntime.getClient();
 
             insecureClient.newCall(request).enqueue(new Callback() {
                 @Override
@@ -0,0 +1,111 @@
+package com.aava.cpen321project;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewStub;
+
+import java.util.List;
+
+// One of GameActivity's phase layers: the lobby, the countdown, the question and so on. Each
+// layer is a ViewStub in activity_game until it is first needed, so a layer the game never
+// reaches is never inflated, and one it has not reached yet costs nothing to measure or hold.
+// When the layer is inflated, its Binder looks its views up once into a holder that every later
+// visit reuses. A hidden layer is GONE rather than INVISIBLE, so layout passes skip it, and a
+// layer that will not be visited again can be released from the hierarchy altogether.
+public class PhaseLayer<V extends PhaseLayer.Views> {
+
+    // A layer's views, looked up once from its root.
+    public interface Views {
+        // The views that can be clicked only while the layer is showing.
+        List<? extends View> clickables();
+    }
+
+    public interface Binder<V> {
+        V bind(View layer);
+    }
+
+    private ViewStub stub;
+    private final Binder<V> binder;
+    private View root;
+    private V views;
+    private boolean released;
+
+    // ChatGPT usage: No
+    public PhaseLayer(ViewStub stub, Binder<V> binder) {
+        this.stub = stub;
+        this.binder = binder;
+    }
+
+    // The layer's views, inflating the layer if it has not been yet. The layer stays hidden.
+    // ChatGPT usage: No
+    public V views() {
+        if (views == null) {
+            if (released) {
+                throw new IllegalStateException("The layer was released");
+            }
+            root = stub.inflate();
+            stub = null;
+            views = binder.bind(root);
+        }
+        return views;
+    }
+
+    // The layer's views if it has been inflated, otherwise null.
+    // ChatGPT usage: No
+    public V boundViews() {
+        return views;
+    }
+
+    // ChatGPT usage: No
+    public boolean isShowing() {
+        return root != null && root.getVisibility() == View.VISIBLE;
+    }
+
+    // Show or hide the layer, leaving it untouched if it is already in the right state. Hiding a
+    // layer that was never inflated does not inflate it. Returns true if the layer was inflated
+    // to show it, i.e. its views have nothing drawn on them yet.
+    // ChatGPT usage: No
+    public boolean setShown(boolean shown, boolean activateClickables) {
+        if (!shown) {
+            if (isShowing()) {
+                root.setVisibility(View.GONE);
+                setClickable(false);
+            }
+            return false;
+        }
+        boolean inflated = views == null;
+        views();
+        if (!isShowing()) {
+            root.setVisibility(View.VISIBLE);
+            if (activateClickables) {
+                setClickable(true);
+            }
+        }
+        return inflated;
+    }
+
+    // Remove the layer for good, inflated or not, so it no longer holds any views.
+    // ChatGPT usage: No
+    public void release() {
+        View view = root != null ? root : stub;
+        if (view != null && view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+        root = null;
+        stub = null;
+        views = null;
+        released = true;
+    }
+
+    // ChatGPT usage: No
+    public boolean isReleased() {
+        return released;
+    }
+
+    // ChatGPT usage: No
+    private void setClickable(boolean clickable) {
+        for (View v : views.clickables()) {
+            v.setClickable(clickable);
+        }
+    }
+}
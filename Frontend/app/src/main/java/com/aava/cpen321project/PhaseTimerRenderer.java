@@ -0,0 +1,78 @@
+package com.aava.cpen321project;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.widget.TextView;
+
+// Draws the question timers once per frame, straight from the phase scheduler's deadline. The
+// value to display is worked out on every frame, but the views are only touched when it
+// changes, and the text comes from a TimerTextCache, so a running timer posts nothing and
+// allocates nothing. Runs on the main thread from phaseTimersStarted until the question's timed
+// phases are over.
+public class PhaseTimerRenderer implements Choreographer.FrameCallback {
+
+    private final PhaseScheduler phaseScheduler;
+    private final TimerTextCache timerTextCache;
+    private final TextView countdownReadyLabel;
+    private final TextView countdownCountLabel;
+    private final TextView questionTimerLabel;
+
+    private boolean running;
+    private PhaseScheduler.Phase shownPhase;
+    private int shownValue;
+
+    // ChatGPT usage: No
+    public PhaseTimerRenderer(PhaseScheduler phaseScheduler, TimerTextCache timerTextCache,
+                              TextView countdownReadyLabel, TextView countdownCountLabel,
+                              TextView questionTimerLabel) {
+        this.phaseScheduler = phaseScheduler;
+        this.timerTextCache = timerTextCache;
+        this.countdownReadyLabel = countdownReadyLabel;
+        this.countdownCountLabel = countdownCountLabel;
+        this.questionTimerLabel = questionTimerLabel;
+    }
+
+    // ChatGPT usage: No
+    public void start() {
+        shownPhase = null;
+        if (!running) {
+            running = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        PhaseScheduler.Phase phase = phaseScheduler.phase();
+        long millisRemaining = phaseScheduler.millisRemaining();
+        switch (phase) {
+            case COUNTDOWN:
+                int count = TimerTextCache.countdownValue(millisRemaining);
+                if (phase != shownPhase || count != shownValue) {
+                    boolean ready = count == TimerTextCache.COUNTDOWN_READY;
+                    countdownReadyLabel.setVisibility(ready ? View.VISIBLE : View.INVISIBLE);
+                    countdownCountLabel.setVisibility(ready ? View.INVISIBLE : View.VISIBLE);
+                    if (!ready) {
+                        countdownCountLabel.setText(TimerTextCache.countdownText(count));
+                    }
+                    shownValue = count;
+                }
+                break;
+            case READING:
+            case ANSWERING:
+                int tenths = TimerTextCache.tenths(millisRemaining);
+                if (phase != shownPhase || tenths != shownValue) {
+                    questionTimerLabel.setText(timerTextCache.text(tenths));
+                    shownValue = tenths;
+                }
+                break;
+            default:
+                // The question's timers are over.
+                running = false;
+                return;
+        }
+        shownPhase = phase;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
@@ -0,0 +1,156 @@
+package com.aava.cpen321project;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+// Prepares a question's text for display in the background, while its countdown runs. The
+// question and its answers are decoded from HTML and measured by a TextPreparer as soon as the
+// question arrives, so revealing it is only a matter of setting the prepared text. Prepared
+// questions are kept in a small LRU cache keyed by the question text.
+public class QuestionTextPipeline {
+
+    public static final int CACHE_SIZE = 8;
+
+    // Label index of the question; answers are 1 to 4.
+    public static final int QUESTION_LABEL = 0;
+
+    public interface TextPreparer {
+        CharSequence prepare(int label, String html);
+    }
+
+    // A question's display-ready text.
+    public static final class PreparedQuestion {
+        public final CharSequence question;
+        private final CharSequence[] answers;
+
+        // ChatGPT usage: No
+        PreparedQuestion(CharSequence question, CharSequence[] answers) {
+            this.question = question;
+            this.answers = answers;
+        }
+
+        // ChatGPT usage: No
+        public CharSequence answer(int index) {
+            return answers[index];
+        }
+    }
+
+    private final TextPreparer preparer;
+    private final Executor executor;
+
+    // Guarded by this. Access ordered, so the eldest entry is the least recently used.
+    private final Map<String, Entry> cache = new LinkedHashMap<String, Entry>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private long preparedAhead;
+    private long preparedOnTake;
+
+    // ChatGPT usage: No
+    public QuestionTextPipeline(TextPreparer preparer) {
+        this(preparer, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "QuestionText");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    // ChatGPT usage: No
+    public QuestionTextPipeline(TextPreparer preparer, Executor executor) {
+        this.preparer = preparer;
+        this.executor = executor;
+    }
+
+    // Start preparing a question in the background, unless it already is.
+    // ChatGPT usage: No
+    public void prepare(String question, String[] answers) {
+        Entry entry;
+        synchronized (this) {
+            Entry cached = cache.get(question);
+            if (cached != null && cached.matches(answers)) {
+                return;
+            }
+            entry = newEntry(question, answers);
+            cache.put(question, entry);
+        }
+        executor.execute(entry.task);
+    }
+
+    // The prepared text for a question. If the background work has not started yet it is done
+    // here on the caller's thread; if it is under way, this waits only for the rest of it.
+    // ChatGPT usage: No
+    public PreparedQuestion take(String question, String[] answers) {
+        Entry entry;
+        synchronized (this) {
+            entry = cache.get(question);
+            if (entry == null || !entry.matches(answers)) {
+                entry = newEntry(question, answers);
+                cache.put(question, entry);
+            }
+            if (entry.task.isDone()) {
+                preparedAhead++;
+            } else {
+                preparedOnTake++;
+            }
+        }
+        entry.task.run();
+        try {
+            return entry.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return prepareNow(question, answers);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not prepare question text", e.getCause());
+        }
+    }
+
+    // Questions whose text was ready before it was needed.
+    // ChatGPT usage: No
+    public synchronized long preparedAhead() {
+        return preparedAhead;
+    }
+
+    // Questions whose text still had to be prepared, at least in part, when it was needed.
+    // ChatGPT usage: No
+    public synchronized long preparedOnTake() {
+        return preparedOnTake;
+    }
+
+    // ChatGPT usage: No
+    private Entry newEntry(String question, String[] answers) {
+        String[] ownAnswers = answers.clone();
+        return new Entry(ownAnswers, new FutureTask<>(() -> prepareNow(question, ownAnswers)));
+    }
+
+    // ChatGPT usage: No
+    private PreparedQuestion prepareNow(String question, String[] answers) {
+        CharSequence[] preparedAnswers = new CharSequence[answers.length];
+        for (int i = 0; i < answers.length; i++) {
+            preparedAnswers[i] = preparer.prepare(QUESTION_LABEL + 1 + i, answers[i]);
+        }
+        return new PreparedQuestion(preparer.prepare(QUESTION_LABEL, question), preparedAnswers);
+    }
+
+    // The same question text can come back with its answers in a different order.
+    private static final class Entry {
+        final String[] answers;
+        final FutureTask<PreparedQuestion> task;
+
+        Entry(String[] answers, FutureTask<PreparedQuestion> task) {
+            this.answers = answers;
+            this.task = task;
+        }
+
+        boolean matches(String[] otherAnswers) {
+            return Arrays.equals(answers, otherAnswers);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.aava.cpen321project;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Times the stages of bringing up a GameActivity, from onCreate to the first frame and to the
+// lobby being visible. The stages happen on different threads and not always in the same order:
+// the network session starts in the background while the layout inflates, so either may finish
+// first. Each stage is recorded the first time it is reached.
+public class StartupTrace {
+
+    public enum Stage {
+        CREATED,
+        // The game's SocketManager is attached to the connection and joining the room.
+        SESSION_STARTED,
+        // The layout is inflated and its views found, so frames may render.
+        VIEWS_BOUND,
+        FIRST_FRAME,
+        LOBBY_VISIBLE
+    }
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final MonotonicClock clock;
+    private final AtomicLongArray reachedAt = new AtomicLongArray(Stage.values().length);
+
+    // ChatGPT usage: No
+    public StartupTrace(MonotonicClock clock) {
+        this.clock = clock;
+        for (int i = 0; i < reachedAt.length(); i++) {
+            reachedAt.set(i, UNSET);
+        }
+        mark(Stage.CREATED);
+    }
+
+    // Record reaching a stage. Returns false if it had already been reached. Safe from any thread.
+    // ChatGPT usage: No
+    public boolean mark(Stage stage) {
+        return reachedAt.compareAndSet(stage.ordinal(), UNSET, clock.elapsedMillis());
+    }
+
+    // ChatGPT usage: No
+    public boolean reached(Stage stage) {
+        return reachedAt.get(stage.ordinal()) != UNSET;
+    }
+
+    // Milliseconds from onCreate to a stage, or -1 if it has not been reached.
+    // ChatGPT usage: No
+    public long millisTo(Stage stage) {
+        long at = reachedAt.get(stage.ordinal());
+        return at == UNSET ? -1 : at - reachedAt.get(Stage.CREATED.ordinal());
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public String toString() {
+        return "session=" + millisTo(Stage.SESSION_STARTED) + "ms views=" + millisTo(Stage.VIEWS_BOUND)
+                + "ms firstFrame=" + millisTo(Stage.FIRST_FRAME) + "ms lobby=" + millisTo(Stage.LOBBY_VISIBLE) + "ms";
+    }
+}
@@ -0,0 +1,53 @@
+package com.aava.cpen321project;
+
+import java.util.Locale;
+
+// Pre-rendered text for the question timers. Every tenth of a second up to the longest time
+// limit is formatted once, so a running timer only ever looks up an existing String.
+public class TimerTextCache {
+
+    // Countdown value for the "ready" screen shown before the count starts.
+    public static final int COUNTDOWN_READY = 4;
+
+    private static final String[] COUNTDOWN_TEXTS = {"0", "1", "2", "3"};
+
+    private final String format;
+    private final Locale locale;
+    private final String[] texts;
+
+    // ChatGPT usage: No
+    public TimerTextCache(String format, Locale locale, int maxSeconds) {
+        this.format = format;
+        this.locale = locale;
+        this.texts = new String[maxSeconds * 10 + 1];
+        for (int tenths = 0; tenths < texts.length; tenths++) {
+            texts[tenths] = String.format(locale, format, tenths / 10.0);
+        }
+    }
+
+    // Tenths of a second shown for the time remaining, rounded the way the %.1f format rounds.
+    // ChatGPT usage: No
+    public static int tenths(long millisRemaining) {
+        return (int) ((Math.max(0, millisRemaining) + 50) / 100);
+    }
+
+    // The count shown for the time left in the countdown: COUNTDOWN_READY for its first
+    // seconds, then 3, 2, 1.
+    // ChatGPT usage: No
+    public static int countdownValue(long millisRemaining) {
+        return (int) Math.min(COUNTDOWN_READY, Math.max(1, (millisRemaining + 999) / 1000));
+    }
+
+    // ChatGPT usage: No
+    public String text(int tenths) {
+        if (tenths >= 0 && tenths < texts.length) {
+            return texts[tenths];
+        }
+        return String.format(locale, format, tenths / 10.0);
+    }
+
+    // ChatGPT usage: No
+    public static String countdownText(int value) {
+        return COUNTDOWN_TEXTS[Math.max(0, Math.min(value, COUNTDOWN_TEXTS.length - 1))];
+    }
+}
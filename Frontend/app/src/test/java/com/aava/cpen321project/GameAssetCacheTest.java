@@ -0,0 +1,147 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GameAssetCacheTest {
+
+    private static final int[] LOBBY_PRELOAD = {1, 2, 3, 4};
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private int decodes;
+    private final GameAssetCache<String> cache = new GameAssetCache<>(new GameAssetCache.Decoder<String>() {
+        @Override
+        public String decode(int resId) {
+            decodes++;
+            return "image" + resId;
+        }
+
+        @Override
+        public long byteCount(String asset) {
+            return 1024;
+        }
+    }, executor);
+
+    @Test
+    public void imagesPreloadedInTheLobbyAreNeverDecodedAgain() {
+        cache.preload(LOBBY_PRELOAD);
+        executor.runAll();
+        assertEquals(4, decodes);
+
+        // Every question sets the same tiles again.
+        for (int question = 0; question < 10; question++) {
+            assertEquals("image1", cache.get(1));
+            assertEquals("image3", cache.get(3));
+        }
+        assertEquals(4, decodes);
+        GameAssetCache.Metrics metrics = cache.metrics();
+        assertEquals(4, metrics.decoded);
+        assertEquals(20, metrics.hits);
+        assertEquals(0, metrics.misses);
+        assertEquals(4 * 1024, metrics.bytes);
+    }
+
+    @Test
+    public void anImageNeededBeforeItsTurnIsDecodedOnce() {
+        cache.preload(LOBBY_PRELOAD);
+        // The game starts before the background thread gets to image 2.
+        assertEquals("image2", cache.get(2));
+        executor.runAll();
+        assertEquals(4, decodes);
+        assertEquals(1, cache.metrics().waits);
+    }
+
+    @Test
+    public void anImageOutsideTheSetIsDecodedWhereItIsAsked() {
+        assertEquals("image9", cache.get(9));
+        assertEquals("image9", cache.get(9));
+        assertEquals(1, decodes);
+        assertEquals(1, cache.metrics().misses);
+        assertEquals(1, cache.metrics().hits);
+        // Preloading it later finds it cached.
+        cache.preload(new int[] {9});
+        assertEquals(0, executor.pending());
+    }
+
+    @Test
+    public void anImageBeingDecodedIsWaitedFor() throws Exception {
+        CountDownLatch decoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object decoded = new Object();
+        int[] slowDecodes = {0};
+        ExecutorService background = Executors.newSingleThreadExecutor();
+        GameAssetCache<Object> slow = new GameAssetCache<>(new GameAssetCache.Decoder<Object>() {
+            @Override
+            public Object decode(int resId) {
+                slowDecodes[0]++;
+                decoding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return decoded;
+            }
+
+            @Override
+            public long byteCount(Object asset) {
+                return 0;
+            }
+        }, background);
+
+        slow.preload(new int[] {1});
+        decoding.await(5, TimeUnit.SECONDS);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+        assertSame(decoded, slow.get(1));
+        assertEquals(1, slowDecodes[0]);
+        background.shutdown();
+    }
+
+    @Test
+    public void imagesAreSampledDownToTheirDisplaySize() {
+        // A 1024px emote shown at 30dp on a 3x screen.
+        assertEquals(8, GameAssetCache.sampleSize(1024, 90));
+        // Never below the size it is shown at.
+        assertEquals(4, GameAssetCache.sampleSize(1024, 256));
+        assertEquals(2, GameAssetCache.sampleSize(1024, 257));
+        // An image smaller than its display size, or one of unknown size, is kept whole.
+        assertEquals(1, GameAssetCache.sampleSize(82, 90));
+        assertEquals(1, GameAssetCache.sampleSize(1024, 0));
+    }
+
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        int pending() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+public class QuestionTextPipelineTest {
+
+    private static final String[] ANSWERS = {"Aragorn", "Bilbo &amp; Frodo", "Legolas", "Gimli"};
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private int prepared;
+    private final QuestionTextPipeline pipeline = new QuestionTextPipeline((label, html) -> {
+        prepared++;
+        return label + ":" + html.replace("&amp;", "&");
+    }, executor);
+
+    @Test
+    public void questionPreparedDuringTheCountdownIsOnlySetOnReveal() {
+        pipeline.prepare("Whose sword is Sting?", ANSWERS);
+        executor.runAll();
+        assertEquals(5, prepared);
+
+        QuestionTextPipeline.PreparedQuestion question = pipeline.take("Whose sword is Sting?", ANSWERS);
+        assertEquals(5, prepared);
+        assertEquals("0:Whose sword is Sting?", question.question);
+        assertEquals("2:Bilbo & Frodo", question.answer(1));
+        assertEquals(1, pipeline.preparedAhead());
+        assertEquals(0, pipeline.preparedOnTake());
+    }
+
+    @Test
+    public void revealBeforeTheBackgroundWorkRunsPreparesItOnce() {
+        pipeline.prepare("Whose sword is Sting?", ANSWERS);
+        QuestionTextPipeline.PreparedQuestion question = pipeline.take("Whose sword is Sting?", ANSWERS);
+        executor.runAll();
+        assertEquals(5, prepared);
+        assertEquals("4:Gimli", question.answer(3));
+        assertEquals(1, pipeline.preparedOnTake());
+    }
+
+    @Test
+    public void reshuffledAnswersArePreparedAgain() {
+        pipeline.prepare("Whose sword is Sting?", ANSWERS);
+        executor.runAll();
+        QuestionTextPipeline.PreparedQuestion first = pipeline.take("Whose sword is Sting?", ANSWERS);
+
+        String[] reshuffled = {"Gimli", "Legolas", "Bilbo &amp; Frodo", "Aragorn"};
+        pipeline.prepare("Whose sword is Sting?", reshuffled);
+        executor.runAll();
+        QuestionTextPipeline.PreparedQuestion second = pipeline.take("Whose sword is Sting?", reshuffled);
+        assertNotSame(first, second);
+        assertEquals("1:Gimli", second.answer(0));
+        assertSame(second, pipeline.take("Whose sword is Sting?", reshuffled));
+    }
+
+    @Test
+    public void leastRecentlyUsedQuestionIsEvicted() {
+        for (int i = 0; i <= QuestionTextPipeline.CACHE_SIZE; i++) {
+            pipeline.prepare("Question " + i, ANSWERS);
+        }
+        executor.runAll();
+        assertEquals(5 * (QuestionTextPipeline.CACHE_SIZE + 1), prepared);
+
+        pipeline.take("Question " + QuestionTextPipeline.CACHE_SIZE, ANSWERS);
+        pipeline.take("Question 0", ANSWERS);
+        assertEquals(5 * (QuestionTextPipeline.CACHE_SIZE + 2), prepared);
+    }
+
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+}
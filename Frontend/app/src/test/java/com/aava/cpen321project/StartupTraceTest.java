@@ -0,0 +1,48 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StartupTraceTest {
+
+    private long now = 1000;
+
+    @Test
+    public void stagesAreTimedFromCreation() {
+        StartupTrace trace = new StartupTrace(() -> now);
+        assertEquals(0, trace.millisTo(StartupTrace.Stage.CREATED));
+        assertEquals(-1, trace.millisTo(StartupTrace.Stage.LOBBY_VISIBLE));
+
+        // The session starts in the background and may finish before the views are bound.
+        now += 4;
+        trace.mark(StartupTrace.Stage.SESSION_STARTED);
+        now += 30;
+        trace.mark(StartupTrace.Stage.VIEWS_BOUND);
+        now += 16;
+        trace.mark(StartupTrace.Stage.FIRST_FRAME);
+        now += 90;
+        trace.mark(StartupTrace.Stage.LOBBY_VISIBLE);
+
+        assertEquals(4, trace.millisTo(StartupTrace.Stage.SESSION_STARTED));
+        assertEquals(34, trace.millisTo(StartupTrace.Stage.VIEWS_BOUND));
+        assertEquals(50, trace.millisTo(StartupTrace.Stage.FIRST_FRAME));
+        assertEquals(140, trace.millisTo(StartupTrace.Stage.LOBBY_VISIBLE));
+        assertEquals("session=4ms views=34ms firstFrame=50ms lobby=140ms", trace.toString());
+    }
+
+    @Test
+    public void onlyTheFirstTimeAStageIsReachedCounts() {
+        StartupTrace trace = new StartupTrace(() -> now);
+        assertFalse(trace.reached(StartupTrace.Stage.LOBBY_VISIBLE));
+        now += 100;
+        assertTrue(trace.mark(StartupTrace.Stage.LOBBY_VISIBLE));
+        // Back to the lobby after the next game.
+        now += 60000;
+        assertFalse(trace.mark(StartupTrace.Stage.LOBBY_VISIBLE));
+        assertEquals(100, trace.millisTo(StartupTrace.Stage.LOBBY_VISIBLE));
+        assertTrue(trace.reached(StartupTrace.Stage.LOBBY_VISIBLE));
+    }
+}
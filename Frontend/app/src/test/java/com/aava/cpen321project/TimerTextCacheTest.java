@@ -0,0 +1,43 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+public class TimerTextCacheTest {
+
+    private static final String FORMAT = "%1$.1f";
+
+    @Test
+    public void rendersWhatTheFormatWouldForEveryMillisecond() {
+        TimerTextCache cache = new TimerTextCache(FORMAT, Locale.US, 30);
+        for (long millis = 0; millis <= 30000; millis++) {
+            assertEquals(String.format(Locale.US, FORMAT, millis / 1000.0),
+                    cache.text(TimerTextCache.tenths(millis)));
+        }
+        // Out of range values are still formatted, just not cached.
+        assertEquals("45.0", cache.text(TimerTextCache.tenths(45000)));
+    }
+
+    @Test
+    public void runningTimerReusesTheSameStrings() {
+        TimerTextCache cache = new TimerTextCache(FORMAT, Locale.US, 30);
+        String first = cache.text(TimerTextCache.tenths(12340));
+        assertSame(first, cache.text(TimerTextCache.tenths(12300)));
+        assertSame(first, cache.text(123));
+    }
+
+    @Test
+    public void countdownShowsReadyThenThreeTwoOne() {
+        assertEquals(TimerTextCache.COUNTDOWN_READY, TimerTextCache.countdownValue(5000));
+        assertEquals(TimerTextCache.COUNTDOWN_READY, TimerTextCache.countdownValue(3001));
+        assertEquals(3, TimerTextCache.countdownValue(3000));
+        assertEquals(2, TimerTextCache.countdownValue(2000));
+        assertEquals(1, TimerTextCache.countdownValue(1000));
+        assertEquals(1, TimerTextCache.countdownValue(0));
+        assertEquals("2", TimerTextCache.countdownText(2));
+    }
+}
@@ -0,0 +1,176 @@
+package com.aava.cpen321project;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Estimates the offset between the local monotonic clock and the server's clock, NTP style.
+// Each clockPing carries its monotonic send time, and the server's clockPong echoes it with the
+// server's time. Assuming the path is symmetric, the server read its clock halfway through the
+// round trip, so offset = serverTime - (sendTime + rtt / 2). The samples with the shortest round
+// trip leave the least room for asymmetry, so the estimate follows the best sample among the
+// recent ones. A short burst of pings gives a first estimate quickly, and a slow periodic ping
+// keeps it current.
+public class ClockSync {
+
+    public static final int BURST_PINGS = 5;
+    public static final long BURST_INTERVAL_MILLIS = 200;
+    public static final long RESYNC_INTERVAL_MILLIS = 15000;
+
+    // Number of recent samples the best one is chosen from.
+    static final int WINDOW = 8;
+
+    public interface Pinger {
+        void ping(long clientSendTime);
+    }
+
+    private final Pinger pinger;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final MonotonicClock clock;
+
+    // Guarded by this.
+    private final long[] sampleRtts = new long[WINDOW];
+    private final long[] sampleOffsets = new long[WINDOW];
+    private int samples;
+    private int pingsSent;
+    private long offset;
+    private long rtt;
+    private long smoothedRtt;
+    private boolean running;
+
+    // ChatGPT usage: No
+    public ClockSync(Pinger pinger) {
+        this(pinger, MonotonicClock.SYSTEM);
+    }
+
+    // As above, measuring round trips on clock. The scheduler's thread only starts with the
+    // first ping.
+    // ChatGPT usage: No
+    public ClockSync(Pinger pinger, MonotonicClock clock) {
+        this(pinger, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ClockSync");
+            thread.setDaemon(true);
+            return thread;
+        }), clock, true);
+    }
+
+    // ChatGPT usage: No
+    public ClockSync(Pinger pinger, ScheduledExecutorService scheduler, MonotonicClock clock) {
+        this(pinger, scheduler, clock, false);
+    }
+
+    // ChatGPT usage: No
+    private ClockSync(Pinger pinger, ScheduledExecutorService scheduler, MonotonicClock clock, boolean ownsScheduler) {
+        this.pinger = pinger;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    // Start pinging. Called once the server advertises the clockSync feature.
+    // ChatGPT usage: No
+    public void start() {
+        synchronized (this) {
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        ping();
+    }
+
+    // The server's clockPong for one of our pings.
+    // ChatGPT usage: No
+    public synchronized void pong(long clientSendTime, long serverTime) {
+        long sampleRtt = clock.elapsedMillis() - clientSendTime;
+        if (sampleRtt < 0) {
+            return;
+        }
+        int slot = samples % WINDOW;
+        sampleRtts[slot] = sampleRtt;
+        sampleOffsets[slot] = serverTime - (clientSendTime + sampleRtt / 2);
+        smoothedRtt = samples == 0 ? sampleRtt : smoothedRtt + (sampleRtt - smoothedRtt) / 8;
+        samples++;
+
+        int best = 0;
+        for (int i = 1; i < Math.min(samples, WINDOW); i++) {
+            if (sampleRtts[i] < sampleRtts[best]) {
+                best = i;
+            }
+        }
+        rtt = sampleRtts[best];
+        offset = sampleOffsets[best];
+    }
+
+    // ChatGPT usage: No
+    public synchronized boolean isSynced() {
+        return samples > 0;
+    }
+
+    // The server's current time, estimated from the local monotonic clock.
+    // ChatGPT usage: No
+    public long serverNow() {
+        return clock.elapsedMillis() + offsetMillis();
+    }
+
+    // The local monotonic time at which the server's clock reads serverTime.
+    // ChatGPT usage: No
+    public long toLocal(long serverTime) {
+        return serverTime - offsetMillis();
+    }
+
+    // ChatGPT usage: No
+    public synchronized long offsetMillis() {
+        return offset;
+    }
+
+    // Round trip of the sample the offset is taken from.
+    // ChatGPT usage: No
+    public synchronized long rttMillis() {
+        return rtt;
+    }
+
+    // Smoothed round trip over all samples.
+    // ChatGPT usage: No
+    public synchronized long smoothedRttMillis() {
+        return smoothedRtt;
+    }
+
+    // ChatGPT usage: No
+    public MonotonicClock clock() {
+        return clock;
+    }
+
+    // Stop pinging.
+    // ChatGPT usage: No
+    public void close() {
+        synchronized (this) {
+            running = false;
+        }
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // ChatGPT usage: No
+    private void ping() {
+        long delay;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            pingsSent++;
+            delay = pingsSent < BURST_PINGS ? BURST_INTERVAL_MILLIS : RESYNC_INTERVAL_MILLIS;
+        }
+        pinger.ping(clock.elapsedMillis());
+        try {
+            scheduler.schedule(this::ping, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                running = false;
+            }
+        }
+    }
+}
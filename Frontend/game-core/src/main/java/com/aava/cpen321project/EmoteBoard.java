@@ -0,0 +1,234 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shows the other players' emotes over their seats. Emotes arrive on the game event thread at
+// whatever rate the room sends them, and are coalesced per player until the next frame: a burst
+// from one player is shown once, as its latest emote and how many it replaced, and holds at most
+// one pending entry per player however long the burst is. Each frame spends one token of a rate
+// budget per seat it updates and drops what the budget cannot cover, so the UI work is capped
+// whatever the inbound rate.
+//
+// Each seat has one Seat that is reused for every emote shown there, and all seats share one
+// expiry tick scheduled for the earliest of their deadlines. Apart from offer(), every method
+// must be called on the ticker's thread.
+public class EmoteBoard {
+
+    public static final long SHOW_MILLIS = 2000;
+    // The default budget: a frame can update every seat at once, then at most this many a second.
+    public static final int DEFAULT_BURST = 6;
+    public static final int DEFAULT_PER_SECOND = 8;
+
+    // Where one seat's emotes are drawn.
+    public interface Seat {
+        // Show an emote, replacing any already shown. burst is how many emotes the player sent
+        // since the last one shown, counting this one.
+        void show(int emoteCode, int burst);
+        void hide();
+    }
+
+    // Counts since the board was created.
+    public static final class Metrics {
+        public final long received;
+        // Emotes replaced by a later one from the same player before a frame showed them.
+        public final long coalesced;
+        public final long shown;
+        // Emotes dropped because the frame's budget was spent or the player has no seat.
+        public final long dropped;
+
+        // ChatGPT usage: No
+        Metrics(long received, long coalesced, long shown, long dropped) {
+            this.received = received;
+            this.coalesced = coalesced;
+            this.shown = shown;
+            this.dropped = dropped;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public String toString() {
+            return "received=" + received + " coalesced=" + coalesced + " shown=" + shown + " dropped=" + dropped;
+        }
+    }
+
+    // A player's emotes waiting for a frame. One per player, reused from burst to burst.
+    private static final class Burst {
+        final String username;
+        int emoteCode;
+        int count;
+
+        // ChatGPT usage: No
+        Burst(String username) {
+            this.username = username;
+        }
+    }
+
+    private final MonotonicClock clock;
+    private final PhaseScheduler.Ticker ticker;
+    private final TokenBucket budget;
+    private final Runnable expire = this::expire;
+
+    // Guarded by bursts.
+    private final Map<String, Burst> bursts = new HashMap<>();
+    private List<Burst> ready = new ArrayList<>();
+    private long received;
+    private long coalesced;
+
+    // Confined to the ticker's thread.
+    private List<Burst> draining = new ArrayList<>();
+    private int[] drainCodes = new int[DEFAULT_BURST];
+    private int[] drainCounts = new int[DEFAULT_BURST];
+    private Seat[] seats = new Seat[0];
+    private long[] expiresAt = new long[0];
+    // When the expiry tick is due, or 0 if none is scheduled.
+    private long expiryDueAt;
+    private long shown;
+    private long dropped;
+
+    // ChatGPT usage: No
+    public EmoteBoard(MonotonicClock clock, PhaseScheduler.Ticker ticker, TokenBucket budget) {
+        this.clock = clock;
+        this.ticker = ticker;
+        this.budget = budget;
+    }
+
+    // Set the seats emotes are shown on, in the roster's seat order.
+    // ChatGPT usage: No
+    public void setSeats(Seat[] seats) {
+        clear();
+        this.seats = seats.clone();
+        this.expiresAt = new long[seats.length];
+    }
+
+    // ChatGPT usage: No
+    public boolean offer(String username, int emoteCode) {
+        return offer(username, emoteCode, 1);
+    }
+
+    // Queue an emote for the next frame, standing for count emotes the server batched into one.
+    // Safe from any thread. Returns true if the player had nothing queued yet, i.e. the caller
+    // needs to mark a frame for it.
+    // ChatGPT usage: No
+    public boolean offer(String username, int emoteCode, int count) {
+        synchronized (bursts) {
+            received += count;
+            // All but the latest of a batch were replaced before they reached us.
+            coalesced += count - 1;
+            Burst burst = bursts.get(username);
+            if (burst == null) {
+                burst = new Burst(username);
+                bursts.put(username, burst);
+            }
+            if (burst.count > 0) {
+                coalesced++;
+            } else {
+                ready.add(burst);
+            }
+            burst.emoteCode = emoteCode;
+            burst.count += count;
+            return burst.count == count;
+        }
+    }
+
+    // Show what was queued since the last frame.
+    // ChatGPT usage: No
+    public void render(RoomRoster.Snapshot roster) {
+        int n;
+        synchronized (bursts) {
+            List<Burst> swap = ready;
+            ready = draining;
+            draining = swap;
+            n = draining.size();
+            if (drainCodes.length < n) {
+                drainCodes = new int[n];
+                drainCounts = new int[n];
+            }
+            for (int i = 0; i < n; i++) {
+                Burst burst = draining.get(i);
+                drainCodes[i] = burst.emoteCode;
+                drainCounts[i] = burst.count;
+                burst.count = 0;
+            }
+        }
+        long now = clock.elapsedMillis();
+        for (int i = 0; i < n; i++) {
+            int seat = roster.seatOf(draining.get(i).username);
+            // The player may have left, or sit beyond the seats shown on screen.
+            if (seat < 0 || seat >= seats.length || !budget.tryTake()) {
+                dropped++;
+                continue;
+            }
+            seats[seat].show(drainCodes[i], drainCounts[i]);
+            shown++;
+            expiresAt[seat] = now + SHOW_MILLIS;
+        }
+        draining.clear();
+        scheduleExpiry(now);
+    }
+
+    // Hide every seat and forget what was queued, e.g. when the game ends.
+    // ChatGPT usage: No
+    public void clear() {
+        synchronized (bursts) {
+            for (Burst burst : ready) {
+                burst.count = 0;
+            }
+            ready.clear();
+        }
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (expiresAt[seat] != 0) {
+                expiresAt[seat] = 0;
+                seats[seat].hide();
+            }
+        }
+        if (expiryDueAt != 0) {
+            ticker.cancel(expire);
+            expiryDueAt = 0;
+        }
+    }
+
+    // Every emote received is counted once: as shown, coalesced into a later one, or dropped.
+    // ChatGPT usage: No
+    public Metrics metrics() {
+        synchronized (bursts) {
+            return new Metrics(received, coalesced, shown, dropped);
+        }
+    }
+
+    // ChatGPT usage: No
+    private void expire() {
+        expiryDueAt = 0;
+        long now = clock.elapsedMillis();
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (expiresAt[seat] != 0 && expiresAt[seat] <= now) {
+                expiresAt[seat] = 0;
+                seats[seat].hide();
+            }
+        }
+        scheduleExpiry(now);
+    }
+
+    // Make sure the expiry tick is due no later than the earliest seat deadline. Every emote
+    // shows for the same time, so a later emote never brings the tick forward and it is posted
+    // at most once per deadline.
+    // ChatGPT usage: No
+    private void scheduleExpiry(long now) {
+        long earliest = 0;
+        for (long deadline : expiresAt) {
+            if (deadline != 0 && (earliest == 0 || deadline < earliest)) {
+                earliest = deadline;
+            }
+        }
+        if (earliest == 0 || (expiryDueAt != 0 && expiryDueAt <= earliest)) {
+            return;
+        }
+        if (expiryDueAt != 0) {
+            ticker.cancel(expire);
+        }
+        expiryDueAt = earliest;
+        ticker.schedule(expire, Math.max(0, earliest - now));
+    }
+}
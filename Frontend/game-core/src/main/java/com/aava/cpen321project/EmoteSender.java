@@ -0,0 +1,141 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayDeque;
+
+// Rate-limits and batches the player's own emotes before they go out on the socket. Every emote
+// the server receives is broadcast to the whole room, so a player mashing the emote button costs
+// the server a fan-out per tap and every device in the room a render.
+//
+// Each tap takes a token from a TokenBucket and is dropped when none is left. Taps that pass
+// are held for a short window and then flushed together: as one submitEmotes message carrying
+// the run when the server supports it, otherwise as a single submitEmote of the run's latest
+// emote. A run longer than MAX_BATCH keeps its latest emotes. The window runs on the ticker and
+// the limiter on the clock it is given.
+public class EmoteSender {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 250;
+    // The limiter's default budget: a burst of taps, then at most this many a second.
+    public static final int DEFAULT_BURST = 5;
+    public static final int DEFAULT_PER_SECOND = 3;
+    // Matches the most the server accepts in one submitEmotes.
+    public static final int MAX_BATCH = 10;
+
+    public interface EmoteEmitter {
+        void emitEmote(int emoteCode);
+        void emitEmotes(int[] emoteCodes);
+    }
+
+    private final EmoteEmitter emitter;
+    private final FlushWindow window;
+
+    // Guarded by this.
+    private final TokenBucket limiter;
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    private long offered;
+    private long emitted;
+    private long coalesced;
+    private long dropped;
+
+    private volatile boolean batchSupported;
+
+    // ChatGPT usage: No
+    public EmoteSender(EmoteEmitter emitter, PhaseScheduler.Ticker ticker, MonotonicClock clock) {
+        this(emitter, ticker, DEFAULT_WINDOW_MILLIS, new TokenBucket(clock, DEFAULT_BURST, DEFAULT_PER_SECOND));
+    }
+
+    // ChatGPT usage: No
+    public EmoteSender(EmoteEmitter emitter, PhaseScheduler.Ticker ticker, long windowMillis, TokenBucket limiter) {
+        this.emitter = emitter;
+        this.window = new FlushWindow(ticker, windowMillis, this::emitPending);
+        this.limiter = limiter;
+    }
+
+    // Called once the server advertises the emoteBatches feature.
+    // ChatGPT usage: No
+    public void setBatchSupported(boolean batchSupported) {
+        this.batchSupported = batchSupported;
+    }
+
+    // Queue an emote, to go out with the rest of its window. Returns false if the limiter
+    // dropped it.
+    // ChatGPT usage: No
+    public boolean offer(int emoteCode) {
+        synchronized (this) {
+            offered++;
+            if (!limiter.tryTake()) {
+                dropped++;
+                return false;
+            }
+            if (pending.size() == MAX_BATCH) {
+                pending.poll();
+                coalesced++;
+            }
+            pending.add(emoteCode);
+        }
+        window.held();
+        return true;
+    }
+
+    // Emit everything pending now.
+    // ChatGPT usage: No
+    public void flush() {
+        window.flush();
+    }
+
+    // Drop anything pending and stop the window timer.
+    // ChatGPT usage: No
+    public void close() {
+        synchronized (this) {
+            pending.clear();
+        }
+        window.close();
+    }
+
+    // ChatGPT usage: No
+    public synchronized long offeredCount() {
+        return offered;
+    }
+
+    // Messages sent to the server.
+    // ChatGPT usage: No
+    public synchronized long emittedCount() {
+        return emitted;
+    }
+
+    // Emotes left out of what was sent because a later one in the same window replaced them.
+    // ChatGPT usage: No
+    public synchronized long coalescedCount() {
+        return coalesced;
+    }
+
+    // Emotes the limiter turned away.
+    // ChatGPT usage: No
+    public synchronized long droppedCount() {
+        return dropped;
+    }
+
+    // The window's drain.
+    // ChatGPT usage: No
+    private void emitPending() {
+        int[] run;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            run = new int[pending.size()];
+            for (int i = 0; i < run.length; i++) {
+                run[i] = pending.poll();
+            }
+            emitted++;
+            if (!batchSupported) {
+                coalesced += run.length - 1;
+            }
+        }
+
+        if (batchSupported && run.length > 1) {
+            emitter.emitEmotes(run);
+        } else {
+            emitter.emitEmote(run[run.length - 1]);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Converts one socket event's payload to and from the compact MessagePack wire format. Codecs
+// for the hot events decode straight into their typed record; the rest decode to a JSONObject.
+public interface EventCodec<T> {
+    void encode(JSONObject payload, MessagePackWriter writer) throws JSONException;
+    T decode(MessagePackReader reader) throws JSONException;
+}
@@ -0,0 +1,311 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Routes each inbound socket event to a TypedSocketManagerListener, decoding its payload exactly
+// once into an immutable record. MessagePack attachments are streamed straight into the record by
+// the event's codec. JSON payloads arrive as the JSONObject the Socket.IO client has already
+// parsed, and are read in a single pass with non-throwing accessors, so no string-keyed lookups
+// or exception handling are left for GameState to do.
+public class EventDecoder implements SocketManagerListener {
+
+    private static final String TAG = "EventDecoder";
+
+    // Every event the decoder understands, in the order SocketManager registers them.
+    public static final String[] EVENTS = {
+            "welcomeNewPlayer", "removedFromRoom", "playerJoined", "playerLeft", "roomClosed",
+            "changedSetting", "changedSettings", "playerReadyToStartGame", "startQuestion",
+            "answerReceived", "emoteReceived", "showScoreboard", "error"
+    };
+
+    private final TypedSocketManagerListener listener;
+
+    // ChatGPT usage: No
+    public EventDecoder(TypedSocketManagerListener listener) {
+        this.listener = listener;
+    }
+
+    // Decode and deliver one event. The payload is a JSONObject, a MessagePack byte[] or null.
+    // ChatGPT usage: No
+    public void dispatch(String event, Object payload) {
+        if (payload instanceof byte[]) {
+            Object decoded;
+            try {
+                decoded = WireCodecs.decode(event, (byte[]) payload);
+            } catch (JSONException | MessagePackReader.MessagePackException e) {
+                GameLog.e(TAG, "Undecodable " + event + " payload", e);
+                return;
+            }
+            if (decoded instanceof QuestionEvent) {
+                listener.questionReceived((QuestionEvent) decoded);
+                return;
+            } else if (decoded instanceof ScoreboardEvent) {
+                listener.scoreboardReceived((ScoreboardEvent) decoded);
+                return;
+            } else if (decoded instanceof RoomSnapshot) {
+                listener.youJoined((RoomSnapshot) decoded);
+                return;
+            }
+            payload = decoded;
+        }
+
+        JSONObject data = payload instanceof JSONObject ? (JSONObject) payload : new JSONObject();
+        switch (event) {
+            case "welcomeNewPlayer":
+                youJoined(data);
+                break;
+            case "removedFromRoom":
+                youLeft(data);
+                break;
+            case "playerJoined":
+                otherPlayerJoined(data);
+                break;
+            case "playerLeft":
+                otherPlayerLeft(data);
+                break;
+            case "roomClosed":
+                creatorLeft();
+                break;
+            case "changedSetting":
+                settingChanged(data);
+                break;
+            case "changedSettings":
+                settingsChanged(data);
+                break;
+            case "playerReadyToStartGame":
+                otherPlayerReadied(data);
+                break;
+            case "startQuestion":
+                questionReceived(data);
+                break;
+            case "answerReceived":
+                otherPlayerAnswered(data);
+                break;
+            case "emoteReceived":
+                otherPlayerEmoted(data);
+                break;
+            case "showScoreboard":
+                scoreboardReceived(data);
+                break;
+            case "error":
+                errorReceived(data);
+                break;
+            default:
+                GameLog.d(TAG, "Ignoring unknown event " + event);
+        }
+    }
+
+    // JSON CALLBACKS
+
+    // ChatGPT usage: No
+    @Override
+    public void youJoined(JSONObject joinData) {
+        RoomSnapshot room = parseRoom(joinData);
+        if (room == null) {
+            GameLog.e(TAG, "Malformed welcomeNewPlayer payload");
+            return;
+        }
+        listener.youJoined(room);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void youLeft(JSONObject leaveData) {
+        listener.youLeft(leaveData.optString("reason"));
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void otherPlayerJoined(JSONObject playerData) {
+        String username = playerData.optString("newPlayerUsername", null);
+        if (username != null) {
+            listener.otherPlayerJoined(new PlayerDelta(PlayerDelta.Kind.JOINED, username,
+                    playerData.optInt("newPlayerRank"), 0));
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void otherPlayerLeft(JSONObject playerData) {
+        PlayerDelta delta = parsePlayer(PlayerDelta.Kind.LEFT, playerData);
+        if (delta != null) {
+            listener.otherPlayerLeft(delta);
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void creatorLeft() {
+        listener.creatorLeft();
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void settingChanged(JSONObject settingData) {
+        String option = settingData.optString("settingOption", null);
+        Object value = settingData.opt("optionValue");
+        if (option != null && value != null) {
+            listener.settingChanged(new SettingChange(option, value));
+        }
+    }
+
+    // A batched changedSettings event is delivered as one SettingChange per option.
+    // ChatGPT usage: No
+    public void settingsChanged(JSONObject settingsData) {
+        JSONObject settings = settingsData.optJSONObject("settings");
+        if (settings == null) {
+            GameLog.e(TAG, "Malformed changedSettings payload");
+            return;
+        }
+        Iterator<String> options = settings.keys();
+        while (options.hasNext()) {
+            String option = options.next();
+            Object value = settings.opt(option);
+            if (value != null) {
+                listener.settingChanged(new SettingChange(option, value));
+            }
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void otherPlayerReadied(JSONObject playerData) {
+        PlayerDelta delta = parsePlayer(PlayerDelta.Kind.READIED, playerData);
+        if (delta != null) {
+            listener.otherPlayerReadied(delta);
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void questionReceived(JSONObject questionData) {
+        QuestionEvent question = parseQuestion(questionData);
+        if (question == null) {
+            GameLog.e(TAG, "Malformed startQuestion payload");
+            return;
+        }
+        listener.questionReceived(question);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void otherPlayerAnswered(JSONObject playerData) {
+        PlayerDelta delta = parsePlayer(PlayerDelta.Kind.ANSWERED, playerData);
+        if (delta != null) {
+            listener.otherPlayerAnswered(delta);
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void otherPlayerEmoted(JSONObject emoteData) {
+        String username = emoteData.optString("username", null);
+        if (username != null) {
+            // A batch arrives as its latest emote and how many it held.
+            listener.otherPlayerEmoted(new PlayerDelta(PlayerDelta.Kind.EMOTED, username, 0,
+                    emoteData.optInt("emoteCode"), Math.max(1, emoteData.optInt("count", 1))));
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void scoreboardReceived(JSONObject scoreboardData) {
+        ScoreboardEvent scoreboard = parseScoreboard(scoreboardData);
+        if (scoreboard == null) {
+            GameLog.e(TAG, "Malformed showScoreboard payload");
+            return;
+        }
+        listener.scoreboardReceived(scoreboard);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void errorReceived(JSONObject errorData) {
+        listener.errorReceived(errorData.optString("message"));
+    }
+
+    // JSON PARSING
+
+    // ChatGPT usage: No
+    static RoomSnapshot parseRoom(JSONObject joinData) {
+        String roomCode = joinData.optString("roomCode", null);
+        JSONArray roomPlayers = joinData.optJSONArray("roomPlayers");
+        JSONObject roomSettings = joinData.optJSONObject("roomSettings");
+        if (roomCode == null || roomPlayers == null || roomSettings == null) {
+            return null;
+        }
+
+        List<RoomPlayer> players = new ArrayList<>(roomPlayers.length());
+        for (int i = 0; i < roomPlayers.length(); i++) {
+            JSONObject player = roomPlayers.optJSONObject(i);
+            if (player != null) {
+                players.add(new RoomPlayer(player.optString("username"), player.optInt("rank"),
+                        player.optBoolean("isReady")));
+            }
+        }
+
+        return new RoomSnapshot(roomCode, players,
+                roomSettings.optBoolean("roomIsPublic"),
+                roomSettings.optString("questionDifficulty"),
+                roomSettings.optInt("maxPlayers"),
+                roomSettings.optInt("questionTime"),
+                roomSettings.optInt("totalQuestions"),
+                strings(roomSettings.optJSONArray("questionCategories")),
+                strings(joinData.optJSONArray("possibleCategories")));
+    }
+
+    // ChatGPT usage: No
+    static QuestionEvent parseQuestion(JSONObject questionData) {
+        String question = questionData.optString("question", null);
+        JSONArray answerArray = questionData.optJSONArray("answers");
+        if (question == null || answerArray == null) {
+            return null;
+        }
+        String[] answers = new String[answerArray.length()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = answerArray.optString(i);
+        }
+        return new QuestionEvent(question, answers, questionData.optInt("correctIndex"),
+                questionData.optLong("countdownEndsAt"), questionData.optLong("readingEndsAt"),
+                questionData.optLong("answeringEndsAt"));
+    }
+
+    // ChatGPT usage: No
+    static ScoreboardEvent parseScoreboard(JSONObject scoreboardData) {
+        JSONArray scoreArray = scoreboardData.optJSONArray("scores");
+        if (scoreArray == null) {
+            return null;
+        }
+        List<ScoreboardEvent.Score> scores = new ArrayList<>(scoreArray.length());
+        for (int i = 0; i < scoreArray.length(); i++) {
+            JSONObject score = scoreArray.optJSONObject(i);
+            if (score != null) {
+                scores.add(new ScoreboardEvent.Score(score.optString("username"),
+                        score.optInt("pointsEarned"), score.optInt("updatedTotalPoints"),
+                        score.optBoolean("stolenPoints")));
+            }
+        }
+        return new ScoreboardEvent(scores);
+    }
+
+    // ChatGPT usage: No
+    private static PlayerDelta parsePlayer(PlayerDelta.Kind kind, JSONObject playerData) {
+        String username = playerData.optString("playerUsername", null);
+        return username == null ? null : new PlayerDelta(kind, username, 0, 0);
+    }
+
+    // ChatGPT usage: No
+    private static List<String> strings(JSONArray array) {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; array != null && i < array.length(); i++) {
+            strings.add(array.optString(i));
+        }
+        return strings;
+    }
+}
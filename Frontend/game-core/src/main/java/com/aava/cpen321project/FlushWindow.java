@@ -0,0 +1,67 @@
+package com.aava.cpen321project;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// The batching window shared by the outgoing setting changes and emotes. Its owner holds items
+// back under its own lock, calls held() for each, and drains them all in the drain it is built
+// with, which the window runs at most one window after the first item was held, or sooner when
+// the owner flushes. Drains never overlap, so a flush that returns has emitted everything held
+// before it.
+public class FlushWindow {
+
+    private final PhaseScheduler.Ticker ticker;
+    private final long windowMillis;
+    private final Runnable drain;
+    private final Runnable flushTick = this::flush;
+
+    // Held for a whole drain.
+    private final Object flushLock = new Object();
+
+    // Guarded by this.
+    private boolean scheduled;
+
+    // ChatGPT usage: No
+    public FlushWindow(PhaseScheduler.Ticker ticker, long windowMillis, Runnable drain) {
+        this.ticker = ticker;
+        this.windowMillis = windowMillis;
+        this.drain = drain;
+    }
+
+    // Called after the owner holds an item back. The first item in a window schedules the flush;
+    // if the ticker refuses it, the item is flushed straight away rather than held indefinitely.
+    // ChatGPT usage: No
+    public void held() {
+        synchronized (this) {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        try {
+            ticker.schedule(flushTick, windowMillis);
+        } catch (RejectedExecutionException e) {
+            flush();
+        }
+    }
+
+    // Drain now. The window is reopened before the drain, so an item held while it runs either
+    // makes this drain or schedules the next.
+    // ChatGPT usage: No
+    public void flush() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                scheduled = false;
+            }
+            drain.run();
+        }
+    }
+
+    // Stop the window timer. The owner drops its own items.
+    // ChatGPT usage: No
+    public void close() {
+        synchronized (this) {
+            scheduled = false;
+        }
+        ticker.cancel(flushTick);
+    }
+}
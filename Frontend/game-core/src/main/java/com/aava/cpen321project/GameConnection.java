@@ -0,0 +1,343 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.WebSocket;
+
+// The game socket for one login session. MenuActivity opens it as soon as the player reaches the
+// menu, so DNS, TCP, TLS, the Engine.IO handshake, the websocket upgrade, the session token check
+// and the first clock sync all happen while the player is still choosing a room. Each game then
+// attaches a Session to the warm connection, and joinRoom is the only round trip left before
+// the lobby shows. The connection outlives the game and is reused by the next one.
+//
+// Session-level state, i.e. the server's capabilities and the clock offset, lives here; room
+// events and session control events are handed to whichever game session is attached.
+public class GameConnection {
+
+    private static final String TAG = "GameConnection";
+
+    // Session control events, handled by the attached game rather than decoded as room events.
+    static final String[] CONTROL_EVENTS = {"sessionResumable", "sessionResumed", "resumeFailed"};
+
+    // The game played over the connection.
+    public interface Session {
+        // The socket connected, or reconnected after a drop, while this session was attached.
+        // Called straight away on attaching to a connection that is already up.
+        void connected();
+        // The server's capabilities arrived, or had already arrived when the session attached.
+        void capabilitiesReceived();
+        // A room event or a session control event.
+        void received(String event, Object[] args);
+    }
+
+    private static GameConnection shared;
+
+    public final String sessionToken;
+    private final Socket socket;
+    // Where an offline connection's emits go instead of a socket.
+    private final SessionResumer.Emitter offline;
+    private final ClockSync clockSync;
+    private final Set<String> features = new HashSet<>();
+    private Session session;
+    private boolean connected;
+    private boolean capabilitiesReceived;
+    // Set once the server advertises MessagePack support in its capabilities event. Until then
+    // every event is sent and received as JSON.
+    private volatile boolean binaryWire;
+
+    // The session's connection, opening it to serverUrl if there is none yet or it belongs to an
+    // earlier login. Safe to call from any thread; the socket connects in the background.
+    // ChatGPT usage: No
+    public static synchronized GameConnection open(String serverUrl, String sessionToken) {
+        if (shared != null && shared.sessionToken.equals(sessionToken)) {
+            return shared;
+        }
+        if (shared != null) {
+            shared.close();
+        }
+        shared = new GameConnection(serverUrl, sessionToken, options(sessionToken));
+        return shared;
+    }
+
+    // Close the session's connection, e.g. on leaving the menu for good.
+    // ChatGPT usage: No
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    // Socket options for a session: the process-wide client, so the socket reuses the REST
+    // connection pool, dispatcher and TLS session cache.
+    // ChatGPT usage: No
+    static IO.Options options(String sessionToken) {
+        OkHttpClient okHttpClient = NetworkRuntime.getClient();
+
+        IO.setDefaultOkHttpWebSocketFactory((WebSocket.Factory) okHttpClient);
+        IO.setDefaultOkHttpCallFactory((Call.Factory) okHttpClient);
+
+        IO.Options opts = new IO.Options();
+        opts.callFactory = (Call.Factory) okHttpClient;
+        opts.webSocketFactory = (WebSocket.Factory) okHttpClient;
+        opts.timeout = 60 * 1000;
+        opts.forceNew = true;
+        opts.secure = true;
+        opts.reconnection = true;
+
+        // Advertise the compact wire codec; the server opts in through its capabilities event.
+        opts.query = "sessionToken=" + sessionToken + "&codecs=" + WireCodecs.MSGPACK;
+        return opts;
+    }
+
+    // ChatGPT usage: No
+    GameConnection(String serverUrl, String sessionToken, IO.Options options) {
+        this.sessionToken = sessionToken;
+        this.clockSync = new ClockSync(this::ping);
+        this.offline = null;
+        this.socket = socket(serverUrl, options);
+        // Connect only once every handler is registered, so no early event is missed.
+        socket.connect();
+    }
+
+    // A connection whose clock sync runs on a scheduler shared with other connections, for
+    // processes that hold many of them, such as the load generator.
+    // ChatGPT usage: No
+    GameConnection(String serverUrl, String sessionToken, IO.Options options, ScheduledExecutorService clockScheduler) {
+        this.sessionToken = sessionToken;
+        this.clockSync = new ClockSync(this::ping, clockScheduler, MonotonicClock.SYSTEM);
+        this.offline = null;
+        this.socket = socket(serverUrl, options);
+        // Connect only once every handler is registered, so no early event is missed.
+        socket.connect();
+    }
+
+    // ChatGPT usage: No
+    private GameConnection(String sessionToken, MonotonicClock clock, SessionResumer.Emitter offline) {
+        this.sessionToken = sessionToken;
+        this.clockSync = new ClockSync(this::ping, clock);
+        this.offline = offline;
+        this.socket = null;
+        this.connected = true;
+    }
+
+    // A connection with no socket behind it, for replaying recorded traffic: it counts as
+    // connected, drops whatever is emitted, and receives only what is handed to deliver().
+    // ChatGPT usage: No
+    static GameConnection offline(String sessionToken, MonotonicClock clock) {
+        return offline(sessionToken, clock, (event, fields) -> { });
+    }
+
+    // As above, handing whatever is emitted to server, e.g. a simulated room.
+    // ChatGPT usage: No
+    static GameConnection offline(String sessionToken, MonotonicClock clock, SessionResumer.Emitter server) {
+        return new GameConnection(sessionToken, clock, server);
+    }
+
+    // ChatGPT usage: No
+    private void ping(long clientSendTime) {
+        emit("clockPing", new HashMap<String, Object>() {{
+            put("clientSendTime", clientSendTime);
+        }});
+    }
+
+    // The socket, with every handler registered but not yet connected.
+    // ChatGPT usage: No
+    private Socket socket(String serverUrl, IO.Options options) {
+        Socket socket;
+        try {
+            socket = IO.socket(serverUrl, options);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Bad server URL " + serverUrl, e);
+        }
+
+        // A reconnect lets the attached game resume its session. The game is told under the
+        // lock, so a connect racing attach() cannot make it join twice.
+        socket.on(Socket.EVENT_CONNECT, args -> {
+            GameLog.d(TAG, "socket connected");
+            synchronized (this) {
+                connected = true;
+                if (session != null) {
+                    session.connected();
+                }
+            }
+        });
+
+        socket.on(Socket.EVENT_DISCONNECT, args -> {
+            synchronized (this) {
+                connected = false;
+            }
+            GameLog.d(TAG, String.valueOf(args[0]));
+        });
+
+        socket.on(Socket.EVENT_CONNECT_ERROR, args -> GameLog.e(TAG, String.valueOf(args[0])));
+
+        socket.on("clockPong", args -> {
+            JSONObject pong = controlPayload(args);
+            clockSync.pong(pong.optLong("clientSendTime"), pong.optLong("serverTime"));
+        });
+
+        socket.on("capabilities", args -> deliver("capabilities", args));
+
+        for (String event : CONTROL_EVENTS) {
+            socket.on(event, args -> deliver(event, args));
+        }
+        for (String event : EventDecoder.EVENTS) {
+            socket.on(event, args -> deliver(event, args));
+        }
+
+        return socket;
+    }
+
+    // Hand the connection to a game. If the socket is already up, the game is told so at once
+    // and can join its room straight away.
+    // ChatGPT usage: No
+    public void attach(Session game) {
+        boolean capable;
+        synchronized (this) {
+            session = game;
+            capable = capabilitiesReceived;
+            if (connected) {
+                game.connected();
+            }
+        }
+        if (capable) {
+            game.capabilitiesReceived();
+        }
+    }
+
+    // Stop handing events to a game. The socket stays connected for the next one.
+    // ChatGPT usage: No
+    public synchronized void detach(Session game) {
+        if (session == game) {
+            session = null;
+        }
+    }
+
+    // ChatGPT usage: No
+    public synchronized boolean isConnected() {
+        return connected;
+    }
+
+    // Whether the server advertised an optional protocol feature.
+    // ChatGPT usage: No
+    public synchronized boolean supports(String feature) {
+        return features.contains(feature);
+    }
+
+    // Estimate of the server's clock, used to run question phases against server deadlines.
+    // It is kept in sync for as long as the connection is open, so it is settled before a game.
+    // ChatGPT usage: No
+    public ClockSync clockSync() {
+        return clockSync;
+    }
+
+    // ChatGPT usage: No
+    public void close() {
+        detach(session);
+        if (socket != null) {
+            socket.disconnect();
+            socket.off();
+        }
+        clockSync.close();
+    }
+
+    // Payload of a session control event, or of an error, in either wire format.
+    // ChatGPT usage: No
+    static JSONObject controlPayload(Object[] args) {
+        if (args.length > 0 && args[0] instanceof byte[]) {
+            try {
+                return WireCodecs.decodeFields((byte[]) args[0]);
+            } catch (JSONException | MessagePackReader.MessagePackException e) {
+                GameLog.e(TAG, "Undecodable control payload", e);
+            }
+        }
+        return args.length > 0 && args[0] instanceof JSONObject ? (JSONObject) args[0] : new JSONObject();
+    }
+
+    // General function for sending a JSON object through the socket.
+    // ChatGPT usage: No
+    public void emit(String event, Map<String, Object> fields) {
+        if (socket == null) {
+            offline.emit(event, fields);
+            return;
+        }
+        try {
+            socket.emit(event, message(fields, binaryWire));
+        } catch (JSONException e) {
+            GameLog.e(TAG, "JSONException");
+        }
+    }
+
+    // The payload emitted for fields: a MessagePack attachment on the binary wire, a JSONObject
+    // otherwise.
+    // ChatGPT usage: No
+    static Object message(Map<String, Object> fields, boolean binaryWire) throws JSONException {
+        if (binaryWire) {
+            return WireCodecs.encode(fields);
+        }
+        JSONObject message = new JSONObject();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            message.put(field.getKey(), field.getValue());
+        }
+        return message;
+    }
+
+    // Hand a room event or session control event to the attached game, as the socket does. The
+    // server's capabilities are the connection's own.
+    // ChatGPT usage: No
+    void deliver(String event, Object[] args) {
+        if ("capabilities".equals(event)) {
+            capabilities((JSONObject) args[0]);
+            return;
+        }
+        Session current;
+        synchronized (this) {
+            current = session;
+        }
+        // Events for a game that has already left, e.g. its roomClosed, have nowhere to go.
+        if (current != null) {
+            current.received(event, args);
+        }
+    }
+
+    // ChatGPT usage: No
+    private void capabilities(JSONObject capabilities) {
+        JSONArray codecs = capabilities.optJSONArray("codecs");
+        for (int i = 0; codecs != null && i < codecs.length(); i++) {
+            if (WireCodecs.MSGPACK.equals(codecs.optString(i))) {
+                binaryWire = true;
+                GameLog.d(TAG, "Using binary wire format");
+            }
+        }
+        JSONArray advertised = capabilities.optJSONArray("features");
+        Session current;
+        synchronized (this) {
+            for (int i = 0; advertised != null && i < advertised.length(); i++) {
+                features.add(advertised.optString(i));
+            }
+            capabilitiesReceived = true;
+            current = session;
+        }
+        // Sent again on every reconnect; starting an already running sync does nothing.
+        if (supports("clockSync")) {
+            clockSync.start();
+        }
+        if (current != null) {
+            current.capabilitiesReceived();
+        }
+    }
+}
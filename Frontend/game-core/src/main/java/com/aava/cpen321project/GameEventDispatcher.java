@@ -0,0 +1,343 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Ordered, bounded hand-off between the socket and the game logic. Decoded events are queued on
+// the Socket.IO event thread and delivered one at a time, in arrival order, on a single consumer
+// executor, so the socket read loop never waits on GameState. Offering never blocks: when the
+// queue is full an event is handled according to its OverflowPolicy.
+public class GameEventDispatcher implements TypedSocketManagerListener {
+
+    private static final String TAG = "GameEventDispatcher";
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    public enum OverflowPolicy {
+        // Always queued, even past capacity. Used for events that change game state.
+        NEVER_DROP,
+        // Discarded when the queue is full.
+        DROP,
+        // Merged into a pending event from the same player when the queue is full, otherwise
+        // discarded.
+        MERGE
+    }
+
+    private final TypedSocketManagerListener listener;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int capacity;
+    private final Map<String, OverflowPolicy> policies = new HashMap<>();
+
+    // Guarded by queue.
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean closed;
+    private int maxDepth;
+    private long delivered;
+    private long dropped;
+    private long merged;
+    private long totalDwellNanos;
+    private long maxDwellNanos;
+
+    // Deliver on a dedicated game-event thread.
+    // ChatGPT usage: No
+    public GameEventDispatcher(TypedSocketManagerListener listener) {
+        this(listener, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GameEvents");
+            thread.setDaemon(true);
+            return thread;
+        }), DEFAULT_CAPACITY, true);
+    }
+
+    // Deliver on the given executor. It may have several threads; deliveries are still serial.
+    // ChatGPT usage: No
+    public GameEventDispatcher(TypedSocketManagerListener listener, Executor executor, int capacity) {
+        this(listener, executor, capacity, false);
+    }
+
+    // ChatGPT usage: No
+    private GameEventDispatcher(TypedSocketManagerListener listener, Executor executor, int capacity, boolean ownsExecutor) {
+        this.listener = listener;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+        this.capacity = capacity;
+        policies.put("emoteReceived", OverflowPolicy.MERGE);
+    }
+
+    // Change how an event is treated when the queue is full. The question and scoreboard events
+    // drive the game forward and can never be dropped.
+    // ChatGPT usage: No
+    public void setOverflowPolicy(String event, OverflowPolicy policy) {
+        if (policy != OverflowPolicy.NEVER_DROP
+                && (event.equals("startQuestion") || event.equals("showScoreboard"))) {
+            throw new IllegalArgumentException(event + " can never be dropped");
+        }
+        synchronized (queue) {
+            policies.put(event, policy);
+        }
+    }
+
+    // Stop delivering. Events still queued are discarded and later ones are ignored.
+    // ChatGPT usage: No
+    public void close() {
+        synchronized (queue) {
+            closed = true;
+            queue.clear();
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        GameLog.d(TAG, "Closed: " + metrics());
+    }
+
+    // ChatGPT usage: No
+    public Metrics metrics() {
+        synchronized (queue) {
+            return new Metrics(queue.size(), maxDepth, delivered, dropped, merged,
+                    delivered == 0 ? 0 : totalDwellNanos / delivered, maxDwellNanos);
+        }
+    }
+
+    // INBOUND EVENTS
+
+    // ChatGPT usage: No
+    public void youJoined(RoomSnapshot room) {
+        offer("welcomeNewPlayer", room, null);
+    }
+
+    // ChatGPT usage: No
+    public void youLeft(String reason) {
+        offer("removedFromRoom", reason, null);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerJoined(PlayerDelta player) {
+        offer("playerJoined", player, player.username);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerLeft(PlayerDelta player) {
+        offer("playerLeft", player, player.username);
+    }
+
+    // ChatGPT usage: No
+    public void creatorLeft() {
+        offer("roomClosed", null, null);
+    }
+
+    // ChatGPT usage: No
+    public void settingChanged(SettingChange setting) {
+        offer("changedSetting", setting, setting.settingOption);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerReadied(PlayerDelta player) {
+        offer("playerReadyToStartGame", player, player.username);
+    }
+
+    // ChatGPT usage: No
+    public void questionReceived(QuestionEvent question) {
+        offer("startQuestion", question, null);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerAnswered(PlayerDelta player) {
+        offer("answerReceived", player, player.username);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerEmoted(PlayerDelta emote) {
+        offer("emoteReceived", emote, emote.username);
+    }
+
+    // ChatGPT usage: No
+    public void scoreboardReceived(ScoreboardEvent scoreboard) {
+        offer("showScoreboard", scoreboard, null);
+    }
+
+    // ChatGPT usage: No
+    public void errorReceived(String message) {
+        offer("error", message, null);
+    }
+
+    // QUEUE
+
+    // Queue an event for delivery. The merge key identifies which pending event of the same type
+    // a MERGE policy may replace.
+    // ChatGPT usage: No
+    private void offer(String event, Object record, String mergeKey) {
+        boolean schedule;
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= capacity) {
+                OverflowPolicy policy = policies.get(event);
+                if (policy == OverflowPolicy.DROP) {
+                    dropped++;
+                    return;
+                } else if (policy == OverflowPolicy.MERGE) {
+                    if (replacePending(event, mergeKey, record)) {
+                        merged++;
+                    } else {
+                        dropped++;
+                    }
+                    return;
+                }
+            }
+            queue.addLast(new Pending(event, record, mergeKey, System.nanoTime()));
+            maxDepth = Math.max(maxDepth, queue.size());
+            schedule = !scheduled;
+            scheduled = true;
+        }
+        if (schedule) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Nothing will drain the queue, so let the next offer try again rather than
+                // leave every later event waiting on a drain that never runs.
+                synchronized (queue) {
+                    scheduled = false;
+                }
+                GameLog.e(TAG, "Dispatcher executor rejected the drain", e);
+            }
+        }
+    }
+
+    // Fold the event into the newest pending event of this type with the same merge key, keeping
+    // its place in the queue. Player deltas are merged so nothing they count is lost; any other
+    // record replaces the pending one.
+    // ChatGPT usage: No
+    private boolean replacePending(String event, String mergeKey, Object record) {
+        Iterator<Pending> pending = queue.descendingIterator();
+        while (pending.hasNext()) {
+            Pending candidate = pending.next();
+            if (candidate.event.equals(event) && candidate.mergeKey != null
+                    && candidate.mergeKey.equals(mergeKey)) {
+                candidate.record = candidate.record instanceof PlayerDelta && record instanceof PlayerDelta
+                        ? ((PlayerDelta) candidate.record).mergedWith((PlayerDelta) record) : record;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Deliver queued events until the queue is empty. Only one drain runs at a time.
+    // ChatGPT usage: No
+    private void drain() {
+        while (true) {
+            Pending next;
+            synchronized (queue) {
+                next = queue.pollFirst();
+                if (next == null || closed) {
+                    scheduled = false;
+                    return;
+                }
+                long dwell = System.nanoTime() - next.enqueuedAt;
+                totalDwellNanos += dwell;
+                maxDwellNanos = Math.max(maxDwellNanos, dwell);
+                delivered++;
+            }
+            try {
+                deliver(next);
+            } catch (RuntimeException e) {
+                GameLog.e(TAG, "Error handling " + next.event, e);
+            }
+        }
+    }
+
+    // ChatGPT usage: No
+    private void deliver(Pending pending) {
+        Object record = pending.record;
+        switch (pending.event) {
+            case "welcomeNewPlayer":
+                listener.youJoined((RoomSnapshot) record);
+                break;
+            case "removedFromRoom":
+                listener.youLeft((String) record);
+                break;
+            case "playerJoined":
+                listener.otherPlayerJoined((PlayerDelta) record);
+                break;
+            case "playerLeft":
+                listener.otherPlayerLeft((PlayerDelta) record);
+                break;
+            case "roomClosed":
+                listener.creatorLeft();
+                break;
+            case "changedSetting":
+                listener.settingChanged((SettingChange) record);
+                break;
+            case "playerReadyToStartGame":
+                listener.otherPlayerReadied((PlayerDelta) record);
+                break;
+            case "startQuestion":
+                listener.questionReceived((QuestionEvent) record);
+                break;
+            case "answerReceived":
+                listener.otherPlayerAnswered((PlayerDelta) record);
+                break;
+            case "emoteReceived":
+                listener.otherPlayerEmoted((PlayerDelta) record);
+                break;
+            case "showScoreboard":
+                listener.scoreboardReceived((ScoreboardEvent) record);
+                break;
+            default:
+                listener.errorReceived((String) record);
+                break;
+        }
+    }
+
+    private static final class Pending {
+        final String event;
+        final String mergeKey;
+        final long enqueuedAt;
+        Object record;
+
+        Pending(String event, Object record, String mergeKey, long enqueuedAt) {
+            this.event = event;
+            this.record = record;
+            this.mergeKey = mergeKey;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    // Point-in-time view of the dispatcher's queue.
+    public static final class Metrics {
+        public final int depth;
+        public final int maxDepth;
+        public final long delivered;
+        public final long dropped;
+        public final long merged;
+        public final long meanDwellNanos;
+        public final long maxDwellNanos;
+
+        // ChatGPT usage: No
+        Metrics(int depth, int maxDepth, long delivered, long dropped, long merged,
+                long meanDwellNanos, long maxDwellNanos) {
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+            this.delivered = delivered;
+            this.dropped = dropped;
+            this.merged = merged;
+            this.meanDwellNanos = meanDwellNanos;
+            this.maxDwellNanos = maxDwellNanos;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public String toString() {
+            return "depth=" + depth + " maxDepth=" + maxDepth + " delivered=" + delivered
+                    + " dropped=" + dropped + " merged=" + merged
+                    + " meanDwell=" + meanDwellNanos / 1000 + "us maxDwell=" + maxDwellNanos / 1000 + "us";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.aava.cpen321project;
+
+// Logging for the game core, which cannot use android.util.Log. The app installs a Logger that
+// forwards to Log; elsewhere, e.g. in JVM tests and tools, nothing is logged unless a Logger is
+// installed.
+public final class GameLog {
+
+    public interface Logger {
+        void debug(String tag, String message);
+        // error is null when there is no exception to report.
+        void error(String tag, String message, Throwable error);
+    }
+
+    public static final Logger NONE = new Logger() {
+        // ChatGPT usage: No
+        @Override
+        public void debug(String tag, String message) {
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void error(String tag, String message, Throwable error) {
+        }
+    };
+
+    // Errors only, to standard error; for command-line tools.
+    public static final Logger STANDARD_ERROR = new Logger() {
+        // ChatGPT usage: No
+        @Override
+        public void debug(String tag, String message) {
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void error(String tag, String message, Throwable error) {
+            System.err.println(tag + ": " + message + (error != null ? " (" + error + ")" : ""));
+        }
+    };
+
+    private static volatile Logger logger = NONE;
+
+    // ChatGPT usage: No
+    private GameLog() {
+    }
+
+    // ChatGPT usage: No
+    public static void install(Logger logger) {
+        GameLog.logger = logger;
+    }
+
+    // ChatGPT usage: No
+    public static void d(String tag, String message) {
+        logger.debug(tag, message);
+    }
+
+    // ChatGPT usage: No
+    public static void e(String tag, String message) {
+        logger.error(tag, message, null);
+    }
+
+    // ChatGPT usage: No
+    public static void e(String tag, String message, Throwable error) {
+        logger.error(tag, message, error);
+    }
+}
@@ -0,0 +1,39 @@
+package com.aava.cpen321project;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+// What the game logic needs from the platform it runs on. The app backs it with the Android main
+// thread and the session's socket; tests and tools back it with plain JVM threads or a virtual
+// clock.
+public interface GamePlatform {
+
+    // The clock phase deadlines, emote expiries and the emote rate limit are measured on.
+    MonotonicClock clock();
+
+    // Runs work on the main thread, the one the player's answer, powerups and phases are confined
+    // to. Work submitted from the main thread itself may run straight away.
+    Executor mainThread();
+
+    // Runs ticks on the main thread after a delay: phases, emote expiries and the FlushWindows
+    // setting changes and the player's emotes are batched in. Every timer a game needs runs here,
+    // so a game starts no timer thread of its own, thousands of load-test bots share a handful of
+    // threads, and on a VirtualClock every phase and window follows virtual time.
+    PhaseScheduler.Ticker mainThreadTicker();
+
+    // The randomness a game draws on, e.g. for the answers fifty-fifty hides. Called once per
+    // game; seeded, it makes a game on a virtual clock reproducible.
+    Random random();
+
+    // Delivers decoded room events to the game logic, in order and off the socket's thread. One
+    // game's events are delivered one at a time even if the executor has several threads.
+    Executor gameEvents();
+
+    // The session's connection to the game server, opening it if needed. Called off the main
+    // thread, as opening a connection builds the HTTP client and the socket.
+    GameConnection connection(String sessionToken);
+
+    // Where a game's traffic is recorded for later replay, or TrafficRecorder.NONE. Called off
+    // the main thread as the game starts its session; the game closes it on leaving.
+    TrafficRecorder trafficRecorder(GameConstants gameConstants);
+}
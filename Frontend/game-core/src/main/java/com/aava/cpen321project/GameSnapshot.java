@@ -0,0 +1,163 @@
+package com.aava.cpen321project;
+
+import java.util.Collections;
+import java.util.List;
+
+// An immutable view of the room and the current question, published by GameState after every
+// change and read by the UI thread. A change builds a new snapshot that shares every part it did
+// not touch with the previous one, so publishing costs a few small objects, and a reader that
+// takes one snapshot sees the roster, settings and question exactly as they were at one moment.
+public final class GameSnapshot {
+
+    public static final class Settings {
+        public final String roomCode;
+        public final List<String> possibleCategories;
+        public final boolean isPublic;
+        public final String category;
+        public final String difficulty;
+        public final int maxPlayers;
+        public final int questionTime;
+        public final int questionCount;
+
+        // ChatGPT usage: No
+        public Settings(String roomCode, List<String> possibleCategories, boolean isPublic, String category,
+                        String difficulty, int maxPlayers, int questionTime, int questionCount) {
+            this.roomCode = roomCode;
+            this.possibleCategories = possibleCategories;
+            this.isPublic = isPublic;
+            this.category = category;
+            this.difficulty = difficulty;
+            this.maxPlayers = maxPlayers;
+            this.questionTime = questionTime;
+            this.questionCount = questionCount;
+        }
+
+        // ChatGPT usage: No
+        public Settings withPublic(boolean isPublic) {
+            return new Settings(roomCode, possibleCategories, isPublic, category, difficulty, maxPlayers,
+                    questionTime, questionCount);
+        }
+
+        // ChatGPT usage: No
+        public Settings withCategory(String category) {
+            return new Settings(roomCode, possibleCategories, isPublic, category, difficulty, maxPlayers,
+                    questionTime, questionCount);
+        }
+
+        // ChatGPT usage: No
+        public Settings withDifficulty(String difficulty) {
+            return new Settings(roomCode, possibleCategories, isPublic, category, difficulty, maxPlayers,
+                    questionTime, questionCount);
+        }
+
+        // ChatGPT usage: No
+        public Settings withMaxPlayers(int maxPlayers) {
+            return new Settings(roomCode, possibleCategories, isPublic, category, difficulty, maxPlayers,
+                    questionTime, questionCount);
+        }
+
+        // ChatGPT usage: No
+        public Settings withQuestionTime(int questionTime) {
+            return new Settings(roomCode, possibleCategories, isPublic, category, difficulty, maxPlayers,
+                    questionTime, questionCount);
+        }
+
+        // ChatGPT usage: No
+        public Settings withQuestionCount(int questionCount) {
+            return new Settings(roomCode, possibleCategories, isPublic, category, difficulty, maxPlayers,
+                    questionTime, questionCount);
+        }
+    }
+
+    // The question being played, numbered from 1.
+    public static final class Question {
+        public static final int ANSWERS = 4;
+
+        public final int number;
+        public final String description;
+        public final int correctAnswer;
+        // Always ANSWERS long; missing answers are empty.
+        private final String[] answers;
+
+        // ChatGPT usage: No
+        public Question(int number, QuestionEvent question) {
+            this.number = number;
+            this.description = question.question;
+            this.correctAnswer = question.correctIndex;
+            this.answers = new String[ANSWERS];
+            for (int i = 0; i < ANSWERS; i++) {
+                answers[i] = i < question.answerCount() ? question.answer(i) : "";
+            }
+        }
+
+        // ChatGPT usage: No
+        public String answer(int index) {
+            return answers[index];
+        }
+
+        // A copy the caller may keep.
+        // ChatGPT usage: No
+        public String[] answers() {
+            return answers.clone();
+        }
+    }
+
+    public static final GameSnapshot EMPTY = new GameSnapshot(new RoomRoster().snapshot(),
+            new Settings(null, Collections.<String>emptyList(), false, null, null, 0, 0, 0), null, 0, null, false);
+
+    public final RoomRoster.Snapshot roster;
+    public final Settings settings;
+    // Null until the game has started.
+    public final Question question;
+    public final int otherPlayersAnswered;
+    // The local player's standing after the latest scoreboard, or null before the first one.
+    public final ScoreRanking.Standing standing;
+    public final boolean gameOver;
+
+    // ChatGPT usage: No
+    public GameSnapshot(RoomRoster.Snapshot roster, Settings settings, Question question, int otherPlayersAnswered,
+                        ScoreRanking.Standing standing, boolean gameOver) {
+        this.roster = roster;
+        this.settings = settings;
+        this.question = question;
+        this.otherPlayersAnswered = otherPlayersAnswered;
+        this.standing = standing;
+        this.gameOver = gameOver;
+    }
+
+    // ChatGPT usage: No
+    public boolean started() {
+        return question != null;
+    }
+
+    // ChatGPT usage: No
+    public int questionNumber() {
+        return question == null ? 0 : question.number;
+    }
+
+    // ChatGPT usage: No
+    public GameSnapshot withRoster(RoomRoster.Snapshot roster) {
+        return new GameSnapshot(roster, settings, question, otherPlayersAnswered, standing, gameOver);
+    }
+
+    // ChatGPT usage: No
+    public GameSnapshot withSettings(Settings settings) {
+        return new GameSnapshot(roster, settings, question, otherPlayersAnswered, standing, gameOver);
+    }
+
+    // A new question resets the count of players who have answered.
+    // ChatGPT usage: No
+    public GameSnapshot withQuestion(Question question) {
+        return new GameSnapshot(roster, settings, question, 0, standing, gameOver);
+    }
+
+    // ChatGPT usage: No
+    public GameSnapshot withOtherPlayersAnswered(int otherPlayersAnswered) {
+        return new GameSnapshot(roster, settings, question, otherPlayersAnswered, standing, gameOver);
+    }
+
+    // ChatGPT usage: No
+    public GameSnapshot withStanding(ScoreRanking.Standing standing, boolean gameOver) {
+        return new GameSnapshot(roster, settings, question, otherPlayersAnswered, standing, gameOver);
+    }
+}
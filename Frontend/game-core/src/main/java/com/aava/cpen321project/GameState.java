@@ -0,0 +1,473 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class GameState implements TypedSocketManagerListener, PhaseScheduler.Listener {
+
+    private final String TAG = "GameState";
+
+    // Phase lengths used when the server sends no deadlines, or the clock is not yet synced.
+    public static final long QUESTION_COUNTDOWN_MILLIS = 5000;
+    public static final long QUESTION_READING_MILLIS = 5000;
+
+    // Powerup codes, as the server knows them.
+    public static final int DOUBLE_POINTS = 0;
+    public static final int FIFTY_FIFTY = 1;
+    public static final int STEAL_POINTS = 2;
+    public static final int FREE_LUNCH = 3;
+    public static final int SECOND_LIFE = 4;
+
+    private final GameStateListener gameStateListener;
+    private final GamePlatform platform;
+    private final GameConstants gameConstants;
+
+    // Set once the session has started, see startSession().
+    private volatile SocketManager socketManager;
+    // Guarded by this.
+    private boolean left;
+    // Runs the phases of each question. Confined to the main thread.
+    public final PhaseScheduler phaseScheduler;
+
+    // State concerning the room and the current question. Written only on the game event
+    // thread, which publishes each change as a new snapshot for the UI thread to read.
+    private final RoomRoster roster = new RoomRoster();
+    private final ScoreRanking scoreRanking = new ScoreRanking();
+    private volatile GameSnapshot snapshot = GameSnapshot.EMPTY;
+    // Emotes are events rather than state, so they queue on the board until the next frame
+    // shows them.
+    public final EmoteBoard emoteBoard;
+    // Phase deadlines on the local monotonic clock.
+    private long countdownEndsAt;
+    private long answeringStartTime;
+    private long answeringEndsAt;
+
+    // State concerning the player's answer and powerups. Confined to the main thread.
+    public boolean lastQuestionCorrect;
+    public final List<Integer> remainingPowerups = new ArrayList<Integer>() {{
+        add(0);add(1);add(2);add(3);add(4);
+    }};
+    public int powerupCode = -1;
+    public String powerupVictimUsername;
+    // The platform's, so a simulated game can be seeded.
+    public final Random rand;
+    public int hiddenIndex1 = -1;
+    public int hiddenIndex2 = -1;
+    public boolean extraLifeEnabled = false;
+    // When the answers of the current question were shown, on the local monotonic clock.
+    private long answeringStartedAt;
+
+    // ChatGPT usage: No
+    public GameState(GameStateListener gameActivityListener, GamePlatform platform, GameConstants gameConstants) {
+        this.gameStateListener = gameActivityListener;
+        this.platform = platform;
+        this.gameConstants = gameConstants;
+        this.rand = platform.random();
+        // Phases run on the local monotonic clock, the same one ClockSync maps server time onto.
+        this.phaseScheduler = new PhaseScheduler(platform.clock(), platform.mainThreadTicker(), this);
+        // The timers are drawn once per frame from the deadline, so the phases only need to
+        // report their start and end.
+        phaseScheduler.setTickInterval(PhaseScheduler.Phase.COUNTDOWN, 0);
+        phaseScheduler.setTickInterval(PhaseScheduler.Phase.READING, 0);
+        phaseScheduler.setTickInterval(PhaseScheduler.Phase.ANSWERING, 0);
+        this.emoteBoard = new EmoteBoard(platform.clock(), platform.mainThreadTicker(),
+                new TokenBucket(platform.clock(), EmoteBoard.DEFAULT_BURST, EmoteBoard.DEFAULT_PER_SECOND));
+    }
+
+    // Attach the game to the session's connection and join the room. The connection is normally
+    // already open and warm from the menu, but if it is not, opening it builds the HTTP client and
+    // the socket, so this is meant to be called off the main thread. Events may arrive as soon as
+    // it returns, before the activity has bound its views; they only update the snapshot and mark
+    // regions, which are rendered once the views are bound.
+    // ChatGPT usage: No
+    public synchronized void startSession() {
+        if (left || socketManager != null) {
+            return;
+        }
+        socketManager = new SocketManager(this, platform.connection(gameConstants.sessionToken), gameConstants, platform);
+    }
+
+    // SOCKET MANAGER CALLBACKS
+
+    // ChatGPT usage: No
+    public void youJoined(RoomSnapshot room) {
+        GameLog.d(TAG, "Welcome!");
+        // A snapshot replaces the roster outright, so a rejoin after a lost session converges
+        // on the server's view of the room.
+        roster.reset(room.players);
+
+        String roomQuestionDifficulty = capitalized(room.questionDifficulty);
+        String roomCategory = room.questionCategories.isEmpty()
+                ? snapshot.settings.category : room.questionCategories.get(0);
+        GameSnapshot.Settings settings = new GameSnapshot.Settings(room.roomCode,
+                Collections.unmodifiableList(new ArrayList<>(room.possibleCategories)), room.roomIsPublic,
+                roomCategory, roomQuestionDifficulty, room.maxPlayers, room.questionTime, room.totalQuestions);
+        snapshot = snapshot.withRoster(roster.snapshot()).withSettings(settings);
+
+        // Rejoining mid-game does not pull the player back to the lobby, as the screen follows
+        // the running question's phase once the game has started.
+        gameStateListener.regionChanged(RenderLoop.Region.SCREEN);
+        gameStateListener.regionChanged(RenderLoop.Region.ROSTER);
+        gameStateListener.regionChanged(RenderLoop.Region.SETTINGS);
+    }
+
+    // ChatGPT usage: No
+    public void youLeft(String reason) {
+        gameStateListener.youLeft(reason);
+        gameStateListener.regionChanged(RenderLoop.Region.NOTICE);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerJoined(PlayerDelta player) {
+        // A player who rejoined after losing their session is already in the room.
+        if (!roster.add(new RoomPlayer(player.username, player.rank, false))) {
+            return;
+        }
+        snapshot = snapshot.withRoster(roster.snapshot());
+
+        gameStateListener.regionChanged(RenderLoop.Region.ROSTER);
+
+        GameLog.d(TAG, "Player joined: " + player.username);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerLeft(PlayerDelta player) {
+        // Remove the data from the player state.
+        scoreRanking.remove(player.username);
+        if (roster.remove(player.username)) {
+            snapshot = snapshot.withRoster(roster.snapshot());
+            gameStateListener.regionChanged(RenderLoop.Region.ROSTER);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void creatorLeft() {
+        gameStateListener.creatorLeft();
+        gameStateListener.regionChanged(RenderLoop.Region.NOTICE);
+    }
+
+    // ChatGPT usage: No
+    public void settingChanged(SettingChange setting) {
+        String option = setting.settingOption;
+        GameSnapshot.Settings settings = snapshot.settings;
+        switch (option) {
+            case "isPublic":
+                settings = settings.withPublic(setting.booleanValue());
+                break;
+            case "difficulty":
+                // Shown as the welcome shows it, so every player's lobby reads the same.
+                settings = settings.withDifficulty(capitalized(setting.stringValue()));
+                break;
+            case "maxPlayers":
+                settings = settings.withMaxPlayers(setting.intValue());
+                break;
+            case "timeLimit":
+                settings = settings.withQuestionTime(setting.intValue());
+                break;
+            case "total":
+                settings = settings.withQuestionCount(setting.intValue());
+                break;
+            default: // Will be a category
+                String category = option.substring(9);
+                if (setting.booleanValue()) {
+                    settings = settings.withCategory(category);
+                    GameLog.d(TAG, "Adding " + category);
+                } else {
+                    GameLog.d(TAG, "Ignoring " + category);
+                }
+        }
+        snapshot = snapshot.withSettings(settings);
+
+        gameStateListener.regionChanged(RenderLoop.Region.SETTINGS);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerReadied(PlayerDelta player) {
+        // A repeated ready, e.g. replayed after a resume, changes nothing.
+        if (!roster.setReady(player.username)) {
+            return;
+        }
+        snapshot = snapshot.withRoster(roster.snapshot());
+        gameStateListener.regionChanged(RenderLoop.Region.ROSTER);
+    }
+
+    // ChatGPT usage: No
+    public void questionReceived(QuestionEvent question) {
+        // Set all question state values.
+        snapshot = snapshot.withQuestion(new GameSnapshot.Question(snapshot.questionNumber() + 1, question));
+        gameStateListener.questionReceived(snapshot.question);
+        gameStateListener.regionChanged(RenderLoop.Region.QUESTION);
+
+        scheduleDeadlines(question);
+
+        // Copied for the main thread, as the next question overwrites the deadlines.
+        long countdownEndsAt = this.countdownEndsAt;
+        long answeringStartTime = this.answeringStartTime;
+        long answeringEndsAt = this.answeringEndsAt;
+        platform.mainThread().execute(() -> {
+            // The powerups belong to the main thread, so they are reset there before the
+            // question's phases start.
+            hiddenIndex1 = -1;
+            hiddenIndex2 = -1;
+            extraLifeEnabled = false;
+            answeringStartedAt = answeringStartTime;
+            phaseScheduler.startQuestion(countdownEndsAt, answeringStartTime, answeringEndsAt);
+            gameStateListener.regionChanged(RenderLoop.Region.SCREEN);
+            gameStateListener.regionChanged(RenderLoop.Region.TIMER);
+        });
+    }
+
+    // The latest snapshot of the room and the current question; safe to call from any thread.
+    // ChatGPT usage: No
+    public GameSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // PHASE SCHEDULER CALLBACKS
+
+    // The timers are drawn by the activity on each frame, so there is nothing to do per tick.
+    // ChatGPT usage: No
+    @Override
+    public void phaseTicked(PhaseScheduler.Phase phase, long millisUntilFinished) {
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void phaseEnded(PhaseScheduler.Phase phase) {
+        if (phase == PhaseScheduler.Phase.ANSWERING) {
+            // Force a null answer - the player took too long.
+            submitAnswer(-1);
+        } else {
+            // Display the question and powerups, then the answers.
+            gameStateListener.regionChanged(RenderLoop.Region.SCREEN);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerAnswered(PlayerDelta player) {
+        snapshot = snapshot.withOtherPlayersAnswered(snapshot.otherPlayersAnswered + 1);
+
+        gameStateListener.regionChanged(RenderLoop.Region.QUESTION);
+
+        GameLog.d(TAG, "Player answered: " + player.username);
+    }
+
+    // ChatGPT usage: No
+    public void otherPlayerEmoted(PlayerDelta emote) {
+        // Later emotes in a burst join the first one's frame.
+        if (emoteBoard.offer(emote.username, emote.emoteCode, emote.emoteCount)) {
+            gameStateListener.regionChanged(RenderLoop.Region.EMOTES);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void scoreboardReceived(ScoreboardEvent scoreboard) {
+        // Move each player whose total changed to their new place in the ranking.
+        for (ScoreboardEvent.Score score : scoreboard.scores) {
+            scoreRanking.update(score);
+        }
+
+        // Get the player's current rank and the players whose ranks neighbor them.
+        ScoreRanking.Standing standing = scoreRanking.standing(gameConstants.username);
+        if (standing == null) {
+            GameLog.e(TAG, "Scoreboard has no score for " + gameConstants.username);
+            return;
+        }
+
+        // If the game is over...
+        boolean gameOver = snapshot.questionNumber() == snapshot.settings.questionCount;
+        snapshot = snapshot.withStanding(standing, gameOver);
+        if (gameOver) {
+            socketManager.disconnect();
+        }
+        gameStateListener.regionChanged(RenderLoop.Region.SCOREBOARD);
+
+        platform.mainThread().execute(() -> {
+            phaseScheduler.scoreboard();
+            gameStateListener.regionChanged(RenderLoop.Region.SCREEN);
+        });
+    }
+
+    // ChatGPT usage: No
+    public void errorReceived(String message) {
+        GameLog.d(TAG, "Error: " + message);
+        gameStateListener.errorReceived(message);
+        gameStateListener.regionChanged(RenderLoop.Region.NOTICE);
+    }
+
+    // OTHER METHODS
+
+    // ChatGPT usage: No
+    public void leaveRoom() {
+        platform.mainThread().execute(phaseScheduler::stop);
+        SocketManager manager;
+        synchronized (this) {
+            // Leaving before the session started means it never does.
+            left = true;
+            manager = socketManager;
+        }
+        if (manager != null) {
+            manager.disconnect();
+        }
+    }
+
+    // ChatGPT usage: No
+    public void readyUp() {
+        SocketManager manager = startedSession("readyUp");
+        if (manager != null) {
+            manager.sendReadyToStartGame();
+        }
+    }
+
+    // ChatGPT usage: No
+    public void chooseQuestionCount(int questionCount) {
+        SocketManager manager = startedSession("chooseQuestionCount");
+        if (manager != null) {
+            manager.sendQuestionCount(questionCount);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void chooseMaxPlayers(int maxPlayers) {
+        SocketManager manager = startedSession("chooseMaxPlayers");
+        if (manager != null) {
+            manager.sendMaxPlayers(maxPlayers);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void chooseTimeLimit(int timeLimit) {
+        SocketManager manager = startedSession("chooseTimeLimit");
+        if (manager != null) {
+            manager.sendTimeLimit(timeLimit);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void chooseRoomPublicity(boolean isPublic) {
+        SocketManager manager = startedSession("chooseRoomPublicity");
+        if (manager != null) {
+            manager.sendRoomPublicity(isPublic);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void chooseQuestionDifficulty(String difficulty) {
+        SocketManager manager = startedSession("chooseQuestionDifficulty");
+        if (manager != null) {
+            manager.sendQuestionDifficulty(difficulty);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void chooseQuestionCategory(String name, boolean active) {
+        SocketManager manager = startedSession("chooseQuestionCategory");
+        if (manager != null) {
+            manager.sendQuestionCategory(name, active);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void startGame() {
+        SocketManager manager = startedSession("startGame");
+        if (manager != null) {
+            manager.sendStartGame();
+        }
+    }
+
+    // Called on the main thread, either for the player's answer or when time runs out.
+    // ChatGPT usage: No
+    public void submitAnswer(int answerIndex) {
+        SocketManager manager = startedSession("submitAnswer");
+        if (manager == null) {
+            return;
+        }
+        phaseScheduler.answered();
+        lastQuestionCorrect = (answerIndex == snapshot.question.correctAnswer);
+        // Measured from the instant the answers were shown to every player.
+        long timeDelay = Math.max(0, manager.clockSync().clock().elapsedMillis() - answeringStartedAt);
+
+        manager.sendSubmitAnswer(timeDelay, lastQuestionCorrect, powerupCode, powerupVictimUsername);
+
+        gameStateListener.regionChanged(RenderLoop.Region.SCREEN);
+
+        powerupCode = -1;
+    }
+
+    // Use one of the player's remaining powerups on the current question, as tapping it does.
+    // Called on the main thread while the question is read. A steal takes its victim from
+    // powerupVictimUsername once the answer is submitted. Returns false if it was already used.
+    // ChatGPT usage: No
+    public boolean usePowerup(int code) {
+        if (!remainingPowerups.remove((Integer) code)) {
+            return false;
+        }
+        powerupCode = code;
+        if (code == FIFTY_FIFTY) {
+            hideTwoWrongAnswers();
+        } else if (code == FREE_LUNCH) {
+            submitAnswer(-1);
+        } else if (code == SECOND_LIFE) {
+            extraLifeEnabled = true;
+        }
+        return true;
+    }
+
+    // Returns false if the emote rate limit dropped it.
+    // ChatGPT usage: No
+    public boolean submitEmote(int emoteCode) {
+        SocketManager manager = startedSession("submitEmote");
+        return manager != null && manager.submitEmote(emoteCode);
+    }
+
+    // The session's manager, or null if the session has not started yet or the player has left.
+    // The activity's buttons work from the first frame, while the session starts in the
+    // background, so an action taken before then has no room to go to and is dropped.
+    // ChatGPT usage: No
+    private SocketManager startedSession(String action) {
+        SocketManager manager;
+        synchronized (this) {
+            manager = left ? null : socketManager;
+        }
+        if (manager == null) {
+            GameLog.d(TAG, "Dropped " + action + " outside the session");
+        }
+        return manager;
+    }
+
+    // Pick two different wrong answers of the current question to hide.
+    // ChatGPT usage: No
+    private void hideTwoWrongAnswers() {
+        int correctAnswer = snapshot.question.correctAnswer;
+        do {
+            hiddenIndex1 = rand.nextInt(GameSnapshot.Question.ANSWERS);
+        } while (hiddenIndex1 == correctAnswer);
+        do {
+            hiddenIndex2 = rand.nextInt(GameSnapshot.Question.ANSWERS);
+        } while (hiddenIndex2 == hiddenIndex1 || hiddenIndex2 == correctAnswer);
+    }
+
+    // Place the question's phases on the local monotonic clock. With server deadlines and a
+    // synced clock every player reveals the answers at the same instant, however late the
+    // question reached them; otherwise the phases run from the moment it was received.
+    // ChatGPT usage: No
+    private void scheduleDeadlines(QuestionEvent question) {
+        ClockSync clockSync = socketManager.clockSync();
+        if (question.hasDeadlines() && clockSync.isSynced()) {
+            countdownEndsAt = clockSync.toLocal(question.countdownEndsAt);
+            answeringStartTime = clockSync.toLocal(question.readingEndsAt);
+            answeringEndsAt = clockSync.toLocal(question.answeringEndsAt);
+        } else {
+            countdownEndsAt = clockSync.clock().elapsedMillis() + QUESTION_COUNTDOWN_MILLIS;
+            answeringStartTime = countdownEndsAt + QUESTION_READING_MILLIS;
+            answeringEndsAt = answeringStartTime + (long) snapshot.settings.questionTime * 1000;
+        }
+    }
+
+    // ChatGPT usage: No
+    private static String capitalized(String word) {
+        return word.isEmpty() ? word : word.substring(0, 1).toUpperCase() + word.substring(1);
+    }
+}
@@ -0,0 +1,18 @@
+package com.aava.cpen321project;
+
+public interface GameStateListener {
+    // Connection. Like errorReceived, these are followed by a NOTICE region, so whatever they
+    // show can wait for the next frame.
+    void youLeft(String reason);
+    void creatorLeft();
+
+    // A part of the screen whose state changed, to be redrawn from the latest snapshot on the
+    // next frame. Called from any thread.
+    void regionChanged(RenderLoop.Region region);
+
+    // Question sequence updates
+    // A question arrived and will be shown once its countdown ends. Followed by a QUESTION region.
+    void questionReceived(GameSnapshot.Question question);
+
+    void errorReceived(String message);
+}
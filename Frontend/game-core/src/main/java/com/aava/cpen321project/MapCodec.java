@@ -0,0 +1,111 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.Map;
+
+// Schema-less codec that writes a payload as a MessagePack map with its field names. Used for
+// events that are small or rare enough not to need a positional codec of their own.
+public class MapCodec implements EventCodec<JSONObject> {
+
+    // ChatGPT usage: No
+    @Override
+    public void encode(JSONObject payload, MessagePackWriter writer) throws JSONException {
+        writer.packMapHeader(payload.length());
+        Iterator<String> keys = payload.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            writer.packString(key);
+            packValue(payload.get(key), writer);
+        }
+    }
+
+    // Encode outgoing fields directly, without building an intermediate JSONObject.
+    // ChatGPT usage: No
+    public void encode(Map<String, Object> fields, MessagePackWriter writer) throws JSONException {
+        writer.packMapHeader(fields.size());
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            writer.packString(field.getKey());
+            packValue(field.getValue(), writer);
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public JSONObject decode(MessagePackReader reader) throws JSONException {
+        return (JSONObject) unpackValue(reader);
+    }
+
+    // ChatGPT usage: No
+    static void packValue(Object value, MessagePackWriter writer) throws JSONException {
+        if (value == null || value == JSONObject.NULL) {
+            writer.packNil();
+        } else if (value instanceof Boolean) {
+            writer.packBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            writer.packLong(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            writer.packDouble(((Number) value).doubleValue());
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            writer.packMapHeader(object.length());
+            Iterator<String> keys = object.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                writer.packString(key);
+                packValue(object.get(key), writer);
+            }
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writer.packArrayHeader(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                packValue(array.get(i), writer);
+            }
+        } else {
+            writer.packString(value.toString());
+        }
+    }
+
+    // ChatGPT usage: No
+    static Object unpackValue(MessagePackReader reader) throws JSONException {
+        switch (reader.getNextType()) {
+            case NIL:
+                reader.tryUnpackNil();
+                return JSONObject.NULL;
+            case BOOLEAN:
+                return reader.unpackBoolean();
+            case INTEGER:
+                long value = reader.unpackLong();
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            case FLOAT:
+                return reader.unpackDouble();
+            case STRING:
+                return reader.unpackString();
+            case ARRAY:
+                int length = reader.unpackArrayHeader();
+                JSONArray array = new JSONArray();
+                for (int i = 0; i < length; i++) {
+                    array.put(unpackValue(reader));
+                }
+                return array;
+            case MAP:
+                int size = reader.unpackMapHeader();
+                JSONObject object = new JSONObject();
+                for (int i = 0; i < size; i++) {
+                    String key = reader.unpackString();
+                    object.put(key, unpackValue(reader));
+                }
+                return object;
+            default:
+                reader.skipValue();
+                return JSONObject.NULL;
+        }
+    }
+}
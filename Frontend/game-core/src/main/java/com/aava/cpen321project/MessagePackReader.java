@@ -0,0 +1,223 @@
+package com.aava.cpen321project;
+
+import java.nio.charset.StandardCharsets;
+
+// Minimal streaming MessagePack decoder matching MessagePackWriter. Values are read in order
+// straight out of the payload, without building an intermediate tree.
+public final class MessagePackReader {
+
+    private final byte[] data;
+    private int position;
+
+    // ChatGPT usage: No
+    public MessagePackReader(byte[] data) {
+        this.data = data;
+    }
+
+    // ChatGPT usage: No
+    public boolean hasNext() {
+        return position < data.length;
+    }
+
+    // The family of the next value, without consuming it.
+    // ChatGPT usage: No
+    public ValueType getNextType() {
+        int type = peek();
+        if (type < 0x80 || type >= 0xe0) return ValueType.INTEGER;
+        if ((type & 0xf0) == 0x80) return ValueType.MAP;
+        if ((type & 0xf0) == 0x90) return ValueType.ARRAY;
+        if ((type & 0xe0) == 0xa0) return ValueType.STRING;
+        switch (type) {
+            case 0xc0: return ValueType.NIL;
+            case 0xc2: case 0xc3: return ValueType.BOOLEAN;
+            case 0xcc: case 0xcd: case 0xce: case 0xcf:
+            case 0xd0: case 0xd1: case 0xd2: case 0xd3: return ValueType.INTEGER;
+            case 0xca: case 0xcb: return ValueType.FLOAT;
+            case 0xd9: case 0xda: case 0xdb: return ValueType.STRING;
+            case 0xdc: case 0xdd: return ValueType.ARRAY;
+            case 0xde: case 0xdf: return ValueType.MAP;
+            default: return ValueType.OTHER;
+        }
+    }
+
+    // Consume a nil if it is the next value.
+    // ChatGPT usage: No
+    public boolean tryUnpackNil() {
+        if (peek() == 0xc0) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    // ChatGPT usage: No
+    public boolean unpackBoolean() {
+        int type = readByte();
+        if (type == 0xc3) return true;
+        if (type == 0xc2) return false;
+        throw unexpected(type, "boolean");
+    }
+
+    // ChatGPT usage: No
+    public int unpackInt() {
+        long value = unpackLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new MessagePackException("Integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    // ChatGPT usage: No
+    public long unpackLong() {
+        int type = readByte();
+        if (type < 0x80) return type;
+        if (type >= 0xe0) return (byte) type;
+        switch (type) {
+            case 0xcc: return readByte();
+            case 0xcd: return readShort();
+            case 0xce: return readInt() & 0xffffffffL;
+            case 0xcf: return readLong();
+            case 0xd0: return (byte) readByte();
+            case 0xd1: return (short) readShort();
+            case 0xd2: return readInt();
+            case 0xd3: return readLong();
+            case 0xca: return (long) Float.intBitsToFloat(readInt());
+            case 0xcb: return (long) Double.longBitsToDouble(readLong());
+            default: throw unexpected(type, "integer");
+        }
+    }
+
+    // ChatGPT usage: No
+    public double unpackDouble() {
+        int type = peek();
+        if (type == 0xca) {
+            position++;
+            return Float.intBitsToFloat(readInt());
+        } else if (type == 0xcb) {
+            position++;
+            return Double.longBitsToDouble(readLong());
+        }
+        return unpackLong();
+    }
+
+    // ChatGPT usage: No
+    public String unpackString() {
+        int type = readByte();
+        int length;
+        if ((type & 0xe0) == 0xa0) {
+            length = type & 0x1f;
+        } else if (type == 0xd9) {
+            length = readByte();
+        } else if (type == 0xda) {
+            length = readShort();
+        } else if (type == 0xdb) {
+            length = readInt();
+        } else {
+            throw unexpected(type, "string");
+        }
+        require(length);
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    // ChatGPT usage: No
+    public int unpackArrayHeader() {
+        int type = readByte();
+        if ((type & 0xf0) == 0x90) return type & 0x0f;
+        if (type == 0xdc) return readShort();
+        if (type == 0xdd) return readInt();
+        throw unexpected(type, "array");
+    }
+
+    // ChatGPT usage: No
+    public int unpackMapHeader() {
+        int type = readByte();
+        if ((type & 0xf0) == 0x80) return type & 0x0f;
+        if (type == 0xde) return readShort();
+        if (type == 0xdf) return readInt();
+        throw unexpected(type, "map");
+    }
+
+    // Skip over the next value, including any nested values, without decoding it.
+    // ChatGPT usage: No
+    public void skipValue() {
+        int remaining = 1;
+        while (remaining > 0) {
+            remaining--;
+            int type = readByte();
+            if (type < 0x80 || type >= 0xe0 || type == 0xc0 || type == 0xc2 || type == 0xc3) {
+                continue;
+            } else if ((type & 0xf0) == 0x80) {
+                remaining += 2 * (type & 0x0f);
+            } else if ((type & 0xf0) == 0x90) {
+                remaining += type & 0x0f;
+            } else if ((type & 0xe0) == 0xa0) {
+                skip(type & 0x1f);
+            } else {
+                switch (type) {
+                    case 0xcc: case 0xd0: skip(1); break;
+                    case 0xcd: case 0xd1: skip(2); break;
+                    case 0xce: case 0xd2: case 0xca: skip(4); break;
+                    case 0xcf: case 0xd3: case 0xcb: skip(8); break;
+                    case 0xd9: case 0xc4: skip(readByte()); break;
+                    case 0xda: case 0xc5: skip(readShort()); break;
+                    case 0xdb: case 0xc6: skip(readInt()); break;
+                    case 0xdc: remaining += readShort(); break;
+                    case 0xdd: remaining += readInt(); break;
+                    case 0xde: remaining += 2 * readShort(); break;
+                    case 0xdf: remaining += 2 * readInt(); break;
+                    default: throw unexpected(type, "value");
+                }
+            }
+        }
+    }
+
+    // ChatGPT usage: No
+    int peek() {
+        require(1);
+        return data[position] & 0xff;
+    }
+
+    private int readByte() {
+        require(1);
+        return data[position++] & 0xff;
+    }
+
+    private int readShort() {
+        return (readByte() << 8) | readByte();
+    }
+
+    private int readInt() {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private long readLong() {
+        return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+    }
+
+    private void skip(int length) {
+        require(length);
+        position += length;
+    }
+
+    private void require(int length) {
+        if (length < 0 || position + length > data.length) {
+            throw new MessagePackException("Truncated MessagePack payload");
+        }
+    }
+
+    private MessagePackException unexpected(int type, String expected) {
+        return new MessagePackException(String.format("Expected %s but found type 0x%02x", expected, type));
+    }
+
+    public enum ValueType {
+        NIL, BOOLEAN, INTEGER, FLOAT, STRING, ARRAY, MAP, OTHER
+    }
+
+    static class MessagePackException extends RuntimeException {
+        public MessagePackException(String message) {
+            super(message);
+        }
+    }
+}
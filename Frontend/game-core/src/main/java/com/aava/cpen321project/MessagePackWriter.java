@@ -0,0 +1,177 @@
+package com.aava.cpen321project;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Minimal MessagePack encoder covering the types used by the game protocol: nil, booleans,
+// integers, doubles, strings, arrays and maps. The internal buffer grows as needed and can be
+// reused across messages with reset().
+public final class MessagePackWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    // ChatGPT usage: No
+    public MessagePackWriter() {
+        this(256);
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    // ChatGPT usage: No
+    public int size() {
+        return size;
+    }
+
+    // ChatGPT usage: No
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter packNil() {
+        writeByte(0xc0);
+        return this;
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter packBoolean(boolean value) {
+        writeByte(value ? 0xc3 : 0xc2);
+        return this;
+    }
+
+    // Pack an integer using the smallest representation that holds it.
+    // ChatGPT usage: No
+    public MessagePackWriter packLong(long value) {
+        if (value >= 0) {
+            if (value < 0x80) {
+                writeByte((int) value);
+            } else if (value <= 0xff) {
+                writeByte(0xcc);
+                writeByte((int) value);
+            } else if (value <= 0xffff) {
+                writeByte(0xcd);
+                writeShort((int) value);
+            } else if (value <= 0xffffffffL) {
+                writeByte(0xce);
+                writeInt((int) value);
+            } else {
+                writeByte(0xcf);
+                writeLong(value);
+            }
+        } else {
+            if (value >= -32) {
+                writeByte((int) value & 0xff);
+            } else if (value >= Byte.MIN_VALUE) {
+                writeByte(0xd0);
+                writeByte((int) value & 0xff);
+            } else if (value >= Short.MIN_VALUE) {
+                writeByte(0xd1);
+                writeShort((int) value);
+            } else if (value >= Integer.MIN_VALUE) {
+                writeByte(0xd2);
+                writeInt((int) value);
+            } else {
+                writeByte(0xd3);
+                writeLong(value);
+            }
+        }
+        return this;
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter packDouble(double value) {
+        writeByte(0xcb);
+        writeLong(Double.doubleToLongBits(value));
+        return this;
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter packString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        if (length < 32) {
+            writeByte(0xa0 | length);
+        } else if (length <= 0xff) {
+            writeByte(0xd9);
+            writeByte(length);
+        } else if (length <= 0xffff) {
+            writeByte(0xda);
+            writeShort(length);
+        } else {
+            writeByte(0xdb);
+            writeInt(length);
+        }
+        ensureCapacity(length);
+        System.arraycopy(bytes, 0, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter packArrayHeader(int length) {
+        if (length < 16) {
+            writeByte(0x90 | length);
+        } else if (length <= 0xffff) {
+            writeByte(0xdc);
+            writeShort(length);
+        } else {
+            writeByte(0xdd);
+            writeInt(length);
+        }
+        return this;
+    }
+
+    // ChatGPT usage: No
+    public MessagePackWriter packMapHeader(int length) {
+        if (length < 16) {
+            writeByte(0x80 | length);
+        } else if (length <= 0xffff) {
+            writeByte(0xde);
+            writeShort(length);
+        } else {
+            writeByte(0xdf);
+            writeInt(length);
+        }
+        return this;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeShort(int value) {
+        ensureCapacity(2);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
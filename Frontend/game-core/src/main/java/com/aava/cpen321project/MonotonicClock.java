@@ -0,0 +1,11 @@
+package com.aava.cpen321project;
+
+// Source of monotonic time in milliseconds. Unlike the wall clock it never jumps, so intervals
+// and deadlines measured with it survive the device's time being changed.
+public interface MonotonicClock {
+
+    MonotonicClock SYSTEM = () -> System.nanoTime() / 1_000_000;
+
+    // ChatGPT usage: No
+    long elapsedMillis();
+}
@@ -0,0 +1,87 @@
+package com.aava.cpen321project;
+
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+// Process-wide network runtime shared by every REST call and the game socket. Owning a single
+// OkHttpClient means there is one connection pool, one dispatcher thread pool and one SSLContext
+// (and therefore one TLS session cache), so a menu tap reuses a warm, already-handshaken
+// connection instead of paying for a new TCP and TLS handshake every time.
+public final class NetworkRuntime {
+
+    // Idle connections are kept around long enough to span a menu session.
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int TLS_SESSION_CACHE_SIZE = 16;
+
+    private static OkHttpClient client;
+
+    private NetworkRuntime() {
+    }
+
+    // Get the shared client, building it on first use.
+    // ChatGPT usage: No
+    public static synchronized OkHttpClient getClient() {
+        if (client == null) {
+            client = buildClient();
+        }
+        return client;
+    }
+
+    // The created client is configured to trust all SSL/TLS certificates, since the server uses a
+    // self-signed certificate.
+    // ChatGPT usage: Partial
+    private static OkHttpClient buildClient() {
+        try {
+            // Lint honours SuppressWarnings too, and this module has no Android annotations.
+            @SuppressWarnings("CustomX509TrustManager") final X509TrustManager trustAllCerts = new X509TrustManager() {
+                @SuppressWarnings("TrustAllX509TrustManager")
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                    // Intentionally left empty as no specific logic is required here
+                }
+
+                @SuppressWarnings("TrustAllX509TrustManager")
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                    // Intentionally left empty as no specific logic is required here
+                }
+
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[]{};
+                }
+            };
+
+            // One SSLContext for the whole process, so its client session cache lets new
+            // connections resume earlier TLS sessions.
+            final SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustAllCerts}, new SecureRandom());
+            sslContext.getClientSessionContext().setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+
+            return new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .dispatcher(new Dispatcher())
+                    .sslSocketFactory(sslContext.getSocketFactory(), trustAllCerts)
+                    .hostnameVerifier((hostname, session) -> true)
+                    .build();
+        } catch (Exception e) {
+            throw new NetworkRuntimeException(e);
+        }
+    }
+
+    static class NetworkRuntimeException extends RuntimeException {
+        public NetworkRuntimeException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
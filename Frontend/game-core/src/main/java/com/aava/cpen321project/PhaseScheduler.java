@@ -0,0 +1,203 @@
+package com.aava.cpen321project;
+
+// Runs the phases of a question off absolute deadlines on a monotonic clock:
+// COUNTDOWN -> READING -> ANSWERING -> STALL -> SCOREBOARD. A single reusable tick is scheduled
+// for the next tick boundary of the current phase, measured back from the phase's deadline, so
+// a late tick delays only itself and the error never accumulates from one tick or phase to the
+// next. A tick that is late past its phase's deadline ends the phase, and every later phase
+// whose deadline has also passed, in order.
+//
+// The scheduler is confined to the ticker's thread: every method must be called on it, and the
+// listener is called back on it.
+public class PhaseScheduler {
+
+    public enum Phase { IDLE, COUNTDOWN, READING, ANSWERING, STALL, SCOREBOARD }
+
+    public static final long COUNTDOWN_TICK_MILLIS = 1000;
+    public static final long TIMER_TICK_MILLIS = 100;
+
+    public interface Listener {
+        // Called on entering a timed phase, then on each tick boundary until its deadline.
+        void phaseTicked(Phase phase, long millisUntilFinished);
+        // Called once a timed phase's deadline has passed, before the next phase starts.
+        void phaseEnded(Phase phase);
+    }
+
+    // Runs the scheduler's tick after a delay, e.g. on a Handler or a virtual clock.
+    public interface Ticker {
+        void schedule(Runnable tick, long delayMillis);
+        void cancel(Runnable tick);
+    }
+
+    // How far behind schedule the ticks and the deadline of one phase have run.
+    public static final class Timing {
+        public final long ticks;
+        public final long meanLatenessMillis;
+        public final long maxLatenessMillis;
+        public final long ends;
+        public final long maxEndErrorMillis;
+
+        // ChatGPT usage: No
+        Timing(long ticks, long meanLatenessMillis, long maxLatenessMillis, long ends, long maxEndErrorMillis) {
+            this.ticks = ticks;
+            this.meanLatenessMillis = meanLatenessMillis;
+            this.maxLatenessMillis = maxLatenessMillis;
+            this.ends = ends;
+            this.maxEndErrorMillis = maxEndErrorMillis;
+        }
+    }
+
+    private final MonotonicClock clock;
+    private final Ticker ticker;
+    private final Listener listener;
+    private final Runnable tick = this::tick;
+
+    private final long[] deadlines = new long[Phase.values().length];
+    private final long[] tickIntervals = new long[Phase.values().length];
+    private final long[] ticks = new long[Phase.values().length];
+    private final long[] totalLateness = new long[Phase.values().length];
+    private final long[] maxLateness = new long[Phase.values().length];
+    private final long[] ends = new long[Phase.values().length];
+    private final long[] maxEndError = new long[Phase.values().length];
+
+    private Phase phase = Phase.IDLE;
+    // Bumped on every transition, so a tick can tell when a callback has moved the phase on.
+    private int transitions;
+    // The time the pending tick was due at.
+    private long scheduledFor;
+
+    // ChatGPT usage: No
+    public PhaseScheduler(MonotonicClock clock, Ticker ticker, Listener listener) {
+        this.clock = clock;
+        this.ticker = ticker;
+        this.listener = listener;
+        tickIntervals[Phase.COUNTDOWN.ordinal()] = COUNTDOWN_TICK_MILLIS;
+        tickIntervals[Phase.READING.ordinal()] = TIMER_TICK_MILLIS;
+        tickIntervals[Phase.ANSWERING.ordinal()] = TIMER_TICK_MILLIS;
+    }
+
+    // Set how often a timed phase ticks. With an interval of 0 it only ticks on being entered,
+    // for a listener that draws the time remaining itself.
+    // ChatGPT usage: No
+    public void setTickInterval(Phase phase, long intervalMillis) {
+        tickIntervals[phase.ordinal()] = intervalMillis;
+    }
+
+    // Start a question's phases. Deadlines are on the scheduler's clock, and any that have
+    // already passed end their phase straight away.
+    // ChatGPT usage: No
+    public void startQuestion(long countdownEndsAt, long readingEndsAt, long answeringEndsAt) {
+        deadlines[Phase.COUNTDOWN.ordinal()] = countdownEndsAt;
+        deadlines[Phase.READING.ordinal()] = readingEndsAt;
+        deadlines[Phase.ANSWERING.ordinal()] = answeringEndsAt;
+        enter(Phase.COUNTDOWN);
+        scheduledFor = clock.elapsedMillis();
+        tick();
+    }
+
+    // The player answered, or gave up on, the question: stop its timers and wait for the others.
+    // ChatGPT usage: No
+    public void answered() {
+        if (phase == Phase.COUNTDOWN || phase == Phase.READING || phase == Phase.ANSWERING) {
+            enter(Phase.STALL);
+        }
+    }
+
+    // ChatGPT usage: No
+    public void scoreboard() {
+        enter(Phase.SCOREBOARD);
+    }
+
+    // ChatGPT usage: No
+    public void stop() {
+        enter(Phase.IDLE);
+    }
+
+    // ChatGPT usage: No
+    public Phase phase() {
+        return phase;
+    }
+
+    // Time left until the current phase's deadline, or 0 for a phase without one.
+    // ChatGPT usage: No
+    public long millisRemaining() {
+        if (!isTimed(phase)) {
+            return 0;
+        }
+        return Math.max(0, deadlines[phase.ordinal()] - clock.elapsedMillis());
+    }
+
+    // ChatGPT usage: No
+    public Timing timing(Phase phase) {
+        int p = phase.ordinal();
+        return new Timing(ticks[p], ticks[p] == 0 ? 0 : totalLateness[p] / ticks[p], maxLateness[p],
+                ends[p], maxEndError[p]);
+    }
+
+    // ChatGPT usage: No
+    private void tick() {
+        long now = clock.elapsedMillis();
+        int generation = transitions;
+
+        // End every phase whose deadline has passed.
+        while (isTimed(phase) && now >= deadlines[phase.ordinal()]) {
+            Phase ended = phase;
+            int e = ended.ordinal();
+            ends[e]++;
+            maxEndError[e] = Math.max(maxEndError[e], now - deadlines[e]);
+            enter(next(ended));
+            generation = transitions;
+            listener.phaseEnded(ended);
+            if (transitions != generation) {
+                return;
+            }
+        }
+        if (!isTimed(phase)) {
+            return;
+        }
+
+        int p = phase.ordinal();
+        long lateness = Math.max(0, now - scheduledFor);
+        ticks[p]++;
+        totalLateness[p] += lateness;
+        maxLateness[p] = Math.max(maxLateness[p], lateness);
+
+        long remaining = deadlines[p] - now;
+        listener.phaseTicked(phase, remaining);
+        if (transitions != generation) {
+            return;
+        }
+
+        // Next boundary strictly below the time remaining; a boundary of 0 is the deadline.
+        long interval = tickIntervals[p];
+        long nextRemaining = interval == 0 ? 0 : (remaining - 1) / interval * interval;
+        scheduledFor = deadlines[p] - nextRemaining;
+        ticker.schedule(tick, scheduledFor - now);
+    }
+
+    // ChatGPT usage: No
+    private void enter(Phase next) {
+        ticker.cancel(tick);
+        phase = next;
+        transitions++;
+        // A timed phase is ticked from its start.
+        scheduledFor = clock.elapsedMillis();
+    }
+
+    // ChatGPT usage: No
+    private static boolean isTimed(Phase phase) {
+        return phase == Phase.COUNTDOWN || phase == Phase.READING || phase == Phase.ANSWERING;
+    }
+
+    // ChatGPT usage: No
+    private static Phase next(Phase phase) {
+        switch (phase) {
+            case COUNTDOWN:
+                return Phase.READING;
+            case READING:
+                return Phase.ANSWERING;
+            default:
+                return Phase.STALL;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.aava.cpen321project;
+
+// Decoded per-player event: another player joined, left, readied up, answered or emoted.
+public final class PlayerDelta {
+
+    public enum Kind {
+        JOINED, LEFT, READIED, ANSWERED, EMOTED
+    }
+
+    public final Kind kind;
+    public final String username;
+    // The player's rank, for JOINED deltas.
+    public final int rank;
+    // The emote sent, for EMOTED deltas.
+    public final int emoteCode;
+    // How many emotes the player sent in the batch emoteCode ended, for EMOTED deltas.
+    public final int emoteCount;
+
+    // ChatGPT usage: No
+    public PlayerDelta(Kind kind, String username, int rank, int emoteCode) {
+        this(kind, username, rank, emoteCode, 1);
+    }
+
+    // ChatGPT usage: No
+    public PlayerDelta(Kind kind, String username, int rank, int emoteCode, int emoteCount) {
+        this.kind = kind;
+        this.username = username;
+        this.rank = rank;
+        this.emoteCode = emoteCode;
+        this.emoteCount = emoteCount;
+    }
+
+    // This delta with a later one from the same player folded in. Emotes keep the latest code and
+    // add up their counts, so a merged delta still says how many emotes it stands for; any other
+    // kind is simply replaced by the later delta.
+    // ChatGPT usage: No
+    public PlayerDelta mergedWith(PlayerDelta later) {
+        if (kind != Kind.EMOTED || later.kind != Kind.EMOTED) {
+            return later;
+        }
+        return new PlayerDelta(kind, username, later.rank, later.emoteCode, emoteCount + later.emoteCount);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlayerDelta)) return false;
+        PlayerDelta other = (PlayerDelta) o;
+        return kind == other.kind && rank == other.rank && emoteCode == other.emoteCode
+                && emoteCount == other.emoteCount
+                && username.equals(other.username);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public int hashCode() {
+        return (kind.hashCode() * 31 + username.hashCode()) * 31 + emoteCode;
+    }
+}
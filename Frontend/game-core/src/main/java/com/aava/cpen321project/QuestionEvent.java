@@ -0,0 +1,63 @@
+package com.aava.cpen321project;
+
+import java.util.Arrays;
+
+// Decoded startQuestion event. The phase deadlines are on the server's clock, and are 0 when
+// the server did not send them.
+public final class QuestionEvent {
+    public final String question;
+    private final String[] answers;
+    public final int correctIndex;
+    public final long countdownEndsAt;
+    public final long readingEndsAt;
+    public final long answeringEndsAt;
+
+    // ChatGPT usage: No
+    public QuestionEvent(String question, String[] answers, int correctIndex) {
+        this(question, answers, correctIndex, 0, 0, 0);
+    }
+
+    // ChatGPT usage: No
+    public QuestionEvent(String question, String[] answers, int correctIndex,
+                         long countdownEndsAt, long readingEndsAt, long answeringEndsAt) {
+        this.question = question;
+        this.answers = answers;
+        this.correctIndex = correctIndex;
+        this.countdownEndsAt = countdownEndsAt;
+        this.readingEndsAt = readingEndsAt;
+        this.answeringEndsAt = answeringEndsAt;
+    }
+
+    // ChatGPT usage: No
+    public boolean hasDeadlines() {
+        return answeringEndsAt > 0;
+    }
+
+    // ChatGPT usage: No
+    public int answerCount() {
+        return answers.length;
+    }
+
+    // ChatGPT usage: No
+    public String answer(int index) {
+        return answers[index];
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuestionEvent)) return false;
+        QuestionEvent other = (QuestionEvent) o;
+        return correctIndex == other.correctIndex && question.equals(other.question)
+                && Arrays.equals(answers, other.answers)
+                && countdownEndsAt == other.countdownEndsAt && readingEndsAt == other.readingEndsAt
+                && answeringEndsAt == other.answeringEndsAt;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public int hashCode() {
+        return question.hashCode() * 31 + correctIndex;
+    }
+}
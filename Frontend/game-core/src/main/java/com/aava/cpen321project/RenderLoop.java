@@ -0,0 +1,134 @@
+package com.aava.cpen321project;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Coalesces UI updates into at most one render per frame. Any thread marks the regions of the
+// screen whose state changed; the first mark after a render posts a single frame, and every
+// mark made before that frame runs is folded into it. The frame hands the renderer all the
+// regions that changed, and the renderer draws them from the latest GameSnapshot, so a burst of
+// game events costs one post and one layout pass however many callbacks it fires.
+//
+// A loop can start out held, e.g. while the activity's views are still being bound. Marks made
+// while it is held are kept, and the frame that release() posts renders all of them.
+public class RenderLoop {
+
+    public enum Region {
+        // Which layout is showing: lobby, countdown, question, stall or scoreboard.
+        SCREEN,
+        ROSTER,
+        SETTINGS,
+        // The question's text, answers, powerups and answered count.
+        QUESTION,
+        // The frame-drawn phase timers.
+        TIMER,
+        SCOREBOARD,
+        EMOTES,
+        // A dialog or toast the game asked for: being removed, the room closing or an error.
+        NOTICE;
+
+        // ChatGPT usage: No
+        public int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    public interface Renderer {
+        // Called on the frame's thread with the bits of every region marked since the last render.
+        void render(int dirtyRegions);
+    }
+
+    // Runs a frame, e.g. with View.postOnAnimation. Must be safe to call from any thread.
+    public interface FramePoster {
+        void postFrame(Runnable frame);
+    }
+
+    private final Renderer renderer;
+    private final FramePoster poster;
+    private final Runnable frame = this::frame;
+    // Pending region bits. While the loop is held the HELD bit is set too, so no mark ever finds
+    // the set empty and posts a frame.
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong posts = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+
+    private static final int HELD = 1 << 31;
+
+    // ChatGPT usage: No
+    public RenderLoop(Renderer renderer, FramePoster poster) {
+        this(renderer, poster, false);
+    }
+
+    // ChatGPT usage: No
+    public RenderLoop(Renderer renderer, FramePoster poster, boolean held) {
+        this.renderer = renderer;
+        this.poster = poster;
+        if (held) {
+            pending.set(HELD);
+        }
+    }
+
+    // ChatGPT usage: No
+    public static boolean isDirty(int dirtyRegions, Region region) {
+        return (dirtyRegions & region.bit()) != 0;
+    }
+
+    // Mark a region for the next frame, posting the frame if none is pending.
+    // ChatGPT usage: No
+    public void invalidate(Region region) {
+        int previous;
+        do {
+            previous = pending.get();
+            if ((previous & region.bit()) != 0) {
+                return;
+            }
+        } while (!pending.compareAndSet(previous, previous | region.bit()));
+        if (previous == 0) {
+            posts.incrementAndGet();
+            poster.postFrame(frame);
+        }
+    }
+
+    // Let frames render, posting one for the marks made while the loop was held.
+    // ChatGPT usage: No
+    public void release() {
+        int previous;
+        do {
+            previous = pending.get();
+            if ((previous & HELD) == 0) {
+                return;
+            }
+        } while (!pending.compareAndSet(previous, previous & ~HELD));
+        if ((previous & ~HELD) != 0) {
+            posts.incrementAndGet();
+            poster.postFrame(frame);
+        }
+    }
+
+    // ChatGPT usage: No
+    public boolean isHeld() {
+        return (pending.get() & HELD) != 0;
+    }
+
+    // Frames posted so far.
+    // ChatGPT usage: No
+    public long posts() {
+        return posts.get();
+    }
+
+    // Frames that rendered something so far.
+    // ChatGPT usage: No
+    public long renders() {
+        return renders.get();
+    }
+
+    // ChatGPT usage: No
+    private void frame() {
+        // Cleared before rendering, so a region marked during the render gets a frame of its own.
+        int dirty = pending.getAndSet(0);
+        if (dirty != 0) {
+            renders.incrementAndGet();
+            renderer.render(dirty);
+        }
+    }
+}
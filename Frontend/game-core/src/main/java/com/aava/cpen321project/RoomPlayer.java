@@ -0,0 +1,41 @@
+package com.aava.cpen321project;
+
+// Immutable view of one player in the game room.
+public final class RoomPlayer {
+    public final String username;
+    public final int rank;
+    public final boolean isReady;
+
+    // ChatGPT usage: No
+    public RoomPlayer(String username, int rank, boolean isReady) {
+        this.username = username;
+        this.rank = rank;
+        this.isReady = isReady;
+    }
+
+    // ChatGPT usage: No
+    public RoomPlayer withReady(boolean ready) {
+        return ready == isReady ? this : new RoomPlayer(username, rank, ready);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoomPlayer)) return false;
+        RoomPlayer other = (RoomPlayer) o;
+        return rank == other.rank && isReady == other.isReady && username.equals(other.username);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public int hashCode() {
+        return (username.hashCode() * 31 + rank) * 31 + (isReady ? 1 : 0);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public String toString() {
+        return username + (isReady ? " (ready)" : "");
+    }
+}
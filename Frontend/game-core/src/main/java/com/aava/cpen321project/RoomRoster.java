@@ -0,0 +1,189 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The players in the room, each in a seat that keeps its index for as long as they stay, so the
+// lobby labels and emote bubbles never move when someone else leaves. A leaving player's seat is
+// reused by the next player to join. Players are found by username in O(1), and ready state is
+// kept in a bitset alongside a running count, so the ready count and whether the owner can start
+// are O(1) and can never disagree with the seats.
+//
+// The roster is changed on the game event thread only. Every change publishes a new immutable
+// Snapshot, which the UI thread reads instead of the roster itself.
+public class RoomRoster {
+
+    // The owner created the room and always sits in the first seat.
+    public static final int OWNER_SEAT = 0;
+
+    // An immutable copy of the roster for the UI thread.
+    public static final class Snapshot {
+        // Indexed by seat; an empty seat is null.
+        public final List<RoomPlayer> seats;
+        public final int players;
+        public final int readyCount;
+        public final boolean canStart;
+        private final Map<String, Integer> seatIndex;
+
+        // ChatGPT usage: No
+        Snapshot(List<RoomPlayer> seats, int players, int readyCount, boolean canStart,
+                 Map<String, Integer> seatIndex) {
+            this.seats = seats;
+            this.players = players;
+            this.readyCount = readyCount;
+            this.canStart = canStart;
+            this.seatIndex = seatIndex;
+        }
+
+        // A player's seat, or -1 if they are not in the room.
+        // ChatGPT usage: No
+        public int seatOf(String username) {
+            Integer seat = seatIndex.get(username);
+            return seat == null ? -1 : seat;
+        }
+
+        // Everyone in the room but one player, in seat order.
+        // ChatGPT usage: No
+        public List<String> usernamesExcept(String username) {
+            List<String> usernames = new ArrayList<>(players);
+            for (RoomPlayer player : seats) {
+                if (player != null && !player.username.equals(username)) {
+                    usernames.add(player.username);
+                }
+            }
+            return usernames;
+        }
+    }
+
+    private final List<RoomPlayer> seats = new ArrayList<>();
+    private final Map<String, Integer> seatIndex = new HashMap<>();
+    private final BitSet occupied = new BitSet();
+    private final BitSet ready = new BitSet();
+    private int readyCount;
+    private volatile Snapshot snapshot;
+
+    // ChatGPT usage: No
+    public RoomRoster() {
+        publish();
+    }
+
+    // Replace the roster with the room's players, seated in the order given.
+    // ChatGPT usage: No
+    public void reset(List<RoomPlayer> players) {
+        seats.clear();
+        seatIndex.clear();
+        occupied.clear();
+        ready.clear();
+        readyCount = 0;
+        for (RoomPlayer player : players) {
+            seat(player);
+        }
+        publish();
+    }
+
+    // Seat a new player in the lowest free seat. Returns false if they are already in the room.
+    // ChatGPT usage: No
+    public boolean add(RoomPlayer player) {
+        if (seatIndex.containsKey(player.username)) {
+            return false;
+        }
+        seat(player);
+        publish();
+        return true;
+    }
+
+    // Free a player's seat. Returns false if they were not in the room.
+    // ChatGPT usage: No
+    public boolean remove(String username) {
+        Integer seat = seatIndex.remove(username);
+        if (seat == null) {
+            return false;
+        }
+        seats.set(seat, null);
+        occupied.clear(seat);
+        if (ready.get(seat)) {
+            ready.clear(seat);
+            readyCount--;
+        }
+        publish();
+        return true;
+    }
+
+    // Mark a player ready. Returns false if they are not in the room or were already ready.
+    // ChatGPT usage: No
+    public boolean setReady(String username) {
+        Integer seat = seatIndex.get(username);
+        if (seat == null || ready.get(seat)) {
+            return false;
+        }
+        ready.set(seat);
+        readyCount++;
+        seats.set(seat, seats.get(seat).withReady(true));
+        publish();
+        return true;
+    }
+
+    // ChatGPT usage: No
+    public int seatOf(String username) {
+        Integer seat = seatIndex.get(username);
+        return seat == null ? -1 : seat;
+    }
+
+    // ChatGPT usage: No
+    public boolean contains(String username) {
+        return seatIndex.containsKey(username);
+    }
+
+    // ChatGPT usage: No
+    public int size() {
+        return seatIndex.size();
+    }
+
+    // ChatGPT usage: No
+    public int readyCount() {
+        return readyCount;
+    }
+
+    // Whether everyone but the owner is ready.
+    // ChatGPT usage: No
+    public boolean canStart() {
+        int readyOthers = readyCount - (ready.get(OWNER_SEAT) ? 1 : 0);
+        int others = size() - (occupied.get(OWNER_SEAT) ? 1 : 0);
+        return readyOthers == others;
+    }
+
+    // The latest snapshot; safe to call from any thread.
+    // ChatGPT usage: No
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    // ChatGPT usage: No
+    private void seat(RoomPlayer player) {
+        int seat = occupied.nextClearBit(0);
+        occupied.set(seat);
+        if (seat == seats.size()) {
+            seats.add(player);
+        } else {
+            seats.set(seat, player);
+        }
+        seatIndex.put(player.username, seat);
+        if (player.isReady) {
+            ready.set(seat);
+            readyCount++;
+        }
+    }
+
+    // ChatGPT usage: No
+    private void publish() {
+        // Trailing empty seats are dropped, so the UI only walks seats that were ever filled.
+        int length = occupied.length();
+        List<RoomPlayer> seatsCopy = new ArrayList<>(seats.subList(0, length));
+        snapshot = new Snapshot(Collections.unmodifiableList(seatsCopy), size(), readyCount, canStart(),
+                Collections.unmodifiableMap(new HashMap<>(seatIndex)));
+    }
+}
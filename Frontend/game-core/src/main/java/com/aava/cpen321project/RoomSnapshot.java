@@ -0,0 +1,52 @@
+package com.aava.cpen321project;
+
+import java.util.Collections;
+import java.util.List;
+
+// Decoded welcomeNewPlayer event: the room as it stood when the local player joined.
+public final class RoomSnapshot {
+    public final String roomCode;
+    public final List<RoomPlayer> players;
+    public final boolean roomIsPublic;
+    public final String questionDifficulty;
+    public final int maxPlayers;
+    public final int questionTime;
+    public final int totalQuestions;
+    public final List<String> questionCategories;
+    public final List<String> possibleCategories;
+
+    // ChatGPT usage: No
+    public RoomSnapshot(String roomCode, List<RoomPlayer> players, boolean roomIsPublic,
+                        String questionDifficulty, int maxPlayers, int questionTime, int totalQuestions,
+                        List<String> questionCategories, List<String> possibleCategories) {
+        this.roomCode = roomCode;
+        this.players = Collections.unmodifiableList(players);
+        this.roomIsPublic = roomIsPublic;
+        this.questionDifficulty = questionDifficulty;
+        this.maxPlayers = maxPlayers;
+        this.questionTime = questionTime;
+        this.totalQuestions = totalQuestions;
+        this.questionCategories = Collections.unmodifiableList(questionCategories);
+        this.possibleCategories = Collections.unmodifiableList(possibleCategories);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoomSnapshot)) return false;
+        RoomSnapshot other = (RoomSnapshot) o;
+        return roomIsPublic == other.roomIsPublic && maxPlayers == other.maxPlayers
+                && questionTime == other.questionTime && totalQuestions == other.totalQuestions
+                && roomCode.equals(other.roomCode) && players.equals(other.players)
+                && questionDifficulty.equals(other.questionDifficulty)
+                && questionCategories.equals(other.questionCategories)
+                && possibleCategories.equals(other.possibleCategories);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public int hashCode() {
+        return roomCode.hashCode() * 31 + players.hashCode();
+    }
+}
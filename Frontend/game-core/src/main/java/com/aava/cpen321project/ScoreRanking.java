@@ -0,0 +1,263 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Players ranked by total points, kept up to date one score at a time. The ranking is an
+// order-statistic treap: a binary search tree ordered by points (highest first, ties broken by
+// username) that also counts the players under each node, balanced by random priorities. A
+// player's node is found by username in O(1), so a score change, a player's rank and neighbours,
+// and the top k players all cost O(log n), plus k for the top k, however large the room is.
+//
+// Not thread-safe; GameState updates it from the game event thread.
+public class ScoreRanking {
+
+    // A player's place in the ranking, with the players either side of them.
+    public static final class Standing {
+        // 0 for first place.
+        public final int rank;
+        public final int players;
+        // Null at the top of the ranking.
+        public final ScoreboardEvent.Score above;
+        public final ScoreboardEvent.Score self;
+        // Null at the bottom of the ranking.
+        public final ScoreboardEvent.Score below;
+
+        // ChatGPT usage: No
+        Standing(int rank, int players, ScoreboardEvent.Score above, ScoreboardEvent.Score self,
+                 ScoreboardEvent.Score below) {
+            this.rank = rank;
+            this.players = players;
+            this.above = above;
+            this.self = self;
+            this.below = below;
+        }
+    }
+
+    private static final class Node {
+        ScoreboardEvent.Score score;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(ScoreboardEvent.Score score, int priority) {
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<String, Node> nodes = new HashMap<>();
+    private Node root;
+    private int seed = 0x2545F491;
+
+    // Record a player's latest score. A score whose total has not changed only replaces the
+    // stored record; otherwise the player is moved to their new place.
+    // ChatGPT usage: No
+    public void update(ScoreboardEvent.Score score) {
+        Node node = nodes.get(score.username);
+        if (node == null) {
+            node = new Node(score, nextPriority());
+            nodes.put(score.username, node);
+        } else if (node.score.updatedTotalPoints == score.updatedTotalPoints) {
+            node.score = score;
+            return;
+        } else {
+            root = remove(root, node.score);
+            node.score = score;
+            node.left = null;
+            node.right = null;
+            node.size = 1;
+        }
+        root = insert(root, node);
+    }
+
+    // ChatGPT usage: No
+    public void remove(String username) {
+        Node node = nodes.remove(username);
+        if (node != null) {
+            root = remove(root, node.score);
+        }
+    }
+
+    // ChatGPT usage: No
+    public int size() {
+        return size(root);
+    }
+
+    // A player's rank, 0 for first place, or -1 if they are not ranked.
+    // ChatGPT usage: No
+    public int rankOf(String username) {
+        Node node = nodes.get(username);
+        if (node == null) {
+            return -1;
+        }
+        int rank = 0;
+        Node current = root;
+        while (current != node) {
+            if (compare(node.score, current.score) < 0) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank + size(current.left);
+    }
+
+    // The score at a rank, 0 for first place.
+    // ChatGPT usage: No
+    public ScoreboardEvent.Score get(int rank) {
+        if (rank < 0 || rank >= size(root)) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " of " + size(root));
+        }
+        Node current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (rank < leftSize) {
+                current = current.left;
+            } else if (rank == leftSize) {
+                return current.score;
+            } else {
+                rank -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    // A player's standing, or null if they are not ranked.
+    // ChatGPT usage: No
+    public Standing standing(String username) {
+        int rank = rankOf(username);
+        if (rank < 0) {
+            return null;
+        }
+        int players = size(root);
+        return new Standing(rank, players,
+                rank > 0 ? get(rank - 1) : null,
+                nodes.get(username).score,
+                rank < players - 1 ? get(rank + 1) : null);
+    }
+
+    // The k highest scores, best first.
+    // ChatGPT usage: No
+    public List<ScoreboardEvent.Score> top(int k) {
+        List<ScoreboardEvent.Score> top = new ArrayList<>(Math.min(k, size(root)));
+        collect(root, k, top);
+        return top;
+    }
+
+    // ChatGPT usage: No
+    private static void collect(Node node, int k, List<ScoreboardEvent.Score> into) {
+        if (node == null || into.size() >= k) {
+            return;
+        }
+        collect(node.left, k, into);
+        if (into.size() < k) {
+            into.add(node.score);
+            collect(node.right, k, into);
+        }
+    }
+
+    // ChatGPT usage: No
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (compare(node.score, tree.score) < 0) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                tree = rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                tree = rotateLeft(tree);
+            }
+        }
+        resize(tree);
+        return tree;
+    }
+
+    // ChatGPT usage: No
+    private static Node remove(Node tree, ScoreboardEvent.Score score) {
+        int order = compare(score, tree.score);
+        if (order < 0) {
+            tree.left = remove(tree.left, score);
+        } else if (order > 0) {
+            tree.right = remove(tree.right, score);
+        } else {
+            return merge(tree.left, tree.right);
+        }
+        resize(tree);
+        return tree;
+    }
+
+    // ChatGPT usage: No
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            resize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        resize(right);
+        return right;
+    }
+
+    // ChatGPT usage: No
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        resize(node);
+        resize(pivot);
+        return pivot;
+    }
+
+    // ChatGPT usage: No
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        resize(node);
+        resize(pivot);
+        return pivot;
+    }
+
+    // ChatGPT usage: No
+    private static void resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    // ChatGPT usage: No
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // Highest total first; equal totals in username order.
+    // ChatGPT usage: No
+    private static int compare(ScoreboardEvent.Score a, ScoreboardEvent.Score b) {
+        if (a.updatedTotalPoints != b.updatedTotalPoints) {
+            return a.updatedTotalPoints > b.updatedTotalPoints ? -1 : 1;
+        }
+        return a.username.compareTo(b.username);
+    }
+
+    // Xorshift, so priorities cost no allocation.
+    // ChatGPT usage: No
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
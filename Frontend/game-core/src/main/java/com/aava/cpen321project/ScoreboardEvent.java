@@ -0,0 +1,57 @@
+package com.aava.cpen321project;
+
+import java.util.Collections;
+import java.util.List;
+
+// Decoded showScoreboard event, one Score per player in the order the server sent them.
+public final class ScoreboardEvent {
+    public final List<Score> scores;
+
+    // ChatGPT usage: No
+    public ScoreboardEvent(List<Score> scores) {
+        this.scores = Collections.unmodifiableList(scores);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ScoreboardEvent && scores.equals(((ScoreboardEvent) o).scores));
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public int hashCode() {
+        return scores.hashCode();
+    }
+
+    public static final class Score {
+        public final String username;
+        public final int pointsEarned;
+        public final int updatedTotalPoints;
+        public final boolean stolenPoints;
+
+        // ChatGPT usage: No
+        public Score(String username, int pointsEarned, int updatedTotalPoints, boolean stolenPoints) {
+            this.username = username;
+            this.pointsEarned = pointsEarned;
+            this.updatedTotalPoints = updatedTotalPoints;
+            this.stolenPoints = stolenPoints;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Score)) return false;
+            Score other = (Score) o;
+            return pointsEarned == other.pointsEarned && updatedTotalPoints == other.updatedTotalPoints
+                    && stolenPoints == other.stolenPoints && username.equals(other.username);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public int hashCode() {
+            return username.hashCode() * 31 + updatedTotalPoints;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.aava.cpen321project;
+
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Keeps the client's place in its room across dropped connections. When the socket joins, the
+// server hands out a resume token, and it stamps every room broadcast with a sequence number.
+// On reconnect the client asks to resume from the last sequence number it saw instead of
+// rejoining; the server replays only the events that were missed, and anything delivered twice
+// is filtered out here. If the session can no longer be resumed, the client falls back to a
+// full joinRoom.
+public class SessionResumer {
+
+    private static final String TAG = "SessionResumer";
+
+    public interface Emitter {
+        void emit(String event, Map<String, Object> fields);
+    }
+
+    private final GameConstants gameConstants;
+    private final Emitter emitter;
+
+    // Guarded by this.
+    private String resumeToken;
+    private long lastSeq;
+    private long duplicatesDropped;
+    private int resumes;
+    private int rejoins;
+
+    // ChatGPT usage: No
+    public SessionResumer(GameConstants gameConstants, Emitter emitter) {
+        this.gameConstants = gameConstants;
+        this.emitter = emitter;
+    }
+
+    // Called on every socket connect: resume the session if there is one, otherwise join.
+    // ChatGPT usage: No
+    public void connected() {
+        String token;
+        long seq;
+        synchronized (this) {
+            token = resumeToken;
+            seq = lastSeq;
+        }
+        if (token == null) {
+            join();
+            return;
+        }
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("roomId", gameConstants.roomId);
+        fields.put("username", gameConstants.username);
+        fields.put("resumeToken", token);
+        fields.put("lastSeq", seq);
+        emitter.emit("resumeSession", fields);
+    }
+
+    // The server's sessionResumable event, sent right after the room snapshot.
+    // ChatGPT usage: No
+    public synchronized void sessionResumable(JSONObject data) {
+        resumeToken = data.optString("resumeToken", null);
+        lastSeq = data.optLong("seq");
+    }
+
+    // ChatGPT usage: No
+    public void sessionResumed(JSONObject data) {
+        synchronized (this) {
+            resumes++;
+        }
+        GameLog.d(TAG, "Resumed at " + data.optLong("seq") + ", " + data.optInt("replayed") + " events replayed");
+    }
+
+    // ChatGPT usage: No
+    public void resumeFailed(JSONObject data) {
+        GameLog.d(TAG, "Could not resume: " + data.optString("reason"));
+        synchronized (this) {
+            resumeToken = null;
+            lastSeq = 0;
+            rejoins++;
+        }
+        join();
+    }
+
+    // Check a room event's sequence number, passed as the event's second argument. Returns false
+    // for an event that has already been delivered. Events without one are always delivered.
+    // ChatGPT usage: No
+    public synchronized boolean accept(Object[] args) {
+        if (args.length < 2 || !(args[1] instanceof Number)) {
+            return true;
+        }
+        long seq = ((Number) args[1]).longValue();
+        if (seq <= lastSeq) {
+            duplicatesDropped++;
+            return false;
+        }
+        lastSeq = seq;
+        return true;
+    }
+
+    // ChatGPT usage: No
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    // ChatGPT usage: No
+    public synchronized long duplicatesDropped() {
+        return duplicatesDropped;
+    }
+
+    // ChatGPT usage: No
+    public synchronized int resumes() {
+        return resumes;
+    }
+
+    // ChatGPT usage: No
+    public synchronized int rejoins() {
+        return rejoins;
+    }
+
+    // ChatGPT usage: No
+    private void join() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("roomId", gameConstants.roomId);
+        fields.put("username", gameConstants.username);
+        emitter.emit("joinRoom", fields);
+    }
+}
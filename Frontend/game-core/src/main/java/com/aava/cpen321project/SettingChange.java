@@ -0,0 +1,43 @@
+package com.aava.cpen321project;
+
+// Decoded changedSetting event. The value is a Boolean, Integer or String depending on the option.
+public final class SettingChange {
+    public final String settingOption;
+    public final Object optionValue;
+
+    // ChatGPT usage: No
+    public SettingChange(String settingOption, Object optionValue) {
+        this.settingOption = settingOption;
+        this.optionValue = optionValue;
+    }
+
+    // ChatGPT usage: No
+    public boolean booleanValue() {
+        return optionValue instanceof Boolean && (Boolean) optionValue;
+    }
+
+    // ChatGPT usage: No
+    public int intValue() {
+        return optionValue instanceof Number ? ((Number) optionValue).intValue() : 0;
+    }
+
+    // ChatGPT usage: No
+    public String stringValue() {
+        return String.valueOf(optionValue);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SettingChange)) return false;
+        SettingChange other = (SettingChange) o;
+        return settingOption.equals(other.settingOption) && optionValue.equals(other.optionValue);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public int hashCode() {
+        return settingOption.hashCode() * 31 + optionValue.hashCode();
+    }
+}
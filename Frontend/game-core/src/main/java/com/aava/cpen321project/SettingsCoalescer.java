@@ -0,0 +1,110 @@
+package com.aava.cpen321project;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Coalesces the owner's lobby setting changes before they go out on the socket. Changes made
+// within a short window are merged per settingOption, keeping the last value written, and then
+// flushed together: as one changeSettings message when the server supports it, otherwise as
+// one changeSetting emit per option. Scrolling through a picker therefore costs the room one
+// broadcast per window instead of one per step. The window runs on the ticker it is given.
+public class SettingsCoalescer {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 150;
+
+    public interface SettingsEmitter {
+        void emitSetting(String settingOption, Object optionValue);
+        void emitSettings(Map<String, Object> settings);
+    }
+
+    private final SettingsEmitter emitter;
+    private final FlushWindow window;
+
+    // Guarded by this.
+    private final Map<String, Object> pending = new LinkedHashMap<>();
+    private long offered;
+    private long emitted;
+
+    private volatile boolean batchSupported;
+
+    // ChatGPT usage: No
+    public SettingsCoalescer(SettingsEmitter emitter, PhaseScheduler.Ticker ticker) {
+        this(emitter, ticker, DEFAULT_WINDOW_MILLIS);
+    }
+
+    // ChatGPT usage: No
+    public SettingsCoalescer(SettingsEmitter emitter, PhaseScheduler.Ticker ticker, long windowMillis) {
+        this.emitter = emitter;
+        this.window = new FlushWindow(ticker, windowMillis, this::emitPending);
+    }
+
+    // Called once the server advertises the changeSettings feature.
+    // ChatGPT usage: No
+    public void setBatchSupported(boolean batchSupported) {
+        this.batchSupported = batchSupported;
+    }
+
+    // Queue a setting change, to go out with the rest of its window.
+    // ChatGPT usage: No
+    public void offer(String settingOption, Object optionValue) {
+        synchronized (this) {
+            offered++;
+            pending.put(settingOption, optionValue);
+        }
+        window.held();
+    }
+
+    // Emit everything pending now, before any message that must not overtake a pending setting,
+    // such as startGame.
+    // ChatGPT usage: No
+    public void flush() {
+        window.flush();
+    }
+
+    // Drop anything pending and stop the window timer.
+    // ChatGPT usage: No
+    public void close() {
+        synchronized (this) {
+            pending.clear();
+        }
+        window.close();
+    }
+
+    // ChatGPT usage: No
+    public synchronized long offeredCount() {
+        return offered;
+    }
+
+    // ChatGPT usage: No
+    public synchronized long emittedCount() {
+        return emitted;
+    }
+
+    // The window's drain.
+    // ChatGPT usage: No
+    private void emitPending() {
+        Map<String, Object> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        if (batchSupported && batch.size() > 1) {
+            countEmits(1);
+            emitter.emitSettings(batch);
+        } else {
+            countEmits(batch.size());
+            for (Map.Entry<String, Object> setting : batch.entrySet()) {
+                emitter.emitSetting(setting.getKey(), setting.getValue());
+            }
+        }
+    }
+
+    // ChatGPT usage: No
+    private synchronized void countEmits(int count) {
+        emitted += count;
+    }
+}
@@ -0,0 +1,47 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Positional codec for showScoreboard: one
+// [username, pointsEarned, updatedTotalPoints, stolenPoints] row per player.
+public class ShowScoreboardCodec implements EventCodec<ScoreboardEvent> {
+
+    // ChatGPT usage: No
+    @Override
+    public void encode(JSONObject payload, MessagePackWriter writer) throws JSONException {
+        JSONArray scores = payload.getJSONArray("scores");
+        writer.packArrayHeader(scores.length());
+        for (int i = 0; i < scores.length(); i++) {
+            JSONObject score = scores.getJSONObject(i);
+            writer.packArrayHeader(4);
+            writer.packString(score.getString("username"));
+            writer.packLong(score.optInt("pointsEarned"));
+            writer.packLong(score.getInt("updatedTotalPoints"));
+            writer.packBoolean(score.optBoolean("stolenPoints"));
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public ScoreboardEvent decode(MessagePackReader reader) {
+        int count = reader.unpackArrayHeader();
+        List<ScoreboardEvent.Score> scores = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int fields = reader.unpackArrayHeader();
+            String username = reader.unpackString();
+            int pointsEarned = reader.unpackInt();
+            int updatedTotalPoints = reader.unpackInt();
+            boolean stolenPoints = reader.unpackBoolean();
+            for (int f = 4; f < fields; f++) {
+                reader.skipValue();
+            }
+            scores.add(new ScoreboardEvent.Score(username, pointsEarned, updatedTotalPoints, stolenPoints));
+        }
+        return new ScoreboardEvent(scores);
+    }
+}
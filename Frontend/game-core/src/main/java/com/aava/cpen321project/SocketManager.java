@@ -0,0 +1,253 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// One game's traffic over the session's GameConnection: it joins or resumes the room, decodes
+// room events for the game logic and sends the player's actions.
+public class SocketManager implements GameConnection.Session {
+
+    final private String TAG = "SocketManager";
+
+    final private GameConstants gameConstants;
+
+    private final GameConnection connection;
+    private final GameEventDispatcher eventDispatcher;
+    private final EventDecoder eventDecoder;
+    private final SettingsCoalescer settingsCoalescer;
+    private final EmoteSender emoteSender;
+    private final SessionResumer sessionResumer;
+    private final TrafficRecorder trafficRecorder;
+    // Set once this game's own room snapshot arrives. On a reused connection, the tail of the
+    // previous game, e.g. the roomClosed an owner gets for leaving, can still be in flight, and
+    // none of it belongs to this game. Written only on the socket's event thread.
+    private boolean joined;
+    // Guarded by this.
+    private boolean disconnected;
+
+    // Attach to the connection; if it is already up, the room is joined straight away. Room
+    // events are delivered on the platform's gameEvents, which may be shared by many games, and
+    // the setting and emote windows tick on its main-thread ticker.
+    // ChatGPT usage: No
+    public SocketManager(TypedSocketManagerListener socketManagerListener, GameConnection connection, GameConstants gameConstants,
+                         GamePlatform platform) {
+        this.gameConstants = gameConstants;
+        this.connection = connection;
+        this.trafficRecorder = platform.trafficRecorder(gameConstants);
+        // Decoded events are handed to the game logic through an ordered, bounded queue so the
+        // socket's event thread never runs game code.
+        this.eventDispatcher = new GameEventDispatcher(socketManagerListener, platform.gameEvents(),
+                GameEventDispatcher.DEFAULT_CAPACITY);
+        this.eventDecoder = new EventDecoder(eventDispatcher);
+        this.sessionResumer = new SessionResumer(gameConstants, this::emit);
+        this.settingsCoalescer = new SettingsCoalescer(new SettingsCoalescer.SettingsEmitter() {
+            @Override
+            public void emitSetting(String settingOption, Object optionValue) {
+                emit("changeSetting", new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("settingOption", settingOption);
+                    put("optionValue", optionValue);
+                }});
+            }
+
+            @Override
+            public void emitSettings(Map<String, Object> settings) {
+                emit("changeSettings", new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("settings", new JSONObject(settings));
+                }});
+            }
+        }, platform.mainThreadTicker());
+
+        this.emoteSender = new EmoteSender(new EmoteSender.EmoteEmitter() {
+            @Override
+            public void emitEmote(int emoteCode) {
+                emit("submitEmote", new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("username", gameConstants.username);
+                    put("emoteCode", emoteCode);
+                }});
+            }
+
+            @Override
+            public void emitEmotes(int[] emoteCodes) {
+                JSONArray codes = new JSONArray();
+                for (int emoteCode : emoteCodes) {
+                    codes.put(emoteCode);
+                }
+                emit("submitEmotes", new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("username", gameConstants.username);
+                    put("emoteCodes", codes);
+                }});
+            }
+        }, platform.mainThreadTicker(), platform.clock());
+
+        // Attach only once everything is built, so no early event is missed.
+        connection.attach(this);
+    }
+
+    // Join on the first connect; after a dropped connection, resume the session so the server
+    // replays only the missed events instead of sending the whole room again.
+    // ChatGPT usage: No
+    @Override
+    public void connected() {
+        sessionResumer.connected();
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void capabilitiesReceived() {
+        settingsCoalescer.setBatchSupported(connection.supports("changeSettings"));
+        emoteSender.setBatchSupported(connection.supports("emoteBatches"));
+    }
+
+    // Every game event goes through the decoder, which turns its payload into a typed record
+    // exactly once, whichever wire format it arrived in. Room events already delivered before a
+    // resume are dropped by their sequence number. Before joining, the only error that belongs
+    // to this game is the server refusing its joinRoom, which names the room.
+    // ChatGPT usage: No
+    @Override
+    public void received(String event, Object[] args) {
+        trafficRecorder.inbound(event, args);
+        switch (event) {
+            case "sessionResumable":
+                sessionResumer.sessionResumable(GameConnection.controlPayload(args));
+                break;
+            case "sessionResumed":
+                sessionResumer.sessionResumed(GameConnection.controlPayload(args));
+                break;
+            case "resumeFailed":
+                sessionResumer.resumeFailed(GameConnection.controlPayload(args));
+                break;
+            default:
+                if (event.equals("welcomeNewPlayer")) {
+                    joined = true;
+                } else if (!joined && !(event.equals("error") && refusesThisJoin(args))) {
+                    GameLog.d(TAG, "Dropped " + event + " from before joining");
+                    break;
+                }
+                if (sessionResumer.accept(args)) {
+                    eventDecoder.dispatch(event, args.length > 0 ? args[0] : null);
+                }
+        }
+    }
+
+    // Leave the room. The connection stays open for the next game. Both the game ending and the
+    // player returning to the menu leave, and only the first does anything: a second leaveRoom
+    // would reach the server after the room has gone, on the connection the next game reuses.
+    // ChatGPT usage: No
+    public void disconnect() {
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+            disconnected = true;
+        }
+        // Settings and emotes still inside their windows were made before leaving, so go first.
+        settingsCoalescer.flush();
+        emoteSender.flush();
+        sendSocketJSON("leaveRoom", new HashMap<String, Object>() {{
+            put("roomId", gameConstants.roomId);
+            put("username", gameConstants.username);
+        }});
+        connection.detach(this);
+        eventDispatcher.close();
+        settingsCoalescer.close();
+        emoteSender.close();
+        trafficRecorder.close();
+        GameLog.d(TAG, "Emotes: offered=" + emoteSender.offeredCount() + " sent=" + emoteSender.emittedCount()
+                + " coalesced=" + emoteSender.coalescedCount() + " dropped=" + emoteSender.droppedCount());
+    }
+
+    // Estimate of the server's clock, used to run question phases against server deadlines.
+    // ChatGPT usage: No
+    public ClockSync clockSync() {
+        return connection.clockSync();
+    }
+
+    // ChatGPT usage: No
+    public void sendReadyToStartGame() {
+        sendSocketJSON("readyToStartGame", new HashMap<String, Object>() {{
+            put("roomId", gameConstants.roomId);
+            put("username", gameConstants.username);
+        }});
+    }
+
+    // ChatGPT usage: No
+    public void sendQuestionCount(int questionCount) {
+        settingsCoalescer.offer("total", questionCount);
+    }
+
+    // ChatGPT usage: No
+    public void sendMaxPlayers(int maxPlayers) {
+        settingsCoalescer.offer("maxPlayers", maxPlayers);
+    }
+
+    // ChatGPT usage: No
+    public void sendTimeLimit(int timeLimit) {
+        settingsCoalescer.offer("timeLimit", timeLimit);
+    }
+
+    // ChatGPT usage: No
+    public void sendRoomPublicity(boolean isPublic) {
+        settingsCoalescer.offer("isPublic", isPublic);
+    }
+
+    // ChatGPT usage: No
+    public void sendQuestionDifficulty(String questionDifficulty) {
+        settingsCoalescer.offer("difficulty", questionDifficulty);
+    }
+
+    // ChatGPT usage: No
+    public void sendQuestionCategory(String name, boolean active) {
+        settingsCoalescer.offer("category-" + name, active);
+    }
+
+    // ChatGPT usage: No
+    public void sendStartGame() {
+        // Settings still inside their coalescing window must reach the server first.
+        settingsCoalescer.flush();
+        sendSocketJSON("startGame", new HashMap<String, Object>() {{
+            put("roomId", gameConstants.roomId);
+        }});
+    }
+
+    // ChatGPT usage: No
+    public void sendSubmitAnswer(long timeDelay, boolean isCorrect, int powerupCode, String powerupVictimUsername) {
+        sendSocketJSON("submitAnswer", new HashMap<String, Object>() {{
+            put("roomId", gameConstants.roomId);
+            put("username", gameConstants.username);
+            put("timeDelay", timeDelay);
+            put("isCorrect", isCorrect);
+            put("powerupCode", powerupCode);
+            put("powerupVictimUsername", powerupVictimUsername);
+        }});
+    }
+
+    // Returns false if the emote was dropped for coming too fast.
+    // ChatGPT usage: No
+    public boolean submitEmote(int emoteCode) {
+        return emoteSender.offer(emoteCode);
+    }
+
+    // ChatGPT usage: No
+    private boolean refusesThisJoin(Object[] args) {
+        return gameConstants.roomId.equals(GameConnection.controlPayload(args).optString("roomId", null));
+    }
+
+    // ChatGPT usage: No
+    private void sendSocketJSON(String event, Map<String, Object> fields) {
+        emit(event, fields);
+    }
+
+    // Every event the game sends goes out through here, so it is recorded once.
+    // ChatGPT usage: No
+    private void emit(String event, Map<String, Object> fields) {
+        trafficRecorder.outbound(event, fields);
+        connection.emit(event, fields);
+    }
+}
@@ -0,0 +1,58 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Positional codec for startQuestion: [question, [answers...], correctIndex], followed by
+// [countdownEndsAt, readingEndsAt, answeringEndsAt] when the server sends phase deadlines.
+public class StartQuestionCodec implements EventCodec<QuestionEvent> {
+
+    // ChatGPT usage: No
+    @Override
+    public void encode(JSONObject payload, MessagePackWriter writer) throws JSONException {
+        JSONArray answers = payload.getJSONArray("answers");
+        boolean deadlines = payload.has("answeringEndsAt");
+        writer.packArrayHeader(deadlines ? 4 : 3);
+        writer.packString(payload.getString("question"));
+        writer.packArrayHeader(answers.length());
+        for (int i = 0; i < answers.length(); i++) {
+            writer.packString(answers.getString(i));
+        }
+        writer.packLong(payload.getInt("correctIndex"));
+        if (deadlines) {
+            writer.packArrayHeader(3);
+            writer.packLong(payload.getLong("countdownEndsAt"));
+            writer.packLong(payload.getLong("readingEndsAt"));
+            writer.packLong(payload.getLong("answeringEndsAt"));
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public QuestionEvent decode(MessagePackReader reader) {
+        int fields = reader.unpackArrayHeader();
+        String question = reader.unpackString();
+        String[] answers = new String[reader.unpackArrayHeader()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = reader.unpackString();
+        }
+        int correctIndex = reader.unpackInt();
+        long[] deadlines = new long[3];
+        if (fields > 3) {
+            int count = reader.unpackArrayHeader();
+            for (int i = 0; i < count; i++) {
+                if (i < deadlines.length) {
+                    deadlines[i] = reader.unpackLong();
+                } else {
+                    reader.skipValue();
+                }
+            }
+        }
+        // Tolerate fields appended by newer servers.
+        for (int i = 4; i < fields; i++) {
+            reader.skipValue();
+        }
+        return new QuestionEvent(question, answers, correctIndex, deadlines[0], deadlines[1], deadlines[2]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.aava.cpen321project;
+
+// Rate budget: holds up to `capacity` tokens and refills at `perSecond` tokens a second on a
+// monotonic clock. Each unit of work takes a token, so work can burst up to the capacity and
+// then runs no faster than the refill rate however often it is asked for. Not thread-safe;
+// each bucket belongs to one thread.
+public class TokenBucket {
+
+    // Tokens are counted in thousandths so refills between whole tokens are not lost.
+    private static final long UNIT = 1000;
+
+    private final MonotonicClock clock;
+    private final long capacity;
+    private final long perSecond;
+    private long milliTokens;
+    private long refilledAt;
+
+    // Starts full.
+    // ChatGPT usage: No
+    public TokenBucket(MonotonicClock clock, int capacity, int perSecond) {
+        if (capacity < 1 || perSecond < 1) {
+            throw new IllegalArgumentException("A bucket needs a capacity and a refill rate of at least 1");
+        }
+        this.clock = clock;
+        this.capacity = capacity;
+        this.perSecond = perSecond;
+        this.milliTokens = capacity * UNIT;
+        this.refilledAt = clock.elapsedMillis();
+    }
+
+    // Take a token if one is available.
+    // ChatGPT usage: No
+    public boolean tryTake() {
+        refill();
+        if (milliTokens < UNIT) {
+            return false;
+        }
+        milliTokens -= UNIT;
+        return true;
+    }
+
+    // Milliseconds until a token is available, 0 if one is now.
+    // ChatGPT usage: No
+    public long millisUntilAvailable() {
+        refill();
+        if (milliTokens >= UNIT) {
+            return 0;
+        }
+        // A millisecond refills perSecond thousandths. Round up, so a caller that waits this
+        // long finds the token there.
+        return (UNIT - milliTokens + perSecond - 1) / perSecond;
+    }
+
+    // Whole tokens available now.
+    // ChatGPT usage: No
+    public int available() {
+        refill();
+        return (int) (milliTokens / UNIT);
+    }
+
+    // ChatGPT usage: No
+    private void refill() {
+        long now = clock.elapsedMillis();
+        long elapsed = now - refilledAt;
+        if (elapsed <= 0) {
+            return;
+        }
+        // elapsed ms * perSecond tokens/s = elapsed * perSecond milli-tokens.
+        milliTokens = Math.min(capacity * UNIT, milliTokens + elapsed * perSecond);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,366 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A compact, append-only log of one game's traffic, for replaying a real match offline with
+// TrafficReplay.
+//
+// The log starts with a header: the magic "KTRF", a version byte, then the player's username,
+// room id and whether they own the room. Each record that follows is:
+//   kind        1 byte, INBOUND or OUTBOUND
+//   time        varint, milliseconds on the monotonic clock since the previous record
+//   event       varint index into the events seen so far; a new event is given the next index,
+//               followed by its name
+//   arguments   varint count, then each argument as a tag byte and its value
+// JSON travels as its text, MessagePack attachments as their bytes, and numbers as zigzag
+// varints, so a typical event takes little more than its payload. Records are only ever
+// appended, so a log cut short by a crash is read up to its last whole record.
+public final class TrafficLog {
+
+    private static final String TAG = "TrafficLog";
+
+    private static final byte[] MAGIC = {'K', 'T', 'R', 'F'};
+    private static final int VERSION = 1;
+
+    public static final int INBOUND = 1;
+    public static final int OUTBOUND = 2;
+
+    private static final int NULL = 0;
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+    private static final int STRING = 3;
+    private static final int BYTES = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int TRUE = 7;
+    private static final int FALSE = 8;
+
+    // One event, at its time since the recording started.
+    public static final class Record {
+        public final int kind;
+        public final long atMillis;
+        public final String event;
+        public final Object[] args;
+
+        // ChatGPT usage: No
+        public Record(int kind, long atMillis, String event, Object[] args) {
+            this.kind = kind;
+            this.atMillis = atMillis;
+            this.event = event;
+            this.args = args;
+        }
+
+        // ChatGPT usage: No
+        public boolean isInbound() {
+            return kind == INBOUND;
+        }
+    }
+
+    // A whole log, as read back.
+    public static final class Recording {
+        public final String username;
+        public final String roomId;
+        public final boolean isOwner;
+        public final List<Record> records;
+        // Whether the log ended part way through a record.
+        public final boolean truncated;
+
+        // ChatGPT usage: No
+        Recording(String username, String roomId, boolean isOwner, List<Record> records, boolean truncated) {
+            this.username = username;
+            this.roomId = roomId;
+            this.isOwner = isOwner;
+            this.records = records;
+            this.truncated = truncated;
+        }
+
+        // The constants the game was played with. The session token is not recorded.
+        // ChatGPT usage: No
+        public GameConstants gameConstants() {
+            return new GameConstants("replay", username, roomId, isOwner);
+        }
+
+        // ChatGPT usage: No
+        public int inboundCount() {
+            int inbound = 0;
+            for (Record record : records) {
+                if (record.isInbound()) {
+                    inbound++;
+                }
+            }
+            return inbound;
+        }
+    }
+
+    // Records to a stream. Safe to call from any thread; a failed write is logged once and ends
+    // the recording, and never reaches the game.
+    public static final class Writer implements TrafficRecorder {
+        private final DataOutputStream out;
+        private final MonotonicClock clock;
+        private final Map<String, Integer> events = new HashMap<>();
+        // Guarded by this.
+        private long lastMillis;
+        private boolean closed;
+        private long records;
+
+        // ChatGPT usage: No
+        public Writer(OutputStream out, MonotonicClock clock, GameConstants gameConstants) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+            this.clock = clock;
+            this.lastMillis = clock.elapsedMillis();
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeUTF(gameConstants.username);
+            this.out.writeUTF(gameConstants.roomId);
+            this.out.writeBoolean(gameConstants.isOwner);
+        }
+
+        // A new log file, replacing any with the same name.
+        // ChatGPT usage: No
+        public static Writer open(File file, MonotonicClock clock, GameConstants gameConstants) throws IOException {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+            return new Writer(new FileOutputStream(file), clock, gameConstants);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void inbound(String event, Object[] args) {
+            write(INBOUND, event, args);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void outbound(String event, Map<String, Object> fields) {
+            Object message;
+            try {
+                message = GameConnection.message(fields, false);
+            } catch (JSONException e) {
+                message = null;
+            }
+            write(OUTBOUND, event, new Object[] {message});
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                GameLog.e(TAG, "Could not close the traffic log", e);
+            }
+            GameLog.d(TAG, "Recorded " + records + " events");
+        }
+
+        // ChatGPT usage: No
+        public synchronized long recordCount() {
+            return records;
+        }
+
+        // ChatGPT usage: No
+        private synchronized void write(int kind, String event, Object[] args) {
+            if (closed) {
+                return;
+            }
+            try {
+                long now = clock.elapsedMillis();
+                out.writeByte(kind);
+                writeVarint(out, Math.max(0, now - lastMillis));
+                lastMillis = Math.max(lastMillis, now);
+                Integer index = events.get(event);
+                if (index == null) {
+                    writeVarint(out, events.size());
+                    out.writeUTF(event);
+                    events.put(event, events.size());
+                } else {
+                    writeVarint(out, index);
+                }
+                writeVarint(out, args.length);
+                for (Object arg : args) {
+                    writeValue(out, arg);
+                }
+                records++;
+            } catch (IOException e) {
+                GameLog.e(TAG, "Stopped recording traffic", e);
+                closed = true;
+            }
+        }
+    }
+
+    // ChatGPT usage: No
+    private TrafficLog() {
+    }
+
+    // Read a whole log.
+    // ChatGPT usage: No
+    public static Recording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic[i] != MAGIC[i]) {
+                throw new IOException("Not a traffic log");
+            }
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported traffic log version " + version);
+        }
+        String username = in.readUTF();
+        String roomId = in.readUTF();
+        boolean isOwner = in.readBoolean();
+
+        List<Record> records = new ArrayList<>();
+        List<String> events = new ArrayList<>();
+        long atMillis = 0;
+        boolean truncated = false;
+        while (true) {
+            int kind = in.read();
+            if (kind < 0) {
+                break;
+            }
+            try {
+                atMillis += readVarint(in);
+                int index = (int) readVarint(in);
+                if (index == events.size()) {
+                    events.add(in.readUTF());
+                }
+                String event = events.get(index);
+                Object[] args = new Object[(int) readVarint(in)];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readValue(in);
+                }
+                records.add(new Record(kind, atMillis, event, args));
+            } catch (EOFException e) {
+                truncated = true;
+                break;
+            }
+        }
+        return new Recording(username, roomId, isOwner, Collections.unmodifiableList(records), truncated);
+    }
+
+    // ChatGPT usage: No
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            out.writeByte(NULL);
+        } else if (value instanceof JSONObject) {
+            writeText(out, OBJECT, value.toString());
+        } else if (value instanceof JSONArray) {
+            writeText(out, ARRAY, value.toString());
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            long number = ((Number) value).longValue();
+            out.writeByte(LONG);
+            writeVarint(out, (number << 1) ^ (number >> 63));
+        } else {
+            writeText(out, STRING, value.toString());
+        }
+    }
+
+    // ChatGPT usage: No
+    private static Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        try {
+            switch (tag) {
+                case NULL:
+                    return null;
+                case OBJECT:
+                    return new JSONObject(readText(in));
+                case ARRAY:
+                    return new JSONArray(readText(in));
+                case STRING:
+                    return readText(in);
+                case BYTES: {
+                    byte[] bytes = new byte[(int) readVarint(in)];
+                    in.readFully(bytes);
+                    return bytes;
+                }
+                case LONG: {
+                    long zigzag = readVarint(in);
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+                case DOUBLE:
+                    return in.readDouble();
+                case TRUE:
+                    return true;
+                case FALSE:
+                    return false;
+                default:
+                    throw new IOException("Unknown value tag " + tag);
+            }
+        } catch (JSONException e) {
+            throw new IOException("Malformed JSON in traffic log", e);
+        }
+    }
+
+    // ChatGPT usage: No
+    private static void writeText(DataOutputStream out, int tag, String text) throws IOException {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(tag);
+        writeVarint(out, utf8.length);
+        out.write(utf8);
+    }
+
+    // ChatGPT usage: No
+    private static String readText(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[(int) readVarint(in)];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // ChatGPT usage: No
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    // ChatGPT usage: No
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in traffic log");
+    }
+}
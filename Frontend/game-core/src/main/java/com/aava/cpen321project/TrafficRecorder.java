@@ -0,0 +1,32 @@
+package com.aava.cpen321project;
+
+import java.util.Map;
+
+// Where SocketManager records a game's traffic: every event it receives, before any filtering,
+// and every event it sends. Called from the socket's thread and from whichever thread sends.
+public interface TrafficRecorder {
+
+    TrafficRecorder NONE = new TrafficRecorder() {
+        // ChatGPT usage: No
+        @Override
+        public void inbound(String event, Object[] args) {
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void outbound(String event, Map<String, Object> fields) {
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void close() {
+        }
+    };
+
+    void inbound(String event, Object[] args);
+
+    void outbound(String event, Map<String, Object> fields);
+
+    // The game is over or was left; nothing more is recorded.
+    void close();
+}
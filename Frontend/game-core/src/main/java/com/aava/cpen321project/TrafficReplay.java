@@ -0,0 +1,165 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+// Plays a recorded TrafficLog back into a fresh GameState, with no server and no socket. The game
+// is attached to an offline GameConnection and goes through the same SocketManager, resume
+// filtering, decoding and dispatch as it would live; each inbound event is handed over at its
+// recorded time on a VirtualClock, which also runs the game's phase and emote ticks. Room events
+// are delivered on the calling thread, so a replay is exactly reproducible.
+//
+// Only inbound events are replayed. The player's own actions are not re-driven; what the game
+// sends in response is captured, and can be compared with the outbound events in the log.
+public class TrafficReplay {
+
+    public enum Pace {
+        // As fast as possible: the virtual clock jumps straight to each event.
+        VIRTUAL,
+        // Events are handed over at their recorded pace, sleeping in between.
+        REAL_TIME
+    }
+
+    public static final class Result {
+        // The game's state once the last event was delivered.
+        public final GameSnapshot snapshot;
+        public final int eventsDelivered;
+        // The events the game sent, in order.
+        public final List<String> sent;
+        // The recording's span on the virtual clock.
+        public final long recordedMillis;
+        public final long phaseTicks;
+
+        // ChatGPT usage: No
+        Result(GameSnapshot snapshot, int eventsDelivered, List<String> sent, long recordedMillis, long phaseTicks) {
+            this.snapshot = snapshot;
+            this.eventsDelivered = eventsDelivered;
+            this.sent = sent;
+            this.recordedMillis = recordedMillis;
+            this.phaseTicks = phaseTicks;
+        }
+    }
+
+    private final TrafficLog.Recording recording;
+    private final GameStateListener listener;
+
+    // ChatGPT usage: No
+    public TrafficReplay(TrafficLog.Recording recording, GameStateListener listener) {
+        this.recording = recording;
+        this.listener = listener;
+    }
+
+    // Replay the whole recording into a new game.
+    // ChatGPT usage: No
+    public Result run(Pace pace) throws InterruptedException {
+        VirtualClock clock = new VirtualClock(0);
+        ReplayPlatform platform = new ReplayPlatform(clock);
+        GameState gameState = new GameState(listener, platform, recording.gameConstants());
+        gameState.startSession();
+
+        long startedAt = MonotonicClock.SYSTEM.elapsedMillis();
+        long recordedMillis = 0;
+        int delivered = 0;
+        for (TrafficLog.Record record : recording.records) {
+            if (!record.isInbound()) {
+                continue;
+            }
+            if (pace == Pace.REAL_TIME) {
+                long wait = startedAt + record.atMillis - MonotonicClock.SYSTEM.elapsedMillis();
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+            }
+            clock.advanceTo(record.atMillis);
+            platform.connection.deliver(record.event, record.args);
+            recordedMillis = record.atMillis;
+            delivered++;
+        }
+        Result result = new Result(gameState.snapshot(), delivered,
+                Collections.unmodifiableList(new ArrayList<>(platform.sent)), recordedMillis, clock.ticksRun());
+
+        // A game that ended has already left; one cut short is left now, so nothing outlives it.
+        if (!result.snapshot.gameOver) {
+            gameState.leaveRoom();
+        }
+        platform.connection.close();
+        return result;
+    }
+
+    // Everything on the calling thread and the virtual clock.
+    private static final class ReplayPlatform implements GamePlatform {
+        private final VirtualClock clock;
+        private final GameConnection connection;
+        private final List<String> sent = new ArrayList<>();
+        private final Executor direct = Runnable::run;
+
+        // ChatGPT usage: No
+        ReplayPlatform(VirtualClock clock) {
+            this.clock = clock;
+            this.connection = GameConnection.offline("replay", clock);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public MonotonicClock clock() {
+            return clock;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public Executor mainThread() {
+            return direct;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public PhaseScheduler.Ticker mainThreadTicker() {
+            return clock;
+        }
+
+        // Nothing random happens without the player's actions, but seeded all the same.
+        // ChatGPT usage: No
+        @Override
+        public Random random() {
+            return new Random(0);
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public Executor gameEvents() {
+            return direct;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public GameConnection connection(String sessionToken) {
+            return connection;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public TrafficRecorder trafficRecorder(GameConstants gameConstants) {
+            return new TrafficRecorder() {
+                // ChatGPT usage: No
+                @Override
+                public void inbound(String event, Object[] args) {
+                }
+
+                // ChatGPT usage: No
+                @Override
+                public void outbound(String event, Map<String, Object> fields) {
+                    sent.add(event);
+                }
+
+                // ChatGPT usage: No
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.aava.cpen321project;
+
+// Typed variant of SocketManagerListener: every event arrives already decoded into an
+// immutable record by EventDecoder.
+public interface TypedSocketManagerListener {
+    void youJoined(RoomSnapshot room);
+    void youLeft(String reason);
+    void otherPlayerJoined(PlayerDelta player);
+    void otherPlayerLeft(PlayerDelta player);
+    void creatorLeft();
+
+    void settingChanged(SettingChange setting);
+    void otherPlayerReadied(PlayerDelta player);
+
+    void questionReceived(QuestionEvent question);
+    void otherPlayerAnswered(PlayerDelta player);
+    void otherPlayerEmoted(PlayerDelta emote);
+    void scoreboardReceived(ScoreboardEvent scoreboard);
+
+    void errorReceived(String message);
+}
@@ -0,0 +1,98 @@
+package com.aava.cpen321project;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+// A clock that only moves when told to, running the ticks scheduled on it as time reaches them.
+// Ticks due at the same time run in the order they were scheduled, so a run driven by it is
+// exactly reproducible. Not thread-safe: it belongs to the thread that advances it, which is the
+// "main thread" of everything scheduled on it.
+public class VirtualClock implements MonotonicClock, PhaseScheduler.Ticker {
+
+    private static final class Pending implements Comparable<Pending> {
+        final long dueAt;
+        final long order;
+        final Runnable tick;
+
+        // ChatGPT usage: No
+        Pending(long dueAt, long order, Runnable tick) {
+            this.dueAt = dueAt;
+            this.order = order;
+            this.tick = tick;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public int compareTo(Pending other) {
+            if (dueAt != other.dueAt) {
+                return dueAt < other.dueAt ? -1 : 1;
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+
+    private final PriorityQueue<Pending> pending = new PriorityQueue<>();
+    private long now;
+    private long scheduled;
+    private long ran;
+
+    // ChatGPT usage: No
+    public VirtualClock(long startMillis) {
+        this.now = startMillis;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public long elapsedMillis() {
+        return now;
+    }
+
+    // Like a Handler, the same tick may be scheduled more than once.
+    // ChatGPT usage: No
+    @Override
+    public void schedule(Runnable tick, long delayMillis) {
+        pending.add(new Pending(now + Math.max(0, delayMillis), scheduled++, tick));
+    }
+
+    // Cancels every pending run of the tick.
+    // ChatGPT usage: No
+    @Override
+    public void cancel(Runnable tick) {
+        Iterator<Pending> entries = pending.iterator();
+        while (entries.hasNext()) {
+            if (entries.next().tick == tick) {
+                entries.remove();
+            }
+        }
+    }
+
+    // Move time forward, running every tick that falls due on the way at its due time, including
+    // ticks those ticks schedule.
+    // ChatGPT usage: No
+    public void advanceTo(long millis) {
+        while (!pending.isEmpty() && pending.peek().dueAt <= millis) {
+            Pending next = pending.poll();
+            now = Math.max(now, next.dueAt);
+            ran++;
+            next.tick.run();
+        }
+        now = Math.max(now, millis);
+    }
+
+    // ChatGPT usage: No
+    public void advanceBy(long millis) {
+        advanceTo(now + millis);
+    }
+
+    // When the next tick is due, or -1 if none is pending.
+    // ChatGPT usage: No
+    public long nextDueAt() {
+        return pending.isEmpty() ? -1 : pending.peek().dueAt;
+    }
+
+    // How many ticks have run.
+    // ChatGPT usage: No
+    public long ticksRun() {
+        return ran;
+    }
+}
@@ -0,0 +1,97 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Positional codec for welcomeNewPlayer:
+// [roomCode, [[username, rank, isReady]...],
+//  [roomIsPublic, questionDifficulty, maxPlayers, questionTime, totalQuestions, [categories...]],
+//  [possibleCategories...]].
+public class WelcomeNewPlayerCodec implements EventCodec<RoomSnapshot> {
+
+    // ChatGPT usage: No
+    @Override
+    public void encode(JSONObject payload, MessagePackWriter writer) throws JSONException {
+        writer.packArrayHeader(4);
+        writer.packString(payload.getString("roomCode"));
+
+        JSONArray roomPlayers = payload.getJSONArray("roomPlayers");
+        writer.packArrayHeader(roomPlayers.length());
+        for (int i = 0; i < roomPlayers.length(); i++) {
+            JSONObject player = roomPlayers.getJSONObject(i);
+            writer.packArrayHeader(3);
+            writer.packString(player.getString("username"));
+            writer.packLong(player.optInt("rank"));
+            writer.packBoolean(player.optBoolean("isReady"));
+        }
+
+        JSONObject roomSettings = payload.getJSONObject("roomSettings");
+        writer.packArrayHeader(6);
+        writer.packBoolean(roomSettings.getBoolean("roomIsPublic"));
+        writer.packString(roomSettings.getString("questionDifficulty"));
+        writer.packLong(roomSettings.getInt("maxPlayers"));
+        writer.packLong(roomSettings.getInt("questionTime"));
+        writer.packLong(roomSettings.getInt("totalQuestions"));
+        packStrings(roomSettings.getJSONArray("questionCategories"), writer);
+
+        packStrings(payload.getJSONArray("possibleCategories"), writer);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public RoomSnapshot decode(MessagePackReader reader) {
+        int fields = reader.unpackArrayHeader();
+        String roomCode = reader.unpackString();
+
+        int playerCount = reader.unpackArrayHeader();
+        List<RoomPlayer> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            int playerFields = reader.unpackArrayHeader();
+            String username = reader.unpackString();
+            int rank = reader.unpackInt();
+            boolean isReady = reader.unpackBoolean();
+            for (int f = 3; f < playerFields; f++) {
+                reader.skipValue();
+            }
+            players.add(new RoomPlayer(username, rank, isReady));
+        }
+
+        int settingFields = reader.unpackArrayHeader();
+        boolean roomIsPublic = reader.unpackBoolean();
+        String questionDifficulty = reader.unpackString();
+        int maxPlayers = reader.unpackInt();
+        int questionTime = reader.unpackInt();
+        int totalQuestions = reader.unpackInt();
+        List<String> questionCategories = unpackStrings(reader);
+        for (int f = 6; f < settingFields; f++) {
+            reader.skipValue();
+        }
+
+        List<String> possibleCategories = unpackStrings(reader);
+        for (int f = 4; f < fields; f++) {
+            reader.skipValue();
+        }
+        return new RoomSnapshot(roomCode, players, roomIsPublic, questionDifficulty, maxPlayers,
+                questionTime, totalQuestions, questionCategories, possibleCategories);
+    }
+
+    private static void packStrings(JSONArray strings, MessagePackWriter writer) throws JSONException {
+        writer.packArrayHeader(strings.length());
+        for (int i = 0; i < strings.length(); i++) {
+            writer.packString(strings.getString(i));
+        }
+    }
+
+    private static List<String> unpackStrings(MessagePackReader reader) {
+        int count = reader.unpackArrayHeader();
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(reader.unpackString());
+        }
+        return strings;
+    }
+}
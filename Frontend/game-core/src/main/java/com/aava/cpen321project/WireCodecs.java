@@ -0,0 +1,57 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Registry of the per-event MessagePack codecs. Events without a dedicated codec fall back to
+// the schema-less MapCodec and decode to a JSONObject; the rest decode to their typed record.
+public final class WireCodecs {
+
+    // Name advertised in the handshake query and in the server's capabilities event.
+    public static final String MSGPACK = "msgpack";
+
+    private static final MapCodec MAP_CODEC = new MapCodec();
+    private static final Map<String, EventCodec<?>> CODECS = new HashMap<String, EventCodec<?>>() {{
+        put("startQuestion", new StartQuestionCodec());
+        put("showScoreboard", new ShowScoreboardCodec());
+        put("welcomeNewPlayer", new WelcomeNewPlayerCodec());
+    }};
+
+    private WireCodecs() {
+    }
+
+    // ChatGPT usage: No
+    public static EventCodec<?> forEvent(String event) {
+        EventCodec<?> codec = CODECS.get(event);
+        return codec != null ? codec : MAP_CODEC;
+    }
+
+    // ChatGPT usage: No
+    public static byte[] encode(String event, JSONObject payload) throws JSONException {
+        MessagePackWriter writer = new MessagePackWriter();
+        forEvent(event).encode(payload, writer);
+        return writer.toByteArray();
+    }
+
+    // Outgoing client events are always schema-less maps.
+    // ChatGPT usage: No
+    public static byte[] encode(Map<String, Object> fields) throws JSONException {
+        MessagePackWriter writer = new MessagePackWriter(64);
+        MAP_CODEC.encode(fields, writer);
+        return writer.toByteArray();
+    }
+
+    // ChatGPT usage: No
+    public static Object decode(String event, byte[] payload) throws JSONException {
+        return forEvent(event).decode(new MessagePackReader(payload));
+    }
+
+    // Decode a schema-less map payload, such as an outgoing client event.
+    // ChatGPT usage: No
+    public static JSONObject decodeFields(byte[] payload) throws JSONException {
+        return MAP_CODEC.decode(new MessagePackReader(payload));
+    }
+}
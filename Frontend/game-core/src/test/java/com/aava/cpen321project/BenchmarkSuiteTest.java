@@ -0,0 +1,44 @@
+package com.aava.cpen321project;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+
+/**
+ * Runs the JMH benchmarks in this source set. Skipped unless the build is invoked with
+ * -Pbenchmarks; narrow the selection with -Pbenchmarks=WireCodec. Results, with the time per
+ * operation and the GC profiler's allocation rate per operation, are written as JSON to
+ * build/reports/jmh/results.json for comparing runs.
+ */
+public class BenchmarkSuiteTest {
+
+    @Test
+    public void runBenchmarks() throws RunnerException {
+        String include = System.getProperty("benchmarks", "");
+        Assume.assumeTrue("Pass -Pbenchmarks to run the JMH benchmarks", !include.isEmpty());
+
+        File results = new File("build/reports/jmh/results.json");
+        results.getParentFile().mkdirs();
+
+        Options options = new OptionsBuilder()
+                .include(include.equals("true") ? ".*Benchmark" : include)
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
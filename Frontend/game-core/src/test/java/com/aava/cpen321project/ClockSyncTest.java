@@ -0,0 +1,105 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class ClockSyncTest {
+
+    // The server's clock runs this far ahead of the local monotonic clock.
+    private static final long TRUE_OFFSET = 1_700_000_000_000L;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final VirtualClock clock = new VirtualClock();
+
+    @After
+    public void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void symmetricPathGivesTheExactOffset() {
+        ClockSync clockSync = new ClockSync(sendTime -> { }, scheduler, clock);
+        assertFalse(clockSync.isSynced());
+
+        exchange(clockSync, 40, 40);
+        assertTrue(clockSync.isSynced());
+        assertEquals(TRUE_OFFSET, clockSync.offsetMillis());
+        assertEquals(80, clockSync.rttMillis());
+        assertEquals(clock.now + TRUE_OFFSET, clockSync.serverNow());
+        assertEquals(clock.now + 5000, clockSync.toLocal(clock.now + TRUE_OFFSET + 5000));
+    }
+
+    @Test
+    public void jitterIsFilteredByTheFastestRoundTrip() {
+        ClockSync clockSync = new ClockSync(sendTime -> { }, scheduler, clock);
+        Random random = new Random(7);
+
+        // A 30ms path each way, with up to 400ms of queueing added to either direction.
+        for (int i = 0; i < 200; i++) {
+            exchange(clockSync, 30 + jitter(random), 30 + jitter(random));
+            // The error of an NTP sample is at most half its round trip's asymmetry, so
+            // the estimate never strays further than half the best round trip in the window.
+            long error = Math.abs(clockSync.offsetMillis() - TRUE_OFFSET);
+            assertTrue("error " + error + " at sample " + i, error <= clockSync.rttMillis() / 2);
+        }
+        assertTrue(clockSync.smoothedRttMillis() >= clockSync.rttMillis());
+    }
+
+    @Test
+    public void staleSamplesAgeOutOfTheWindow() {
+        ClockSync clockSync = new ClockSync(sendTime -> { }, scheduler, clock);
+        exchange(clockSync, 10, 10);
+        assertEquals(20, clockSync.rttMillis());
+
+        // The route gets slower for good, and the old fast sample is eventually forgotten.
+        for (int i = 0; i < ClockSync.WINDOW; i++) {
+            exchange(clockSync, 100, 100);
+        }
+        assertEquals(200, clockSync.rttMillis());
+        assertEquals(TRUE_OFFSET, clockSync.offsetMillis());
+    }
+
+    @Test
+    public void startPingsImmediatelyAndOnlyOnce() {
+        List<Long> pings = new ArrayList<>();
+        ClockSync clockSync = new ClockSync(pings::add, scheduler, clock);
+        clockSync.start();
+        clockSync.start();
+        assertEquals(1, pings.size());
+        assertEquals(Long.valueOf(clock.now), pings.get(0));
+        clockSync.close();
+    }
+
+    // One ping and its pong, taking up and down milliseconds in each direction.
+    private void exchange(ClockSync clockSync, long up, long down) {
+        long sendTime = clock.now;
+        clock.now += up;
+        long serverTime = clock.now + TRUE_OFFSET;
+        clock.now += down;
+        clockSync.pong(sendTime, serverTime);
+        clock.now += 1000;
+    }
+
+    private static long jitter(Random random) {
+        return random.nextInt(10) == 0 ? random.nextInt(400) : random.nextInt(5);
+    }
+
+    private static final class VirtualClock implements MonotonicClock {
+        long now = 123_456;
+
+        @Override
+        public long elapsedMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class EmoteBoardTest {
+
+    private static final String[] PLAYERS = {"owner", "b", "c", "d", "e", "f"};
+
+    private final VirtualTicker ticker = new VirtualTicker();
+    private final RecordingSeat[] seats = new RecordingSeat[PLAYERS.length];
+    private final EmoteBoard board = new EmoteBoard(ticker, ticker,
+            new TokenBucket(ticker, EmoteBoard.DEFAULT_BURST, EmoteBoard.DEFAULT_PER_SECOND));
+    private RoomRoster.Snapshot roster;
+
+    @Before
+    public void seatPlayers() {
+        List<RoomPlayer> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS.length; i++) {
+            players.add(new RoomPlayer(PLAYERS[i], 0, false));
+            seats[i] = new RecordingSeat();
+        }
+        RoomRoster roomRoster = new RoomRoster();
+        roomRoster.reset(players);
+        roster = roomRoster.snapshot();
+        board.setSeats(seats);
+    }
+
+    @Test
+    public void aBurstFromOnePlayerIsShownOncePerFrame() {
+        assertTrue(board.offer("b", 1));
+        for (int i = 0; i < 49; i++) {
+            assertFalse(board.offer("b", i % 9));
+        }
+        board.render(roster);
+
+        assertEquals(Arrays.asList("show 3 x50"), seats[1].calls);
+        EmoteBoard.Metrics metrics = board.metrics();
+        assertEquals(50, metrics.received);
+        assertEquals(49, metrics.coalesced);
+        assertEquals(1, metrics.shown);
+
+        // The next emote starts a new burst.
+        assertTrue(board.offer("b", 2));
+        board.render(roster);
+        assertEquals("show 2 x1", seats[1].calls.get(1));
+    }
+
+    @Test
+    public void aBatchFromTheServerCountsAsItsWholeRun() {
+        assertTrue(board.offer("b", 1, 3));
+        assertFalse(board.offer("b", 7, 2));
+        board.render(roster);
+
+        assertEquals(Arrays.asList("show 7 x5"), seats[1].calls);
+        EmoteBoard.Metrics metrics = board.metrics();
+        assertEquals(5, metrics.received);
+        assertEquals(4, metrics.coalesced);
+    }
+
+    @Test
+    public void theBudgetCapsUiWorkWhateverTheInboundRate() {
+        // Every player sends an emote every frame for ten seconds.
+        int frames = 0;
+        for (long t = 0; t < 10_000; t += 16) {
+            for (String player : PLAYERS) {
+                board.offer(player, 0);
+            }
+            board.render(roster);
+            ticker.advanceBy(16);
+            frames++;
+        }
+
+        long shows = 0;
+        for (RecordingSeat seat : seats) {
+            shows += seat.shows;
+        }
+        EmoteBoard.Metrics metrics = board.metrics();
+        assertEquals(frames * PLAYERS.length, metrics.received);
+        assertEquals(shows, metrics.shown);
+        assertTrue(shows + " shows", shows <= EmoteBoard.DEFAULT_BURST + 10 * EmoteBoard.DEFAULT_PER_SECOND);
+        assertEquals(metrics.received, metrics.shown + metrics.coalesced + metrics.dropped);
+    }
+
+    @Test
+    public void seatsExpireOnOneSharedTick() {
+        board.offer("b", 1);
+        board.render(roster);
+        ticker.advanceBy(500);
+        board.offer("c", 2);
+        board.render(roster);
+        assertEquals(1, ticker.schedules);
+
+        ticker.advanceBy(1500);
+        assertEquals("hide", seats[1].last());
+        assertEquals("show 2 x1", seats[2].last());
+
+        // Showing again before the deadline pushes it back without another tick.
+        board.offer("c", 3);
+        board.render(roster);
+        ticker.advanceBy(1999);
+        assertEquals("show 3 x1", seats[2].last());
+        ticker.advanceBy(1);
+        assertEquals("hide", seats[2].last());
+        assertNull(ticker.pending);
+    }
+
+    @Test
+    public void emotesFromPlayersWithoutASeatAreDropped() {
+        board.offer("gone", 1);
+        board.render(roster);
+        assertEquals(1, board.metrics().dropped);
+        assertNull(ticker.pending);
+    }
+
+    @Test
+    public void clearingHidesEverySeatAndCancelsTheTick() {
+        board.offer("b", 1);
+        board.render(roster);
+        board.offer("c", 1);
+        board.clear();
+
+        assertEquals("hide", seats[1].last());
+        assertTrue(seats[2].calls.isEmpty());
+        assertNull(ticker.pending);
+        board.render(roster);
+        assertTrue(seats[2].calls.isEmpty());
+    }
+
+    private static final class RecordingSeat implements EmoteBoard.Seat {
+        final List<String> calls = new ArrayList<>();
+        int shows;
+
+        @Override
+        public void show(int emoteCode, int burst) {
+            calls.add("show " + emoteCode + " x" + burst);
+            shows++;
+        }
+
+        @Override
+        public void hide() {
+            calls.add("hide");
+        }
+
+        String last() {
+            return calls.get(calls.size() - 1);
+        }
+    }
+
+    private static final class VirtualTicker implements MonotonicClock, PhaseScheduler.Ticker {
+        long now = 1_000_000;
+        Runnable pending;
+        long dueAt;
+        int schedules;
+
+        @Override
+        public long elapsedMillis() {
+            return now;
+        }
+
+        @Override
+        public void schedule(Runnable tick, long delayMillis) {
+            pending = tick;
+            dueAt = now + delayMillis;
+            schedules++;
+        }
+
+        @Override
+        public void cancel(Runnable tick) {
+            if (pending == tick) {
+                pending = null;
+            }
+        }
+
+        void advanceBy(long millis) {
+            long until = now + millis;
+            while (pending != null && dueAt <= until) {
+                Runnable tick = pending;
+                pending = null;
+                now = dueAt;
+                tick.run();
+            }
+            now = until;
+        }
+    }
+}
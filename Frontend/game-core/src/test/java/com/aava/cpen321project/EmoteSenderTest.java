@@ -0,0 +1,149 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class EmoteSenderTest {
+
+    private final List<String> emits = new ArrayList<>();
+    private long now = 1_000_000;
+    private final VirtualClock clock = new VirtualClock(0);
+    private EmoteSender sender;
+
+    @Before
+    public void setUp() {
+        // The window is long enough that every flush in these tests is an explicit one.
+        sender = new EmoteSender(new EmoteSender.EmoteEmitter() {
+            @Override
+            public void emitEmote(int emoteCode) {
+                synchronized (emits) {
+                    emits.add("submitEmote " + emoteCode);
+                }
+            }
+
+            @Override
+            public void emitEmotes(int[] emoteCodes) {
+                synchronized (emits) {
+                    emits.add("submitEmotes " + Arrays.toString(emoteCodes));
+                }
+            }
+        }, clock, 10_000, new TokenBucket(() -> now, EmoteSender.DEFAULT_BURST, EmoteSender.DEFAULT_PER_SECOND));
+    }
+
+    @Test
+    public void aRunOfTapsGoesOutAsOneBatch() {
+        sender.setBatchSupported(true);
+        sender.offer(1);
+        sender.offer(4);
+        sender.offer(2);
+        sender.flush();
+
+        assertEquals(Arrays.asList("submitEmotes [1, 4, 2]"), emits);
+        assertEquals(1, sender.emittedCount());
+        assertEquals(0, sender.coalescedCount());
+    }
+
+    @Test
+    public void aServerWithoutBatchesGetsTheLatestEmoteOfTheRun() {
+        sender.offer(1);
+        sender.offer(4);
+        sender.offer(2);
+        sender.flush();
+
+        assertEquals(Arrays.asList("submitEmote 2"), emits);
+        assertEquals(2, sender.coalescedCount());
+    }
+
+    @Test
+    public void aLoneEmoteGoesOutOnItsOwn() {
+        sender.setBatchSupported(true);
+        sender.offer(3);
+        sender.flush();
+        assertEquals(Arrays.asList("submitEmote 3"), emits);
+    }
+
+    @Test
+    public void mashingTheButtonIsCappedByTheLimiter() {
+        sender.setBatchSupported(true);
+        // Twenty taps a second for five seconds, flushed every quarter second.
+        int accepted = 0;
+        for (int tap = 0; tap < 100; tap++) {
+            if (sender.offer(tap % 9)) {
+                accepted++;
+            }
+            now += 50;
+            if (tap % 5 == 4) {
+                sender.flush();
+            }
+        }
+
+        assertEquals(100, sender.offeredCount());
+        assertEquals(100 - accepted, sender.droppedCount());
+        assertTrue(accepted + " accepted", accepted <= EmoteSender.DEFAULT_BURST + 5 * EmoteSender.DEFAULT_PER_SECOND);
+        // One message per window at most, not one per tap.
+        assertTrue(sender.emittedCount() <= 20);
+        assertEquals(sender.emittedCount(), emits.size());
+    }
+
+    @Test
+    public void aBatchKeepsItsLatestEmotes() {
+        sender = new EmoteSender(new EmoteSender.EmoteEmitter() {
+            @Override
+            public void emitEmote(int emoteCode) {
+                emits.add("submitEmote " + emoteCode);
+            }
+
+            @Override
+            public void emitEmotes(int[] emoteCodes) {
+                emits.add("submitEmotes " + emoteCodes.length + " ending " + emoteCodes[emoteCodes.length - 1]);
+            }
+        }, clock, 10_000, new TokenBucket(() -> now, 50, 1));
+        sender.setBatchSupported(true);
+        for (int tap = 0; tap < EmoteSender.MAX_BATCH + 3; tap++) {
+            sender.offer(tap);
+        }
+        sender.flush();
+
+        assertEquals(Arrays.asList("submitEmotes " + EmoteSender.MAX_BATCH + " ending " + (EmoteSender.MAX_BATCH + 2)), emits);
+        assertEquals(3, sender.coalescedCount());
+        assertFalse(sender.droppedCount() > 0);
+    }
+
+    @Test
+    public void theWindowAndTheLimiterFollowTheGivenClock() {
+        sender = new EmoteSender(new EmoteSender.EmoteEmitter() {
+            @Override
+            public void emitEmote(int emoteCode) {
+                emits.add("submitEmote " + emoteCode);
+            }
+
+            @Override
+            public void emitEmotes(int[] emoteCodes) {
+                emits.add("submitEmotes " + Arrays.toString(emoteCodes));
+            }
+        }, clock, clock);
+        sender.setBatchSupported(true);
+        for (int tap = 0; tap < EmoteSender.DEFAULT_BURST + 1; tap++) {
+            sender.offer(tap);
+        }
+        clock.advanceBy(EmoteSender.DEFAULT_WINDOW_MILLIS - 1);
+        assertTrue(emits.isEmpty());
+        clock.advanceBy(1);
+        assertEquals(Arrays.asList("submitEmotes [0, 1, 2, 3, 4]"), emits);
+        assertEquals(1, sender.droppedCount());
+
+        // A second on the virtual clock refills the bucket.
+        clock.advanceBy(1000);
+        assertTrue(sender.offer(7));
+        sender.close();
+        assertEquals(-1, clock.nextDueAt());
+    }
+}
@@ -0,0 +1,118 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per inbound event from payload to state GameState can use, including the Socket.IO
+ * client's own JSON parse. Run with the GC profiler (BenchmarkSuiteTest adds it) and compare
+ * gc.alloc.rate.norm: the bytes allocated per event by the old JSONObject walk against the
+ * typed records decoded from JSON and from the MessagePack attachment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventDecoderBenchmark {
+
+    @Param({"startQuestion", "showScoreboard", "welcomeNewPlayer"})
+    public String event;
+
+    @Param({"2", "4", "6"})
+    public int players;
+
+    private String json;
+    private byte[] binary;
+    private EventDecoder decoder;
+
+    @Setup
+    public void setUp() throws JSONException {
+        JSONObject payload;
+        switch (event) {
+            case "startQuestion":
+                payload = GameFixtures.startQuestion(1);
+                break;
+            case "showScoreboard":
+                payload = GameFixtures.showScoreboard(players, 1);
+                break;
+            default:
+                payload = GameFixtures.welcomeNewPlayer(players);
+                break;
+        }
+        json = payload.toString();
+        binary = WireCodecs.encode(event, payload);
+    }
+
+    @Benchmark
+    public void legacyJsonWalk(Blackhole blackhole) throws JSONException {
+        JSONObject payload = new JSONObject(json);
+        switch (event) {
+            case "startQuestion": {
+                blackhole.consume(payload.getString("question"));
+                JSONArray answers = payload.getJSONArray("answers");
+                for (int i = 0; i < 4; i++) {
+                    blackhole.consume(answers.getString(i));
+                }
+                blackhole.consume(payload.getInt("correctIndex"));
+                break;
+            }
+            case "showScoreboard": {
+                JSONArray scores = payload.getJSONArray("scores");
+                List<JSONObject> sorted = new ArrayList<>();
+                for (int i = 0; i < scores.length(); i++) {
+                    sorted.add(scores.getJSONObject(i));
+                }
+                Collections.sort(sorted, (a, b) -> {
+                    try {
+                        return b.getInt("updatedTotalPoints") - a.getInt("updatedTotalPoints");
+                    } catch (JSONException e) {
+                        return 0;
+                    }
+                });
+                for (int i = 0; i < sorted.size(); i++) {
+                    blackhole.consume(sorted.get(i).getString("username"));
+                }
+                break;
+            }
+            default: {
+                JSONArray roomPlayers = payload.getJSONArray("roomPlayers");
+                for (int i = 0; i < roomPlayers.length(); i++) {
+                    blackhole.consume(roomPlayers.getJSONObject(i).getString("username"));
+                }
+                JSONObject roomSettings = payload.getJSONObject("roomSettings");
+                blackhole.consume(roomSettings.getInt("questionTime"));
+                JSONArray categories = payload.getJSONArray("possibleCategories");
+                for (int i = 0; i < categories.length(); i++) {
+                    blackhole.consume(categories.getString(i));
+                }
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public void typedFromJson(Blackhole blackhole) throws JSONException {
+        RecordingListener listener = new RecordingListener();
+        new EventDecoder(listener).dispatch(event, new JSONObject(json));
+        blackhole.consume(listener.last());
+    }
+
+    @Benchmark
+    public Object typedFromBinary() throws JSONException {
+        return WireCodecs.decode(event, binary);
+    }
+}
@@ -0,0 +1,91 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventDecoderTest {
+
+    private RecordingListener listener;
+    private EventDecoder decoder;
+
+    @Before
+    public void setUp() {
+        listener = new RecordingListener();
+        decoder = new EventDecoder(listener);
+    }
+
+    @Test
+    public void jsonAndBinaryPayloadsDecodeToEqualRecords() throws JSONException {
+        assertSameRecord("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(6));
+        assertSameRecord("startQuestion", GameFixtures.startQuestion(2));
+        assertSameRecord("showScoreboard", GameFixtures.showScoreboard(6, 3));
+        assertSameRecord("playerJoined", new JSONObject()
+                .put("newPlayerUsername", "player6").put("newPlayerRank", 12));
+        assertSameRecord("emoteReceived", new JSONObject()
+                .put("username", "player2").put("emoteCode", 3));
+        assertSameRecord("changedSetting", new JSONObject()
+                .put("settingOption", "isPublic").put("optionValue", true));
+    }
+
+    @Test
+    public void recordsCarryThePayloadFields() throws JSONException {
+        decoder.dispatch("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(3));
+        RoomSnapshot room = (RoomSnapshot) listener.last();
+        assertEquals("QX7KLM", room.roomCode);
+        assertEquals(3, room.players.size());
+        assertEquals(GameFixtures.username(1), room.players.get(1).username);
+        assertTrue(room.players.get(1).isReady);
+        assertEquals(20, room.questionTime);
+        assertEquals("General Knowledge", room.questionCategories.get(0));
+
+        decoder.dispatch("startQuestion", GameFixtures.startQuestion(5));
+        QuestionEvent question = (QuestionEvent) listener.last();
+        assertEquals(4, question.answerCount());
+        assertEquals("Legolas", question.answer(2));
+        assertEquals(1, question.correctIndex);
+
+        decoder.dispatch("playerReadyToStartGame", new JSONObject().put("playerUsername", "player4"));
+        PlayerDelta ready = (PlayerDelta) listener.last();
+        assertEquals(PlayerDelta.Kind.READIED, ready.kind);
+        assertEquals("player4", ready.username);
+
+        decoder.dispatch("changedSetting", new JSONObject()
+                .put("settingOption", "timeLimit").put("optionValue", 25));
+        assertEquals(25, ((SettingChange) listener.last()).intValue());
+
+        decoder.dispatch("emoteReceived", new JSONObject()
+                .put("username", "player2").put("emoteCode", 5).put("count", 3));
+        PlayerDelta batch = (PlayerDelta) listener.last();
+        assertEquals(5, batch.emoteCode);
+        assertEquals(3, batch.emoteCount);
+        decoder.dispatch("emoteReceived", new JSONObject().put("username", "player2").put("emoteCode", 5));
+        assertEquals(1, ((PlayerDelta) listener.last()).emoteCount);
+
+        decoder.dispatch("roomClosed", null);
+        assertEquals("creatorLeft", listener.last());
+    }
+
+    @Test
+    public void malformedPayloadsAreDropped() throws JSONException {
+        decoder.dispatch("startQuestion", new JSONObject().put("answers", "none"));
+        decoder.dispatch("showScoreboard", new JSONObject());
+        decoder.dispatch("playerLeft", new JSONObject());
+        decoder.dispatch("startQuestion", new byte[] {(byte) 0xc1});
+        assertTrue(listener.received.isEmpty());
+    }
+
+    private void assertSameRecord(String event, JSONObject payload) throws JSONException {
+        decoder.dispatch(event, payload);
+        Object fromJson = listener.last();
+        decoder.dispatch(event, WireCodecs.encode(event, payload));
+        Object fromBinary = listener.last();
+        assertEquals(2, listener.received.size());
+        assertEquals(fromJson, fromBinary);
+        listener.received.clear();
+    }
+}
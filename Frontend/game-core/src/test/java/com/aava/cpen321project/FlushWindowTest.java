@@ -0,0 +1,74 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FlushWindowTest {
+
+    private final AtomicInteger drains = new AtomicInteger();
+    private final VirtualClock clock = new VirtualClock(0);
+
+    @Test
+    public void oneDrainPerWindow() {
+        FlushWindow window = new FlushWindow(clock, 100, drains::incrementAndGet);
+        window.held();
+        clock.advanceBy(50);
+        window.held();
+        clock.advanceBy(50);
+        assertEquals(1, drains.get());
+        assertEquals(-1, clock.nextDueAt());
+
+        // The next item opens a new window.
+        window.held();
+        assertEquals(200, clock.nextDueAt());
+    }
+
+    @Test
+    public void anItemHeldAfterAFlushIsStillDrainedWithinAWindow() {
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger drained = new AtomicInteger();
+        FlushWindow window = new FlushWindow(clock, 100, () -> drained.addAndGet(pending.getAndSet(0)));
+        pending.incrementAndGet();
+        window.held();
+        window.flush();
+        assertEquals(1, drained.get());
+
+        clock.advanceBy(60);
+        pending.incrementAndGet();
+        window.held();
+        clock.advanceBy(100);
+        assertEquals(2, drained.get());
+    }
+
+    @Test
+    public void aRefusedTickFlushesStraightAway() {
+        PhaseScheduler.Ticker stopped = new PhaseScheduler.Ticker() {
+            @Override
+            public void schedule(Runnable tick, long delayMillis) {
+                throw new RejectedExecutionException("shut down");
+            }
+
+            @Override
+            public void cancel(Runnable tick) {
+            }
+        };
+        FlushWindow window = new FlushWindow(stopped, 100, drains::incrementAndGet);
+        window.held();
+        window.held();
+        assertEquals(2, drains.get());
+    }
+
+    @Test
+    public void closeStopsTheTimer() {
+        FlushWindow window = new FlushWindow(clock, 100, drains::incrementAndGet);
+        window.held();
+        window.close();
+        clock.advanceBy(100);
+        assertEquals(0, drains.get());
+        assertEquals(-1, clock.nextDueAt());
+    }
+}
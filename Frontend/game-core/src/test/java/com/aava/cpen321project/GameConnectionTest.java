@@ -0,0 +1,264 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.socket.client.IO;
+import io.socket.engineio.client.transports.WebSocket;
+import okhttp3.Response;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Time from choosing a room to the lobby, against a local stand-in for the game server that
+ * adds a fixed round trip to every exchange. A cold join pays for the websocket handshake, the
+ * Engine.IO open and the Socket.IO connect before joinRoom; a join over the connection opened
+ * from the menu pays for joinRoom alone.
+ */
+public class GameConnectionTest {
+
+    private static final long ROUND_TRIP_MILLIS = 60;
+
+    private MockWebServer server;
+    private StandInServer standIn;
+    private GameConnection connection;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        standIn = new StandInServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (connection != null) {
+            connection.close();
+        }
+        standIn.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void warmConnectionLeavesOnlyJoinRoom() throws Exception {
+        // The cold path: the connection is only opened once the room has been chosen.
+        enqueueConnection();
+        long coldStart = System.nanoTime();
+        connection = open();
+        Game cold = new Game(connection, "room-1");
+        cold.awaitLobby();
+        long coldMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - coldStart);
+        cold.leave();
+        standIn.awaitReceived("leaveRoom");
+
+        // The warm path: the menu's connection is already up when the next room is chosen.
+        standIn.received.clear();
+        long warmStart = System.nanoTime();
+        Game warm = new Game(connection, "room-2");
+        warm.awaitLobby();
+        long warmMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - warmStart);
+
+        System.out.println("time to lobby: cold " + coldMillis + " ms, warm " + warmMillis + " ms");
+        assertEquals(1, server.getRequestCount());
+        assertEquals("joinRoom", standIn.received.get(0));
+        assertEquals("room-2", standIn.lastRoomId);
+        // One round trip for joinRoom, against at least four for the cold join.
+        assertTrue("warm " + warmMillis, warmMillis < 3 * ROUND_TRIP_MILLIS);
+        assertTrue("cold " + coldMillis, coldMillis >= 4 * ROUND_TRIP_MILLIS);
+        warm.leave();
+    }
+
+    @Test
+    public void lateEventsFromTheLastGameAreDropped() throws Exception {
+        enqueueConnection();
+        connection = open();
+        Game first = new Game(connection, "room-1");
+        first.awaitLobby();
+        first.leave();
+
+        Game second = new Game(connection, "room-2");
+        second.awaitLobby();
+        // The first game's roomClosed arrives after the second has attached; it reaches neither.
+        standIn.awaitSent("roomClosed");
+        Thread.sleep(ROUND_TRIP_MILLIS);
+        assertEquals(1, second.listener.received.size());
+        assertEquals(1, first.listener.received.size());
+    }
+
+    @Test
+    public void leavingTwiceSendsOneLeaveRoom() throws Exception {
+        enqueueConnection();
+        connection = open();
+        Game game = new Game(connection, "room-1");
+        game.awaitLobby();
+        // Game over leaves the room, and so does returning to the menu afterwards.
+        game.leave();
+        game.leave();
+
+        standIn.awaitSent("roomClosed");
+        Thread.sleep(ROUND_TRIP_MILLIS);
+        assertEquals(1, Collections.frequency(standIn.received, "leaveRoom"));
+    }
+
+    @Test
+    public void onlyTheGamesOwnJoinErrorReachesItBeforeJoining() throws Exception {
+        enqueueConnection();
+        connection = open();
+        Game game = new Game(connection, StandInServer.GONE_ROOM_ID);
+
+        standIn.awaitSent("error");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (game.listener.received.isEmpty()) {
+            assertTrue("no error", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+        Thread.sleep(ROUND_TRIP_MILLIS);
+        // The earlier game's stale error is dropped; the refused join is not.
+        assertEquals(Collections.<Object>singletonList("error:" + StandInServer.GONE_MESSAGE),
+                game.listener.received);
+    }
+
+    private void enqueueConnection() {
+        // The websocket handshake costs a round trip of its own.
+        server.enqueue(new MockResponse()
+                .setHeadersDelay(ROUND_TRIP_MILLIS, TimeUnit.MILLISECONDS)
+                .withWebSocketUpgrade(standIn));
+    }
+
+    private GameConnection open() {
+        IO.Options options = GameConnection.options("token");
+        // The stand-in only speaks websocket, in the clear.
+        options.transports = new String[] {WebSocket.NAME};
+        options.secure = false;
+        options.reconnection = false;
+        return new GameConnection(server.url("/").toString(), "token", options);
+    }
+
+    // A game session on the connection, as GameState would set one up.
+    private static final class Game {
+        final CountDownLatch lobby = new CountDownLatch(1);
+        final RecordingListener listener = new RecordingListener() {
+            @Override
+            public void youJoined(RoomSnapshot room) {
+                super.youJoined(room);
+                lobby.countDown();
+            }
+        };
+        final SocketManager socketManager;
+
+        Game(GameConnection connection, String roomId) {
+            socketManager = new SocketManager(listener, connection,
+                    new GameConstants("token", GameFixtures.username(0), roomId, true), new DirectPlatform());
+        }
+
+        void awaitLobby() throws InterruptedException {
+            assertTrue("no welcomeNewPlayer", lobby.await(5, TimeUnit.SECONDS));
+        }
+
+        void leave() {
+            socketManager.disconnect();
+        }
+    }
+
+    // Just enough of Engine.IO 4 and Socket.IO 5 over a websocket to connect a client and answer
+    // joinRoom, with every reply delayed by the round trip. A join to GONE_ROOM_ID is refused, as
+    // the server refuses a room that has closed, right after an error left over from an earlier
+    // game's leaveRoom.
+    private static final class StandInServer extends WebSocketListener {
+        static final String GONE_ROOM_ID = "room-gone";
+        static final String GONE_MESSAGE = "The room you are trying to join no longer exists.";
+
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        final ScheduledExecutorService network = Executors.newSingleThreadScheduledExecutor();
+        volatile String lastRoomId;
+
+        @Override
+        public void onOpen(okhttp3.WebSocket webSocket, Response response) {
+            send(webSocket, "0{\"sid\":\"engine\",\"upgrades\":[],\"pingInterval\":25000,"
+                    + "\"pingTimeout\":20000,\"maxPayload\":1000000}");
+        }
+
+        @Override
+        public void onMessage(okhttp3.WebSocket webSocket, String text) {
+            try {
+                if (text.startsWith("40")) {
+                    received.add("connect");
+                    send(webSocket, "40{\"sid\":\"socket\"}");
+                    emit(webSocket, "capabilities", new JSONObject()
+                            .put("codecs", new JSONArray()).put("features", new JSONArray()));
+                } else if (text.startsWith("42")) {
+                    JSONArray packet = new JSONArray(text.substring(2));
+                    String event = packet.getString(0);
+                    received.add(event);
+                    if (event.equals("joinRoom")) {
+                        lastRoomId = packet.getJSONObject(1).getString("roomId");
+                        if (lastRoomId.equals(GONE_ROOM_ID)) {
+                            emit(webSocket, "error", new JSONObject().put("message", "Invalid roomId"));
+                            emit(webSocket, "error", new JSONObject()
+                                    .put("message", GONE_MESSAGE).put("roomId", lastRoomId));
+                            return;
+                        }
+                        emit(webSocket, "welcomeNewPlayer", GameFixtures.welcomeNewPlayer(2));
+                        emit(webSocket, "sessionResumable", new JSONObject()
+                                .put("resumeToken", "resume-" + lastRoomId).put("seq", 0));
+                    } else if (event.equals("leaveRoom")) {
+                        emit(webSocket, "roomClosed", new JSONObject());
+                    }
+                }
+            } catch (JSONException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        void emit(okhttp3.WebSocket webSocket, String event, JSONObject payload) {
+            send(webSocket, "42" + new JSONArray().put(event).put(payload));
+            sent.add(event);
+        }
+
+        void awaitReceived(String event) throws InterruptedException {
+            await(received, event);
+        }
+
+        void awaitSent(String event) throws InterruptedException {
+            await(sent, event);
+        }
+
+        private static void await(List<String> events, String event) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!events.contains(event)) {
+                assertTrue("no " + event, System.currentTimeMillis() < deadline);
+                Thread.sleep(5);
+            }
+        }
+
+        synchronized void send(okhttp3.WebSocket webSocket, String packet) {
+            // The client's leaveRoom on teardown may arrive after the test is done.
+            if (network.isShutdown()) {
+                return;
+            }
+            network.schedule(() -> webSocket.send(packet), ROUND_TRIP_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized void close() {
+            network.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class GameEventDispatcherTest {
+
+    @Test
+    public void deliversInArrivalOrder() throws JSONException {
+        ManualExecutor executor = new ManualExecutor();
+        RecordingListener listener = new RecordingListener();
+        GameEventDispatcher dispatcher = new GameEventDispatcher(listener, executor, 16);
+
+        QuestionEvent question = EventDecoder.parseQuestion(GameFixtures.startQuestion(1));
+        PlayerDelta answered = new PlayerDelta(PlayerDelta.Kind.ANSWERED, "player1", 0, 0);
+        ScoreboardEvent scoreboard = EventDecoder.parseScoreboard(GameFixtures.showScoreboard(6, 1));
+        dispatcher.questionReceived(question);
+        dispatcher.otherPlayerAnswered(answered);
+        dispatcher.scoreboardReceived(scoreboard);
+
+        assertTrue(listener.received.isEmpty());
+        executor.runAll();
+        assertEquals(listOf(question, answered, scoreboard), listener.received);
+        assertEquals(3, dispatcher.metrics().delivered);
+        assertEquals(0, dispatcher.metrics().depth);
+    }
+
+    @Test
+    public void emoteStormIsBoundedAndNeverDisplacesGameEvents() throws JSONException {
+        ManualExecutor executor = new ManualExecutor();
+        RecordingListener listener = new RecordingListener();
+        GameEventDispatcher dispatcher = new GameEventDispatcher(listener, executor, 8);
+
+        // The consumer is stalled while 6 players send 1000 emotes each.
+        QuestionEvent question = EventDecoder.parseQuestion(GameFixtures.startQuestion(2));
+        ScoreboardEvent scoreboard = EventDecoder.parseScoreboard(GameFixtures.showScoreboard(6, 2));
+        for (int i = 0; i < 6000; i++) {
+            dispatcher.otherPlayerEmoted(new PlayerDelta(PlayerDelta.Kind.EMOTED,
+                    GameFixtures.username(i % 6), 0, i % 4));
+            if (i == 3000) {
+                dispatcher.questionReceived(question);
+            }
+        }
+        dispatcher.scoreboardReceived(scoreboard);
+
+        GameEventDispatcher.Metrics metrics = dispatcher.metrics();
+        assertEquals(10, metrics.depth);
+        assertEquals(6000 - 8, metrics.dropped + metrics.merged);
+
+        executor.runAll();
+        assertEquals(10, listener.received.size());
+        assertEquals(question, listener.received.get(8));
+        assertEquals(scoreboard, listener.received.get(9));
+        // The newest pending emote from each player carries their latest emote.
+        PlayerDelta lastFromPlayer0 = (PlayerDelta) listener.received.get(6);
+        assertEquals(GameFixtures.username(0), lastFromPlayer0.username);
+        assertEquals(5994 % 4, lastFromPlayer0.emoteCode);
+        // No emote is lost from the counts the badges show.
+        int emotes = 0;
+        for (Object record : listener.received.subList(0, 8)) {
+            emotes += ((PlayerDelta) record).emoteCount;
+        }
+        assertEquals(6000, emotes);
+        assertEquals(1, ((PlayerDelta) listener.received.get(0)).emoteCount);
+        assertEquals(999, lastFromPlayer0.emoteCount);
+    }
+
+    @Test
+    public void producerNeverWaitsOnASlowConsumer() throws InterruptedException {
+        CountDownLatch consumerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener slowListener = new RecordingListener() {
+            @Override
+            public void otherPlayerEmoted(PlayerDelta emote) {
+                consumerBlocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.otherPlayerEmoted(emote);
+            }
+        };
+        GameEventDispatcher dispatcher = new GameEventDispatcher(slowListener);
+        try {
+            dispatcher.otherPlayerEmoted(new PlayerDelta(PlayerDelta.Kind.EMOTED, "player1", 0, 0));
+            assertTrue(consumerBlocked.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 100_000; i++) {
+                dispatcher.otherPlayerEmoted(new PlayerDelta(PlayerDelta.Kind.EMOTED, "player2", 0, i % 4));
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(GameEventDispatcher.DEFAULT_CAPACITY, dispatcher.metrics().depth);
+        } finally {
+            release.countDown();
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    public void dropPolicyDiscardsWhenFull() {
+        ManualExecutor executor = new ManualExecutor();
+        RecordingListener listener = new RecordingListener();
+        GameEventDispatcher dispatcher = new GameEventDispatcher(listener, executor, 2);
+        dispatcher.setOverflowPolicy("answerReceived", GameEventDispatcher.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.otherPlayerAnswered(new PlayerDelta(PlayerDelta.Kind.ANSWERED, "player" + i, 0, 0));
+        }
+        dispatcher.creatorLeft();
+
+        executor.runAll();
+        assertEquals(3, listener.received.size());
+        assertEquals("creatorLeft", listener.last());
+        assertEquals(3, dispatcher.metrics().dropped);
+        assertTrue(dispatcher.metrics().maxDwellNanos >= dispatcher.metrics().meanDwellNanos);
+    }
+
+    @Test
+    public void aRejectedDrainIsRetriedOnTheNextEvent() {
+        ManualExecutor executor = new ManualExecutor();
+        boolean[] rejecting = {true};
+        RecordingListener listener = new RecordingListener();
+        GameEventDispatcher dispatcher = new GameEventDispatcher(listener, task -> {
+            if (rejecting[0]) {
+                throw new RejectedExecutionException("saturated");
+            }
+            executor.execute(task);
+        }, 16);
+
+        dispatcher.otherPlayerAnswered(new PlayerDelta(PlayerDelta.Kind.ANSWERED, "player1", 0, 0));
+        rejecting[0] = false;
+        dispatcher.creatorLeft();
+
+        executor.runAll();
+        assertEquals(2, listener.received.size());
+        assertEquals("creatorLeft", listener.last());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void questionsCanNeverBeDropped() {
+        new GameEventDispatcher(new RecordingListener(), new ManualExecutor(), 4)
+                .setOverflowPolicy("startQuestion", GameEventDispatcher.OverflowPolicy.DROP);
+    }
+
+    @SafeVarargs
+    private static <T> List<T> listOf(T... items) {
+        List<T> list = new ArrayList<>();
+        for (T item : items) {
+            list.add(item);
+        }
+        return list;
+    }
+
+    // Executor that only runs its tasks when the test asks, standing in for a stalled consumer.
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.aava.cpen321project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole 20-question games per second through GameSimulator, every player's GameState included,
+ * a new seed each game. This bounds how many randomized games a CI run can afford to check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameSimulatorBenchmark {
+
+    @Param({"2", "6"})
+    public int players;
+
+    private final GameSimulator.Options options = new GameSimulator.Options();
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        options.players = players;
+        options.questions = 20;
+    }
+
+    @Benchmark
+    public GameSimulator.Result game() {
+        GameSimulator.Result result = GameSimulator.run(options, seed++);
+        if (!result.violations.isEmpty()) {
+            throw new IllegalStateException(result.violations.get(0));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class GameSimulatorTest {
+
+    // Widened in CI with -PsimulatedGames.
+    private static final int SIMULATED_GAMES = Integer.getInteger("simulatedGames", 300);
+
+    @Test
+    public void aFullGamePlaysInVirtualTime() {
+        GameSimulator.Result result = GameSimulator.run(new GameSimulator.Options(), 321);
+
+        assertEquals(Collections.emptyList(), result.violations);
+        assertTrue(result.finished);
+        assertEquals(6 * 20, result.answers);
+        assertEquals(6, result.totals.size());
+        assertTrue(result.emotes > 0);
+        // Twenty questions of countdown, reading and scoreboard at the least.
+        assertTrue(result.simulatedMillis > 20 * 15_000);
+    }
+
+    @Test
+    public void aSeedAlwaysPlaysTheSameGame() {
+        GameSimulator.Options options = new GameSimulator.Options();
+        GameSimulator.Result first = GameSimulator.run(options, 7);
+        GameSimulator.Result second = GameSimulator.run(options, 7);
+
+        assertEquals(first.totals, second.totals);
+        assertEquals(first.simulatedMillis, second.simulatedMillis);
+        assertEquals(first.eventsDelivered, second.eventsDelivered);
+        assertEquals(first.powerups, second.powerups);
+        assertEquals(first.emotes, second.emotes);
+        assertNotEquals(first.totals, GameSimulator.run(options, 8).totals);
+    }
+
+    @Test
+    public void aPlayerAloneStillFinishes() {
+        GameSimulator.Options options = new GameSimulator.Options();
+        options.players = 1;
+        options.powerupChance = 1;
+
+        GameSimulator.Result result = GameSimulator.run(options, 1);
+        assertEquals(Collections.emptyList(), result.violations);
+        assertTrue(result.finished);
+    }
+
+    @Test
+    public void randomizedGamesKeepTheirInvariants() {
+        GameSimulator.Options options = new GameSimulator.Options();
+        List<String> violations = new ArrayList<>();
+        for (long seed = 0; seed < SIMULATED_GAMES; seed++) {
+            options.players = 1 + (int) (seed % 6);
+            options.powerupChance = seed % 3 == 0 ? 0.9 : 0.25;
+            options.jitterMillis = seed % 2 == 0 ? 60 : 2000;
+            // From settings picked one at a time to a flurry inside one window.
+            options.settingMedianMillis = seed % 4 == 0 ? 20 : 400;
+            options.emoteChance = seed % 5 == 0 ? 1 : 0.3;
+            violations.addAll(GameSimulator.run(options, seed).violations);
+        }
+        assertEquals(Collections.emptyList(), violations.subList(0, Math.min(10, violations.size())));
+    }
+}
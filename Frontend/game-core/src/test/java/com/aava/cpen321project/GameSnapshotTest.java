@@ -0,0 +1,55 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class GameSnapshotTest {
+
+    @Test
+    public void changesShareTheUntouchedParts() {
+        RoomRoster roster = new RoomRoster();
+        roster.reset(Arrays.asList(new RoomPlayer("owner", 0, false), new RoomPlayer("b", 0, false)));
+        GameSnapshot lobby = GameSnapshot.EMPTY.withRoster(roster.snapshot())
+                .withSettings(GameSnapshot.EMPTY.settings.withQuestionTime(20));
+        assertFalse(lobby.started());
+
+        GameSnapshot longer = lobby.withSettings(lobby.settings.withQuestionTime(30));
+        assertSame(lobby.roster, longer.roster);
+        assertEquals(20, lobby.settings.questionTime);
+        assertEquals(30, longer.settings.questionTime);
+
+        roster.setReady("b");
+        GameSnapshot ready = longer.withRoster(roster.snapshot());
+        assertSame(longer.settings, ready.settings);
+        assertFalse(longer.roster.canStart);
+        assertTrue(ready.roster.canStart);
+    }
+
+    @Test
+    public void questionsAreNumberedAndResetTheAnsweredCount() {
+        QuestionEvent event = new QuestionEvent("Q?", new String[] {"a", "b"}, 1);
+        GameSnapshot first = GameSnapshot.EMPTY.withQuestion(new GameSnapshot.Question(1, event))
+                .withOtherPlayersAnswered(2);
+        assertTrue(first.started());
+        assertEquals(1, first.questionNumber());
+        assertEquals(2, first.otherPlayersAnswered);
+        assertEquals("", first.question.answer(3));
+
+        String[] answers = first.question.answers();
+        answers[0] = "changed";
+        assertEquals("a", first.question.answer(0));
+
+        GameSnapshot second = first.withQuestion(new GameSnapshot.Question(first.questionNumber() + 1, event));
+        assertEquals(2, second.questionNumber());
+        assertEquals(0, second.otherPlayersAnswered);
+        assertNotSame(first.question, second.question);
+        assertSame(first.roster, second.roster);
+    }
+}
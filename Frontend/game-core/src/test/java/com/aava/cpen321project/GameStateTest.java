@@ -0,0 +1,97 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameStateTest {
+
+    private final List<RenderLoop.Region> changed = new ArrayList<>();
+    private final GameState gameState = new GameState(new Listener(), new DirectPlatform(),
+            new GameConstants("token", GameFixtures.username(0), "room", true));
+    private final EventDecoder decoder = new EventDecoder(gameState);
+
+    @Test
+    public void theLobbyRunsOnAPlainJvm() throws JSONException {
+        decoder.dispatch("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(3));
+        GameSnapshot snapshot = gameState.snapshot();
+        assertEquals(3, snapshot.roster.players);
+        assertEquals("QX7KLM", snapshot.settings.roomCode);
+        assertTrue(changed.contains(RenderLoop.Region.ROSTER));
+
+        decoder.dispatch("playerJoined", new JSONObject()
+                .put("newPlayerUsername", "late").put("newPlayerRank", 4));
+        decoder.dispatch("playerReadyToStartGame", new JSONObject().put("playerUsername", "late"));
+        decoder.dispatch("changedSetting", new JSONObject()
+                .put("settingOption", "timeLimit").put("optionValue", 25));
+
+        snapshot = gameState.snapshot();
+        assertEquals(3, snapshot.roster.seatOf("late"));
+        assertTrue(snapshot.roster.seats.get(3).isReady);
+        assertEquals(25, snapshot.settings.questionTime);
+    }
+
+    @Test
+    public void leavingBeforeTheSessionStartsMeansItNeverDoes() {
+        gameState.leaveRoom();
+        // The platform would throw if asked for a connection.
+        gameState.startSession();
+        assertFalse(changed.contains(RenderLoop.Region.SCREEN));
+    }
+
+    @Test
+    public void actionsBeforeTheSessionStartsAreDropped() {
+        // The platform would throw if asked for a connection, so none of these may reach one.
+        gameState.readyUp();
+        gameState.chooseQuestionCount(10);
+        gameState.chooseQuestionCategory("Sports", true);
+        gameState.startGame();
+        gameState.submitAnswer(0);
+        assertFalse(gameState.submitEmote(1));
+        assertFalse(changed.contains(RenderLoop.Region.SCREEN));
+    }
+
+    @Test
+    public void aPowerupCanBeUsedOnce() throws JSONException {
+        decoder.dispatch("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(3));
+
+        assertTrue(gameState.usePowerup(GameState.SECOND_LIFE));
+        assertEquals(GameState.SECOND_LIFE, gameState.powerupCode);
+        assertTrue(gameState.extraLifeEnabled);
+
+        assertFalse(gameState.usePowerup(GameState.SECOND_LIFE));
+        assertTrue(gameState.usePowerup(GameState.DOUBLE_POINTS));
+        assertEquals(GameState.DOUBLE_POINTS, gameState.powerupCode);
+        assertEquals(3, gameState.remainingPowerups.size());
+    }
+
+    private final class Listener implements GameStateListener {
+        @Override
+        public void youLeft(String reason) {
+        }
+
+        @Override
+        public void creatorLeft() {
+        }
+
+        @Override
+        public void regionChanged(RenderLoop.Region region) {
+            changed.add(region);
+        }
+
+        @Override
+        public void questionReceived(GameSnapshot.Question question) {
+        }
+
+        @Override
+        public void errorReceived(String message) {
+        }
+    }
+}
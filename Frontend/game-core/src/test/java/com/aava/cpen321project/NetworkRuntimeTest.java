@@ -0,0 +1,123 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+/**
+ * Checks that a sequence of menu operations is served by one warm connection of the shared
+ * network runtime, rather than a fresh TCP and TLS handshake per call.
+ */
+public class NetworkRuntimeTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private MockWebServer server;
+    private final AtomicInteger tcpHandshakes = new AtomicInteger();
+    private final AtomicInteger tlsHandshakes = new AtomicInteger();
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        HeldCertificate localhostCertificate = new HeldCertificate.Builder()
+                .addSubjectAlternativeName("localhost")
+                .build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                .heldCertificate(localhostCertificate)
+                .build();
+
+        server = new MockWebServer();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        server.start();
+
+        // Derived clients share the runtime's connection pool, dispatcher and SSLContext.
+        client = NetworkRuntime.getClient().newBuilder()
+                .eventListener(new EventListener() {
+                    @Override
+                    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+                        tcpHandshakes.incrementAndGet();
+                    }
+
+                    @Override
+                    public void secureConnectEnd(Call call, Handshake handshake) {
+                        tlsHandshakes.incrementAndGet();
+                    }
+                })
+                .build();
+        client.connectionPool().evictAll();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void sharedClientIsProcessWide() {
+        assertSame(NetworkRuntime.getClient(), NetworkRuntime.getClient());
+        assertSame(NetworkRuntime.getClient().connectionPool(), client.connectionPool());
+        assertSame(NetworkRuntime.getClient().dispatcher(), client.dispatcher());
+    }
+
+    @Test
+    public void menuOperationsReuseOneHandshakenConnection() throws IOException, InterruptedException {
+        // Mirror the calls MenuActivity makes over a typical menu session.
+        post("/create-room", "{\"sessionToken\":\"token\"}");
+        get("/rank?sessionToken=token&username=user");
+        post("/change-username", "{\"sessionToken\":\"token\",\"username\":\"user2\"}");
+        post("/join-room-by-code", "{\"sessionToken\":\"token\",\"roomCode\":\"ABCDEF\"}");
+        post("/join-random-room", "{\"sessionToken\":\"token\"}");
+        post("/logout", "{\"sessionToken\":\"token\"}");
+
+        assertEquals(6, server.getRequestCount());
+        assertEquals(1, tcpHandshakes.get());
+        assertEquals(1, tlsHandshakes.get());
+        for (int i = 0; i < 6; i++) {
+            // A sequence number of i means the request was the ith on its connection.
+            assertEquals(i, server.takeRequest().getSequenceNumber());
+        }
+    }
+
+    private void post(String path, String json) throws IOException {
+        execute(new Request.Builder()
+                .url(server.url(path))
+                .post(RequestBody.create(json, JSON))
+                .build());
+    }
+
+    private void get(String path) throws IOException {
+        execute(new Request.Builder()
+                .url(server.url(path))
+                .get()
+                .build());
+    }
+
+    private void execute(Request request) throws IOException {
+        server.enqueue(new MockResponse().setBody("{}"));
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+            response.body().string();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per outbound event of building what the socket emits, from SocketManager's fields to the
+ * JSONObject or MessagePack attachment that GameConnection hands to the Socket.IO client. The
+ * fields are built as SocketManager builds them, in an anonymous HashMap per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OutboundMessageBenchmark {
+
+    @Param({"submitAnswer", "changeSetting", "readyToStartGame"})
+    public String event;
+
+    private final GameConstants gameConstants =
+            new GameConstants("token", GameFixtures.username(0), "room", true);
+    private int timeDelay;
+
+    @Benchmark
+    public Map<String, Object> fields() {
+        return fields(event);
+    }
+
+    @Benchmark
+    public Object json() throws JSONException {
+        return GameConnection.message(fields(event), false);
+    }
+
+    @Benchmark
+    public Object binary() throws JSONException {
+        return GameConnection.message(fields(event), true);
+    }
+
+    private Map<String, Object> fields(String event) {
+        int delay = timeDelay = (timeDelay + 137) % 20000;
+        switch (event) {
+            case "submitAnswer":
+                return new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("username", gameConstants.username);
+                    put("timeDelay", delay);
+                    put("isCorrect", delay % 2 == 0);
+                    put("powerupCode", -1);
+                    put("powerupVictimUsername", "");
+                }};
+            case "changeSetting":
+                return new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("settingOption", "timeLimit");
+                    put("optionValue", 10 + delay % 20);
+                }};
+            default:
+                return new HashMap<String, Object>() {{
+                    put("roomId", gameConstants.roomId);
+                    put("username", gameConstants.username);
+                }};
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PhaseSchedulerTest {
+
+    private final VirtualTicker ticker = new VirtualTicker();
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    public void runsEveryPhaseOnItsTickBoundaries() {
+        PhaseScheduler scheduler = new PhaseScheduler(ticker, ticker, new Recorder());
+        long start = ticker.now;
+        scheduler.startQuestion(start + 5000, start + 10000, start + 30000);
+
+        ticker.advanceBy(4999);
+        assertEquals(listOf("COUNTDOWN 5000", "COUNTDOWN 4000", "COUNTDOWN 3000", "COUNTDOWN 2000",
+                "COUNTDOWN 1000"), calls);
+
+        ticker.advanceBy(1);
+        assertEquals("READING 5000", calls.get(calls.size() - 1));
+        assertEquals("end COUNTDOWN", calls.get(calls.size() - 2));
+
+        ticker.advanceBy(25000);
+        assertEquals(PhaseScheduler.Phase.STALL, scheduler.phase());
+        assertEquals("end ANSWERING", calls.get(calls.size() - 1));
+        assertEquals(50, scheduler.timing(PhaseScheduler.Phase.READING).ticks);
+        assertEquals(200, scheduler.timing(PhaseScheduler.Phase.ANSWERING).ticks);
+        assertEquals(0, scheduler.timing(PhaseScheduler.Phase.ANSWERING).maxEndErrorMillis);
+        assertNull(ticker.pending);
+    }
+
+    @Test
+    public void lateTicksNeverAccumulateIntoPhaseError() {
+        PhaseScheduler scheduler = new PhaseScheduler(ticker, ticker, new Recorder());
+        ticker.jitter = new Random(11);
+        long start = ticker.now;
+
+        // Every tick fires up to a frame late, across a 3 minute answering phase.
+        scheduler.startQuestion(start + 5000, start + 10000, start + 190000);
+        ticker.advanceBy(200000);
+
+        for (PhaseScheduler.Phase phase : new PhaseScheduler.Phase[] {PhaseScheduler.Phase.COUNTDOWN,
+                PhaseScheduler.Phase.READING, PhaseScheduler.Phase.ANSWERING}) {
+            PhaseScheduler.Timing timing = scheduler.timing(phase);
+            assertEquals(1, timing.ends);
+            assertTrue(phase + " ended " + timing.maxEndErrorMillis + "ms late",
+                    timing.maxEndErrorMillis <= VirtualTicker.MAX_JITTER);
+            assertTrue(timing.maxLatenessMillis <= VirtualTicker.MAX_JITTER);
+        }
+        // No tick was dropped: each of the 1800 boundaries was ticked once.
+        assertEquals(1800, scheduler.timing(PhaseScheduler.Phase.ANSWERING).ticks);
+    }
+
+    @Test
+    public void answeringStopsTheTimers() {
+        PhaseScheduler scheduler = new PhaseScheduler(ticker, ticker, new Recorder());
+        long start = ticker.now;
+        scheduler.startQuestion(start + 5000, start + 10000, start + 30000);
+        ticker.advanceBy(12000);
+        calls.clear();
+
+        scheduler.answered();
+        ticker.advanceBy(60000);
+        assertEquals(PhaseScheduler.Phase.STALL, scheduler.phase());
+        assertTrue(calls.isEmpty());
+
+        scheduler.scoreboard();
+        assertEquals(PhaseScheduler.Phase.SCOREBOARD, scheduler.phase());
+    }
+
+    @Test
+    public void lateQuestionCatchesUpThroughPassedPhases() {
+        PhaseScheduler scheduler = new PhaseScheduler(ticker, ticker, new Recorder());
+        long start = ticker.now;
+        // The question reached this player 6.5 seconds after it was sent.
+        scheduler.startQuestion(start - 1500, start + 3500, start + 23500);
+        assertEquals(listOf("end COUNTDOWN", "READING 3500"), calls);
+
+        ticker.advanceBy(3500);
+        assertEquals("ANSWERING 20000", calls.get(calls.size() - 1));
+    }
+
+    @Test
+    public void forcedAnswerCanReenterTheScheduler() {
+        List<PhaseScheduler.Phase> answeredIn = new ArrayList<>();
+        PhaseScheduler[] scheduler = new PhaseScheduler[1];
+        scheduler[0] = new PhaseScheduler(ticker, ticker, new Recorder() {
+            @Override
+            public void phaseEnded(PhaseScheduler.Phase phase) {
+                super.phaseEnded(phase);
+                if (phase == PhaseScheduler.Phase.ANSWERING) {
+                    scheduler[0].answered();
+                    answeredIn.add(scheduler[0].phase());
+                }
+            }
+        });
+        long start = ticker.now;
+        scheduler[0].startQuestion(start, start, start + 100);
+        ticker.advanceBy(100);
+        assertEquals(listOf(PhaseScheduler.Phase.STALL), answeredIn);
+        assertNull(ticker.pending);
+    }
+
+    @Test
+    public void phasesWithoutATickIntervalOnlyReportTheirStartAndEnd() {
+        PhaseScheduler scheduler = new PhaseScheduler(ticker, ticker, new Recorder());
+        scheduler.setTickInterval(PhaseScheduler.Phase.COUNTDOWN, 0);
+        scheduler.setTickInterval(PhaseScheduler.Phase.READING, 0);
+        scheduler.setTickInterval(PhaseScheduler.Phase.ANSWERING, 0);
+        long start = ticker.now;
+        scheduler.startQuestion(start + 5000, start + 10000, start + 30000);
+
+        ticker.advanceBy(7250);
+        assertEquals(PhaseScheduler.Phase.READING, scheduler.phase());
+        assertEquals(2750, scheduler.millisRemaining());
+        ticker.advanceBy(30000);
+        assertEquals(listOf("COUNTDOWN 5000", "end COUNTDOWN", "READING 5000", "end READING",
+                "ANSWERING 20000", "end ANSWERING"), calls);
+        assertEquals(0, scheduler.millisRemaining());
+    }
+
+    @SafeVarargs
+    private static <T> List<T> listOf(T... items) {
+        List<T> list = new ArrayList<>();
+        for (T item : items) {
+            list.add(item);
+        }
+        return list;
+    }
+
+    private class Recorder implements PhaseScheduler.Listener {
+        @Override
+        public void phaseTicked(PhaseScheduler.Phase phase, long millisUntilFinished) {
+            calls.add(phase + " " + millisUntilFinished);
+        }
+
+        @Override
+        public void phaseEnded(PhaseScheduler.Phase phase) {
+            calls.add("end " + phase);
+        }
+    }
+
+    // Virtual clock that runs the scheduler's one pending tick when time reaches it, optionally
+    // up to a frame late.
+    private static final class VirtualTicker implements MonotonicClock, PhaseScheduler.Ticker {
+        static final long MAX_JITTER = 16;
+
+        long now = 1_000_000;
+        Runnable pending;
+        long dueAt;
+        Random jitter;
+
+        @Override
+        public long elapsedMillis() {
+            return now;
+        }
+
+        @Override
+        public void schedule(Runnable tick, long delayMillis) {
+            pending = tick;
+            dueAt = now + delayMillis + (jitter == null ? 0 : jitter.nextInt((int) MAX_JITTER + 1));
+        }
+
+        @Override
+        public void cancel(Runnable tick) {
+            if (pending == tick) {
+                pending = null;
+            }
+        }
+
+        void advanceBy(long millis) {
+            long until = now + millis;
+            while (pending != null && dueAt <= until) {
+                Runnable tick = pending;
+                pending = null;
+                now = dueAt;
+                tick.run();
+            }
+            now = until;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RenderLoopTest {
+
+    @Test
+    public void eachGameEventCostsOnePostAndOneRender() throws JSONException {
+        VirtualClock clock = new VirtualClock(0);
+        Frames frames = new Frames();
+        List<Integer> rendered = new ArrayList<>();
+        RenderLoop loop = new RenderLoop(rendered::add, frames::post);
+        GameState gameState = new GameState(new LoopListener(loop), new DirectPlatform(clock),
+                new GameConstants("token", GameFixtures.username(0), "room", false));
+        gameState.startSession();
+        EventDecoder decoder = new EventDecoder(gameState);
+
+        // Each game event, and each phase the question moves through, as GameState handles it
+        // before the next frame, with the regions its frame must draw.
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(3)),
+                RenderLoop.Region.SCREEN, RenderLoop.Region.ROSTER, RenderLoop.Region.SETTINGS);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("playerJoined", new JSONObject()
+                        .put("newPlayerUsername", "late").put("newPlayerRank", 4)),
+                RenderLoop.Region.ROSTER);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("playerReadyToStartGame", new JSONObject().put("playerUsername", "late")),
+                RenderLoop.Region.ROSTER);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("changedSetting", new JSONObject()
+                        .put("settingOption", "timeLimit").put("optionValue", 25)),
+                RenderLoop.Region.SETTINGS);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("startQuestion", GameFixtures.startQuestion(1)),
+                RenderLoop.Region.QUESTION, RenderLoop.Region.SCREEN, RenderLoop.Region.TIMER);
+        assertOneFrame(frames, loop, rendered,
+                () -> clock.advanceBy(GameState.QUESTION_COUNTDOWN_MILLIS),
+                RenderLoop.Region.SCREEN);
+        assertOneFrame(frames, loop, rendered,
+                () -> clock.advanceBy(GameState.QUESTION_READING_MILLIS),
+                RenderLoop.Region.SCREEN);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("answerReceived", new JSONObject().put("playerUsername", "late")),
+                RenderLoop.Region.QUESTION);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("emoteReceived", new JSONObject()
+                        .put("username", "late").put("emoteCode", 2)),
+                RenderLoop.Region.EMOTES);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("showScoreboard", GameFixtures.showScoreboard(3, 1)),
+                RenderLoop.Region.SCOREBOARD, RenderLoop.Region.SCREEN);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("error", new JSONObject().put("message", "Questions unavailable")),
+                RenderLoop.Region.NOTICE);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("roomClosed", new JSONObject()),
+                RenderLoop.Region.NOTICE);
+        assertOneFrame(frames, loop, rendered,
+                () -> decoder.dispatch("removedFromRoom", new JSONObject().put("reason", "banned")),
+                RenderLoop.Region.NOTICE);
+    }
+
+    @Test
+    public void marksBeforeTheFrameAreFoldedIntoIt() {
+        Frames frames = new Frames();
+        List<Integer> rendered = new ArrayList<>();
+        RenderLoop loop = new RenderLoop(rendered::add, frames::post);
+
+        // A whole round of events arriving within one frame.
+        for (int i = 0; i < 10; i++) {
+            loop.invalidate(RenderLoop.Region.ROSTER);
+            loop.invalidate(RenderLoop.Region.QUESTION);
+            loop.invalidate(RenderLoop.Region.EMOTES);
+        }
+        assertEquals(1, frames.pending());
+        frames.runAll();
+        assertEquals(1, loop.posts());
+        assertEquals(1, rendered.size());
+        int expected = RenderLoop.Region.ROSTER.bit() | RenderLoop.Region.QUESTION.bit() | RenderLoop.Region.EMOTES.bit();
+        assertEquals(expected, (int) rendered.get(0));
+        assertTrue(RenderLoop.isDirty(rendered.get(0), RenderLoop.Region.EMOTES));
+    }
+
+    @Test
+    public void aMarkDuringTheRenderGetsTheNextFrame() {
+        Frames frames = new Frames();
+        List<Integer> rendered = new ArrayList<>();
+        RenderLoop[] loop = new RenderLoop[1];
+        loop[0] = new RenderLoop(dirty -> {
+            rendered.add(dirty);
+            // e.g. answering in the render makes the stall screen show.
+            if (rendered.size() == 1) {
+                loop[0].invalidate(RenderLoop.Region.SCREEN);
+            }
+        }, frames::post);
+
+        loop[0].invalidate(RenderLoop.Region.QUESTION);
+        frames.runAll();
+        assertEquals(2, loop[0].posts());
+        assertEquals(2, rendered.size());
+        assertEquals(RenderLoop.Region.SCREEN.bit(), (int) rendered.get(1));
+    }
+
+    @Test
+    public void marksFromManyThreadsAreAllRendered() throws InterruptedException {
+        ConcurrentLinkedQueue<Runnable> posted = new ConcurrentLinkedQueue<>();
+        AtomicInteger seen = new AtomicInteger();
+        RenderLoop loop = new RenderLoop(dirty -> seen.getAndUpdate(s -> s | dirty), posted::add);
+        RenderLoop.Region[] regions = RenderLoop.Region.values();
+        CountDownLatch done = new CountDownLatch(regions.length);
+        for (RenderLoop.Region region : regions) {
+            new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    loop.invalidate(region);
+                }
+                done.countDown();
+            }).start();
+        }
+        // The main thread runs frames while the marks arrive.
+        while (done.getCount() > 0 || !posted.isEmpty()) {
+            Runnable frame = posted.poll();
+            if (frame != null) {
+                frame.run();
+            }
+        }
+        done.await();
+        assertEquals((1 << regions.length) - 1, seen.get());
+        assertEquals(loop.posts(), loop.renders());
+    }
+
+    @Test
+    public void eventsBeforeTheViewsAreBoundWaitForOneFrame() {
+        Frames frames = new Frames();
+        List<Integer> rendered = new ArrayList<>();
+        RenderLoop loop = new RenderLoop(rendered::add, frames::post, true);
+
+        // welcomeNewPlayer and a playerJoined while the layout is still inflating.
+        loop.invalidate(RenderLoop.Region.SCREEN);
+        loop.invalidate(RenderLoop.Region.ROSTER);
+        loop.invalidate(RenderLoop.Region.SETTINGS);
+        loop.invalidate(RenderLoop.Region.ROSTER);
+        assertEquals(0, frames.pending());
+        assertTrue(loop.isHeld());
+
+        loop.release();
+        loop.release();
+        assertEquals(1, frames.pending());
+        frames.runAll();
+        assertEquals(1, loop.posts());
+        assertEquals(1, rendered.size());
+        int expected = RenderLoop.Region.SCREEN.bit() | RenderLoop.Region.ROSTER.bit() | RenderLoop.Region.SETTINGS.bit();
+        assertEquals(expected, (int) rendered.get(0));
+
+        // Released, it posts as usual.
+        loop.invalidate(RenderLoop.Region.EMOTES);
+        frames.runAll();
+        assertEquals(2, rendered.size());
+    }
+
+    @Test
+    public void releasingWithNothingMarkedPostsNothing() {
+        Frames frames = new Frames();
+        RenderLoop loop = new RenderLoop(dirty -> { }, frames::post, true);
+        loop.release();
+        assertEquals(0, frames.pending());
+        loop.invalidate(RenderLoop.Region.ROSTER);
+        assertEquals(1, frames.pending());
+    }
+
+    @Test
+    public void marksRacingTheReleaseAreRenderedOnce() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            ConcurrentLinkedQueue<Runnable> posted = new ConcurrentLinkedQueue<>();
+            AtomicInteger seen = new AtomicInteger();
+            RenderLoop loop = new RenderLoop(dirty -> seen.getAndUpdate(s -> s | dirty), posted::add, true);
+            Thread events = new Thread(() -> {
+                for (RenderLoop.Region region : RenderLoop.Region.values()) {
+                    loop.invalidate(region);
+                }
+            });
+            events.start();
+            loop.release();
+            events.join();
+            // At most one frame is ever pending, however the marks and the release interleave.
+            assertTrue(posted.size() <= 1);
+            while (!posted.isEmpty()) {
+                posted.poll().run();
+            }
+            assertEquals((1 << RenderLoop.Region.values().length) - 1, seen.get());
+        }
+    }
+
+    private interface Step {
+        void run() throws JSONException;
+    }
+
+    private static void assertOneFrame(Frames frames, RenderLoop loop, List<Integer> rendered, Step step,
+                                       RenderLoop.Region... regions) throws JSONException {
+        long posts = loop.posts();
+        long renders = loop.renders();
+        step.run();
+        frames.runAll();
+        int expected = 0;
+        for (RenderLoop.Region region : regions) {
+            expected |= region.bit();
+        }
+        assertEquals(posts + 1, loop.posts());
+        assertEquals(renders + 1, loop.renders());
+        assertEquals(expected, (int) rendered.get(rendered.size() - 1));
+    }
+
+    /** Marks the loop the way GameActivity does; the rest of what a game shows is drawn by a frame. */
+    private static final class LoopListener implements GameStateListener {
+        private final RenderLoop loop;
+
+        LoopListener(RenderLoop loop) {
+            this.loop = loop;
+        }
+
+        @Override
+        public void youLeft(String reason) {
+        }
+
+        @Override
+        public void creatorLeft() {
+        }
+
+        @Override
+        public void regionChanged(RenderLoop.Region region) {
+            loop.invalidate(region);
+        }
+
+        @Override
+        public void questionReceived(GameSnapshot.Question question) {
+        }
+
+        @Override
+        public void errorReceived(String message) {
+        }
+    }
+
+    // Frames posted to a fake Choreographer, run when the test says a frame has come.
+    private static final class Frames {
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+
+        void post(Runnable frame) {
+            queue.add(frame);
+        }
+
+        int pending() {
+            return queue.size();
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) {
+                queue.poll().run();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.aava.cpen321project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the roster operations behind lobby events and every rendered frame: finding a
+ * player's seat, on the roster and on its snapshot, and a player joining and leaving, which
+ * publishes a new snapshot each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoomRosterBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int players;
+
+    private final RoomRoster roster = new RoomRoster();
+    private final RoomPlayer late = new RoomPlayer("late", 4, false);
+    private RoomRoster.Snapshot snapshot;
+    private String[] usernames;
+
+    @Setup
+    public void setUp() {
+        List<RoomPlayer> room = new ArrayList<>();
+        // One seat is left for the player who joins late.
+        for (int p = 0; p < players - 1; p++) {
+            room.add(new RoomPlayer(GameFixtures.username(p), 3 * p % 17, p % 2 == 1));
+        }
+        roster.reset(room);
+        snapshot = roster.snapshot();
+        // Built here so the lookups do not allocate their keys.
+        usernames = new String[players];
+        for (int p = 0; p < players; p++) {
+            usernames[p] = new String(GameFixtures.username(p));
+        }
+    }
+
+    // An emote or answer for every player in the room; the last one is not in it.
+    @Benchmark
+    public void seatOfEveryPlayer(Blackhole blackhole) {
+        for (String username : usernames) {
+            blackhole.consume(roster.seatOf(username));
+        }
+    }
+
+    // The same lookups from the UI thread, against the published snapshot.
+    @Benchmark
+    public void snapshotSeatOfEveryPlayer(Blackhole blackhole) {
+        for (String username : usernames) {
+            blackhole.consume(snapshot.seatOf(username));
+        }
+    }
+
+    @Benchmark
+    public RoomRoster.Snapshot joinAndLeave() {
+        roster.add(late);
+        roster.remove(late.username);
+        return roster.snapshot();
+    }
+}
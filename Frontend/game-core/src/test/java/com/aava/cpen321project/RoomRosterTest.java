@@ -0,0 +1,124 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class RoomRosterTest {
+
+    @Test
+    public void seatsStayPutWhenOthersLeave() {
+        RoomRoster roster = new RoomRoster();
+        roster.reset(Arrays.asList(
+                new RoomPlayer("owner", 0, false),
+                new RoomPlayer("b", 0, true),
+                new RoomPlayer("c", 0, false)));
+        roster.add(new RoomPlayer("d", 0, false));
+        assertEquals(3, roster.seatOf("d"));
+
+        assertTrue(roster.remove("b"));
+        assertEquals(2, roster.seatOf("c"));
+        assertEquals(3, roster.seatOf("d"));
+        RoomRoster.Snapshot snapshot = roster.snapshot();
+        assertNull(snapshot.seats.get(1));
+        assertEquals(Arrays.asList("owner", "c", "d"), snapshot.usernamesExcept("nobody"));
+        assertEquals(0, snapshot.readyCount);
+
+        // The next player takes the freed seat.
+        roster.add(new RoomPlayer("e", 0, false));
+        assertEquals(1, roster.seatOf("e"));
+        assertEquals(-1, roster.seatOf("b"));
+        // Snapshots already handed out do not change.
+        assertNull(snapshot.seats.get(1));
+        assertEquals(-1, snapshot.seatOf("e"));
+    }
+
+    @Test
+    public void readyStateIsCountedOnceAndForgottenOnLeave() {
+        RoomRoster roster = new RoomRoster();
+        roster.reset(Arrays.asList(new RoomPlayer("owner", 0, false), new RoomPlayer("b", 0, false)));
+        assertFalse(roster.canStart());
+
+        assertTrue(roster.setReady("b"));
+        assertFalse(roster.setReady("b"));
+        assertFalse(roster.setReady("nobody"));
+        assertEquals(1, roster.readyCount());
+        assertTrue(roster.canStart());
+        assertTrue(roster.snapshot().seats.get(1).isReady);
+
+        assertFalse(roster.add(new RoomPlayer("b", 0, false)));
+        roster.add(new RoomPlayer("c", 0, false));
+        assertFalse(roster.snapshot().canStart);
+
+        roster.remove("b");
+        assertEquals(0, roster.readyCount());
+        assertFalse(roster.canStart());
+        roster.remove("c");
+        assertTrue(roster.canStart());
+    }
+
+    @Test
+    public void matchesAReferenceModelUnderRandomChanges() {
+        Random random = new Random(12);
+        RoomRoster roster = new RoomRoster();
+        Map<String, Boolean> reference = new LinkedHashMap<>();
+        reference.put("owner", false);
+        roster.reset(new ArrayList<>(Arrays.asList(new RoomPlayer("owner", 0, false))));
+
+        for (int step = 0; step < 5000; step++) {
+            String username = "player" + random.nextInt(20);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(!reference.containsKey(username),
+                            roster.add(new RoomPlayer(username, 0, false)));
+                    if (!reference.containsKey(username)) {
+                        reference.put(username, false);
+                    }
+                    break;
+                case 1:
+                    assertEquals(reference.remove(username) != null, roster.remove(username));
+                    break;
+                default:
+                    assertEquals(Boolean.FALSE.equals(reference.get(username)), roster.setReady(username));
+                    if (reference.containsKey(username)) {
+                        reference.put(username, true);
+                    }
+            }
+
+            RoomRoster.Snapshot snapshot = roster.snapshot();
+            int ready = 0;
+            boolean othersReady = true;
+            for (Map.Entry<String, Boolean> player : reference.entrySet()) {
+                int seat = snapshot.seatOf(player.getKey());
+                assertEquals(player.getKey(), snapshot.seats.get(seat).username);
+                assertEquals(player.getValue(), snapshot.seats.get(seat).isReady);
+                if (player.getValue()) {
+                    ready++;
+                } else if (!player.getKey().equals("owner")) {
+                    othersReady = false;
+                }
+            }
+            List<RoomPlayer> seated = new ArrayList<>();
+            for (RoomPlayer player : snapshot.seats) {
+                if (player != null) {
+                    seated.add(player);
+                }
+            }
+            assertEquals(reference.size(), seated.size());
+            assertEquals(reference.size(), snapshot.players);
+            assertEquals(ready, snapshot.readyCount);
+            assertEquals(othersReady, snapshot.canStart);
+            assertEquals(0, snapshot.seatOf("owner"));
+        }
+    }
+}
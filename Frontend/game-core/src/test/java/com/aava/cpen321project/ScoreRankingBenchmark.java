@@ -0,0 +1,110 @@
+package com.aava.cpen321project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per scoreboard round of finding the local player's rank and neighbours: sorting every
+ * score and scanning for the player, as GameState used to, against applying the round to a
+ * ScoreRanking. In each round about a third of the room scores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoreRankingBenchmark {
+
+    private static final int ROUNDS = 64;
+
+    @Param({"6", "100", "1000"})
+    public int players;
+
+    private final List<List<ScoreboardEvent.Score>> rounds = new ArrayList<>();
+    private final List<List<ScoreboardEvent.Score>> changes = new ArrayList<>();
+    private String local;
+    private ScoreRanking ranking;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        int[] totals = new int[players];
+        for (int r = 0; r < ROUNDS; r++) {
+            List<ScoreboardEvent.Score> scores = new ArrayList<>(players);
+            List<ScoreboardEvent.Score> changed = new ArrayList<>();
+            for (int p = 0; p < players; p++) {
+                int earned = random.nextInt(3) == 0 ? 50 + random.nextInt(70) : 0;
+                totals[p] += earned;
+                ScoreboardEvent.Score score = new ScoreboardEvent.Score(GameFixtures.username(p), earned, totals[p], false);
+                scores.add(score);
+                if (earned > 0) {
+                    changed.add(score);
+                }
+            }
+            rounds.add(scores);
+            changes.add(changed);
+        }
+        local = GameFixtures.username(players / 2);
+        ranking = new ScoreRanking();
+        for (ScoreboardEvent.Score score : rounds.get(ROUNDS - 1)) {
+            ranking.update(score);
+        }
+    }
+
+    @Benchmark
+    public void sortEveryRound(Blackhole blackhole) {
+        List<ScoreboardEvent.Score> sorted = new ArrayList<>(rounds.get(nextRound()));
+        Collections.sort(sorted, (a, b) -> b.updatedTotalPoints - a.updatedTotalPoints);
+        int rank = -1;
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).username.equals(local)) {
+                rank = i;
+            }
+        }
+        blackhole.consume(rank > 0 ? sorted.get(rank - 1) : null);
+        blackhole.consume(sorted.get(rank));
+        blackhole.consume(rank < sorted.size() - 1 ? sorted.get(rank + 1) : null);
+    }
+
+    // Every player's score, as it arrives in showScoreboard; unchanged totals are skipped.
+    @Benchmark
+    public ScoreRanking.Standing rankingFullRound() {
+        for (ScoreboardEvent.Score score : rounds.get(nextRound())) {
+            ranking.update(score);
+        }
+        return ranking.standing(local);
+    }
+
+    // Only the players whose totals changed.
+    @Benchmark
+    public ScoreRanking.Standing rankingDeltas() {
+        for (ScoreboardEvent.Score score : changes.get(nextRound())) {
+            ranking.update(score);
+        }
+        return ranking.standing(local);
+    }
+
+    // Looking up the standing and the podium without any score changing.
+    @Benchmark
+    public void rankingQuery(Blackhole blackhole) {
+        blackhole.consume(ranking.standing(local));
+        blackhole.consume(ranking.top(3));
+    }
+
+    private int nextRound() {
+        round = (round + 1) % ROUNDS;
+        return round;
+    }
+}
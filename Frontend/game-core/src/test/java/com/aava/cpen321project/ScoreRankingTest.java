@@ -0,0 +1,81 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class ScoreRankingTest {
+
+    private static final Comparator<ScoreboardEvent.Score> BY_RANK = (a, b) ->
+            a.updatedTotalPoints != b.updatedTotalPoints
+                    ? Integer.compare(b.updatedTotalPoints, a.updatedTotalPoints)
+                    : a.username.compareTo(b.username);
+
+    @Test
+    public void matchesSortingEveryRound() {
+        Random random = new Random(3);
+        ScoreRanking ranking = new ScoreRanking();
+        Map<String, ScoreboardEvent.Score> latest = new LinkedHashMap<>();
+
+        for (int round = 0; round < 400; round++) {
+            // Scores rise, players come and go, and many end up tied.
+            for (int i = 0; i < 20; i++) {
+                String username = GameFixtures.username(random.nextInt(300));
+                ScoreboardEvent.Score previous = latest.get(username);
+                int total = (previous == null ? 0 : previous.updatedTotalPoints) + 10 * random.nextInt(3);
+                ScoreboardEvent.Score score = new ScoreboardEvent.Score(username, 0, total, random.nextBoolean());
+                latest.put(username, score);
+                ranking.update(score);
+            }
+            if (random.nextInt(4) == 0 && !latest.isEmpty()) {
+                String leaving = latest.keySet().iterator().next();
+                latest.remove(leaving);
+                ranking.remove(leaving);
+            }
+
+            List<ScoreboardEvent.Score> sorted = new ArrayList<>(latest.values());
+            Collections.sort(sorted, BY_RANK);
+            assertEquals(sorted.size(), ranking.size());
+            assertEquals(sorted.subList(0, Math.min(5, sorted.size())), ranking.top(5));
+            for (int rank = 0; rank < sorted.size(); rank += 7) {
+                ScoreboardEvent.Score score = sorted.get(rank);
+                assertEquals(rank, ranking.rankOf(score.username));
+                assertEquals(score, ranking.get(rank));
+            }
+        }
+    }
+
+    @Test
+    public void standingHasTheNeighbouringPlayers() throws JSONException {
+        ScoreRanking ranking = new ScoreRanking();
+        for (ScoreboardEvent.Score score : EventDecoder.parseScoreboard(GameFixtures.showScoreboard(6, 3)).scores) {
+            ranking.update(score);
+        }
+        List<ScoreboardEvent.Score> top = ranking.top(6);
+
+        ScoreRanking.Standing first = ranking.standing(top.get(0).username);
+        assertEquals(0, first.rank);
+        assertEquals(6, first.players);
+        assertNull(first.above);
+        assertEquals(top.get(1), first.below);
+
+        ScoreRanking.Standing middle = ranking.standing(top.get(3).username);
+        assertEquals(3, middle.rank);
+        assertEquals(top.get(2), middle.above);
+        assertEquals(top.get(3), middle.self);
+        assertEquals(top.get(4), middle.below);
+
+        assertNull(ranking.standing(top.get(5).username).below);
+        assertNull(ranking.standing("nobody"));
+    }
+}
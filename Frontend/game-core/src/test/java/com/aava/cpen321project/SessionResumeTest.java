@@ -0,0 +1,268 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class SessionResumeTest {
+
+    private static final String LOCAL = GameFixtures.username(0);
+
+    @Test
+    public void resumedSessionConvergesWhereverTheConnectionDrops() throws JSONException {
+        List<Step> script = scriptedGame();
+        Client baseline = play(script, 256, -1, 0);
+        assertEquals(0, baseline.resumer.resumes());
+
+        int[] gaps = {0, 1, 3, 7};
+        for (int gap : gaps) {
+            for (int drop = 0; drop <= script.size(); drop++) {
+                Client client = play(script, 256, drop, gap);
+                String where = "drop before step " + drop + ", reconnect after " + gap + " steps";
+                assertEquals(where, withoutEmotes(baseline.listener.received), withoutEmotes(client.listener.received));
+                assertEquals(where, baseline.model, client.model);
+                assertEquals(where, 1, client.resumer.resumes());
+                assertEquals(where, 0, client.resumer.rejoins());
+            }
+        }
+    }
+
+    @Test
+    public void fallsBackToJoinRoomWhenTheLogHasMovedOn() throws JSONException {
+        List<Step> script = scriptedGame();
+        Client baseline = play(script, 256, -1, 0);
+
+        // Only 4 events are kept, and the client misses 8 steps of lobby and the first round.
+        Client client = play(script, 4, 2, 8);
+        assertEquals(0, client.resumer.resumes());
+        assertEquals(1, client.resumer.rejoins());
+        // Events missed during the gap are gone, but the fresh snapshot and everything after it
+        // bring the client back to the same room state.
+        assertEquals(baseline.model, client.model);
+        assertTrue(client.listener.received.size() < baseline.listener.received.size());
+    }
+
+    @Test
+    public void dropsEventsThatWereAlreadyDelivered() throws JSONException {
+        FakeGameServer server = new FakeGameServer(256, LOCAL);
+        Client client = new Client(server);
+        client.connect();
+        server.playerJoins(GameFixtures.username(1));
+        server.playerReadies(GameFixtures.username(1));
+        int delivered = client.listener.received.size();
+
+        // A replay that overlaps what the client already has, e.g. after a resume raced a live
+        // broadcast, must not apply anything twice.
+        client.receive("playerReadyToStartGame",
+                new JSONObject().put("playerUsername", GameFixtures.username(1)), 2);
+        client.receive("playerJoined",
+                new JSONObject().put("newPlayerUsername", GameFixtures.username(1)), 1);
+        assertEquals(delivered, client.listener.received.size());
+        assertEquals(2, client.resumer.duplicatesDropped());
+        assertFalse(client.resumer.accept(new Object[]{new JSONObject(), 2L}));
+        assertTrue(client.resumer.accept(new Object[]{new JSONObject()}));
+    }
+
+    // Run the script against a fresh server, dropping the connection before step drop and
+    // reconnecting after gap more steps. A negative drop never disconnects.
+    private static Client play(List<Step> script, int logSize, int drop, int gap) throws JSONException {
+        FakeGameServer server = new FakeGameServer(logSize, LOCAL);
+        Client client = new Client(server);
+        client.connect();
+        for (int i = 0; i <= script.size(); i++) {
+            if (i == drop) {
+                client.connected = false;
+            }
+            if (i == drop + gap || (i == script.size() && !client.connected)) {
+                client.connect();
+            }
+            if (i < script.size()) {
+                script.get(i).run(server);
+            }
+        }
+        return client;
+    }
+
+    // Lobby, then three rounds of question, answers, an emote and the scoreboard.
+    private static List<Step> scriptedGame() {
+        List<Step> script = new ArrayList<>();
+        script.add(server -> server.playerJoins(GameFixtures.username(1)));
+        script.add(server -> server.playerJoins(GameFixtures.username(2)));
+        script.add(server -> server.changeSetting("timeLimit", 30));
+        script.add(server -> server.playerJoins(GameFixtures.username(3)));
+        script.add(server -> server.changeSetting("difficulty", "hard"));
+        script.add(server -> server.playerReadies(GameFixtures.username(1)));
+        script.add(server -> server.playerLeaves(GameFixtures.username(3)));
+        script.add(server -> server.playerReadies(GameFixtures.username(2)));
+        for (int round = 1; round <= 3; round++) {
+            final int number = round;
+            script.add(server -> server.startQuestion(number));
+            script.add(server -> server.playerAnswers(GameFixtures.username(2)));
+            script.add(server -> server.playerEmotes(GameFixtures.username(1), number % 4));
+            script.add(server -> server.playerAnswers(LOCAL));
+            script.add(server -> server.playerAnswers(GameFixtures.username(1)));
+            script.add(server -> server.showScoreboard(number));
+        }
+        return script;
+    }
+
+    // Emotes are live-only, so a client that was away for one never sees it.
+    private static List<Object> withoutEmotes(List<Object> received) {
+        List<Object> filtered = new ArrayList<>();
+        for (Object record : received) {
+            if (!(record instanceof PlayerDelta) || ((PlayerDelta) record).kind != PlayerDelta.Kind.EMOTED) {
+                filtered.add(record);
+            }
+        }
+        return filtered;
+    }
+
+    private interface Step {
+        void run(FakeGameServer server) throws JSONException;
+    }
+
+    // The client side of SocketManager: control events go to the SessionResumer, and room events
+    // are deduplicated by it before being decoded.
+    private static final class Client implements FakeGameServer.Connection {
+        final FakeGameServer server;
+        final RoomModel model = new RoomModel();
+        final RecordingListener listener = new RecordingListener() {
+            @Override
+            public void youJoined(RoomSnapshot room) {
+                super.youJoined(room);
+                model.youJoined(room);
+            }
+
+            @Override
+            public void otherPlayerJoined(PlayerDelta player) {
+                super.otherPlayerJoined(player);
+                model.roster.put(player.username, false);
+            }
+
+            @Override
+            public void otherPlayerLeft(PlayerDelta player) {
+                super.otherPlayerLeft(player);
+                model.roster.remove(player.username);
+            }
+
+            @Override
+            public void settingChanged(SettingChange setting) {
+                super.settingChanged(setting);
+                model.settings.put(setting.settingOption, setting.optionValue);
+            }
+
+            @Override
+            public void otherPlayerReadied(PlayerDelta player) {
+                super.otherPlayerReadied(player);
+                model.roster.put(player.username, true);
+            }
+
+            @Override
+            public void questionReceived(QuestionEvent question) {
+                super.questionReceived(question);
+                model.question = question;
+            }
+
+            @Override
+            public void scoreboardReceived(ScoreboardEvent scoreboard) {
+                super.scoreboardReceived(scoreboard);
+                model.scoreboard = scoreboard;
+            }
+        };
+        final EventDecoder decoder = new EventDecoder(listener);
+        final SessionResumer resumer;
+        boolean connected;
+
+        Client(FakeGameServer server) {
+            this.server = server;
+            GameConstants gameConstants = new GameConstants("token", LOCAL, "room", true);
+            this.resumer = new SessionResumer(gameConstants, (event, fields) -> {
+                try {
+                    server.handle(LOCAL, this, event, fields);
+                } catch (JSONException e) {
+                    throw new AssertionError(e);
+                }
+            });
+        }
+
+        void connect() {
+            connected = true;
+            resumer.connected();
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void receive(String event, Object... args) {
+            switch (event) {
+                case "sessionResumable":
+                    resumer.sessionResumable((JSONObject) args[0]);
+                    break;
+                case "sessionResumed":
+                    resumer.sessionResumed((JSONObject) args[0]);
+                    break;
+                case "resumeFailed":
+                    resumer.resumeFailed((JSONObject) args[0]);
+                    break;
+                default:
+                    if (resumer.accept(args)) {
+                        decoder.dispatch(event, args[0]);
+                    }
+            }
+        }
+    }
+
+    // The room state a client ends up with, as GameState would fold it.
+    private static final class RoomModel {
+        final Map<String, Boolean> roster = new LinkedHashMap<>();
+        final Map<String, Object> settings = new LinkedHashMap<>();
+        QuestionEvent question;
+        ScoreboardEvent scoreboard;
+
+        void youJoined(RoomSnapshot room) {
+            roster.clear();
+            for (RoomPlayer player : room.players) {
+                roster.put(player.username, player.isReady);
+            }
+            settings.put("isPublic", room.roomIsPublic);
+            settings.put("difficulty", room.questionDifficulty);
+            settings.put("maxPlayers", room.maxPlayers);
+            settings.put("timeLimit", room.questionTime);
+            settings.put("total", room.totalQuestions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RoomModel)) {
+                return false;
+            }
+            RoomModel other = (RoomModel) o;
+            return roster.equals(other.roster) && settings.equals(other.settings)
+                    && Objects.equals(question, other.question)
+                    && Objects.equals(scoreboard, other.scoreboard);
+        }
+
+        @Override
+        public int hashCode() {
+            return roster.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return roster + " " + settings + " " + question + " " + scoreboard;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per changedSetting event in the lobby, from the payload through EventDecoder into
+ * GameState to the published snapshot. Each operation alternates between two values, so every
+ * event changes the settings as it would when the owner taps through them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SettingChangedBenchmark {
+
+    @Param({"timeLimit", "maxPlayers", "difficulty", "isPublic"})
+    public String option;
+
+    @Param({"2", "4", "6"})
+    public int players;
+
+    private final JSONObject[] payloads = new JSONObject[2];
+    private final String[] texts = new String[2];
+    private GameState gameState;
+    private EventDecoder decoder;
+    private int next;
+
+    @Setup
+    public void setUp() throws JSONException {
+        gameState = new GameState(new Listener(), new DirectPlatform(),
+                new GameConstants("token", GameFixtures.username(0), "room", true));
+        decoder = new EventDecoder(gameState);
+        decoder.dispatch("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(players));
+        Object[] values;
+        switch (option) {
+            case "timeLimit":
+                values = new Object[] {15, 25};
+                break;
+            case "maxPlayers":
+                values = new Object[] {5, 6};
+                break;
+            case "difficulty":
+                values = new Object[] {"easy", "hard"};
+                break;
+            default:
+                values = new Object[] {true, false};
+                break;
+        }
+        for (int i = 0; i < 2; i++) {
+            payloads[i] = new JSONObject().put("settingOption", option).put("optionValue", values[i]);
+            texts[i] = payloads[i].toString();
+        }
+    }
+
+    // The payload as the Socket.IO client hands it over.
+    @Benchmark
+    public GameSnapshot dispatch() {
+        decoder.dispatch("changedSetting", payloads[next ^= 1]);
+        return gameState.snapshot();
+    }
+
+    // Including the client's JSON parse of the frame.
+    @Benchmark
+    public GameSnapshot parseAndDispatch() throws JSONException {
+        decoder.dispatch("changedSetting", new JSONObject(texts[next ^= 1]));
+        return gameState.snapshot();
+    }
+
+    private static final class Listener implements GameStateListener {
+        @Override
+        public void youLeft(String reason) {
+        }
+
+        @Override
+        public void creatorLeft() {
+        }
+
+        @Override
+        public void regionChanged(RenderLoop.Region region) {
+        }
+
+        @Override
+        public void questionReceived(GameSnapshot.Question question) {
+        }
+
+        @Override
+        public void errorReceived(String message) {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SettingsCoalescerTest {
+
+    private final List<String> emits = new ArrayList<>();
+    private final VirtualClock clock = new VirtualClock(0);
+    private SettingsCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        coalescer = new SettingsCoalescer(new SettingsCoalescer.SettingsEmitter() {
+            @Override
+            public void emitSetting(String settingOption, Object optionValue) {
+                synchronized (emits) {
+                    emits.add("changeSetting " + settingOption + "=" + optionValue);
+                }
+            }
+
+            @Override
+            public void emitSettings(Map<String, Object> settings) {
+                synchronized (emits) {
+                    emits.add("changeSettings " + settings);
+                }
+            }
+        }, clock, 10_000);
+    }
+
+    @Test
+    public void lastWriterWinsPerOption() {
+        coalescer.setBatchSupported(true);
+        // The owner scrolls the time picker through every value, then flips publicity twice.
+        for (int seconds = 10; seconds <= 30; seconds += 5) {
+            coalescer.offer("timeLimit", seconds);
+        }
+        coalescer.offer("isPublic", true);
+        coalescer.offer("isPublic", false);
+
+        coalescer.flush();
+        assertEquals(1, emits.size());
+        assertEquals("changeSettings {timeLimit=30, isPublic=false}", emits.get(0));
+        assertEquals(7, coalescer.offeredCount());
+        assertEquals(1, coalescer.emittedCount());
+    }
+
+    @Test
+    public void oldServersGetOneEmitPerOption() {
+        coalescer.offer("total", 10);
+        coalescer.offer("difficulty", "hard");
+        coalescer.offer("total", 20);
+
+        coalescer.flush();
+        assertEquals(2, emits.size());
+        assertEquals("changeSetting total=20", emits.get(0));
+        assertEquals("changeSetting difficulty=hard", emits.get(1));
+    }
+
+    @Test
+    public void singleChangeUsesTheIndividualEvent() {
+        coalescer.setBatchSupported(true);
+        coalescer.offer("maxPlayers", 4);
+
+        coalescer.flush();
+        assertEquals("changeSetting maxPlayers=4", emits.get(0));
+    }
+
+    @Test
+    public void windowTimerFlushes() {
+        coalescer.offer("total", 15);
+        coalescer.offer("total", 20);
+        clock.advanceBy(9_999);
+        assertTrue(emits.isEmpty());
+
+        clock.advanceBy(1);
+        assertEquals("changeSetting total=20", emits.get(0));
+        assertEquals(1, coalescer.emittedCount());
+    }
+
+    @Test
+    public void flushWithNothingPendingEmitsNothing() {
+        coalescer.flush();
+        coalescer.offer("total", 5);
+        coalescer.close();
+        coalescer.flush();
+        assertTrue(emits.isEmpty());
+        // Closing stops the window timer too.
+        assertEquals(-1, clock.nextDueAt());
+    }
+
+    @Test
+    public void batchedSettingsDecodeIntoIndividualChanges() throws JSONException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("timeLimit", 15);
+        settings.put("category-Sports", true);
+        RecordingListener listener = new RecordingListener();
+        new EventDecoder(listener).dispatch("changedSettings",
+                new JSONObject().put("settings", new JSONObject(settings)));
+
+        assertEquals(2, listener.received.size());
+        assertTrue(listener.received.contains(new SettingChange("timeLimit", 15)));
+        assertTrue(listener.received.contains(new SettingChange("category-Sports", true)));
+    }
+}
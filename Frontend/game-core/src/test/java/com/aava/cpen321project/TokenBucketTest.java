@@ -0,0 +1,50 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TokenBucketTest {
+
+    private long now = 5000;
+    private final TokenBucket bucket = new TokenBucket(() -> now, 3, 4);
+
+    @Test
+    public void burstsUpToItsCapacityThenRefillsAtItsRate() {
+        assertTrue(bucket.tryTake());
+        assertTrue(bucket.tryTake());
+        assertTrue(bucket.tryTake());
+        assertFalse(bucket.tryTake());
+
+        // 4 a second is one every 250ms.
+        assertEquals(250, bucket.millisUntilAvailable());
+        now += 249;
+        assertFalse(bucket.tryTake());
+        now += 1;
+        assertTrue(bucket.tryTake());
+    }
+
+    @Test
+    public void neverHoldsMoreThanItsCapacity() {
+        now += 60_000;
+        assertEquals(3, bucket.available());
+        bucket.tryTake();
+        assertEquals(2, bucket.available());
+    }
+
+    @Test
+    public void keepsTheFractionsOfATokenBetweenChecks() {
+        while (bucket.tryTake()) {
+            // Empty it.
+        }
+        // Checked every 10ms, a 250ms refill still lands on time.
+        for (int i = 0; i < 24; i++) {
+            now += 10;
+            assertFalse(bucket.tryTake());
+        }
+        now += 10;
+        assertTrue(bucket.tryTake());
+    }
+}
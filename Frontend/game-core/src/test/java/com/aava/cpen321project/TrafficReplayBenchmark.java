@@ -0,0 +1,94 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbound events per second over a recorded 20-question, 6-player game, replayed as fast as
+ * the virtual clock allows. replay runs every event through SocketManager into a fresh
+ * GameState, phases included; decode runs the same payloads through the decoder alone. Both
+ * wire formats carry identical traffic, so a change to a parser or to the dispatch path can be
+ * measured against the same game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TrafficReplayBenchmark {
+
+    /** Inbound events in GameFixtures.recordedGame(6, 20, ...). */
+    private static final int EVENTS = 187;
+
+    @Param({"json", "msgpack"})
+    public String wire;
+
+    private TrafficLog.Recording recording;
+
+    @Setup
+    public void setUp() throws IOException, JSONException {
+        recording = TrafficLog.read(new ByteArrayInputStream(
+                GameFixtures.recordedGame(6, 20, wire.equals("msgpack"))));
+        if (recording.inboundCount() != EVENTS) {
+            throw new IllegalStateException("Recorded game has " + recording.inboundCount() + " events");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public Object replay() throws InterruptedException {
+        return new TrafficReplay(recording, new Listener()).run(TrafficReplay.Pace.VIRTUAL).snapshot;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void decode(Blackhole blackhole) {
+        RecordingListener listener = new RecordingListener();
+        EventDecoder decoder = new EventDecoder(listener);
+        for (TrafficLog.Record record : recording.records) {
+            if (!record.isInbound()) {
+                continue;
+            }
+            if (Arrays.asList(GameConnection.CONTROL_EVENTS).contains(record.event)) {
+                blackhole.consume(GameConnection.controlPayload(record.args));
+            } else {
+                decoder.dispatch(record.event, record.args[0]);
+            }
+        }
+        blackhole.consume(listener.received);
+    }
+
+    private static final class Listener implements GameStateListener {
+        @Override
+        public void youLeft(String reason) {
+        }
+
+        @Override
+        public void creatorLeft() {
+        }
+
+        @Override
+        public void regionChanged(RenderLoop.Region region) {
+        }
+
+        @Override
+        public void questionReceived(GameSnapshot.Question question) {
+        }
+
+        @Override
+        public void errorReceived(String message) {
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TrafficReplayTest {
+
+    private static final GameConstants OWNER = new GameConstants("secret", GameFixtures.username(0), "room", true);
+
+    @Test
+    public void aLogReadsBackAsItWasWritten() throws IOException, JSONException {
+        VirtualClock clock = new VirtualClock(1000);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        TrafficLog.Writer writer = new TrafficLog.Writer(log, clock, OWNER);
+        writer.inbound("welcomeNewPlayer", new Object[] {GameFixtures.welcomeNewPlayer(2), 1});
+        clock.advanceBy(250);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("roomId", "room");
+        fields.put("timeDelay", 4200L);
+        writer.outbound("submitAnswer", fields);
+        clock.advanceBy(100_000);
+        writer.inbound("showScoreboard", new Object[] {new byte[] {1, 2, 3}, -7L, 2.5, true, null, "text"});
+        writer.inbound("showScoreboard", new Object[0]);
+        writer.close();
+
+        TrafficLog.Recording recording = TrafficLog.read(new ByteArrayInputStream(log.toByteArray()));
+        assertEquals(GameFixtures.username(0), recording.username);
+        assertEquals("room", recording.roomId);
+        assertTrue(recording.isOwner);
+        assertFalse(recording.truncated);
+        assertEquals(4, recording.records.size());
+        assertEquals(3, recording.inboundCount());
+
+        TrafficLog.Record welcome = recording.records.get(0);
+        assertEquals(0, welcome.atMillis);
+        assertEquals("QX7KLM", ((JSONObject) welcome.args[0]).getString("roomCode"));
+        assertEquals(1L, welcome.args[1]);
+
+        TrafficLog.Record answer = recording.records.get(1);
+        assertFalse(answer.isInbound());
+        assertEquals(250, answer.atMillis);
+        assertEquals(4200, ((JSONObject) answer.args[0]).getLong("timeDelay"));
+
+        TrafficLog.Record scoreboard = recording.records.get(2);
+        assertEquals(100_250, scoreboard.atMillis);
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) scoreboard.args[0]);
+        assertEquals(Arrays.asList(-7L, 2.5, true, null, "text"),
+                Arrays.asList(scoreboard.args).subList(1, 6));
+        assertEquals("showScoreboard", recording.records.get(3).event);
+        // The session token stays out of the log.
+        assertFalse(new String(log.toByteArray(), "ISO-8859-1").contains("secret"));
+    }
+
+    @Test
+    public void aRecordedGameReplaysToTheSameEnd() throws IOException, JSONException, InterruptedException {
+        TrafficLog.Recording recording = read(GameFixtures.recordedGame(6, 5, false));
+
+        TrafficReplay.Result first = new TrafficReplay(recording, new Listener()).run(TrafficReplay.Pace.VIRTUAL);
+        TrafficReplay.Result second = new TrafficReplay(recording, new Listener()).run(TrafficReplay.Pace.VIRTUAL);
+
+        assertTrue(first.snapshot.gameOver);
+        assertEquals(recording.inboundCount(), first.eventsDelivered);
+        assertEquals(6, first.snapshot.roster.players);
+        assertEquals(5, first.snapshot.settings.questionCount);
+        assertEquals(5, first.snapshot.question.number);
+        assertEquals(Arrays.asList("joinRoom", "leaveRoom"), first.sent);
+        assertTrue(first.phaseTicks > 0);
+
+        assertEquals(first.eventsDelivered, second.eventsDelivered);
+        assertEquals(first.phaseTicks, second.phaseTicks);
+        assertEquals(first.snapshot.standing.rank, second.snapshot.standing.rank);
+        assertEquals(first.snapshot.standing.self.updatedTotalPoints, second.snapshot.standing.self.updatedTotalPoints);
+    }
+
+    @Test
+    public void bothWireFormatsReplayToTheSameStanding() throws IOException, JSONException, InterruptedException {
+        TrafficReplay.Result json = new TrafficReplay(read(GameFixtures.recordedGame(4, 3, false)), new Listener())
+                .run(TrafficReplay.Pace.VIRTUAL);
+        TrafficReplay.Result binary = new TrafficReplay(read(GameFixtures.recordedGame(4, 3, true)), new Listener())
+                .run(TrafficReplay.Pace.VIRTUAL);
+
+        assertTrue(binary.snapshot.gameOver);
+        assertEquals(json.snapshot.standing.rank, binary.snapshot.standing.rank);
+        assertEquals(json.snapshot.standing.self.updatedTotalPoints, binary.snapshot.standing.self.updatedTotalPoints);
+        assertEquals(json.snapshot.roster.players, binary.snapshot.roster.players);
+    }
+
+    @Test
+    public void aLogCutShortReplaysUpToItsLastWholeRecord() throws IOException, JSONException, InterruptedException {
+        byte[] whole = GameFixtures.recordedGame(3, 2, false);
+        TrafficLog.Recording recording = read(Arrays.copyOf(whole, whole.length - 5));
+
+        assertTrue(recording.truncated);
+        assertEquals(read(whole).records.size() - 1, recording.records.size());
+        TrafficReplay.Result result = new TrafficReplay(recording, new Listener()).run(TrafficReplay.Pace.VIRTUAL);
+        // The last scoreboard was lost, so the game never ended.
+        assertFalse(result.snapshot.gameOver);
+        assertEquals(2, result.snapshot.question.number);
+    }
+
+    @Test(expected = IOException.class)
+    public void anythingElseIsRejected() throws IOException {
+        TrafficLog.read(new ByteArrayInputStream("{\"not\": \"a log\"}".getBytes("UTF-8")));
+    }
+
+    @Test
+    public void aGameThatNeverStartsHasNoStanding() throws IOException, InterruptedException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        new TrafficLog.Writer(log, new VirtualClock(0), OWNER).close();
+
+        TrafficReplay.Result result = new TrafficReplay(read(log.toByteArray()), new Listener())
+                .run(TrafficReplay.Pace.REAL_TIME);
+        assertEquals(0, result.eventsDelivered);
+        assertNull(result.snapshot.standing);
+        assertEquals(Arrays.asList("joinRoom"), result.sent);
+    }
+
+    private static TrafficLog.Recording read(byte[] log) throws IOException {
+        return TrafficLog.read(new ByteArrayInputStream(log));
+    }
+
+    private static final class Listener implements GameStateListener {
+        @Override
+        public void youLeft(String reason) {
+        }
+
+        @Override
+        public void creatorLeft() {
+        }
+
+        @Override
+        public void regionChanged(RenderLoop.Region region) {
+        }
+
+        @Override
+        public void questionReceived(GameSnapshot.Question question) {
+        }
+
+        @Override
+        public void errorReceived(String message) {
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode time per event type on the socket thread: the JSON text the client parses today
+ * against the negotiated MessagePack attachment. Byte counts are reported by WireCodecTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireCodecBenchmark {
+
+    @Param({"startQuestion", "showScoreboard", "welcomeNewPlayer"})
+    public String event;
+
+    @Param({"2", "4", "6"})
+    public int players;
+
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws JSONException {
+        JSONObject payload;
+        switch (event) {
+            case "startQuestion":
+                payload = GameFixtures.startQuestion(1);
+                break;
+            case "showScoreboard":
+                payload = GameFixtures.showScoreboard(players, 1);
+                break;
+            default:
+                payload = GameFixtures.welcomeNewPlayer(players);
+                break;
+        }
+        json = payload.toString();
+        binary = WireCodecs.encode(event, payload);
+    }
+
+    @Benchmark
+    public JSONObject decodeJson() throws JSONException {
+        return new JSONObject(json);
+    }
+
+    @Benchmark
+    public Object decodeBinary() throws JSONException {
+        return WireCodecs.decode(event, binary);
+    }
+}
@@ -0,0 +1,88 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WireCodecTest {
+
+    @Test
+    public void eventsRoundTripThroughTheirCodecs() throws JSONException {
+        // Positional codecs decode into the same record the JSON path produces.
+        JSONObject question = GameFixtures.startQuestion(3);
+        assertEquals(EventDecoder.parseQuestion(question), roundTrip("startQuestion", question));
+        question.remove("countdownEndsAt");
+        question.remove("readingEndsAt");
+        question.remove("answeringEndsAt");
+        assertEquals(EventDecoder.parseQuestion(question), roundTrip("startQuestion", question));
+        JSONObject scoreboard = GameFixtures.showScoreboard(6, 4);
+        assertEquals(EventDecoder.parseScoreboard(scoreboard), roundTrip("showScoreboard", scoreboard));
+        JSONObject room = GameFixtures.welcomeNewPlayer(6);
+        assertEquals(EventDecoder.parseRoom(room), roundTrip("welcomeNewPlayer", room));
+
+        // Schema-less events decode back into an equivalent JSONObject.
+        JSONObject setting = new JSONObject()
+                .put("settingOption", "timeLimit")
+                .put("optionValue", 25);
+        assertEquals(setting.toString(), roundTrip("changedSetting", setting).toString());
+    }
+
+    @Test
+    public void binaryPayloadsAreSmallerThanJson() throws JSONException {
+        // Bytes on the wire for a 6-player room, JSON text against MessagePack.
+        assertSmaller("startQuestion", GameFixtures.startQuestion(3));
+        assertSmaller("showScoreboard", GameFixtures.showScoreboard(6, 4));
+        assertSmaller("welcomeNewPlayer", GameFixtures.welcomeNewPlayer(6));
+    }
+
+    @Test
+    public void outgoingFieldsEncodeAsMap() throws JSONException {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("roomId", "room-1");
+        fields.put("username", "player0");
+        fields.put("timeDelay", 4321L);
+        fields.put("isCorrect", true);
+        fields.put("powerupCode", -1);
+        fields.put("powerupVictimUsername", null);
+
+        JSONObject decoded = WireCodecs.decodeFields(WireCodecs.encode(fields));
+        assertEquals("room-1", decoded.getString("roomId"));
+        assertEquals(4321, decoded.getLong("timeDelay"));
+        assertTrue(decoded.getBoolean("isCorrect"));
+        assertEquals(-1, decoded.getInt("powerupCode"));
+        assertTrue(decoded.isNull("powerupVictimUsername"));
+    }
+
+    @Test
+    public void integersUseTheirSmallestEncoding() {
+        long[] values = {0, 127, 128, 255, 256, 65535, 65536, 4294967295L, 4294967296L,
+                -1, -32, -33, -128, -129, -32768, -32769, Integer.MIN_VALUE, Long.MIN_VALUE};
+        MessagePackWriter writer = new MessagePackWriter(1);
+        for (long value : values) {
+            writer.packLong(value);
+        }
+        MessagePackReader reader = new MessagePackReader(writer.toByteArray());
+        for (long value : values) {
+            assertEquals(value, reader.unpackLong());
+        }
+        assertEquals(false, reader.hasNext());
+    }
+
+    private static Object roundTrip(String event, JSONObject payload) throws JSONException {
+        return WireCodecs.decode(event, WireCodecs.encode(event, payload));
+    }
+
+    private static void assertSmaller(String event, JSONObject payload) throws JSONException {
+        int jsonBytes = payload.toString().getBytes(StandardCharsets.UTF_8).length;
+        int binaryBytes = WireCodecs.encode(event, payload).length;
+        System.out.printf("%s: %d bytes as JSON, %d bytes as MessagePack%n", event, jsonBytes, binaryBytes);
+        assertTrue(binaryBytes < jsonBytes);
+    }
+}
@@ -0,0 +1,73 @@
+package com.aava.cpen321project;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+/**
+ * A GamePlatform for running GameState on a plain JVM: main-thread work and room events run on
+ * the calling thread, no traffic is recorded and randomness is seeded. By default phase ticks
+ * are never scheduled and no connection is ever opened; given a VirtualClock, the game's clock
+ * and ticks run on it and its session is an offline connection that drops whatever it sends.
+ */
+public final class DirectPlatform implements GamePlatform {
+
+    /** Null for the system clock, no ticks and no connection. */
+    private final VirtualClock clock;
+
+    public DirectPlatform() {
+        this(null);
+    }
+
+    public DirectPlatform(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public MonotonicClock clock() {
+        return clock != null ? clock : MonotonicClock.SYSTEM;
+    }
+
+    @Override
+    public Executor mainThread() {
+        return Runnable::run;
+    }
+
+    @Override
+    public PhaseScheduler.Ticker mainThreadTicker() {
+        if (clock != null) {
+            return clock;
+        }
+        return new PhaseScheduler.Ticker() {
+            @Override
+            public void schedule(Runnable tick, long delayMillis) {
+            }
+
+            @Override
+            public void cancel(Runnable tick) {
+            }
+        };
+    }
+
+    @Override
+    public Random random() {
+        return new Random(0);
+    }
+
+    @Override
+    public Executor gameEvents() {
+        return Runnable::run;
+    }
+
+    @Override
+    public GameConnection connection(String sessionToken) {
+        if (clock == null) {
+            throw new UnsupportedOperationException("DirectPlatform never connects");
+        }
+        return GameConnection.offline(sessionToken, clock);
+    }
+
+    @Override
+    public TrafficRecorder trafficRecorder(GameConstants gameConstants) {
+        return TrafficRecorder.NONE;
+    }
+}
@@ -0,0 +1,192 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process stand-in for the room side of server.js: it stamps room broadcasts with a sequence
+ * number, keeps a bounded event log, hands out resume tokens on joinRoom and replays missed
+ * events on resumeSession. A client is reached through its Connection while connected; anything
+ * sent while it is disconnected is lost, as it would be on the wire.
+ */
+public class FakeGameServer {
+
+    public interface Connection {
+        boolean isConnected();
+        void receive(String event, Object... args);
+    }
+
+    private final int logSize;
+    private final Map<String, Connection> connections = new LinkedHashMap<>();
+    private final Map<String, Boolean> players = new LinkedHashMap<>();
+    private final Map<String, String> resumeTokens = new LinkedHashMap<>();
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final ArrayDeque<Entry> log = new ArrayDeque<>();
+    private long seq;
+    private int tokens;
+
+    public FakeGameServer(int logSize, String owner) {
+        this.logSize = logSize;
+        players.put(owner, false);
+        settings.put("isPublic", false);
+        settings.put("difficulty", "easy");
+        settings.put("maxPlayers", 6);
+        settings.put("timeLimit", 20);
+        settings.put("total", 3);
+    }
+
+    // CLIENT MESSAGES
+
+    public void handle(String username, Connection connection, String event, Map<String, Object> fields)
+            throws JSONException {
+        switch (event) {
+            case "joinRoom":
+                connections.put(username, connection);
+                connection.receive("welcomeNewPlayer", snapshot());
+                String token = "resume-" + (++tokens);
+                resumeTokens.put(username, token);
+                connection.receive("sessionResumable", new JSONObject()
+                        .put("resumeToken", token).put("seq", seq));
+                break;
+            case "resumeSession":
+                if (!fields.get("resumeToken").equals(resumeTokens.get(username))) {
+                    connection.receive("resumeFailed", new JSONObject().put("reason", "unknownSession"));
+                    break;
+                }
+                List<Entry> missed = eventsSince(((Number) fields.get("lastSeq")).longValue(), username);
+                if (missed == null) {
+                    connection.receive("resumeFailed", new JSONObject().put("reason", "tooFarBehind"));
+                    break;
+                }
+                connections.put(username, connection);
+                for (Entry entry : missed) {
+                    connection.receive(entry.event, entry.payload, entry.seq);
+                }
+                connection.receive("sessionResumed", new JSONObject()
+                        .put("seq", seq).put("replayed", missed.size()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    // SCRIPTED ROOM ACTIVITY
+
+    public void playerJoins(String username) throws JSONException {
+        players.put(username, false);
+        broadcast("playerJoined", new JSONObject()
+                .put("newPlayerUsername", username).put("newPlayerRank", 0), username);
+    }
+
+    public void playerLeaves(String username) throws JSONException {
+        players.remove(username);
+        broadcast("playerLeft", new JSONObject()
+                .put("playerUsername", username).put("reason", "left"), null);
+    }
+
+    public void changeSetting(String option, Object value) throws JSONException {
+        settings.put(option, value);
+        broadcast("changedSetting", new JSONObject()
+                .put("settingOption", option).put("optionValue", value), null);
+    }
+
+    public void playerReadies(String username) throws JSONException {
+        players.put(username, true);
+        broadcast("playerReadyToStartGame", new JSONObject().put("playerUsername", username), null);
+    }
+
+    public void startQuestion(int number) throws JSONException {
+        broadcast("startQuestion", GameFixtures.startQuestion(number), null);
+    }
+
+    public void playerAnswers(String username) throws JSONException {
+        broadcast("answerReceived", new JSONObject().put("playerUsername", username), username);
+    }
+
+    // Emotes are not logged, so they are never replayed.
+    public void playerEmotes(String username, int emoteCode) throws JSONException {
+        JSONObject payload = new JSONObject().put("username", username).put("emoteCode", emoteCode);
+        for (Connection connection : connections.values()) {
+            if (connection.isConnected()) {
+                connection.receive("emoteReceived", payload);
+            }
+        }
+    }
+
+    public void showScoreboard(int round) throws JSONException {
+        broadcast("showScoreboard", GameFixtures.showScoreboard(players.size(), round), null);
+    }
+
+    private void broadcast(String event, JSONObject payload, String exceptUsername) {
+        Entry entry = new Entry(++seq, event, payload, exceptUsername);
+        log.addLast(entry);
+        if (log.size() > logSize) {
+            log.removeFirst();
+        }
+        for (Map.Entry<String, Connection> connection : connections.entrySet()) {
+            if (!connection.getKey().equals(exceptUsername) && connection.getValue().isConnected()) {
+                connection.getValue().receive(event, payload, entry.seq);
+            }
+        }
+    }
+
+    private List<Entry> eventsSince(long lastSeq, String username) {
+        long oldestSeq = log.isEmpty() ? seq + 1 : log.peekFirst().seq;
+        if (lastSeq > seq || lastSeq < oldestSeq - 1) {
+            return null;
+        }
+        List<Entry> missed = new ArrayList<>();
+        Iterator<Entry> entries = log.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.seq > lastSeq && !username.equals(entry.exceptUsername)) {
+                missed.add(entry);
+            }
+        }
+        return missed;
+    }
+
+    private JSONObject snapshot() throws JSONException {
+        JSONArray roomPlayers = new JSONArray();
+        for (Map.Entry<String, Boolean> player : players.entrySet()) {
+            roomPlayers.put(new JSONObject()
+                    .put("username", player.getKey())
+                    .put("rank", 0)
+                    .put("isReady", player.getValue()));
+        }
+        JSONObject roomSettings = new JSONObject()
+                .put("roomIsPublic", settings.get("isPublic"))
+                .put("questionCategories", new JSONArray().put("General Knowledge"))
+                .put("questionDifficulty", settings.get("difficulty"))
+                .put("maxPlayers", settings.get("maxPlayers"))
+                .put("questionTime", settings.get("timeLimit"))
+                .put("totalQuestions", settings.get("total"));
+        return new JSONObject()
+                .put("roomPlayers", roomPlayers)
+                .put("roomSettings", roomSettings)
+                .put("possibleCategories", new JSONArray().put("General Knowledge"))
+                .put("roomCode", "QX7KLM");
+    }
+
+    private static final class Entry {
+        final long seq;
+        final String event;
+        final JSONObject payload;
+        final String exceptUsername;
+
+        Entry(long seq, String event, JSONObject payload, String exceptUsername) {
+            this.seq = seq;
+            this.event = event;
+            this.payload = payload;
+            this.exceptUsername = exceptUsername;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Production-shaped socket payloads, as emitted by the backend, for a room of a given size.
+ */
+public final class GameFixtures {
+
+    private GameFixtures() {
+    }
+
+    public static String username(int player) {
+        return "player" + player;
+    }
+
+    public static JSONObject welcomeNewPlayer(int players) throws JSONException {
+        JSONArray roomPlayers = new JSONArray();
+        for (int p = 0; p < players; p++) {
+            roomPlayers.put(new JSONObject()
+                    .put("username", username(p))
+                    .put("rank", 3 * p % 17)
+                    .put("isReady", p % 2 == 1));
+        }
+        JSONObject roomSettings = new JSONObject()
+                .put("roomIsPublic", false)
+                .put("questionCategories", new JSONArray().put("General Knowledge"))
+                .put("questionDifficulty", "easy")
+                .put("maxPlayers", Math.max(players, 6))
+                .put("questionTime", 20)
+                .put("totalQuestions", 10);
+        JSONArray possibleCategories = new JSONArray();
+        for (String category : new String[] {"General Knowledge", "Entertainment: Books",
+                "Entertainment: Film", "Entertainment: Music", "Science & Nature",
+                "Science: Computers", "Sports", "Geography", "History", "Animals"}) {
+            possibleCategories.put(category);
+        }
+        return new JSONObject()
+                .put("roomPlayers", roomPlayers)
+                .put("roomSettings", roomSettings)
+                .put("possibleCategories", possibleCategories)
+                .put("roomCode", "QX7KLM");
+    }
+
+    public static JSONObject startQuestion(int number) throws JSONException {
+        return new JSONObject()
+                .put("question", "Question " + number + ": In &quot;The Lord of the Rings&quot;, "
+                        + "which character&#039;s sword is named Sting?")
+                .put("answers", new JSONArray()
+                        .put("Aragorn")
+                        .put("Bilbo &amp; Frodo Baggins")
+                        .put("Legolas")
+                        .put("Gimli"))
+                .put("correctIndex", number % 4)
+                .put("countdownEndsAt", questionStart(number) + 5000)
+                .put("readingEndsAt", questionStart(number) + 10000)
+                .put("answeringEndsAt", questionStart(number) + 30000);
+    }
+
+    // Server time at which a question is sent.
+    public static long questionStart(int number) {
+        return 1_700_000_000_000L + 40_000L * number;
+    }
+
+    public static JSONObject showScoreboard(int players, int round) throws JSONException {
+        JSONArray scores = new JSONArray();
+        for (int p = 0; p < players; p++) {
+            int earned = (p * 37 + round * 11) % 120;
+            scores.put(new JSONObject()
+                    .put("username", username(p))
+                    .put("pointsEarned", earned)
+                    .put("updatedTotalPoints", earned * round + p * 7)
+                    .put("stolenPoints", p == round % players));
+        }
+        return new JSONObject().put("scores", scores);
+    }
+
+    /**
+     * A TrafficLog of a whole game as recorded by its owner, player 0: the room fills up and
+     * readies, then each question is asked, answered by everyone else and scored, at a realistic
+     * pace. Payloads are MessagePack attachments if binary, JSON otherwise.
+     */
+    public static byte[] recordedGame(int players, int questions, boolean binary) throws JSONException, IOException {
+        VirtualClock clock = new VirtualClock(0);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        TrafficLog.Writer writer = new TrafficLog.Writer(log, clock,
+                new GameConstants("token", username(0), "room", true));
+        FakeGameServer server = new FakeGameServer(1024, username(0));
+        FakeGameServer.Connection owner = new FakeGameServer.Connection() {
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+
+            @Override
+            public void receive(String event, Object... args) {
+                if (binary && args[0] instanceof JSONObject) {
+                    try {
+                        args[0] = WireCodecs.encode(event, (JSONObject) args[0]);
+                    } catch (JSONException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                writer.inbound(event, args);
+            }
+        };
+
+        Map<String, Object> join = new HashMap<>();
+        join.put("roomId", "room");
+        join.put("username", username(0));
+        writer.outbound("joinRoom", join);
+        clock.advanceBy(120);
+        server.handle(username(0), owner, "joinRoom", join);
+        server.changeSetting("total", questions);
+        for (int p = 1; p < players; p++) {
+            clock.advanceBy(2500);
+            server.playerJoins(username(p));
+            clock.advanceBy(1500);
+            server.playerReadies(username(p));
+        }
+        for (int q = 1; q <= questions; q++) {
+            clock.advanceBy(3000);
+            server.startQuestion(q);
+            clock.advanceBy(10000);
+            for (int p = 1; p < players; p++) {
+                clock.advanceBy(1000 + 700 * p);
+                server.playerAnswers(username(p));
+                if ((p + q) % 3 == 0) {
+                    server.playerEmotes(username(p), (p + q) % 9);
+                }
+            }
+            clock.advanceBy(1500);
+            server.showScoreboard(q);
+        }
+        writer.close();
+        return log.toByteArray();
+    }
+}
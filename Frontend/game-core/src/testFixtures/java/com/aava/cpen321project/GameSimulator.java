@@ -0,0 +1,856 @@
+package com.aava.cpen321project;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Plays whole games on a VirtualClock, with no server, sockets or threads. The room is simulated
+ * in process, with the lobby, question and scoring rules of server.js; each player is a
+ * GameState behind its own SocketManager and offline GameConnection, played by a script that
+ * readies up, uses powerups, sends bursts of emotes and answers after a random delay. The owner
+ * changes settings in the lobby while the others join, and settles on the configured time limit
+ * and question count as it starts the game. The room advertises setting and emote batches, so
+ * both go out through SocketManager's windows, which tick on the same VirtualClock. Every random
+ * choice, the network's included, is drawn from one seed, so a seed always plays the same game,
+ * and a 20-question, 6-player game takes milliseconds.
+ *
+ * What every client believes is checked against the room as the game goes:
+ * <pre>
+ *   ready counts  when a question arrives, the client's roster has every player, and everyone
+ *                 but the owner ready
+ *   settings      when the first question arrives, the client's settings are the room's, and
+ *                 the room saw no change after the game started
+ *   ranks         after each scoreboard, the client's total and rank match the room's totals
+ *   powerups      the room never sees a powerup used twice or an answer submitted twice, and
+ *                 each client's used powerups match what the room was sent
+ *   emotes        every emote a player's rate limit let through reached the room, and every
+ *                 client received all the room sent out before the last scoreboard
+ * </pre>
+ * and at the end, every client reached game over on the last question. Violations are collected
+ * in the result rather than thrown, so a sweep of seeds can report every failing one.
+ *
+ * Categories are left alone, as a client shows only one of them.
+ */
+public class GameSimulator {
+
+    // As in server.js.
+    static final long SHOW_SCOREBOARD_MILLIS = 5000;
+    static final int MAX_SCORE = 100;
+    // What server.js advertises, less clock sync: the room runs on the clients' own clock.
+    static final String[] FEATURES = {"changeSettings", "emoteBatches"};
+
+    // The values the owner picks settings from, as the lobby offers them.
+    private static final String[] DIFFICULTIES = {"easy", "medium", "hard"};
+    private static final int[] TIME_LIMITS = {10, 15, 20, 25, 30};
+    private static final int[] QUESTION_COUNTS = {10, 15, 20};
+    private static final int EMOTE_CODES = 9;
+
+    // A game that has not ended by then never will.
+    private static final long GIVE_UP_MILLIS = 60 * 60 * 1000;
+
+    public static final class Options {
+        public int players = 6;
+        public int questions = 20;
+        public int timeLimitSeconds = 20;
+        // Chance of a correct answer.
+        public double accuracy = 0.6;
+        // Answers and readies come after log-normal delays with these medians.
+        public long answerMedianMillis = 4000;
+        public double answerSpread = 0.6;
+        public long readyMedianMillis = 1500;
+        // Chance of using a powerup on each question while any are left.
+        public double powerupChance = 0.25;
+        // Settings the owner changes in the lobby, after log-normal gaps with this median.
+        public int settingChanges = 12;
+        public long settingMedianMillis = 200;
+        // Chance of sending a burst of up to emoteBurst emotes while each question is read, with
+        // log-normal gaps of this median between them.
+        public double emoteChance = 0.5;
+        public int emoteBurst = 8;
+        public long emoteMedianMillis = 80;
+        // Each message is delayed by the latency plus up to the jitter.
+        public long latencyMillis = 30;
+        public long jitterMillis = 60;
+    }
+
+    public static final class Result {
+        public final long seed;
+        // Whether every player reached game over.
+        public final boolean finished;
+        public final long simulatedMillis;
+        public final int eventsDelivered;
+        public final int answers;
+        public final int powerups;
+        // Emotes the room sent out, counting each of a batch.
+        public final int emotes;
+        // The room's final totals, in join order.
+        public final Map<String, Integer> totals;
+        public final List<String> violations;
+
+        Result(long seed, boolean finished, long simulatedMillis, int eventsDelivered, int answers, int powerups,
+               int emotes, Map<String, Integer> totals, List<String> violations) {
+            this.seed = seed;
+            this.finished = finished;
+            this.simulatedMillis = simulatedMillis;
+            this.eventsDelivered = eventsDelivered;
+            this.answers = answers;
+            this.powerups = powerups;
+            this.emotes = emotes;
+            this.totals = totals;
+            this.violations = violations;
+        }
+    }
+
+    private final Options options;
+    private final long seed;
+    private final Random random;
+    private final VirtualClock clock = new VirtualClock(0);
+    private final Room room;
+    private final List<Player> players = new ArrayList<>();
+    private final List<String> violations = new ArrayList<>();
+    private int eventsDelivered;
+
+    private GameSimulator(Options options, long seed) {
+        this.options = options;
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.room = new Room();
+    }
+
+    // Play one game to its end.
+    public static Result run(Options options, long seed) {
+        return new GameSimulator(options, seed).play();
+    }
+
+    private Result play() {
+        for (int p = 0; p < options.players; p++) {
+            players.add(new Player("player" + p, p == 0));
+        }
+        players.get(0).join();
+        while (clock.nextDueAt() >= 0 && clock.nextDueAt() <= GIVE_UP_MILLIS) {
+            clock.advanceTo(clock.nextDueAt());
+        }
+
+        boolean finished = true;
+        int powerups = 0;
+        for (Player player : players) {
+            player.checkEnd();
+            finished &= player.finished;
+            powerups += player.powerupsSent;
+            player.close();
+        }
+        return new Result(seed, finished, clock.elapsedMillis(), eventsDelivered, room.answers, powerups,
+                room.emotes, Collections.unmodifiableMap(room.totals()), Collections.unmodifiableList(violations));
+    }
+
+    private void violation(String message) {
+        violations.add("seed " + seed + " at " + clock.elapsedMillis() + " ms: " + message);
+    }
+
+    // A log-normal delay around median.
+    private static long delayMillis(Random random, long median, double spread) {
+        return (long) (median * Math.exp(spread * random.nextGaussian()));
+    }
+
+    // One direction of one player's socket: each message is delayed, but never overtakes the
+    // one sent before it.
+    private final class Channel {
+        private final Random jitter = new Random(random.nextLong());
+        private long lastAt;
+
+        void send(Runnable message) {
+            long at = Math.max(lastAt, clock.elapsedMillis() + options.latencyMillis
+                    + (options.jitterMillis > 0 ? (long) jitter.nextInt((int) options.jitterMillis + 1) : 0));
+            lastAt = at;
+            clock.schedule(message, at - clock.elapsedMillis());
+        }
+    }
+
+    // The server's side of the room.
+    private final class Room {
+        private final Map<String, Member> members = new LinkedHashMap<>();
+        private final Random questions = new Random(random.nextLong());
+        // The room's totals after each scoreboard.
+        private final List<Map<String, Integer>> rounds = new ArrayList<>();
+        private final List<Action> actions = new ArrayList<>();
+        private long seq;
+        private int asked;
+        private int answers;
+        private int emotes;
+        // Emotes sent out before the last scoreboard, which every client is still in the room for.
+        private int emotesInGame;
+        private boolean started;
+        // The room's settings, which the game is played with.
+        private boolean isPublic;
+        private String difficulty = "easy";
+        private int maxPlayers = 6;
+        private int timeLimit = options.timeLimitSeconds;
+        private int total = options.questions;
+
+        void handle(String username, String event, Map<String, Object> fields) {
+            Member member = members.get(username);
+            try {
+                switch (event) {
+                    case "joinRoom":
+                        join(username);
+                        break;
+                    case "readyToStartGame":
+                        member.ready = true;
+                        broadcast("playerReadyToStartGame", new JSONObject().put("playerUsername", username), null);
+                        break;
+                    case "changeSetting":
+                        if (changing(username, member)) {
+                            String option = (String) fields.get("settingOption");
+                            applySetting(username, option, fields.get("optionValue"));
+                            broadcast("changedSetting", new JSONObject()
+                                    .put("settingOption", option)
+                                    .put("optionValue", fields.get("optionValue")), null);
+                        }
+                        break;
+                    case "changeSettings":
+                        if (changing(username, member)) {
+                            JSONObject settings = (JSONObject) fields.get("settings");
+                            Iterator<String> changed = settings.keys();
+                            while (changed.hasNext()) {
+                                String option = changed.next();
+                                applySetting(username, option, settings.get(option));
+                            }
+                            broadcast("changedSettings", new JSONObject().put("settings", settings), null);
+                        }
+                        break;
+                    case "startGame":
+                        if (member != owner()) {
+                            violation(username + " started a room it does not own");
+                        } else if (!started) {
+                            started = true;
+                            sendQuestion();
+                        }
+                        break;
+                    case "submitAnswer":
+                        submitAnswer(username, member, fields);
+                        break;
+                    case "submitEmote":
+                        emoted(username, member, ((Number) fields.get("emoteCode")).intValue(), 1);
+                        break;
+                    case "submitEmotes":
+                        JSONArray emoteCodes = (JSONArray) fields.get("emoteCodes");
+                        emoted(username, member, emoteCodes.getInt(emoteCodes.length() - 1), emoteCodes.length());
+                        break;
+                    case "leaveRoom":
+                        break;
+                    default:
+                        violation(username + " sent " + event);
+                }
+            } catch (JSONException e) {
+                violation("Could not build a payload for " + event + ": " + e);
+            }
+        }
+
+        // Send a new connection the server's capabilities, as server.js does on connecting.
+        void connect(String username) {
+            JSONArray features = new JSONArray();
+            for (String feature : FEATURES) {
+                features.put(feature);
+            }
+            try {
+                send(username, "capabilities", new JSONObject().put("features", features));
+            } catch (JSONException e) {
+                violation("Could not build the capabilities: " + e);
+            }
+        }
+
+        private Member owner() {
+            return members.values().iterator().next();
+        }
+
+        // Only the owner changes settings, and only in the lobby; a change still inside its
+        // window when the game starts must have gone out ahead of startGame.
+        private boolean changing(String username, Member member) {
+            if (member != owner()) {
+                violation(username + " changed the settings of a room it does not own");
+                return false;
+            }
+            if (started) {
+                violation(username + " changed the settings after the game started");
+            }
+            return true;
+        }
+
+        private void applySetting(String username, String option, Object value) {
+            switch (option) {
+                case "isPublic":
+                    isPublic = (Boolean) value;
+                    break;
+                case "difficulty":
+                    difficulty = (String) value;
+                    break;
+                case "maxPlayers":
+                    maxPlayers = ((Number) value).intValue();
+                    break;
+                case "timeLimit":
+                    timeLimit = ((Number) value).intValue();
+                    break;
+                case "total":
+                    total = ((Number) value).intValue();
+                    break;
+                default:
+                    violation(username + " changed " + option);
+            }
+        }
+
+        // A run of emotes goes out as one emoteReceived with its latest emote and its count.
+        // Emotes are not logged for replay, so they carry no sequence number.
+        private void emoted(String username, Member member, int emoteCode, int count) throws JSONException {
+            member.emotes += count;
+            emotes += count;
+            JSONObject payload = new JSONObject()
+                    .put("username", username)
+                    .put("emoteCode", emoteCode)
+                    .put("count", count);
+            for (Player player : players) {
+                if (members.containsKey(player.username)) {
+                    player.fromServer.send(() -> player.receive("emoteReceived", new Object[] {payload}));
+                }
+            }
+        }
+
+        private void join(String username) throws JSONException {
+            members.put(username, new Member());
+            JSONArray roomPlayers = new JSONArray();
+            for (Map.Entry<String, Member> entry : members.entrySet()) {
+                roomPlayers.put(new JSONObject()
+                        .put("username", entry.getKey())
+                        .put("rank", 0)
+                        .put("isReady", entry.getValue().ready));
+            }
+            JSONObject welcome = new JSONObject()
+                    .put("roomPlayers", roomPlayers)
+                    .put("roomSettings", new JSONObject()
+                            .put("roomIsPublic", isPublic)
+                            .put("questionCategories", new JSONArray().put("General Knowledge"))
+                            .put("questionDifficulty", difficulty)
+                            .put("maxPlayers", maxPlayers)
+                            .put("questionTime", timeLimit)
+                            .put("totalQuestions", total))
+                    .put("possibleCategories", new JSONArray().put("General Knowledge"))
+                    .put("roomCode", "SIMULA");
+            send(username, "welcomeNewPlayer", welcome);
+            send(username, "sessionResumable", new JSONObject().put("resumeToken", "resume-" + username).put("seq", seq));
+            broadcast("playerJoined", new JSONObject().put("newPlayerUsername", username).put("newPlayerRank", 0),
+                    username);
+        }
+
+        private void sendQuestion() throws JSONException {
+            asked++;
+            actions.clear();
+            for (Member member : members.values()) {
+                member.answered = false;
+            }
+            long countdownEndsAt = clock.elapsedMillis() + GameState.QUESTION_COUNTDOWN_MILLIS;
+            long readingEndsAt = countdownEndsAt + GameState.QUESTION_READING_MILLIS;
+            broadcast("startQuestion", new JSONObject()
+                    .put("question", "Question " + asked)
+                    .put("answers", new JSONArray().put("A").put("B").put("C").put("D"))
+                    .put("correctIndex", questions.nextInt(GameSnapshot.Question.ANSWERS))
+                    .put("countdownEndsAt", countdownEndsAt)
+                    .put("readingEndsAt", readingEndsAt)
+                    .put("answeringEndsAt", readingEndsAt + timeLimit * 1000L), null);
+        }
+
+        private void submitAnswer(String username, Member member, Map<String, Object> fields) throws JSONException {
+            if (asked == 0 || member.answered) {
+                violation(username + " answered question " + asked + " twice");
+                return;
+            }
+            member.answered = true;
+            answers++;
+            int powerupCode = ((Number) fields.get("powerupCode")).intValue();
+            String victim = (String) fields.get("powerupVictimUsername");
+            if (powerupCode >= 0 && !member.powerupsUsed.add(powerupCode)) {
+                violation(username + " used powerup " + powerupCode + " twice");
+            }
+            if (powerupCode == GameState.STEAL_POINTS && (!members.containsKey(victim) || victim.equals(username))) {
+                violation(username + " stole from " + victim);
+                powerupCode = -1;
+            }
+            broadcast("answerReceived", new JSONObject().put("playerUsername", username), username);
+            actions.add(new Action(username, ((Number) fields.get("timeDelay")).longValue(),
+                    (Boolean) fields.get("isCorrect"), powerupCode, victim));
+            if (actions.size() == members.size()) {
+                showScoreboard();
+            }
+        }
+
+        // GameManager.calculateScore.
+        private void showScoreboard() throws JSONException {
+            long maxTime = timeLimit * 1000L;
+            Map<String, Integer> scores = new LinkedHashMap<>();
+            Map<String, Integer> stolen = new LinkedHashMap<>();
+            Map<String, List<String>> thieves = new LinkedHashMap<>();
+            for (Action action : actions) {
+                scores.put(action.username, 0);
+                stolen.put(action.username, 0);
+                thieves.put(action.username, new ArrayList<String>());
+            }
+            for (Action action : actions) {
+                if (action.isCorrect && action.powerupCode != GameState.FREE_LUNCH) {
+                    double mark = action.timeDelay > maxTime ? 0 : (double) (maxTime - action.timeDelay) / maxTime;
+                    long score = Math.round(mark * MAX_SCORE) * (action.powerupCode == GameState.DOUBLE_POINTS ? 2 : 1);
+                    scores.put(action.username, (int) score);
+                }
+            }
+            int lowest = Integer.MAX_VALUE;
+            for (int score : scores.values()) {
+                if (score > 0) {
+                    lowest = Math.min(lowest, score);
+                }
+            }
+            for (Action action : actions) {
+                if (action.powerupCode == GameState.FREE_LUNCH) {
+                    scores.put(action.username, lowest == Integer.MAX_VALUE ? 0 : lowest);
+                }
+            }
+            for (Action action : actions) {
+                if (action.powerupCode == GameState.STEAL_POINTS) {
+                    thieves.get(action.victim).add(action.username);
+                }
+            }
+            Set<String> robbed = new HashSet<>();
+            for (Map.Entry<String, List<String>> victim : thieves.entrySet()) {
+                if (victim.getValue().isEmpty()) {
+                    continue;
+                }
+                int taken = scores.get(victim.getKey());
+                for (String thief : victim.getValue()) {
+                    stolen.put(thief, stolen.get(thief) + taken / victim.getValue().size());
+                }
+                stolen.put(victim.getKey(), stolen.get(victim.getKey()) - taken);
+                robbed.add(victim.getKey());
+            }
+
+            JSONArray board = new JSONArray();
+            for (Map.Entry<String, Member> entry : members.entrySet()) {
+                int earned = scores.get(entry.getKey()) + stolen.get(entry.getKey());
+                entry.getValue().total += earned;
+                board.put(new JSONObject()
+                        .put("username", entry.getKey())
+                        .put("pointsEarned", earned)
+                        .put("updatedTotalPoints", entry.getValue().total)
+                        .put("stolenPoints", robbed.contains(entry.getKey())));
+            }
+            rounds.add(totals());
+            if (asked == total) {
+                emotesInGame = emotes;
+            }
+            broadcast("showScoreboard", new JSONObject().put("scores", board), null);
+            if (asked < total) {
+                clock.schedule(() -> {
+                    try {
+                        sendQuestion();
+                    } catch (JSONException e) {
+                        violation("Could not build a question: " + e);
+                    }
+                }, SHOW_SCOREBOARD_MILLIS);
+            }
+        }
+
+        Map<String, Integer> totals() {
+            Map<String, Integer> totals = new LinkedHashMap<>();
+            for (Map.Entry<String, Member> entry : members.entrySet()) {
+                totals.put(entry.getKey(), entry.getValue().total);
+            }
+            return totals;
+        }
+
+        int readyCount() {
+            int ready = 0;
+            for (Member member : members.values()) {
+                if (member.ready) {
+                    ready++;
+                }
+            }
+            return ready;
+        }
+
+        private void broadcast(String event, JSONObject payload, String exceptUsername) {
+            long stamp = ++seq;
+            for (Player player : players) {
+                if (members.containsKey(player.username) && !player.username.equals(exceptUsername)) {
+                    player.fromServer.send(() -> player.receive(event, new Object[] {payload, stamp}));
+                }
+            }
+        }
+
+        private void send(String username, String event, JSONObject payload) {
+            for (Player player : players) {
+                if (player.username.equals(username)) {
+                    player.fromServer.send(() -> player.receive(event, new Object[] {payload}));
+                }
+            }
+        }
+    }
+
+    private static final class Member {
+        boolean ready;
+        boolean answered;
+        int total;
+        int emotes;
+        final Set<Integer> powerupsUsed = new HashSet<>();
+    }
+
+    private static final class Action {
+        final String username;
+        final long timeDelay;
+        final boolean isCorrect;
+        final int powerupCode;
+        final String victim;
+
+        Action(String username, long timeDelay, boolean isCorrect, int powerupCode, String victim) {
+            this.username = username;
+            this.timeDelay = timeDelay;
+            this.isCorrect = isCorrect;
+            this.powerupCode = powerupCode;
+            this.victim = victim;
+        }
+    }
+
+    // One player: their game, as the app runs it, and a script standing in for their taps.
+    private final class Player implements GameStateListener, GamePlatform {
+        final String username;
+        final boolean owner;
+        final Channel toServer = new Channel();
+        final Channel fromServer = new Channel();
+        private final Random script = new Random(random.nextLong());
+        private final Random game = new Random(random.nextLong());
+        private final Executor direct = Runnable::run;
+        private final GameConnection connection;
+        private final GameState gameState;
+        private boolean invited;
+        private boolean readied;
+        private boolean started;
+        private boolean finished;
+        private int powerupQuestion;
+        private int answerQuestion;
+        private int powerupsSent;
+        // Emotes the rate limit let through.
+        private int emotesSent;
+        // Steals with nobody to steal from, which the app turns back into no powerup.
+        private int cancelledSteals;
+
+        Player(String username, boolean owner) {
+            this.username = username;
+            this.owner = owner;
+            this.connection = GameConnection.offline(username + "-token", clock,
+                    (event, fields) -> toServer.send(() -> room.handle(username, event, fields)));
+            this.gameState = new GameState(this, this, new GameConstants(username + "-token", username, "room", owner));
+        }
+
+        void join() {
+            room.connect(username);
+            gameState.startSession();
+        }
+
+        void receive(String event, Object[] args) {
+            eventsDelivered++;
+            connection.deliver(event, args);
+        }
+
+        void close() {
+            if (!finished) {
+                gameState.leaveRoom();
+            }
+            connection.close();
+        }
+
+        void checkEnd() {
+            GameSnapshot snapshot = gameState.snapshot();
+            if (!finished) {
+                violation(username + " never reached game over");
+            } else if (snapshot.question == null || snapshot.question.number != room.total) {
+                violation(username + " finished on question "
+                        + (snapshot.question == null ? 0 : snapshot.question.number));
+            }
+            Member member = room.members.get(username);
+            int used = member == null ? 0 : member.powerupsUsed.size();
+            if (used != powerupsSent) {
+                violation(username + " sent " + powerupsSent + " powerups but the room saw " + used);
+            }
+            if (gameState.remainingPowerups.size() + powerupsSent != 5 - cancelledSteals) {
+                violation(username + " has " + gameState.remainingPowerups.size() + " powerups left after using "
+                        + powerupsSent);
+            }
+            int seen = member == null ? 0 : member.emotes;
+            if (seen != emotesSent) {
+                violation(username + " sent " + emotesSent + " emotes but the room saw " + seen);
+            }
+            // Emotes flushed as players leave may reach a player that has already left.
+            long received = gameState.emoteBoard.metrics().received;
+            if (received < room.emotesInGame || received > room.emotes) {
+                violation(username + " received " + received + " emotes; the room sent " + room.emotesInGame
+                        + " before the last scoreboard and " + room.emotes + " in all");
+            }
+        }
+
+        // GAME STATE LISTENER
+
+        @Override
+        public void youLeft(String reason) {
+            violation(username + " was removed: " + reason);
+        }
+
+        @Override
+        public void creatorLeft() {
+            violation(username + " saw the owner leave");
+        }
+
+        // Acted on once the event that changed the region has been handled, as a frame would.
+        @Override
+        public void regionChanged(RenderLoop.Region region) {
+            switch (region) {
+                case ROSTER:
+                    clock.schedule(this::rosterChanged, 0);
+                    break;
+                case SCREEN:
+                    clock.schedule(this::screenChanged, 0);
+                    break;
+                case SCOREBOARD:
+                    clock.schedule(this::scoreboardShown, 0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Everyone but the owner must be in and ready before a question can be asked, and must
+        // be playing with the room's settings.
+        @Override
+        public void questionReceived(GameSnapshot.Question question) {
+            GameSnapshot snapshot = gameState.snapshot();
+            RoomRoster.Snapshot roster = snapshot.roster;
+            if (question.number != 1) {
+                return;
+            }
+            if (roster.players != options.players || roster.readyCount != options.players - 1) {
+                violation(username + " started with " + roster.players + " players, " + roster.readyCount
+                        + " ready; the room has " + room.members.size() + ", " + room.readyCount() + " ready");
+            }
+            GameSnapshot.Settings settings = snapshot.settings;
+            String difficulty = room.difficulty.substring(0, 1).toUpperCase() + room.difficulty.substring(1);
+            if (settings.isPublic != room.isPublic || !settings.difficulty.equals(difficulty)
+                    || settings.maxPlayers != room.maxPlayers || settings.questionTime != room.timeLimit
+                    || settings.questionCount != room.total) {
+                violation(username + " started with public " + settings.isPublic + ", " + settings.difficulty
+                        + ", " + settings.maxPlayers + " players, " + settings.questionTime + " s, "
+                        + settings.questionCount + " questions; the room has public " + room.isPublic + ", "
+                        + difficulty + ", " + room.maxPlayers + " players, " + room.timeLimit + " s, "
+                        + room.total + " questions");
+            }
+        }
+
+        @Override
+        public void errorReceived(String message) {
+            violation(username + " got an error: " + message);
+        }
+
+        // SCRIPT
+
+        private void rosterChanged() {
+            RoomRoster.Snapshot roster = gameState.snapshot().roster;
+            // The owner creates the room; once it is in, the others join one after another.
+            if (owner && !invited && roster.seatOf(username) >= 0) {
+                invited = true;
+                for (int p = 1; p < players.size(); p++) {
+                    clock.schedule(players.get(p)::join, p * 1000L);
+                }
+                long at = 0;
+                for (int c = 0; c < options.settingChanges; c++) {
+                    at += delayMillis(script, options.settingMedianMillis, 1.0);
+                    clock.schedule(this::changeSetting, at);
+                }
+            }
+            if (!owner && !readied && roster.seatOf(username) >= 0) {
+                readied = true;
+                clock.schedule(gameState::readyUp, delayMillis(script, options.readyMedianMillis, 0.5));
+            }
+            if (owner && !started && roster.players == options.players && roster.canStart) {
+                started = true;
+                // Whatever it scrolled through, the owner plays the game it was asked to. These
+                // two may still be in their window when startGame goes out.
+                gameState.chooseTimeLimit(options.timeLimitSeconds);
+                gameState.chooseQuestionCount(options.questions);
+                gameState.startGame();
+            }
+        }
+
+        private void changeSetting() {
+            if (started) {
+                return;
+            }
+            switch (script.nextInt(5)) {
+                case 0:
+                    gameState.chooseRoomPublicity(script.nextBoolean());
+                    break;
+                case 1:
+                    gameState.chooseQuestionDifficulty(DIFFICULTIES[script.nextInt(DIFFICULTIES.length)]);
+                    break;
+                case 2:
+                    gameState.chooseMaxPlayers(2 + script.nextInt(5));
+                    break;
+                case 3:
+                    gameState.chooseTimeLimit(TIME_LIMITS[script.nextInt(TIME_LIMITS.length)]);
+                    break;
+                default:
+                    gameState.chooseQuestionCount(QUESTION_COUNTS[script.nextInt(QUESTION_COUNTS.length)]);
+            }
+        }
+
+        private void screenChanged() {
+            GameSnapshot.Question question = gameState.snapshot().question;
+            if (finished || question == null) {
+                return;
+            }
+            PhaseScheduler.Phase phase = gameState.phaseScheduler.phase();
+            if (phase == PhaseScheduler.Phase.READING && powerupQuestion != question.number) {
+                powerupQuestion = question.number;
+                List<Integer> remaining = gameState.remainingPowerups;
+                if (!remaining.isEmpty() && script.nextDouble() < options.powerupChance) {
+                    usePowerup(remaining.get(script.nextInt(remaining.size())));
+                }
+                if (script.nextDouble() < options.emoteChance) {
+                    long at = 0;
+                    for (int e = 1 + script.nextInt(options.emoteBurst); e > 0; e--) {
+                        at += delayMillis(script, options.emoteMedianMillis, 1.0);
+                        clock.schedule(this::emote, at);
+                    }
+                }
+            } else if (phase == PhaseScheduler.Phase.ANSWERING && answerQuestion != question.number) {
+                answerQuestion = question.number;
+                int number = question.number;
+                clock.schedule(() -> answer(number),
+                        delayMillis(script, options.answerMedianMillis, options.answerSpread));
+            }
+        }
+
+        private void emote() {
+            if (!finished && gameState.submitEmote(script.nextInt(EMOTE_CODES))) {
+                emotesSent++;
+            }
+        }
+
+        private void usePowerup(int code) {
+            gameState.usePowerup(code);
+            if (code == GameState.STEAL_POINTS) {
+                List<String> others = gameState.snapshot().roster.usernamesExcept(username);
+                if (others.isEmpty()) {
+                    gameState.powerupCode = -1;
+                    cancelledSteals++;
+                    return;
+                }
+                gameState.powerupVictimUsername = others.get(script.nextInt(others.size()));
+            }
+            powerupsSent++;
+        }
+
+        private void answer(int number) {
+            GameSnapshot.Question question = gameState.snapshot().question;
+            // Time ran out, or free lunch answered already.
+            if (finished || question == null || question.number != number
+                    || gameState.phaseScheduler.phase() != PhaseScheduler.Phase.ANSWERING) {
+                return;
+            }
+            int choice = choose(question);
+            // An extra life hides a wrong answer and lets the player choose again.
+            if (choice != question.correctAnswer && gameState.extraLifeEnabled) {
+                gameState.extraLifeEnabled = false;
+                choice = choose(question);
+            }
+            gameState.submitAnswer(choice);
+        }
+
+        private int choose(GameSnapshot.Question question) {
+            if (script.nextDouble() < options.accuracy) {
+                return question.correctAnswer;
+            }
+            int choice;
+            do {
+                choice = script.nextInt(GameSnapshot.Question.ANSWERS);
+            } while (choice == question.correctAnswer || choice == gameState.hiddenIndex1
+                    || choice == gameState.hiddenIndex2);
+            return choice;
+        }
+
+        // The client's standing must be the room's, ranked highest total first and equal totals
+        // in username order.
+        private void scoreboardShown() {
+            GameSnapshot snapshot = gameState.snapshot();
+            ScoreRanking.Standing standing = snapshot.standing;
+            int round = snapshot.question.number;
+            Map<String, Integer> totals = room.rounds.get(round - 1);
+            int total = totals.get(username);
+            int rank = 0;
+            for (Map.Entry<String, Integer> other : totals.entrySet()) {
+                if (other.getValue() > total || (other.getValue() == total && other.getKey().compareTo(username) < 0)) {
+                    rank++;
+                }
+            }
+            if (standing == null || standing.self.updatedTotalPoints != total || standing.rank != rank
+                    || standing.players != totals.size()) {
+                violation(username + " after question " + round + " has "
+                        + (standing == null ? "no standing" : "rank " + standing.rank + " with "
+                        + standing.self.updatedTotalPoints) + "; the room has rank " + rank + " with " + total);
+            }
+            if (snapshot.gameOver) {
+                finished = true;
+            }
+        }
+
+        // PLATFORM
+
+        @Override
+        public MonotonicClock clock() {
+            return clock;
+        }
+
+        @Override
+        public Executor mainThread() {
+            return direct;
+        }
+
+        @Override
+        public PhaseScheduler.Ticker mainThreadTicker() {
+            return clock;
+        }
+
+        @Override
+        public Random random() {
+            return game;
+        }
+
+        @Override
+        public Executor gameEvents() {
+            return direct;
+        }
+
+        @Override
+        public GameConnection connection(String sessionToken) {
+            return connection;
+        }
+
+        @Override
+        public TrafficRecorder trafficRecorder(GameConstants gameConstants) {
+            return TrafficRecorder.NONE;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.aava.cpen321project;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TypedSocketManagerListener that records every decoded record it receives, in order.
+ */
+public class RecordingListener implements TypedSocketManagerListener {
+
+    public final List<Object> received = new ArrayList<>();
+
+    public Object last() {
+        return received.isEmpty() ? null : received.get(received.size() - 1);
+    }
+
+    @Override
+    public void youJoined(RoomSnapshot room) {
+        received.add(room);
+    }
+
+    @Override
+    public void youLeft(String reason) {
+        received.add("youLeft:" + reason);
+    }
+
+    @Override
+    public void otherPlayerJoined(PlayerDelta player) {
+        received.add(player);
+    }
+
+    @Override
+    public void otherPlayerLeft(PlayerDelta player) {
+        received.add(player);
+    }
+
+    @Override
+    public void creatorLeft() {
+        received.add("creatorLeft");
+    }
+
+    @Override
+    public void settingChanged(SettingChange setting) {
+        received.add(setting);
+    }
+
+    @Override
+    public void otherPlayerReadied(PlayerDelta player) {
+        received.add(player);
+    }
+
+    @Override
+    public void questionReceived(QuestionEvent question) {
+        received.add(question);
+    }
+
+    @Override
+    public void otherPlayerAnswered(PlayerDelta player) {
+        received.add(player);
+    }
+
+    @Override
+    public void otherPlayerEmoted(PlayerDelta emote) {
+        received.add(emote);
+    }
+
+    @Override
+    public void scoreboardReceived(ScoreboardEvent scoreboard) {
+        received.add(scoreboard);
+    }
+
+    @Override
+    public void errorReceived(String message) {
+        received.add("error:" + message);
+    }
+}
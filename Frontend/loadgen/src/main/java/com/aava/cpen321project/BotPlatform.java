@@ -0,0 +1,219 @@
+package com.aava.cpen321project;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.socket.client.IO;
+import io.socket.engineio.client.transports.WebSocket;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+
+// One bot's platform. A bot's "main thread" is a serial queue on a pool shared by every bot, and
+// its ticks and room events run on shared pools too, so thousands of bots need only a handful of
+// threads besides their sockets'.
+public class BotPlatform implements GamePlatform {
+
+    private static final String TAG = "BotPlatform";
+
+    private final String serverUrl;
+    private final OkHttpClient client;
+    private final ScheduledExecutorService timers;
+    private final Executor gameEvents;
+    // Null unless the bot's traffic is recorded.
+    private final File recordDir;
+    private final SerialExecutor mainThread;
+    private final PhaseScheduler.Ticker ticker = new PhaseScheduler.Ticker() {
+        // Guarded by itself. A tick that fires after being cancelled or rescheduled is skipped,
+        // as a Handler would have removed it.
+        private final Map<Runnable, ScheduledFuture<?>> pending = new HashMap<>();
+
+        // ChatGPT usage: No
+        @Override
+        public void schedule(Runnable tick, long delayMillis) {
+            synchronized (pending) {
+                ScheduledFuture<?>[] scheduled = new ScheduledFuture<?>[1];
+                scheduled[0] = timers.schedule(() -> mainThread.execute(() -> {
+                    synchronized (pending) {
+                        if (pending.get(tick) != scheduled[0]) {
+                            return;
+                        }
+                        pending.remove(tick);
+                    }
+                    tick.run();
+                }), delayMillis, TimeUnit.MILLISECONDS);
+                ScheduledFuture<?> replaced = pending.put(tick, scheduled[0]);
+                if (replaced != null) {
+                    replaced.cancel(false);
+                }
+            }
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void cancel(Runnable tick) {
+            synchronized (pending) {
+                ScheduledFuture<?> scheduled = pending.remove(tick);
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+            }
+        }
+    };
+
+    // Guarded by this.
+    private GameConnection connection;
+
+    // ChatGPT usage: No
+    public BotPlatform(String serverUrl, OkHttpClient client, ScheduledExecutorService timers, Executor bots) {
+        this(serverUrl, client, timers, bots, null);
+    }
+
+    // As above, recording the bot's traffic into recordDir.
+    // ChatGPT usage: No
+    public BotPlatform(String serverUrl, OkHttpClient client, ScheduledExecutorService timers, Executor bots,
+                       File recordDir) {
+        this.serverUrl = serverUrl;
+        this.recordDir = recordDir;
+        this.client = client;
+        this.timers = timers;
+        this.gameEvents = bots;
+        this.mainThread = new SerialExecutor(bots);
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public MonotonicClock clock() {
+        return MonotonicClock.SYSTEM;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public PhaseScheduler.Ticker mainThreadTicker() {
+        return ticker;
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public Random random() {
+        return new Random();
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public Executor gameEvents() {
+        return gameEvents;
+    }
+
+    // Each bot has a connection of its own, on the shared client and clock sync scheduler. It
+    // goes straight to a WebSocket, skipping the long-polling handshake, so a bot holds one
+    // socket and no polling request.
+    // ChatGPT usage: No
+    @Override
+    public synchronized GameConnection connection(String sessionToken) {
+        if (connection == null) {
+            IO.Options options = GameConnection.options(sessionToken);
+            options.callFactory = (Call.Factory) client;
+            options.webSocketFactory = (okhttp3.WebSocket.Factory) client;
+            options.transports = new String[] {WebSocket.NAME};
+            connection = new GameConnection(serverUrl, sessionToken, options, timers);
+        }
+        return connection;
+    }
+
+    // One log per bot and room, named after both.
+    // ChatGPT usage: No
+    @Override
+    public TrafficRecorder trafficRecorder(GameConstants gameConstants) {
+        if (recordDir == null) {
+            return TrafficRecorder.NONE;
+        }
+        File file = new File(recordDir, gameConstants.username + "-" + gameConstants.roomId + ".ktrf");
+        try {
+            return TrafficLog.Writer.open(file, clock(), gameConstants);
+        } catch (IOException e) {
+            GameLog.e(TAG, "Could not record traffic to " + file, e);
+            return TrafficRecorder.NONE;
+        }
+    }
+
+    // Run work on the bot's main thread after a delay.
+    // ChatGPT usage: No
+    public void schedule(Runnable work, long delayMillis) {
+        timers.schedule(() -> mainThread.execute(work), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ChatGPT usage: No
+    public synchronized void close() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+    }
+
+    // Runs tasks one at a time, in order, on a shared executor. Like the Android main thread,
+    // a task submitted from one of its own tasks runs straight away.
+    static final class SerialExecutor implements Executor {
+        private final Executor executor;
+        // Guarded by tasks.
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean draining;
+        private volatile Thread current;
+
+        // ChatGPT usage: No
+        SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        // ChatGPT usage: No
+        @Override
+        public void execute(Runnable task) {
+            if (current == Thread.currentThread()) {
+                task.run();
+                return;
+            }
+            synchronized (tasks) {
+                tasks.add(task);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        // ChatGPT usage: No
+        private void drain() {
+            current = Thread.currentThread();
+            while (true) {
+                Runnable task;
+                synchronized (tasks) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        current = null;
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    GameLog.e(TAG, "Bot task failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.aava.cpen321project;
+
+import java.util.Random;
+
+// How a bot plays: how often it answers correctly, how long it takes, and how often it uses
+// powerups and sends emotes. Delays are drawn from log-normal distributions around a median, as
+// human reaction times are, and emotes arrive as a Poisson process.
+public class BotProfile {
+
+    // The emotes a player can send, as in the app's emote menu.
+    public static final int EMOTE_CODES = 9;
+
+    // The chance of answering a question correctly.
+    public final double accuracy;
+    // From the answers being shown to the answer being sent.
+    public final long answerMedianMillis;
+    // Standard deviation of the delay's logarithm; 0 for a fixed delay.
+    public final double answerSpread;
+    // From joining the room to readying up.
+    public final long readyMedianMillis;
+    // The chance of using a powerup on a question, while any are left.
+    public final double powerupChance;
+    public final double emotesPerMinute;
+
+    // ChatGPT usage: No
+    public BotProfile(double accuracy, long answerMedianMillis, double answerSpread, long readyMedianMillis,
+                      double powerupChance, double emotesPerMinute) {
+        this.accuracy = accuracy;
+        this.answerMedianMillis = answerMedianMillis;
+        this.answerSpread = answerSpread;
+        this.readyMedianMillis = readyMedianMillis;
+        this.powerupChance = powerupChance;
+        this.emotesPerMinute = emotesPerMinute;
+    }
+
+    // ChatGPT usage: No
+    public boolean answersCorrectly(Random random) {
+        return random.nextDouble() < accuracy;
+    }
+
+    // ChatGPT usage: No
+    public long answerDelayMillis(Random random) {
+        return logNormal(random, answerMedianMillis, answerSpread);
+    }
+
+    // ChatGPT usage: No
+    public long readyDelayMillis(Random random) {
+        return logNormal(random, readyMedianMillis, 0.5);
+    }
+
+    // ChatGPT usage: No
+    public boolean usesPowerup(Random random) {
+        return random.nextDouble() < powerupChance;
+    }
+
+    // The time until the next emote, or -1 if the bot never sends any.
+    // ChatGPT usage: No
+    public long nextEmoteMillis(Random random) {
+        if (emotesPerMinute <= 0) {
+            return -1;
+        }
+        return (long) (-Math.log(1 - random.nextDouble()) * 60_000 / emotesPerMinute);
+    }
+
+    // ChatGPT usage: No
+    private static long logNormal(Random random, long median, double spread) {
+        return Math.round(median * Math.exp(spread * random.nextGaussian()));
+    }
+}
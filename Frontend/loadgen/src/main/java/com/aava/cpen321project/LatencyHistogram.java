@@ -0,0 +1,93 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// A latency distribution in milliseconds, kept in log-linear buckets: exact below 64ms, and
+// within about 3% above, at a fixed size however many samples are recorded. Safe to record into
+// from any thread.
+public class LatencyHistogram {
+
+    // Linear buckets per power of two, above the exact range.
+    private static final int SUB_BUCKETS = 32;
+    private static final int EXACT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = EXACT + (63 - 6) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    // ChatGPT usage: No
+    public synchronized void record(long millis) {
+        long value = Math.max(0, millis);
+        counts[bucket(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    // ChatGPT usage: No
+    public synchronized long count() {
+        return count;
+    }
+
+    // ChatGPT usage: No
+    public synchronized long max() {
+        return max;
+    }
+
+    // ChatGPT usage: No
+    public synchronized long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    // The latency at or under which the given percentage of samples fall, as the top of its
+    // bucket; 0 if nothing was recorded.
+    // ChatGPT usage: No
+    public synchronized long percentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(highest(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    // ChatGPT usage: No
+    public synchronized JSONObject toJson() throws JSONException {
+        return new JSONObject()
+                .put("count", count)
+                .put("mean", mean())
+                .put("p50", percentile(50))
+                .put("p90", percentile(90))
+                .put("p99", percentile(99))
+                .put("max", max);
+    }
+
+    // ChatGPT usage: No
+    static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+        return EXACT + (shift - 1) * SUB_BUCKETS + (int) (value >> shift) - SUB_BUCKETS;
+    }
+
+    // The largest value that falls in a bucket.
+    // ChatGPT usage: No
+    static long highest(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT) / SUB_BUCKETS + 1;
+        long mantissa = (bucket - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
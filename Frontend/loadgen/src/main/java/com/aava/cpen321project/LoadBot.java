@@ -0,0 +1,303 @@
+package com.aava.cpen321project;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// A headless player. It plays a game through its own GameState, as GameActivity does: it readies
+// up, or starts the game once the room is full if it owns the room, answers each question after
+// a delay drawn from its profile, uses powerups and sends emotes. Along the way it records how
+// long the server took to answer each step.
+//
+// Every callback is moved onto the bot's main thread, where its GameState's answer and powerup
+// state live.
+public class LoadBot implements GameStateListener {
+
+    private static final String TAG = "LoadBot";
+
+    // Latencies, in milliseconds, recorded into the run's metrics.
+    static final String JOIN_LATENCY = "joinRoom -> welcomeNewPlayer";
+    static final String START_LATENCY = "startGame -> startQuestion";
+    static final String ROUND_LATENCY = "startQuestion -> showScoreboard";
+    static final String ANSWER_LATENCY = "submitAnswer -> showScoreboard";
+
+    public final String username;
+    private final String token;
+    private final BotProfile profile;
+    private final Random random;
+    private final BotPlatform platform;
+    private final LoadMetrics metrics;
+    private final MonotonicClock clock = MonotonicClock.SYSTEM;
+    private final CountDownLatch joined = new CountDownLatch(1);
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private String sessionToken;
+    private GameState gameState;
+    private boolean owner;
+    private int roomSize;
+    private int questionCount;
+    private volatile long startSentAt;
+    private volatile long questionReceivedAt;
+
+    // Confined to the main thread.
+    private long joinSentAt;
+    private long answerSentAt;
+    private boolean inRoom;
+    private boolean started;
+    private boolean done;
+    private int powerupQuestion;
+    private int answerQuestion;
+
+    // ChatGPT usage: No
+    public LoadBot(String username, String token, BotProfile profile, Random random, BotPlatform platform,
+                   LoadMetrics metrics) {
+        this.username = username;
+        this.token = token;
+        this.profile = profile;
+        this.random = random;
+        this.platform = platform;
+        this.metrics = metrics;
+    }
+
+    // Sign in over REST. Blocks.
+    // ChatGPT usage: No
+    public String login(ServerApi api) throws IOException {
+        sessionToken = api.login(token, username);
+        return sessionToken;
+    }
+
+    // Join the room over the game socket. An owner starts the game once roomSize players are
+    // in and ready, after setting the number of questions if questionCount is positive.
+    // ChatGPT usage: No
+    public void play(String roomId, boolean owner, int roomSize, int questionCount) {
+        this.owner = owner;
+        this.roomSize = roomSize;
+        this.questionCount = questionCount;
+        gameState = new GameState(this, platform, new GameConstants(sessionToken, username, roomId, owner));
+        platform.mainThread().execute(() -> joinSentAt = clock.elapsedMillis());
+        gameState.startSession();
+    }
+
+    // The room's code once the bot is in it, or null if it was not let in in time.
+    // ChatGPT usage: No
+    public String awaitRoomCode(long timeoutMillis) throws InterruptedException {
+        if (!joined.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        return gameState.snapshot().settings.roomCode;
+    }
+
+    // Whether the game ended, for this bot, within the timeout.
+    // ChatGPT usage: No
+    public boolean awaitFinished(long timeoutMillis) throws InterruptedException {
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Leave the room if still in it, and close the bot's socket.
+    // ChatGPT usage: No
+    public void close() {
+        if (gameState != null && finished.getCount() > 0) {
+            gameState.leaveRoom();
+        }
+        platform.close();
+    }
+
+    // GAME STATE CALLBACKS
+
+    // ChatGPT usage: No
+    @Override
+    public void youLeft(String reason) {
+        platform.mainThread().execute(() -> finish("removed"));
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void creatorLeft() {
+        platform.mainThread().execute(() -> finish("roomClosed"));
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void regionChanged(RenderLoop.Region region) {
+        switch (region) {
+            case ROSTER:
+                platform.mainThread().execute(this::rosterChanged);
+                break;
+            case SCREEN:
+                platform.mainThread().execute(this::screenChanged);
+                break;
+            case SCOREBOARD:
+                platform.mainThread().execute(this::scoreboardShown);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Called on the game event thread, as soon as the question is decoded.
+    // ChatGPT usage: No
+    @Override
+    public void questionReceived(GameSnapshot.Question question) {
+        long now = clock.elapsedMillis();
+        questionReceivedAt = now;
+        if (owner && question.number == 1) {
+            metrics.record(START_LATENCY, now - startSentAt);
+        }
+    }
+
+    // ChatGPT usage: No
+    @Override
+    public void errorReceived(String message) {
+        metrics.increment("serverErrors");
+        GameLog.d(TAG, username + ": " + message);
+    }
+
+    // MAIN THREAD
+
+    // ChatGPT usage: No
+    private void rosterChanged() {
+        if (done) {
+            return;
+        }
+        GameSnapshot snapshot = gameState.snapshot();
+        if (!inRoom) {
+            inRoom = true;
+            metrics.record(JOIN_LATENCY, clock.elapsedMillis() - joinSentAt);
+            joined.countDown();
+            if (owner) {
+                if (questionCount > 0) {
+                    gameState.chooseQuestionCount(questionCount);
+                }
+            } else {
+                platform.schedule(this::readyUp, profile.readyDelayMillis(random));
+            }
+            scheduleEmote();
+        }
+        if (owner && !started && snapshot.roster.players == roomSize && snapshot.roster.canStart) {
+            started = true;
+            startSentAt = clock.elapsedMillis();
+            gameState.startGame();
+        }
+    }
+
+    // ChatGPT usage: No
+    private void readyUp() {
+        if (!done) {
+            gameState.readyUp();
+        }
+    }
+
+    // The question's phases: powerups can be used while it is read, and it is answered once the
+    // answers are shown.
+    // ChatGPT usage: No
+    private void screenChanged() {
+        GameSnapshot.Question question = gameState.snapshot().question;
+        if (done || question == null) {
+            return;
+        }
+        PhaseScheduler.Phase phase = gameState.phaseScheduler.phase();
+        if (phase == PhaseScheduler.Phase.READING && powerupQuestion != question.number) {
+            powerupQuestion = question.number;
+            if (profile.usesPowerup(random) && !gameState.remainingPowerups.isEmpty()) {
+                usePowerup();
+            }
+        } else if (phase == PhaseScheduler.Phase.ANSWERING && answerQuestion != question.number) {
+            answerQuestion = question.number;
+            int number = question.number;
+            platform.schedule(() -> answer(number), profile.answerDelayMillis(random));
+        }
+    }
+
+    // As a tap on a powerup does in GameActivity.
+    // ChatGPT usage: No
+    private void usePowerup() {
+        List<Integer> remaining = gameState.remainingPowerups;
+        int code = remaining.get(random.nextInt(remaining.size()));
+        metrics.increment("powerups");
+        if (code == GameState.FREE_LUNCH) {
+            answerSentAt = clock.elapsedMillis();
+        }
+        gameState.usePowerup(code);
+        if (code == GameState.STEAL_POINTS) {
+            List<String> others = gameState.snapshot().roster.usernamesExcept(username);
+            if (others.isEmpty()) {
+                gameState.powerupCode = -1;
+            } else {
+                gameState.powerupVictimUsername = others.get(random.nextInt(others.size()));
+            }
+        }
+    }
+
+    // ChatGPT usage: No
+    private void answer(int number) {
+        GameSnapshot.Question question = gameState.snapshot().question;
+        // Time ran out, or a powerup answered for the bot.
+        if (done || question == null || question.number != number
+                || gameState.phaseScheduler.phase() != PhaseScheduler.Phase.ANSWERING) {
+            return;
+        }
+        int choice = choose(question);
+        // An extra life hides a wrong answer and lets the player choose again.
+        if (choice != question.correctAnswer && gameState.extraLifeEnabled) {
+            gameState.extraLifeEnabled = false;
+            choice = choose(question);
+        }
+        metrics.increment("answers");
+        answerSentAt = clock.elapsedMillis();
+        gameState.submitAnswer(choice);
+    }
+
+    // ChatGPT usage: No
+    private int choose(GameSnapshot.Question question) {
+        if (profile.answersCorrectly(random)) {
+            return question.correctAnswer;
+        }
+        int choice;
+        do {
+            choice = random.nextInt(GameSnapshot.Question.ANSWERS);
+        } while (choice == question.correctAnswer || choice == gameState.hiddenIndex1 || choice == gameState.hiddenIndex2);
+        return choice;
+    }
+
+    // ChatGPT usage: No
+    private void scoreboardShown() {
+        long now = clock.elapsedMillis();
+        metrics.record(ROUND_LATENCY, now - questionReceivedAt);
+        if (answerSentAt != 0) {
+            metrics.record(ANSWER_LATENCY, now - answerSentAt);
+            answerSentAt = 0;
+        }
+        if (gameState.snapshot().gameOver) {
+            // GameState has already left the room.
+            finish("gamesFinished");
+        }
+    }
+
+    // ChatGPT usage: No
+    private void scheduleEmote() {
+        long delay = profile.nextEmoteMillis(random);
+        if (delay < 0) {
+            return;
+        }
+        platform.schedule(() -> {
+            if (done) {
+                return;
+            }
+            metrics.increment("emotes");
+            gameState.submitEmote(random.nextInt(BotProfile.EMOTE_CODES));
+            scheduleEmote();
+        }, delay);
+    }
+
+    // ChatGPT usage: No
+    private void finish(String outcome) {
+        if (done) {
+            return;
+        }
+        done = true;
+        metrics.increment(outcome);
+        finished.countDown();
+    }
+}
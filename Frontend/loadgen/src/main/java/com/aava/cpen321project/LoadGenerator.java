@@ -0,0 +1,304 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+// Drives the backend with rooms of headless bots, each a LoadBot playing through the game core,
+// and reports how long the server took at each step of the game.
+//
+// Rooms are started evenly over the ramp-up. In each, the first bot creates the room and the rest
+// join it by its code, then they play one game. The run ends when every game has, or at the
+// timeout. Latency percentiles are printed and written to a JSON report.
+//
+// Threads: the Socket.IO client runs every socket's events on its one event thread, and the bots'
+// game logic runs on a small pool sized to the machine. Blocking work, i.e. REST calls, waiting
+// on rooms and the OkHttp dispatcher's socket readers, runs on virtual threads where the JVM has
+// them (21+) and on a cached pool otherwise. Every timer a bot's game sets, its phases and its
+// setting and emote windows included, runs on one small shared pool. The run reports its peak
+// platform thread count, and on virtual threads fails if that grew past THREAD_BUDGET, which
+// does not depend on the number of bots.
+public class LoadGenerator {
+
+    private static final String TAG = "LoadGenerator";
+
+    private static final long JOIN_TIMEOUT_MILLIS = 30_000;
+    private static final long PROGRESS_INTERVAL_SECONDS = 10;
+    // The JVM's own threads, the bot and timer pools and the Socket.IO event thread, with room to
+    // spare.
+    static final int THREAD_BUDGET = 64 + 4 * Runtime.getRuntime().availableProcessors();
+
+    // The command line, with defaults for a modest run.
+    public static final class Options {
+        public String server;
+        public int bots = 60;
+        public int roomSize = 6;
+        public int questions = 5;
+        public long rampSeconds = 30;
+        public long timeoutMinutes = 30;
+        public double accuracy = 0.6;
+        public long answerMedianMillis = 4000;
+        public double answerSpread = 0.6;
+        public long readyMedianMillis = 2000;
+        public double powerupChance = 0.2;
+        public double emotesPerMinute = 4;
+        public String prefix = "loadbot";
+        public long seed = 321;
+        public String report = "loadgen-report.json";
+        // Null unless every bot's traffic is recorded, for replay with TrafficReplay.
+        public String recordDir;
+
+        // ChatGPT usage: No
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("No value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--server":
+                        options.server = value;
+                        break;
+                    case "--bots":
+                        options.bots = Integer.parseInt(value);
+                        break;
+                    case "--room-size":
+                        options.roomSize = Integer.parseInt(value);
+                        break;
+                    case "--questions":
+                        options.questions = Integer.parseInt(value);
+                        break;
+                    case "--ramp-seconds":
+                        options.rampSeconds = Long.parseLong(value);
+                        break;
+                    case "--timeout-minutes":
+                        options.timeoutMinutes = Long.parseLong(value);
+                        break;
+                    case "--accuracy":
+                        options.accuracy = Double.parseDouble(value);
+                        break;
+                    case "--answer-median-ms":
+                        options.answerMedianMillis = Long.parseLong(value);
+                        break;
+                    case "--answer-spread":
+                        options.answerSpread = Double.parseDouble(value);
+                        break;
+                    case "--ready-median-ms":
+                        options.readyMedianMillis = Long.parseLong(value);
+                        break;
+                    case "--powerup-chance":
+                        options.powerupChance = Double.parseDouble(value);
+                        break;
+                    case "--emotes-per-minute":
+                        options.emotesPerMinute = Double.parseDouble(value);
+                        break;
+                    case "--prefix":
+                        options.prefix = value;
+                        break;
+                    case "--seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    case "--report":
+                        options.report = value;
+                        break;
+                    case "--record-dir":
+                        options.recordDir = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (options.server == null) {
+                throw new IllegalArgumentException("--server is required");
+            }
+            if (options.roomSize < 1 || options.roomSize > 6) {
+                throw new IllegalArgumentException("--room-size must be from 1 to 6");
+            }
+            return options;
+        }
+
+        // ChatGPT usage: No
+        BotProfile profile() {
+            return new BotProfile(accuracy, answerMedianMillis, answerSpread, readyMedianMillis,
+                    powerupChance, emotesPerMinute);
+        }
+    }
+
+    private final Options options;
+    private final LoadMetrics metrics = new LoadMetrics();
+
+    // ChatGPT usage: No
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --server <url> [--bots n] [--room-size 1-6] [--questions 5|10|15|20]"
+                    + " [--ramp-seconds s] [--timeout-minutes m] [--accuracy 0-1] [--answer-median-ms ms]"
+                    + " [--answer-spread sigma] [--ready-median-ms ms] [--powerup-chance 0-1]"
+                    + " [--emotes-per-minute n] [--prefix name] [--seed n] [--report file] [--record-dir dir]");
+            System.exit(2);
+            return;
+        }
+        GameLog.install(GameLog.STANDARD_ERROR);
+        System.exit(new LoadGenerator(options).run() ? 0 : 1);
+    }
+
+    // ChatGPT usage: No
+    public LoadGenerator(Options options) {
+        this.options = options;
+    }
+
+    // Run every room to the end of its game. True if every bot finished its game.
+    // ChatGPT usage: No
+    public boolean run() throws InterruptedException, IOException, JSONException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        ExecutorService virtual = virtualThreads();
+        ExecutorService blocking = virtual != null ? virtual : Executors.newCachedThreadPool(daemon("BotIO"));
+        ExecutorService bots = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), daemon("Bots"));
+        ScheduledExecutorService timers = Executors.newScheduledThreadPool(2, daemon("BotTimers"));
+
+        // Every socket is a request the dispatcher would otherwise count against its limits.
+        Dispatcher dispatcher = new Dispatcher(blocking);
+        dispatcher.setMaxRequests(Integer.MAX_VALUE);
+        dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+        OkHttpClient client = NetworkRuntime.getClient().newBuilder()
+                .dispatcher(dispatcher)
+                .build();
+        ServerApi api = new ServerApi(client, options.server);
+
+        File recordDir = options.recordDir == null ? null : new File(options.recordDir);
+        Random seeds = new Random(options.seed);
+        List<List<LoadBot>> rooms = new ArrayList<>();
+        for (int bot = 0; bot < options.bots; bot++) {
+            if (bot % options.roomSize == 0) {
+                rooms.add(new ArrayList<>());
+            }
+            String username = options.prefix + bot;
+            rooms.get(rooms.size() - 1).add(new LoadBot(username, username + "-token", options.profile(),
+                    new Random(seeds.nextLong()), new BotPlatform(options.server, client, timers, bots, recordDir), metrics));
+        }
+
+        long deadline = MonotonicClock.SYSTEM.elapsedMillis() + TimeUnit.MINUTES.toMillis(options.timeoutMinutes);
+        CountDownLatch roomsDone = new CountDownLatch(rooms.size());
+        long rampMillis = TimeUnit.SECONDS.toMillis(options.rampSeconds);
+        for (int room = 0; room < rooms.size(); room++) {
+            List<LoadBot> roomBots = rooms.get(room);
+            timers.schedule(() -> blocking.execute(() -> {
+                try {
+                    playRoom(api, roomBots, deadline);
+                } finally {
+                    roomsDone.countDown();
+                }
+            }), rampMillis * room / rooms.size(), TimeUnit.MILLISECONDS);
+        }
+
+        System.out.println("Running " + options.bots + " bots in " + rooms.size() + " rooms against " + options.server);
+        while (!roomsDone.await(PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS)
+                && MonotonicClock.SYSTEM.elapsedMillis() < deadline) {
+            System.out.println(metrics.counts() + " threads=" + threads.getThreadCount());
+        }
+
+        for (List<LoadBot> roomBots : rooms) {
+            for (LoadBot bot : roomBots) {
+                bot.close();
+            }
+        }
+        int peakThreads = threads.getPeakThreadCount();
+        System.out.println(metrics.counts());
+        System.out.print(metrics.table());
+        System.out.println("Peak platform threads: " + peakThreads + " (budget " + THREAD_BUDGET + ")");
+        // Without virtual threads every socket holds a reader thread, so only report the count.
+        boolean withinBudget = virtual == null || peakThreads <= THREAD_BUDGET;
+        if (!withinBudget) {
+            System.out.println("Thread budget exceeded: something is starting threads per bot");
+        }
+        writeReport(peakThreads);
+
+        timers.shutdownNow();
+        bots.shutdownNow();
+        blocking.shutdownNow();
+        return metrics.count("gamesFinished") == options.bots && withinBudget;
+    }
+
+    // ChatGPT usage: No
+    private void playRoom(ServerApi api, List<LoadBot> roomBots, long deadline) {
+        LoadBot owner = roomBots.get(0);
+        try {
+            owner.play(api.createRoom(owner.login(api)), true, roomBots.size(), options.questions);
+            String roomCode = owner.awaitRoomCode(JOIN_TIMEOUT_MILLIS);
+            if (roomCode == null) {
+                throw new IOException(owner.username + " was not let into its room");
+            }
+            for (LoadBot bot : roomBots.subList(1, roomBots.size())) {
+                String sessionToken = bot.login(api);
+                bot.play(api.joinRoomByCode(sessionToken, roomCode), false, roomBots.size(), options.questions);
+            }
+            for (LoadBot bot : roomBots) {
+                if (!bot.awaitFinished(Math.max(0, deadline - MonotonicClock.SYSTEM.elapsedMillis()))) {
+                    metrics.increment("timedOut");
+                }
+            }
+        } catch (IOException e) {
+            metrics.increment("roomsFailed");
+            GameLog.e(TAG, "Room of " + owner.username + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ChatGPT usage: No
+    private void writeReport(int peakThreads) throws IOException, JSONException {
+        JSONObject report = metrics.toJson()
+                .put("peakThreads", peakThreads)
+                .put("bots", options.bots)
+                .put("roomSize", options.roomSize)
+                .put("questions", options.questions);
+        try (Writer writer = new FileWriter(options.report)) {
+            writer.write(report.toString(2));
+        }
+        System.out.println("Report written to " + options.report);
+    }
+
+    // Virtual threads if the JVM has them, or null; found reflectively, as the module targets Java 8.
+    // ChatGPT usage: No
+    private static ExecutorService virtualThreads() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // ChatGPT usage: No
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// The latencies and counts every bot in a run reports into, by name. Safe to use from any
+// thread.
+public class LoadMetrics {
+
+    private final Map<String, LatencyHistogram> latencies = new TreeMap<>();
+    private final Map<String, long[]> counters = new TreeMap<>();
+
+    // ChatGPT usage: No
+    public void record(String name, long millis) {
+        latency(name).record(millis);
+    }
+
+    // ChatGPT usage: No
+    public synchronized void increment(String name) {
+        long[] counter = counters.get(name);
+        if (counter == null) {
+            counter = new long[1];
+            counters.put(name, counter);
+        }
+        counter[0]++;
+    }
+
+    // ChatGPT usage: No
+    public synchronized long count(String name) {
+        long[] counter = counters.get(name);
+        return counter == null ? 0 : counter[0];
+    }
+
+    // ChatGPT usage: No
+    public synchronized LatencyHistogram latency(String name) {
+        LatencyHistogram histogram = latencies.get(name);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            latencies.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    // One line of counts, for progress while the run goes on.
+    // ChatGPT usage: No
+    public synchronized String counts() {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<String, long[]> counter : counters.entrySet()) {
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(counter.getKey()).append('=').append(counter.getValue()[0]);
+        }
+        return line.toString();
+    }
+
+    // A table of every latency, in milliseconds.
+    // ChatGPT usage: No
+    public synchronized String table() {
+        StringBuilder table = new StringBuilder(String.format("%-36s %8s %7s %7s %7s %7s %7s%n",
+                "latency (ms)", "count", "mean", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            table.append(String.format("%-36s %8d %7d %7d %7d %7d %7d%n", entry.getKey(), histogram.count(),
+                    histogram.mean(), histogram.percentile(50), histogram.percentile(90),
+                    histogram.percentile(99), histogram.max()));
+        }
+        return table.toString();
+    }
+
+    // ChatGPT usage: No
+    public synchronized JSONObject toJson() throws JSONException {
+        JSONObject latencyJson = new JSONObject();
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            latencyJson.put(entry.getKey(), entry.getValue().toJson());
+        }
+        JSONObject countJson = new JSONObject();
+        for (Map.Entry<String, long[]> counter : counters.entrySet()) {
+            countJson.put(counter.getKey(), counter.getValue()[0]);
+        }
+        return new JSONObject().put("latencyMillis", latencyJson).put("counts", countJson);
+    }
+}
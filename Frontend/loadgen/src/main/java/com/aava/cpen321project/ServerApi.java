@@ -0,0 +1,107 @@
+package com.aava.cpen321project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// The backend's REST endpoints a player goes through before the game socket: signing in and
+// getting into a room. Calls block, so they are made off the bots' threads.
+public class ServerApi {
+
+    // The server's answer when an account already exists for a token.
+    private static final int ACCOUNT_EXISTS = 400;
+
+    public static class ApiException extends IOException {
+        public final int status;
+
+        // ChatGPT usage: No
+        public ApiException(String path, int status, String body) {
+            super(path + " failed with " + status + ": " + body);
+            this.status = status;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String serverUrl;
+
+    // ChatGPT usage: No
+    public ServerApi(OkHttpClient client, String serverUrl) {
+        this.client = client;
+        this.serverUrl = serverUrl;
+    }
+
+    // Create the account if it is new, then log in. Returns the session token.
+    // ChatGPT usage: No
+    public String login(String token, String username) throws IOException {
+        try {
+            post("/create-account", json("token", token, "username", username));
+        } catch (ApiException e) {
+            if (e.status != ACCOUNT_EXISTS) {
+                throw e;
+            }
+        }
+        return string(post("/login", json("token", token)), "sessionToken");
+    }
+
+    // Returns the new room's id.
+    // ChatGPT usage: No
+    public String createRoom(String sessionToken) throws IOException {
+        return string(post("/create-room", json("sessionToken", sessionToken)), "roomId");
+    }
+
+    // Returns the room's id.
+    // ChatGPT usage: No
+    public String joinRoomByCode(String sessionToken, String roomCode) throws IOException {
+        return string(post("/join-room-by-code", json("sessionToken", sessionToken, "roomCode", roomCode)), "roomId");
+    }
+
+    // ChatGPT usage: No
+    private JSONObject post(String path, JSONObject data) throws IOException {
+        RequestBody body = RequestBody.create(data.toString(), MediaType.parse("application/json"));
+        Request request = new Request.Builder()
+                .url(serverUrl + path)
+                .post(body)
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody responseBody = response.body();
+            String text = responseBody == null ? "" : responseBody.string();
+            if (!response.isSuccessful()) {
+                throw new ApiException(path, response.code(), text);
+            }
+            return text.isEmpty() ? new JSONObject() : new JSONObject(text);
+        } catch (JSONException e) {
+            throw new IOException(path + " returned malformed JSON", e);
+        }
+    }
+
+    // A request body from alternating keys and values.
+    // ChatGPT usage: No
+    private static JSONObject json(String... keysAndValues) throws IOException {
+        JSONObject data = new JSONObject();
+        try {
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                data.put(keysAndValues[i], keysAndValues[i + 1]);
+            }
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+        return data;
+    }
+
+    // ChatGPT usage: No
+    private static String string(JSONObject response, String key) throws IOException {
+        String value = response.optString(key, null);
+        if (value == null) {
+            throw new IOException("Response has no " + key + ": " + response);
+        }
+        return value;
+    }
+}
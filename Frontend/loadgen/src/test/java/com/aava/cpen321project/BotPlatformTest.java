@@ -0,0 +1,120 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class BotPlatformTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final ScheduledExecutorService timers = Executors.newSingleThreadScheduledExecutor();
+    private final BotPlatform platform = new BotPlatform("https://localhost", null, timers, pool);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+        timers.shutdownNow();
+    }
+
+    @Test
+    public void aBotsMainThreadRunsItsTasksOneAtATimeInOrder() throws InterruptedException {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        int[] running = {0};
+        int[] overlaps = {0};
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            int task = i;
+            platform.mainThread().execute(() -> {
+                if (running[0]++ != 0) {
+                    overlaps[0]++;
+                }
+                order.add(task);
+                running[0]--;
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, overlaps[0]);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void workSubmittedFromTheMainThreadRunsStraightAway() throws InterruptedException {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        platform.mainThread().execute(() -> {
+            platform.mainThread().execute(() -> order.add("inner"));
+            order.add("outer");
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, order.size());
+        assertEquals("inner", order.get(0));
+    }
+
+    @Test
+    public void aCancelledOrRescheduledTickDoesNotRun() throws InterruptedException {
+        int[] ticks = {0};
+        Runnable tick = () -> ticks[0]++;
+        PhaseScheduler.Ticker ticker = platform.mainThreadTicker();
+        ticker.schedule(tick, 10);
+        ticker.cancel(tick);
+        ticker.schedule(tick, 20);
+        ticker.schedule(tick, 30);
+
+        CountDownLatch after = new CountDownLatch(1);
+        platform.schedule(after::countDown, 200);
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+        CountDownLatch read = new CountDownLatch(1);
+        int[] seen = {0};
+        platform.mainThread().execute(() -> {
+            seen[0] = ticks[0];
+            read.countDown();
+        });
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        assertEquals(1, seen[0]);
+    }
+
+    @Test
+    public void botsEmotingStartNoThreadsOfTheirOwn() throws InterruptedException {
+        int before = Thread.activeCount();
+        int bots = 500;
+        CountDownLatch sent = new CountDownLatch(bots);
+        List<EmoteSender> senders = new ArrayList<>();
+        for (int bot = 0; bot < bots; bot++) {
+            BotPlatform botPlatform = new BotPlatform("https://localhost", null, timers, pool);
+            EmoteSender sender = new EmoteSender(new EmoteSender.EmoteEmitter() {
+                @Override
+                public void emitEmote(int emoteCode) {
+                    sent.countDown();
+                }
+
+                @Override
+                public void emitEmotes(int[] emoteCodes) {
+                    sent.countDown();
+                }
+            }, botPlatform.mainThreadTicker(), botPlatform.clock());
+            senders.add(sender);
+            sender.offer(bot % 9);
+        }
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        // The shared pool and timer threads at most.
+        assertTrue(Thread.activeCount() + " threads", Thread.activeCount() <= before + 5);
+        for (EmoteSender sender : senders) {
+            sender.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BotProfileTest {
+
+    private static final int SAMPLES = 20_000;
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void answerDelaysCentreOnTheMedian() {
+        BotProfile profile = new BotProfile(0.6, 4000, 0.6, 2000, 0.2, 4);
+        long[] delays = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            delays[i] = profile.answerDelayMillis(random);
+        }
+        Arrays.sort(delays);
+        assertEquals(4000, delays[SAMPLES / 2], 100);
+        // Skewed towards slow answers, as people are.
+        assertTrue(delays[SAMPLES * 9 / 10] - 4000 > 4000 - delays[SAMPLES / 10]);
+    }
+
+    @Test
+    public void aFixedDelayHasNoSpread() {
+        BotProfile profile = new BotProfile(1, 3000, 0, 2000, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(3000, profile.answerDelayMillis(random));
+            assertTrue(profile.answersCorrectly(random));
+        }
+    }
+
+    @Test
+    public void accuracyIsTheShareOfCorrectAnswers() {
+        BotProfile profile = new BotProfile(0.25, 4000, 0.6, 2000, 0.2, 4);
+        int correct = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            if (profile.answersCorrectly(random)) {
+                correct++;
+            }
+        }
+        assertEquals(0.25, correct / (double) SAMPLES, 0.01);
+    }
+
+    @Test
+    public void emotesArriveAtTheirRate() {
+        BotProfile profile = new BotProfile(0.6, 4000, 0.6, 2000, 0.2, 6);
+        long total = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            total += profile.nextEmoteMillis(random);
+        }
+        // Six a minute is one every ten seconds on average.
+        assertEquals(10_000, total / SAMPLES, 300);
+
+        assertEquals(-1, new BotProfile(0.6, 4000, 0.6, 2000, 0.2, 0).nextEmoteMillis(random));
+    }
+}
@@ -0,0 +1,57 @@
+package com.aava.cpen321project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void shortLatenciesAreExact() {
+        for (int millis = 1; millis <= 50; millis++) {
+            histogram.record(millis);
+        }
+        assertEquals(50, histogram.count());
+        assertEquals(25, histogram.percentile(50));
+        assertEquals(45, histogram.percentile(90));
+        assertEquals(50, histogram.percentile(100));
+        assertEquals(25, histogram.mean());
+    }
+
+    @Test
+    public void longLatenciesAreWithinThreePercent() {
+        for (long millis = 100; millis <= 100_000; millis += 100) {
+            histogram.record(millis);
+        }
+        assertWithin(50_000, histogram.percentile(50));
+        assertWithin(99_000, histogram.percentile(99));
+        assertEquals(100_000, histogram.max());
+    }
+
+    @Test
+    public void bucketsCoverEveryValueWithoutGaps() {
+        for (int bucket = 0; bucket < 600; bucket++) {
+            long highest = LatencyHistogram.highest(bucket);
+            assertEquals(bucket, LatencyHistogram.bucket(highest));
+            assertEquals(bucket + 1, LatencyHistogram.bucket(highest + 1));
+        }
+        assertTrue(LatencyHistogram.bucket(Long.MAX_VALUE) > 0);
+    }
+
+    @Test
+    public void anEmptyHistogramReportsZero() {
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.mean());
+        // A clock step backwards is not a negative latency.
+        histogram.record(-5);
+        assertEquals(0, histogram.max());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * 0.03);
+    }
+}